@@ -3,6 +3,7 @@ package core;
 import core.actions.AbstractAction;
 import core.actions.ActionSpace;
 import core.actions.DoNothing;
+import core.interfaces.IExtendedSequence;
 import utilities.ActionTreeNode;
 import utilities.ElapsedCpuChessTimer;
 
@@ -132,6 +133,14 @@ public abstract class AbstractForwardModel {
      * @param action       - action requested to be played by a player.
      */
     public final void next(AbstractGameState currentState, AbstractAction action) {
+        UndoJournal journal = currentState.undoJournal;
+        if (journal != null) {
+            if (!supportsUndo())
+                throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support undo");
+            if (action instanceof IExtendedSequence || currentState.isActionInProgress())
+                throw new UnsupportedOperationException("Undo is not supported for extended action sequences");
+            currentState.pushUndoFrame(journal);
+        }
         if (action != null) {
             int player = currentState.getCurrentPlayer();
             currentState.recordAction(action, player);
@@ -145,6 +154,63 @@ public abstract class AbstractForwardModel {
         currentState.advanceGameTick();
     }
 
+    /**
+     * Reverses the last call to next() on the state, which must have had undo enabled
+     * (see AbstractGameState.setUndoEnabled()) before that call.
+     *
+     * @param gameState - game state to restore
+     */
+    public final void undo(AbstractGameState gameState) {
+        UndoJournal journal = gameState.undoJournal;
+        if (journal == null || journal.getDepth() == 0)
+            throw new IllegalStateException("There is nothing to undo");
+        _undo(gameState, journal);
+        gameState.popUndoFrame(journal);
+    }
+
+    /**
+     * Reverses all calls to next() since undo was enabled on the state
+     *
+     * @param gameState - game state to restore
+     */
+    public final void undoAll(AbstractGameState gameState) {
+        UndoJournal journal = gameState.undoJournal;
+        while (journal != null && journal.getDepth() > 0)
+            undo(gameState);
+    }
+
+    /**
+     * @return true if this forward model can undo the actions of its flat action space, in which case it must push
+     * anything it changes (other than the core state in AbstractGameState) to the state's UndoJournal, and override
+     * _undo(). Callers should check supportsUndo(state, actionSpace) before enabling undo on a state.
+     */
+    public boolean supportsUndo() {
+        return false;
+    }
+
+    /**
+     * Extended action sequences cannot be undone, so a forward model that supportsUndo() may still be unable to undo
+     * actions from a state that has one in progress, or the actions of a deep action space (which start them).
+     *
+     * @param gameState   - the state from which actions would be applied and then undone
+     * @param actionSpace - the action space from which those actions are chosen
+     * @return true if actions from this action space can be undone when applied to the state
+     */
+    public boolean supportsUndo(AbstractGameState gameState, ActionSpace actionSpace) {
+        return supportsUndo() && !gameState.isActionInProgress() && actionSpace.structure != ActionSpace.Structure.Deep;
+    }
+
+    /**
+     * Reverses the changes made to game-specific components by the last call to next(), popping the values that
+     * were pushed to the journal, in reverse order. The core state in AbstractGameState is restored after this.
+     *
+     * @param gameState - game state to restore
+     * @param journal   - the journal for the game state
+     */
+    protected void _undo(AbstractGameState gameState, UndoJournal journal) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support undo");
+    }
+
     /**
      * Computes the available actions and updates the game state accordingly.
      *
@@ -9,6 +9,7 @@ import core.interfaces.IComponentContainer;
 import core.interfaces.IExtendedSequence;
 import core.interfaces.IGameEvent;
 import core.interfaces.IGamePhase;
+import core.interfaces.IInformationSet;
 import evaluation.listeners.IGameListener;
 import evaluation.metrics.Event;
 import games.GameType;
@@ -65,6 +66,8 @@ public abstract class AbstractGameState {
     protected Stack<IExtendedSequence> actionsInProgress = new Stack<>();
     CoreParameters coreGameParameters;
     private int gameID;
+    // Changes made by the forward model, so that they can be undone; null unless enabled (and never copied)
+    UndoJournal undoJournal;
 
     /**
      * @param gameParameters - game parameters.
@@ -273,10 +276,45 @@ public abstract class AbstractGameState {
      */
     public final AbstractGameState copy(int playerId) {
         AbstractGameState s = _copy(playerId);
-        // Copy super class things
         s.allComponents = allComponents.emptyCopy();
-        s.gameStatus = gameStatus;
+        s.history = new ArrayList<>();
+        s.historyText = new ArrayList<>();
+        s.actionsInProgress = new Stack<>();
+        s.playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
         s.playerResults = playerResults.clone();
+        copyCoreStateTo(s);
+        return s;
+    }
+
+    /**
+     * Copies the current game state into target, overwriting it in place (and re-using its decks, arrays and maps)
+     * instead of allocating a new state. This is for search algorithms that copy the same state many times and can
+     * recycle the copies they have finished with (see GameStatePool).
+     * <p>
+     * Games opt in by implementing _copyInto(). For all other games, or if target is null or not a state of this
+     * game, this falls back to copy(playerId), so callers must always use the state returned.
+     *
+     * @param target   - a state previously returned by copy() or copyInto() on a state of the same game (and so with
+     *                 the same parameters, which are not copied), or null
+     * @param playerId - player observing the state, as for copy(playerId)
+     * @return - target, or a new copy of the game state if it could not be overwritten
+     */
+    public final AbstractGameState copyInto(AbstractGameState target, int playerId) {
+        if (target == null || target == this || target.getClass() != getClass() || target.nPlayers != nPlayers
+                || !_copyInto(target, playerId))
+            return copy(playerId);
+        target.allComponents.clear();
+        target.undoJournal = null;
+        copyCoreStateTo(target);
+        return target;
+    }
+
+    /**
+     * Copies the super class things into the collections already in s (which must not be shared with any other state)
+     */
+    private void copyCoreStateTo(AbstractGameState s) {
+        s.gameStatus = gameStatus;
+        System.arraycopy(playerResults, 0, s.playerResults, 0, playerResults.length);
         s.gamePhase = gamePhase;
         s.coreGameParameters = coreGameParameters;
         s.tick = tick;
@@ -286,9 +324,11 @@ public abstract class AbstractGameState {
         s.turnOwner = turnOwner;
         s.firstPlayer = firstPlayer;
 
+        s.history.clear();
+        s.historyText.clear();
         if (!coreGameParameters.competitionMode) {
-            s.history = new ArrayList<>(history);
-            s.historyText = new ArrayList<>(historyText);
+            s.history.addAll(history);
+            s.historyText.addAll(historyText);
             // we do not copy individual actions in history, as these are now dead and should not change
             // History is for debugging and spectation of games. There is a risk that History might contain information
             // formally hidden to some participants. For this reason, in COMPETITION_MODE we explicitly do not copy
@@ -297,19 +337,17 @@ public abstract class AbstractGameState {
             // be incorporated in the game-specific data in GameState where the correct hiding protocols can be enforced.
         }
 
-        s.actionsInProgress = new Stack<>();
+        s.actionsInProgress.clear();
         actionsInProgress.forEach(
                 a -> s.actionsInProgress.push(a.copy())
         );
 
-        s.playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
         for (int i = 0; i < getNPlayers(); i++) {
             s.playerTimer[i] = playerTimer[i].copy();
         }
 
         // Update the list of components for ID matching in actions.
         s.addAllComponents();
-        return s;
     }
 
     /**
@@ -382,6 +420,66 @@ public abstract class AbstractGameState {
         return actionsInProgress;
     }
 
+    /* Methods dealing with undo */
+
+    /**
+     * If enabled, then every call to AbstractForwardModel.next() on this state can later be reversed with
+     * AbstractForwardModel.undo(). This is only possible if the forward model supportsUndo(). Copies of this state
+     * do not have undo enabled.
+     */
+    public final void setUndoEnabled(boolean enabled) {
+        if (!enabled)
+            undoJournal = null;
+        else if (undoJournal == null)
+            undoJournal = new UndoJournal();
+    }
+
+    /**
+     * @return the journal to which a forward model should push the information needed to undo changes it makes to
+     * game-specific components; or null if undo is not enabled
+     */
+    public final UndoJournal getUndoJournal() {
+        return undoJournal;
+    }
+
+    /**
+     * Saves the core state before an action is applied. Player timers are not saved, as these are of no interest
+     * to search algorithms.
+     */
+    final void pushUndoFrame(UndoJournal journal) {
+        journal.pushInt(tick);
+        journal.pushInt(roundCounter);
+        journal.pushInt(turnCounter);
+        journal.pushInt(turnOwner);
+        journal.pushInt(firstPlayer);
+        journal.pushInt(history.size());
+        journal.pushInt(historyText.size());
+        journal.pushObject(gameStatus);
+        journal.pushObject(gamePhase);
+        for (CoreConstants.GameResult result : playerResults)
+            journal.pushObject(result);
+        journal.startFrame();
+    }
+
+    final void popUndoFrame(UndoJournal journal) {
+        journal.endFrame();
+        for (int p = playerResults.length - 1; p >= 0; p--)
+            playerResults[p] = journal.popObject();
+        gamePhase = journal.popObject();
+        gameStatus = journal.popObject();
+        int historyTextSize = journal.popInt();
+        historyText.subList(historyTextSize, historyText.size()).clear();
+        int historySize = journal.popInt();
+        history.subList(historySize, history.size()).clear();
+        firstPlayer = journal.popInt();
+        turnOwner = journal.popInt();
+        turnCounter = journal.popInt();
+        roundCounter = journal.popInt();
+        tick = journal.popInt();
+        // undo is not supported for extended sequences, so there were none in progress when the frame was saved
+        actionsInProgress.clear();
+    }
+
 
     /* Methods to be implemented by subclass, protected access. */
 
@@ -401,6 +499,32 @@ public abstract class AbstractGameState {
      */
     protected abstract AbstractGameState _copy(int playerId);
 
+    /**
+     * Overwrites the game-specific variables of target with those of this state, as _copy(playerId) would set them on
+     * a new state, re-using the components and collections already in target where possible.
+     * This is optional, and by default returns false so that copyInto() falls back to copy().
+     *
+     * @param target   - state to overwrite, of the same class as this one, and with the same game parameters
+     * @param playerId - player observing this game state.
+     * @return - true if target was overwritten, false if this game does not support copying in place
+     */
+    protected boolean _copyInto(AbstractGameState target, int playerId) {
+        return false;
+    }
+
+    /**
+     * Works out what the player does not know about this state, so that determinisations can then be sampled without
+     * repeating that work each time (see IInformationSet). The state must not change while the information set is
+     * in use.
+     * This is optional, and by default returns null, in which case callers should use copy(playerId) instead.
+     *
+     * @param playerId - player observing this game state.
+     * @return - the information set of the player, or null if this game does not support it
+     */
+    public IInformationSet getInformationSet(int playerId) {
+        return null;
+    }
+
     /**
      * Provide a simple numerical assessment of the current game state, the bigger the better.
      * Subjective heuristic function definition.
@@ -137,6 +137,17 @@ public abstract class AbstractPlayer {
     public void finalizePlayer(AbstractGameState gameState) {
     }
 
+    /**
+     * Reseeds the random number generator(s) of this agent, so that how it plays from now on depends only on the seed
+     * and not on the games it has played before. Tournaments call this before each game, with a seed from the game's.
+     * Agents that keep random number generators of their own (or in their components) should override this.
+     *
+     * @param seed - the new random seed
+     */
+    public void setRandomSeed(long seed) {
+        rnd = new Random(seed);
+    }
+
     /**
      * Receive an updated game state for which it is not required to respond with an action.
      *
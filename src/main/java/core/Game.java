@@ -12,6 +12,7 @@ import games.GameType;
 import gui.AbstractGUIManager;
 import gui.GUI;
 import gui.GamePanel;
+import players.IPonderingPlayer;
 import players.basicMCTS.BasicMCTSPlayer;
 import players.human.ActionController;
 import players.human.HumanConsolePlayer;
@@ -66,6 +67,8 @@ public class Game {
     // Video recording
     private Rectangle areaBounds;
     private boolean recordingVideo = false;
+    private boolean recording = false;
+    private GameRecord record;
     String fileName = "output.mp4";
     String formatName = "mp4";
     String codecName = null;
@@ -392,6 +395,7 @@ public class Game {
         int gameID = idFountain.incrementAndGet();
         gameState.setGameID(gameID);
         resetStats();
+        record = recording ? new GameRecord(this) : null;
     }
 
     /**
@@ -556,6 +560,20 @@ public class Game {
             ((IPrintable) observation).printToConsole();
         }
 
+        // Let any other players who are pondering know the new state, so they can search while we wait for a decision.
+        // Their observations are taken from a full copy of the state, as some games (such as Dominion) redeterminise
+        // the hidden information with the random number generator of the state copied, and the game itself must
+        // play out the same whether anyone is pondering or not.
+        AbstractGameState ponderState = null;
+        for (AbstractPlayer player : players) {
+            if (player.getPlayerID() != activePlayer && player instanceof IPonderingPlayer
+                    && ((IPonderingPlayer) player).isPondering() && gameState.isNotTerminalForPlayer(player.getPlayerID())) {
+                if (ponderState == null)
+                    ponderState = gameState.copy();
+                player.registerUpdatedObservation(ponderState.copy(player.getPlayerID()));
+            }
+        }
+
         // Start the timer for this decision
         gameState.playerTimer[activePlayer].resume();
 
@@ -599,10 +617,18 @@ public class Game {
         if (action == null)
             throw new AssertionError("We have a NULL action in the Game loop");
 
+        if (record != null)
+            record.check(gameState, observedActions.size());
+
         // Check player timeout
         if (observation.playerTimer[activePlayer].exceededMaxTime()) {
-            action = forwardModel.disqualifyOrRandomAction(gameState.coreGameParameters.disqualifyPlayerOnTimeout, gameState);
+            boolean disqualify = gameState.coreGameParameters.disqualifyPlayerOnTimeout;
+            if (record != null)
+                record.add(disqualify ? GameRecord.TIMEOUT_DISQUALIFIED : GameRecord.TIMEOUT_RANDOM);
+            action = forwardModel.disqualifyOrRandomAction(disqualify, gameState);
         } else {
+            if (record != null)
+                record.add(observedActions, action);
             // Resolve action and game rules, time it
             s = System.nanoTime();
             forwardModel.next(gameState, action);
@@ -620,6 +646,49 @@ public class Game {
         return action;
     }
 
+    /**
+     * Re-plays a recorded game from the current (just reset) state, applying each recorded action with the forward
+     * model and firing the same events to listeners as run() would. The players are not asked for decisions.
+     * The state is checked against the checksums in the record, and an IllegalStateException is thrown if the replay
+     * has diverged from the original game.
+     *
+     * @param gameRecord - the record, which should have been made with the same game type, parameters and seed
+     */
+    public final void replay(GameRecord gameRecord) {
+        if (!gameRecord.isComplete())
+            throw new IllegalArgumentException("Game record is incomplete, and cannot be re-played");
+        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ABOUT_TO_START, gameState)));
+        int decisionCheck = 0;
+        for (int i = 0; i < gameRecord.getNActions(); i++) {
+            if (!gameState.isNotTerminal())
+                throw new IllegalStateException(String.format("Game ended after %d of %d recorded actions", i, gameRecord.getNActions()));
+            int activePlayer = gameState.getCurrentPlayer();
+            int index = gameRecord.getAction(i);
+            // the actions are those the player chose from, and as in oneAction() we only count real decisions
+            AbstractGameState observation = gameState.copy(activePlayer);
+            List<AbstractAction> actions = forwardModel.computeAvailableActions(observation, players.get(activePlayer).getParameters().actionSpace);
+            if (actions.size() > 1)
+                nDecisions++;
+            decisionCheck = gameRecord.verify(i, gameState, actions.size(), decisionCheck);
+            AbstractAction action;
+            if (index == GameRecord.TIMEOUT_DISQUALIFIED || index == GameRecord.TIMEOUT_RANDOM) {
+                action = forwardModel.disqualifyOrRandomAction(index == GameRecord.TIMEOUT_DISQUALIFIED, gameState);
+            } else {
+                if (index >= actions.size())
+                    throw new IllegalStateException(String.format("Recorded action %d is %d, but only %d actions are available",
+                            i, index, actions.size()));
+                action = actions.get(index);
+                AbstractAction chosen = action;
+                listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ACTION_CHOSEN, gameState, chosen, activePlayer)));
+                forwardModel.next(gameState, action);
+            }
+            lastPlayer = activePlayer;
+            AbstractAction taken = action;
+            listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ACTION_TAKEN, gameState, taken.copy(), activePlayer)));
+        }
+        terminate();
+    }
+
     /**
      * Called at the end of game loop execution, when the game is over.
      */
@@ -644,6 +713,8 @@ public class Game {
 
         // Allow players to terminate
         for (AbstractPlayer player : players) {
+            if (player instanceof IPonderingPlayer)
+                ((IPonderingPlayer) player).stopPondering();
             player.finalizePlayer(gameState.copy(player.getPlayerID()));
         }
     }
@@ -749,6 +820,19 @@ public class Game {
         return gameType;
     }
 
+    /**
+     * If set, then a GameRecord of each game is kept from the next reset() onwards (or from now, if set to true), and
+     * is available from getRecord() once the game is over.
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+        record = recording ? new GameRecord(this) : null;
+    }
+
+    public GameRecord getRecord() {
+        return record;
+    }
+
     public void addListener(IGameListener listener) {
         if (!listeners.contains(listener)) {
             listeners.add(listener);
@@ -0,0 +1,353 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.actions.ActionSpace;
+import evaluation.listeners.IGameListener;
+import games.GameType;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A compact record of one game, from which the game can be re-played exactly through the forward model.
+ * <p>
+ * We hold only what is needed to reconstruct the game: the game type, a hash of the game parameters (excluding the
+ * random seed), the random seed, and for each decision the index of the chosen action in the list that the deciding
+ * player chose from: computeAvailableActions() on their observation of the state, in their action space.
+ * The players are not stored, beyond their names and action spaces; so a record of an MCTS-vs-MCTS game is
+ * typically one or two bytes per decision.
+ * <p>
+ * Records are written by Game if setRecording(true) is called, and re-played with replay(), which fires the same
+ * IGameListener events as a normal run of the game. This is only exact for games that derive all their randomness
+ * from the random seed in the game parameters, and that use it in the same way on replay. To detect a replay that has
+ * drifted from the original game, a checksum is also kept every CHECK_INTERVAL decisions, of the state and of the
+ * number of actions available at each decision since the last one; and replay() stops with an IllegalStateException
+ * as soon as one does not match.
+ */
+public class GameRecord {
+
+    private static final int MAGIC = 0x54414752; // "TAGR"
+    private static final int VERSION = 2;
+    // the state is checked before every CHECK_INTERVAL-th decision, at four bytes a time
+    public static final int CHECK_INTERVAL = 16;
+
+    // markers for decisions where the player timed out, and the forward model took over
+    public static final int TIMEOUT_DISQUALIFIED = -1;
+    public static final int TIMEOUT_RANDOM = -2;
+
+    private final GameType gameType;
+    private final long seed;
+    private final int parametersHash;
+    private final String[] playerNames;
+    private final ActionSpace[] actionSpaces;
+    private int[] actions = new int[64];
+    private int nActions;
+    private int[] checks = new int[4];
+    private int nChecks;
+    private int decisionCheck;  // the numbers of actions available since the last checksum
+    private boolean complete = true;
+
+    public GameRecord(GameType gameType, long seed, int parametersHash, String[] playerNames, ActionSpace[] actionSpaces) {
+        if (playerNames.length != actionSpaces.length)
+            throw new IllegalArgumentException("Need one action space per player");
+        this.gameType = gameType;
+        this.seed = seed;
+        this.parametersHash = parametersHash;
+        this.playerNames = playerNames;
+        this.actionSpaces = actionSpaces;
+    }
+
+    /**
+     * Starts an empty record of the game, which should have just been reset
+     */
+    GameRecord(Game game) {
+        AbstractGameState state = game.getGameState();
+        gameType = game.getGameType();
+        seed = state.getGameParameters().getRandomSeed();
+        parametersHash = state.getGameParameters().hashCode();
+        int nPlayers = state.getNPlayers();
+        playerNames = new String[nPlayers];
+        actionSpaces = new ActionSpace[nPlayers];
+        List<AbstractPlayer> players = game.getPlayers();
+        for (int p = 0; p < nPlayers; p++) {
+            AbstractPlayer player = players == null ? null : players.get(p);
+            playerNames[p] = player == null ? "Player-" + p : player.toString();
+            actionSpaces[p] = player == null ? ActionSpace.Default : player.getParameters().actionSpace;
+        }
+    }
+
+    /**
+     * Records one decision
+     *
+     * @param index - the index of the action in computeAvailableActions(), or one of the TIMEOUT markers
+     */
+    public void add(int index) {
+        if (index < TIMEOUT_RANDOM)
+            throw new IllegalArgumentException("Invalid action index: " + index);
+        if (nActions == actions.length)
+            actions = Arrays.copyOf(actions, actions.length * 2);
+        actions[nActions++] = index;
+    }
+
+    /**
+     * Called before each decision is added, and records a checksum if one is due
+     *
+     * @param nAvailable - the number of actions the deciding player has to choose from
+     */
+    void check(AbstractGameState state, int nAvailable) {
+        if (!complete)
+            return;
+        decisionCheck = 31 * decisionCheck + nAvailable;
+        if (nActions % CHECK_INTERVAL != 0)
+            return;
+        if (nChecks == checks.length)
+            checks = Arrays.copyOf(checks, checks.length * 2);
+        checks[nChecks++] = checksum(state, decisionCheck);
+        decisionCheck = 0;
+    }
+
+    /**
+     * Checks a replay before each decision, in the same way as check() did when recording
+     *
+     * @param decisionCheck - the value returned for the previous decision, or 0 for the first
+     * @return the value to pass in for the next decision
+     * @throws IllegalStateException if the replay is no longer in the same state as the original game was
+     */
+    int verify(int decision, AbstractGameState state, int nAvailable, int decisionCheck) {
+        decisionCheck = 31 * decisionCheck + nAvailable;
+        if (decision % CHECK_INTERVAL != 0 || decision / CHECK_INTERVAL >= nChecks)
+            return decisionCheck;
+        if (checks[decision / CHECK_INTERVAL] != checksum(state, decisionCheck))
+            throw new IllegalStateException(String.format("Replay has diverged from the recorded game before action %d of %d",
+                    decision, nActions));
+        return 0;
+    }
+
+    // only uses information that is the same in every copy of the game, so not component IDs or action hash codes
+    private static int checksum(AbstractGameState state, int decisionCheck) {
+        int retValue = Objects.hash(state.getCurrentPlayer(), state.getRoundCounter(), state.getTurnCounter(), decisionCheck);
+        for (int p = 0; p < state.getNPlayers(); p++)
+            retValue = 31 * retValue + Double.hashCode(state.getGameScore(p));
+        return retValue;
+    }
+
+    /**
+     * Records the action chosen from those that were given to the player.
+     * If the action is not one of them, then the record can no longer be re-played, and is marked as incomplete.
+     */
+    void add(List<AbstractAction> available, AbstractAction action) {
+        if (!complete)
+            return;
+        int index = available.indexOf(action);
+        if (index < 0)
+            complete = false;
+        else
+            add(index);
+    }
+
+    /**
+     * Creates a new game for the record, ready to be re-played with Game.replay().
+     * The players are stand-ins with the recorded names and action spaces, and cannot make decisions.
+     *
+     * @param params - the game parameters, which must match those used for the recorded game (apart from the seed);
+     *               if null then the default parameters for the game are used
+     */
+    public Game createGame(AbstractParameters params) {
+        Game game = gameType.createGameInstance(playerNames.length, seed, params);
+        AbstractParameters gameParams = game.getGameState().getGameParameters();
+        if (gameParams.hashCode() != parametersHash)
+            throw new IllegalArgumentException(String.format("Game parameters (hash %d) do not match those of the record (hash %d)",
+                    gameParams.hashCode(), parametersHash));
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int p = 0; p < playerNames.length; p++)
+            players.add(new RecordedPlayer(playerNames[p], actionSpaces[p]));
+        game.reset(players, seed);
+        return game;
+    }
+
+    /**
+     * Re-plays the recorded game, with the listeners attached in the same way as for Game.runOne()
+     *
+     * @return the game, in its final state
+     */
+    public Game replay(AbstractParameters params, List<IGameListener> listeners) {
+        Game game = createGame(params);
+        Set<String> names = new HashSet<>(Arrays.asList(playerNames));
+        for (IGameListener listener : listeners) {
+            listener.init(game, playerNames.length, names);
+            game.addListener(listener);
+        }
+        game.replay(this);
+        return game;
+    }
+
+    public GameType getGameType() {
+        return gameType;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getParametersHash() {
+        return parametersHash;
+    }
+
+    public int getNPlayers() {
+        return playerNames.length;
+    }
+
+    public String getPlayerName(int player) {
+        return playerNames[player];
+    }
+
+    public ActionSpace getActionSpace(int player) {
+        return actionSpaces[player];
+    }
+
+    public int getNActions() {
+        return nActions;
+    }
+
+    public int getAction(int decision) {
+        return actions[decision];
+    }
+
+    public int getNChecks() {
+        return nChecks;
+    }
+
+    /**
+     * @return false if a chosen action could not be found in the available actions, in which case the record stops
+     * at that point and cannot be re-played
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(gameType.name());
+        out.writeLong(seed);
+        out.writeInt(parametersHash);
+        out.writeByte(playerNames.length);
+        for (int p = 0; p < playerNames.length; p++) {
+            out.writeUTF(playerNames[p]);
+            out.writeByte(actionSpaces[p].structure.ordinal());
+            out.writeByte(actionSpaces[p].flexibility.ordinal());
+            out.writeByte(actionSpaces[p].context.ordinal());
+        }
+        out.writeBoolean(complete);
+        writeVarInt(out, nActions);
+        // shifted so that the timeout markers are also non-negative
+        for (int i = 0; i < nActions; i++)
+            writeVarInt(out, actions[i] - TIMEOUT_RANDOM);
+        writeVarInt(out, nChecks);
+        for (int i = 0; i < nChecks; i++)
+            out.writeInt(checks[i]);
+    }
+
+    public static GameRecord read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC)
+            throw new IOException("Not a game record");
+        int version = in.readUnsignedByte();
+        // version 1 records have no checksums, but can otherwise be re-played in the same way
+        if (version < 1 || version > VERSION)
+            throw new IOException("Unsupported game record version: " + version);
+        GameType gameType = GameType.valueOf(in.readUTF());
+        long seed = in.readLong();
+        int parametersHash = in.readInt();
+        int nPlayers = in.readUnsignedByte();
+        String[] names = new String[nPlayers];
+        ActionSpace[] actionSpaces = new ActionSpace[nPlayers];
+        for (int p = 0; p < nPlayers; p++) {
+            names[p] = in.readUTF();
+            actionSpaces[p] = new ActionSpace(ActionSpace.Structure.values()[in.readUnsignedByte()],
+                    ActionSpace.Flexibility.values()[in.readUnsignedByte()],
+                    ActionSpace.Context.values()[in.readUnsignedByte()]);
+        }
+        GameRecord record = new GameRecord(gameType, seed, parametersHash, names, actionSpaces);
+        record.complete = in.readBoolean();
+        int n = readVarInt(in);
+        record.actions = new int[Math.max(n, 1)];
+        for (int i = 0; i < n; i++)
+            record.actions[i] = readVarInt(in) + TIMEOUT_RANDOM;
+        record.nActions = n;
+        if (version >= 2) {
+            int nChecks = readVarInt(in);
+            record.checks = new int[Math.max(nChecks, 1)];
+            for (int i = 0; i < nChecks; i++)
+                record.checks[i] = in.readInt();
+            record.nChecks = nChecks;
+        }
+        return record;
+    }
+
+    /**
+     * Appends the record to the end of the file, so that one file can hold the records of many games
+     */
+    public void appendTo(String fileName) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName, true)))) {
+            write(out);
+        }
+    }
+
+    /**
+     * @return all the records in the file, in the order they were written
+     */
+    public static List<GameRecord> readAll(String fileName) throws IOException {
+        List<GameRecord> retValue = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)))) {
+            while (true) {
+                in.mark(4);
+                if (in.read() < 0)
+                    break;
+                in.reset();
+                retValue.add(read(in));
+            }
+        }
+        return retValue;
+    }
+
+    // unsigned LEB128, so that small indices take a single byte
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    /**
+     * Stands in for the original player during a replay, so that listeners can find player names and action spaces
+     */
+    private static class RecordedPlayer extends AbstractPlayer {
+
+        RecordedPlayer(String name, ActionSpace actionSpace) {
+            setName(name);
+            parameters.actionSpace = actionSpace;
+        }
+
+        @Override
+        public AbstractAction _getAction(AbstractGameState gameState, List<AbstractAction> possibleActions) {
+            throw new UnsupportedOperationException("Recorded players cannot make decisions");
+        }
+
+        @Override
+        public AbstractPlayer copy() {
+            return new RecordedPlayer(toString(), parameters.actionSpace);
+        }
+    }
+}
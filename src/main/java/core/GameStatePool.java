@@ -0,0 +1,58 @@
+package core;
+
+import core.interfaces.IInformationSet;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * A pool of game states that can be overwritten with copyInto() instead of allocating a new copy each time.
+ * This is for search algorithms that copy a state at the start of every iteration and throw it away at the end: the
+ * copy is acquire()d at the start, and release()d at the end once nothing refers to it any more.
+ * <p>
+ * States are only recycled for games that implement AbstractGameState._copyInto(); for other games acquire() is the
+ * same as copy(). A pool should only ever hold states from one game (with the same parameters), so the simplest use is
+ * one pool per search tree.
+ */
+public class GameStatePool {
+
+    private final ArrayDeque<AbstractGameState> free = new ArrayDeque<>();
+    private final int capacity;
+
+    /**
+     * @param capacity - the maximum number of released states kept for re-use
+     */
+    public GameStatePool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return a copy of source, as copy(playerId) would return, re-using a released state if there is one
+     */
+    public AbstractGameState acquire(AbstractGameState source, int playerId) {
+        return source.copyInto(free.poll(), playerId);
+    }
+
+    /**
+     * @return a determinisation sampled from the information set, re-using a released state if there is one
+     */
+    public AbstractGameState acquire(IInformationSet informationSet, Random rnd) {
+        return informationSet.sample(free.poll(), rnd);
+    }
+
+    /**
+     * Returns a state to the pool. The caller (and anything else) must not use it afterwards.
+     */
+    public void release(AbstractGameState state) {
+        if (state != null && free.size() < capacity)
+            free.push(state);
+    }
+
+    public int size() {
+        return free.size();
+    }
+
+    public void clear() {
+        free.clear();
+    }
+}
@@ -24,6 +24,8 @@ import games.explodingkittens.*;
 
 
 import java.lang.reflect.Constructor;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
@@ -174,13 +176,34 @@ public class PyTAG {
     }
 
     public double[] getObservationVector() throws Exception {
-        AbstractGameState gs = gameState.copy(gameState.getCurrentPlayer());
         if (stateVectoriser != null){
-            return stateVectoriser.featureVector(gs, gs.getCurrentPlayer());
+            return stateVectoriser.featureVector(observedState(), gameState.getCurrentPlayer());
+        }
+        else throw new Exception("Observation vectoriser function is not implemented");
+    }
+
+    // Writes the observation vector into buffer at its current position; use a direct buffer to share with numpy
+    public void getObservationVector(DoubleBuffer buffer) throws Exception {
+        if (stateVectoriser != null){
+            stateVectoriser.featureVector(observedState(), gameState.getCurrentPlayer(), buffer);
+        }
+        else throw new Exception("Observation vectoriser function is not implemented");
+    }
+
+    public void getObservationVector(FloatBuffer buffer) throws Exception {
+        if (stateVectoriser != null){
+            stateVectoriser.featureVector(observedState(), gameState.getCurrentPlayer(), buffer);
         }
         else throw new Exception("Observation vectoriser function is not implemented");
     }
 
+    // The state to extract features from; we only need a copy if the vectoriser might see hidden information
+    private AbstractGameState observedState() {
+        if (stateVectoriser.readsOnlyObservableState())
+            return gameState;
+        return gameState.copy(gameState.getCurrentPlayer());
+    }
+
     // Gets the action space size as an integer
     public int getActionSpace(){
         return leaves.size();
@@ -194,9 +217,13 @@ public class PyTAG {
 
     // Gets the action mask as a boolean array
     public int[] getActionMask() {
-        return leaves.stream()
-                .mapToInt(ActionTreeNode::getValue)
-                .toArray();
+        return root.getLeafMask().clone();
+    }
+
+    // Writes the action mask into buffer, starting at offset
+    void fillActionMask(int[] buffer, int offset) {
+        int[] mask = root.getLeafMask();
+        System.arraycopy(mask, 0, buffer, offset, mask.length);
     }
 
     // gets the whole action tree as an array (tree can be reconstructed using the getTreeShape() function)
@@ -0,0 +1,195 @@
+package core;
+
+import games.GameType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+/**
+ * A vectorised version of PyTAG, which holds N independent environments of the same game and steps them all in a
+ * single call. This cuts down the number of calls across the Python/JVM bridge by a factor of N, which for small
+ * games is where most of the training time goes.
+ * <p>
+ * Results are written into buffers that are allocated once, and can be read directly from Python:
+ * - observations: a direct buffer (so can be wrapped by numpy without copying) of N * getObservationSpace() values,
+ * environment i starting at i * getObservationSpace()
+ * - actionMasks: N * getActionSpace() values, environment i starting at i * getActionSpace()
+ * - rewards, dones and playerIDs: one value per environment
+ * <p>
+ * Finished episodes are reset automatically in step(). In this case the reward and done flag are those for the
+ * end of the finished episode, and the observation and action mask are for the start of the new one.
+ * <p>
+ * If nThreads > 1 the environments are stepped in parallel on a fixed pool of worker threads; call close() to shut
+ * this down when finished.
+ */
+public class PyTAGVec implements AutoCloseable {
+
+    private final PyTAG[] envs;
+    private final int observationSpace;
+    private int actionSpace;
+    private ExecutorService pool;
+
+    private final DoubleBuffer observations;
+    private int[] actionMasks;
+    private final double[] rewards;
+    private final boolean[] dones;
+    private final int[] playerIDs;
+
+    /**
+     * @param players - the players for one environment; each environment gets its own copy of these
+     * @param seed    - used to generate a different seed for each environment
+     * @param nEnvs   - the number of environments
+     * @param nThreads - the number of worker threads to step environments; 1 steps them all on the calling thread
+     */
+    public PyTAGVec(GameType gameToPlay, String parameterConfigFile, List<AbstractPlayer> players, long seed,
+                    boolean isNormalized, int nEnvs, int nThreads) throws Exception {
+        if (nEnvs < 1)
+            throw new IllegalArgumentException("Need at least one environment: " + nEnvs);
+        Random seedRnd = new Random(seed);
+        envs = new PyTAG[nEnvs];
+        for (int i = 0; i < nEnvs; i++) {
+            List<AbstractPlayer> envPlayers = new ArrayList<>();
+            for (AbstractPlayer player : players)
+                envPlayers.add(i == 0 ? player : player.copy());
+            envs[i] = new PyTAG(gameToPlay, parameterConfigFile, envPlayers, seedRnd.nextLong(), isNormalized);
+        }
+        observationSpace = envs[0].getObservationSpace();
+        observations = ByteBuffer.allocateDirect(nEnvs * observationSpace * Double.BYTES)
+                .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        rewards = new double[nEnvs];
+        dones = new boolean[nEnvs];
+        playerIDs = new int[nEnvs];
+        if (nThreads > 1)
+            pool = Executors.newFixedThreadPool(Math.min(nThreads, nEnvs), r -> {
+                Thread t = new Thread(r, "PyTAGVec-worker");
+                t.setDaemon(true);
+                return t;
+            });
+    }
+
+    /**
+     * Resets all environments, and fills the observation and action mask buffers
+     */
+    public void reset() throws Exception {
+        forAll(i -> {
+            envs[i].reset();
+            rewards[i] = 0.0;
+            dones[i] = false;
+        });
+        // the size of the action tree is only known once the environments have been reset
+        if (actionMasks == null) {
+            actionSpace = envs[0].getActionSpace();
+            actionMasks = new int[envs.length * actionSpace];
+        }
+        forAll(this::fillBuffers);
+    }
+
+    /**
+     * Applies one action in each environment, and then runs the other players until each environment needs the next
+     * decision from Python, or the game ends (in which case the environment is reset).
+     *
+     * @param actions - the action index for each environment, as for PyTAG.step()
+     */
+    public void step(int[] actions) throws Exception {
+        if (actionMasks == null)
+            throw new IllegalStateException("Need to reset the environments before calling step");
+        if (actions.length != envs.length)
+            throw new IllegalArgumentException(String.format("Expected %d actions, but got %d", envs.length, actions.length));
+        forAll(i -> {
+            PyTAG env = envs[i];
+            env.step(actions[i]);
+            rewards[i] = env.getReward();
+            dones[i] = env.isDone();
+            if (dones[i])
+                env.reset();
+            fillBuffers(i);
+        });
+    }
+
+    private void fillBuffers(int i) throws Exception {
+        // each environment writes through its own view, so they can be filled in parallel
+        DoubleBuffer view = observations.duplicate();
+        view.position(i * observationSpace);
+        envs[i].getObservationVector(view);
+        envs[i].fillActionMask(actionMasks, i * actionSpace);
+        playerIDs[i] = envs[i].getPlayerID();
+    }
+
+    private interface EnvTask {
+        void run(int env) throws Exception;
+    }
+
+    private void forAll(EnvTask task) throws Exception {
+        if (pool == null) {
+            for (int i = 0; i < envs.length; i++)
+                task.run(i);
+            return;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(envs.length);
+        for (int i = 0; i < envs.length; i++) {
+            int env = i;
+            tasks.add(() -> {
+                task.run(env);
+                return null;
+            });
+        }
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception)
+                    throw (Exception) e.getCause();
+                throw e;
+            }
+        }
+    }
+
+    public int getNumEnvs() {
+        return envs.length;
+    }
+
+    public PyTAG getEnv(int i) {
+        return envs[i];
+    }
+
+    public int getObservationSpace() {
+        return observationSpace;
+    }
+
+    public int getActionSpace() {
+        return actionSpace;
+    }
+
+    public DoubleBuffer getObservations() {
+        return observations;
+    }
+
+    public int[] getActionMasks() {
+        return actionMasks;
+    }
+
+    public double[] getRewards() {
+        return rewards;
+    }
+
+    public boolean[] getDones() {
+        return dones;
+    }
+
+    public int[] getPlayerIDs() {
+        return playerIDs;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+}
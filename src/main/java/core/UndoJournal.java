@@ -0,0 +1,77 @@
+package core;
+
+import java.util.Arrays;
+
+/**
+ * A journal of the changes made to a game state by the forward model, so that they can be reversed with
+ * AbstractForwardModel.undo(). This allows a search algorithm to walk down and back up a single game state, rather
+ * than copy the state for each line of play.
+ * <p>
+ * Each call to next() adds one frame, made up of the core state (tick, turn, round, results etc., which are saved by
+ * AbstractGameState) followed by whatever the game-specific forward model pushes before changing its components.
+ * The game-specific _undo() must pop exactly what was pushed, in reverse order.
+ * <p>
+ * Values are held in two flat stacks (one of ints, one of objects), so the journal does not allocate once it has
+ * grown to the maximum depth of search.
+ */
+public class UndoJournal {
+
+    private int[] ints = new int[64];
+    private int nInts;
+    private Object[] objects = new Object[32];
+    private int nObjects;
+    private int depth;
+
+    public void pushInt(int value) {
+        if (nInts == ints.length)
+            ints = Arrays.copyOf(ints, ints.length * 2);
+        ints[nInts++] = value;
+    }
+
+    public int popInt() {
+        return ints[--nInts];
+    }
+
+    public void pushBoolean(boolean value) {
+        pushInt(value ? 1 : 0);
+    }
+
+    public boolean popBoolean() {
+        return popInt() != 0;
+    }
+
+    public void pushObject(Object value) {
+        if (nObjects == objects.length)
+            objects = Arrays.copyOf(objects, objects.length * 2);
+        objects[nObjects++] = value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T popObject() {
+        T retValue = (T) objects[--nObjects];
+        objects[nObjects] = null;
+        return retValue;
+    }
+
+    /**
+     * @return the number of calls to next() that can currently be undone
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    void startFrame() {
+        depth++;
+    }
+
+    void endFrame() {
+        depth--;
+    }
+
+    void clear() {
+        Arrays.fill(objects, 0, nObjects, null);
+        nInts = 0;
+        nObjects = 0;
+        depth = 0;
+    }
+}
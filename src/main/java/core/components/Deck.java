@@ -424,6 +424,20 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     }
 
 
+    /**
+     * Overwrites target (an earlier copy of this deck, so with the same ID) with a copy of this deck, re-using its
+     * list of components instead of allocating a new one.
+     */
+    public void copyInto(Deck<T> target) {
+        target.components.clear();
+        for (T c : components) {
+            target.components.add((T) c.copy());
+        }
+        target.capacity = capacity;
+        target.visibility = visibility;
+        copyComponentTo(target);
+    }
+
     protected void copyTo(Deck<T> deck, int playerId) {
         List<T> newComponents = new ArrayList<>();
         for (T c : components) {
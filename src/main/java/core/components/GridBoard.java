@@ -240,6 +240,16 @@ public class GridBoard<T extends Component> extends Component implements ICompon
         return g;
     }
 
+    /**
+     * Overwrites target (an earlier copy of this board, so with the same ID and dimensions) with a copy of this board,
+     * without allocating a new grid. As with copy(), the elements themselves are shared.
+     */
+    public void copyInto(GridBoard<T> target) {
+        for (int i = 0; i < height; i++)
+            System.arraycopy(grid[i], 0, target.grid[i], 0, width);
+        copyComponentTo(target);
+    }
+
     public GridBoard<T> emptyCopy() {
         GridBoard<T> g = new GridBoard<>(getWidth(), getHeight(), componentID);
         copyComponentTo(g);
@@ -2,12 +2,8 @@ package core.components;
 
 import core.AbstractGameState;
 import core.CoreConstants.VisibilityMode;
-import utilities.Pair;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
+import java.util.*;
 
 public class PartialObservableDeck<T extends Component> extends Deck<T> {
 
@@ -15,15 +11,21 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     // (true if player can see the deck, false otherwise)
     protected boolean[] deckVisibility;
 
-    // Visibility of each component in the deck, order corresponds to order of elements in the deck;
-    protected List<boolean[]> elementVisibility = new ArrayList<>();
+    // Visibility of each component in the deck, order corresponds to order of elements in the deck.
+    // Bit p of each entry is set if player p can see the component (so we support at most 64 players). This is
+    // always the same length as components, so a copy is a single array copy, and we can find all the positions
+    // hidden from a player in one pass without looking at the components.
+    protected long[] elementVisibility = new long[0];
 
     public boolean getVisibilityForPlayer(int elementIdx, int playerID) {
-        return elementVisibility.get(elementIdx)[playerID];
+        return (elementVisibility[checkIndex(elementIdx)] & (1L << playerID)) != 0;
     }
 
+    /**
+     * @return a new array with the visibility of the component for each player (changing it has no effect on the deck)
+     */
     public boolean[] getVisibilityOfComponent(int elementIdx) {
-        return elementVisibility.get(elementIdx);
+        return toArray(elementVisibility[checkIndex(elementIdx)]);
     }
 
     public PartialObservableDeck(String id, boolean[] defaultVisibility) {
@@ -32,7 +34,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
 
     public PartialObservableDeck(String id, int ownerID, boolean[] defaultVisibility) {
         super(id, ownerID, VisibilityMode.MIXED_VISIBILITY);
-        this.deckVisibility = defaultVisibility;
+        this.deckVisibility = checkPlayers(defaultVisibility);
     }
 
     public PartialObservableDeck(String id, int nPlayers) {
@@ -52,6 +54,49 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
         this.deckVisibility = defaultVisibility;
     }
 
+    private static boolean[] checkPlayers(boolean[] visibility) {
+        if (visibility.length > 64)
+            throw new IllegalArgumentException("PartialObservableDeck supports at most 64 players, not " + visibility.length);
+        return visibility;
+    }
+
+    private int checkIndex(int elementIdx) {
+        // the array may be longer than the deck during an update, so we check against the deck itself
+        if (elementIdx < 0 || elementIdx >= components.size())
+            throw new IndexOutOfBoundsException("Index: " + elementIdx + ", Size: " + components.size());
+        return elementIdx;
+    }
+
+    private static long toMask(boolean[] visibility) {
+        long mask = 0;
+        for (int p = 0; p < visibility.length; p++)
+            if (visibility[p])
+                mask |= 1L << p;
+        return mask;
+    }
+
+    private boolean[] toArray(long mask) {
+        boolean[] retValue = new boolean[deckVisibility.length];
+        for (int p = 0; p < retValue.length; p++)
+            retValue[p] = (mask & (1L << p)) != 0;
+        return retValue;
+    }
+
+    private void insertVisibility(int index, long mask, int count) {
+        long[] newVisibility = new long[elementVisibility.length + count];
+        System.arraycopy(elementVisibility, 0, newVisibility, 0, index);
+        Arrays.fill(newVisibility, index, index + count, mask);
+        System.arraycopy(elementVisibility, index, newVisibility, index + count, elementVisibility.length - index);
+        elementVisibility = newVisibility;
+    }
+
+    private void removeVisibility(int index) {
+        long[] newVisibility = new long[elementVisibility.length - 1];
+        System.arraycopy(elementVisibility, 0, newVisibility, 0, index);
+        System.arraycopy(elementVisibility, index + 1, newVisibility, index, newVisibility.length - index);
+        elementVisibility = newVisibility;
+    }
+
     /**
      * Retrieves the components in this deck visible by the given player.
      *
@@ -64,14 +109,10 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
         if (playerID < 0 || playerID >= deckVisibility.length)
             throw new IllegalArgumentException("playerID " + playerID + " needs to be in range [0," + (deckVisibility.length - 1) + "]");
 
+        long bit = 1L << playerID;
         ArrayList<T> visibleComponents = new ArrayList<>(components.size());
-        for (int i = 0; i < components.size(); i++) {
-            boolean[] b = elementVisibility.get(i);
-            if (b[playerID])
-                visibleComponents.add(i, components.get(i));
-            else
-                visibleComponents.add(i, null);
-        }
+        for (int i = 0; i < components.size(); i++)
+            visibleComponents.add((elementVisibility[i] & bit) != 0 ? components.get(i) : null);
         return visibleComponents;
     }
 
@@ -85,7 +126,25 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public boolean isComponentVisible(int idx, int playerID) {
         if (playerID < 0 || playerID >= deckVisibility.length)
             throw new IllegalArgumentException("playerID " + playerID + " needs to be in range [0," + (deckVisibility.length - 1) + "]");
-        return elementVisibility.get(idx)[playerID];
+        return getVisibilityForPlayer(idx, playerID);
+    }
+
+    /**
+     * Finds all the positions that the player can (or cannot) see.
+     *
+     * @param playerID - ID of player.
+     * @param visible  - if true, the positions of components visible to the player; otherwise, those hidden from them.
+     * @return - the positions, in increasing order.
+     */
+    public int[] getPositions(int playerID, boolean visible) {
+        long bit = 1L << playerID;
+        long wanted = visible ? bit : 0L;
+        int[] positions = new int[components.size()];
+        int n = 0;
+        for (int i = 0; i < positions.length; i++)
+            if ((elementVisibility[i] & bit) == wanted)
+                positions[n++] = i;
+        return Arrays.copyOf(positions, n);
     }
 
     /**
@@ -98,7 +157,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      */
     public void setComponents(ArrayList<T> components, ArrayList<boolean[]> visibilityPerPlayer) {
         super.setComponents(components);
-        this.elementVisibility = visibilityPerPlayer;
+        setVisibility(visibilityPerPlayer);
     }
 
     /**
@@ -107,11 +166,15 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @param visibility - new list of component visibility.
      */
     public void setVisibility(ArrayList<boolean[]> visibility) {
-        for (boolean[] b : visibility)
+        long[] newVisibility = new long[visibility.size()];
+        for (int i = 0; i < newVisibility.length; i++) {
+            boolean[] b = visibility.get(i);
             if (b.length != this.deckVisibility.length)
                 throw new IllegalArgumentException("All entries of visibility need to have length " + deckVisibility.length +
                         " but at least one entry is of length " + b.length);
-        this.elementVisibility = visibility;
+            newVisibility[i] = toMask(b);
+        }
+        this.elementVisibility = newVisibility;
     }
 
     /**
@@ -122,10 +185,13 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @param visibility - true if player can see this component, false otherwise.
      */
     public void setVisibilityOfComponent(int index, int playerID, boolean visibility) {
-        if (index >= 0 && index < elementVisibility.size()) {
-            if (playerID >= 0 && playerID < deckVisibility.length)
-                this.elementVisibility.get(index)[playerID] = visibility;
-            else
+        if (index >= 0 && index < elementVisibility.length) {
+            if (playerID >= 0 && playerID < deckVisibility.length) {
+                if (visibility)
+                    elementVisibility[index] |= 1L << playerID;
+                else
+                    elementVisibility[index] &= ~(1L << playerID);
+            } else
                 throw new IllegalArgumentException("playerID " + playerID + "needs to be in range [0," + (deckVisibility.length-1) + "]");
         } else {
             throw new IllegalArgumentException("component index " + index + " needs to be in range [0," + (components.size()-1) + "]");
@@ -139,8 +205,8 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @param visibility - true if player can see this component, false otherwise.
      */
     public void setVisibilityOfComponent(int index, boolean[] visibility) {
-        if (index >= 0 && index < elementVisibility.size()) {
-            this.elementVisibility.set(index, visibility.clone());
+        if (index >= 0 && index < elementVisibility.length) {
+            this.elementVisibility[index] = toMask(visibility);
         } else {
             throw new IllegalArgumentException("component index " + index + " needs to be in range [0," + components.size() + "]");
         }
@@ -168,8 +234,13 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @return true if not over capacity, false otherwise.
      */
     public boolean add(T c, int index, boolean[] visibilityPerPlayer) {
-        this.elementVisibility.add(index, visibilityPerPlayer.clone());
-        return super.add(c, index);
+        return add(c, index, toMask(visibilityPerPlayer));
+    }
+
+    private boolean add(T c, int index, long visibility) {
+        boolean retValue = super.add(c, index);
+        insertVisibility(index, visibility, 1);
+        return retValue;
     }
 
     /**
@@ -180,14 +251,12 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @return true if not over capacity, false otherwise.
      */
     public boolean add(Deck<T> d, int index) {
-        for (int i = 0; i < d.components.size(); i++) {
-            this.elementVisibility.add(index, deckVisibility.clone());
-        }
+        insertVisibility(index, toMask(deckVisibility), d.components.size());
         return super.add(d, index);
     }
 
     /**
-     * Adds a full other deck to this deck, ignoring capacity, and copies visibility as well.
+     * Adds a full other deck to the top of this deck, ignoring capacity, and copies visibility as well.
      *
      * @param d - other deck to add to this deck.
      * @return true if not over capacity, false otherwise.
@@ -195,38 +264,42 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public boolean add(PartialObservableDeck<T> d) {
         if (d == null)
             throw new IllegalArgumentException("d cannot be null");
-        elementVisibility.addAll(d.elementVisibility);
+        long[] newVisibility = new long[elementVisibility.length + d.elementVisibility.length];
+        System.arraycopy(d.elementVisibility, 0, newVisibility, 0, d.elementVisibility.length);
+        System.arraycopy(elementVisibility, 0, newVisibility, d.elementVisibility.length, elementVisibility.length);
+        elementVisibility = newVisibility;
         for (int i = 0; i < deckVisibility.length; i++) {
             deckVisibility[i] &= d.deckVisibility[i];
         }
-        return super.add(d);
+        return super.add(d, 0);
     }
 
     @Override
     public boolean add(Deck<T> d) {
         if (d == null)
             throw new IllegalArgumentException("d cannot be null");
-        for (int i = 0; i < d.getSize(); i++) {
-            elementVisibility.add(deckVisibility.clone());
-        }
-        return super.add(d);
+        return add(d, 0);
+    }
+
+    @Override
+    public boolean add(Collection<T> d, int index) {
+        insertVisibility(index, toMask(deckVisibility), d.size());
+        return super.add(d, index);
     }
 
     @Override
     public void setComponents(ArrayList<T> components) {
         super.setComponents(components);
 
-        elementVisibility.clear();
-        for (int i = 0; i < components.size(); i++) {
-            elementVisibility.add(deckVisibility.clone());
-        }
+        elementVisibility = new long[components.size()];
+        Arrays.fill(elementVisibility, toMask(deckVisibility));
     }
 
     @Override
     public T pick(int idx) {
         T el = super.pick(idx);
         if (el != null) {
-            elementVisibility.remove(idx);
+            removeVisibility(idx);
             return el;
         }
         return null;
@@ -252,7 +325,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     @Override
     public boolean remove(int idx) {
         if (super.remove(idx)) {
-            elementVisibility.remove(idx);
+            removeVisibility(idx);
             return true;
         }
         return false;
@@ -261,14 +334,15 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     @Override
     public void clear() {
         super.clear();
-        elementVisibility.clear();
+        elementVisibility = new long[0];
     }
 
     @Override
     public void shuffle(Random rnd) {
-        Pair<List<T>, List<boolean[]>> shuffled = shuffleLists(components, elementVisibility, rnd);
-        components = shuffled.a;
-        elementVisibility = shuffled.b;
+        int[] positions = new int[components.size()];
+        for (int i = 0; i < positions.length; i++)
+            positions[i] = i;
+        shufflePositions(positions, rnd, true);
     }
 
     /**
@@ -278,34 +352,35 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public void shuffleAndResetVisibility(Random rnd)
     {
         shuffle(rnd);
-        elementVisibility.replaceAll(ignored -> deckVisibility.clone());
+        Arrays.fill(elementVisibility, toMask(deckVisibility));
     }
 
-
     /**
-     * Shuffles a list of components and associated visibility
+     * Shuffles the components at the given positions amongst themselves (in the same way as Collections.shuffle()
+     * would shuffle a list of them)
      *
-     * @param comps - list of components
-     * @param vis   - associated visibility
-     * @param rnd   - random number generator to be used in shuffling.
-     * @return - both lists shuffled, keeping the mapping from component to visibility at the same index.
+     * @param positions       - the positions to shuffle.
+     * @param rnd             - random number generator to be used in shuffling.
+     * @param moveVisibility  - if true, the visibility of each component moves with it; otherwise it stays in place.
      */
-    private Pair<List<T>, List<boolean[]>> shuffleLists(List<T> comps, List<boolean[]> vis, Random rnd) {
-        List<T> tmp_components = new ArrayList<>();
-        List<boolean[]> tmp_visibility = new ArrayList<>();
-
-        List<Integer> indexList = new ArrayList<>();
-        for (int i = 0; i < comps.size(); i++)
-            indexList.add(i);
-        Collections.shuffle(indexList, rnd);
-
-        for (int targetIndex = 0; targetIndex < indexList.size(); targetIndex++) {
-            int sourceIndex = indexList.get(targetIndex);
-            tmp_components.add(targetIndex, comps.get(sourceIndex));
-            tmp_visibility.add(targetIndex, vis.get(sourceIndex));
+    private void shufflePositions(int[] positions, Random rnd, boolean moveVisibility) {
+        int n = positions.length;
+        int[] source = new int[n];
+        for (int i = 0; i < n; i++)
+            source[i] = positions[i];
+        for (int i = n; i > 1; i--) {
+            int j = rnd.nextInt(i);
+            int tmp = source[i - 1];
+            source[i - 1] = source[j];
+            source[j] = tmp;
+        }
+        List<T> oldComponents = new ArrayList<>(components);
+        long[] oldVisibility = elementVisibility.clone();
+        for (int i = 0; i < n; i++) {
+            components.set(positions[i], oldComponents.get(source[i]));
+            if (moveVisibility)
+                elementVisibility[positions[i]] = oldVisibility[source[i]];
         }
-
-        return new Pair(tmp_components, tmp_visibility);
     }
 
     /**
@@ -316,33 +391,12 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @param visible  - if true, shuffles only visible cards; otherwise, shuffles only hidden cards.
      */
     public void shuffleVisible(Random rnd, int playerId, boolean visible) {
-        ArrayList<T> visibleComponents = new ArrayList<>();
-        ArrayList<boolean[]> visibility = new ArrayList<>();
-        for (int i = 0; i < components.size(); i++) {
-            boolean[] b = elementVisibility.get(i);
-            if (b[playerId] == visible) {
-                visibleComponents.add(components.get(i));
-                visibility.add(b);
-            }
-        }
-        Pair<List<T>, List<boolean[]>> shuffled = shuffleLists(visibleComponents, visibility, rnd);
-
-        int n = 0;
-        for (int i = 0; i < components.size(); i++) {
-            boolean[] b = elementVisibility.get(i);
-            if (b[playerId] == visible) {
-                // Draw element from shuffled lists
-                components.set(i, shuffled.a.get(n));
-                /*
-                if other players can see a card, we know which card position they can see, but
-                not the actual card (otherwise, it would by definition be visible to us). Therefore
-                we do *not* shuffle element visibility, and keep this in the same order
-                */
-                if (visible)
-                    elementVisibility.set(i, shuffled.b.get(n));
-                n++;
-            }
-        }
+        /*
+        if other players can see a hidden card, we know which card position they can see, but
+        not the actual card (otherwise, it would by definition be visible to us). Therefore
+        we do *not* shuffle element visibility of hidden cards, and keep this in the same order
+        */
+        shufflePositions(getPositions(playerId, visible), rnd, visible);
     }
 
     public boolean[] getDeckVisibility() {
@@ -355,27 +409,28 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
         this.copyTo(dp); // Copy super
 
         dp.deckVisibility = deckVisibility.clone();
-
-        ArrayList<boolean[]> newVisibility = new ArrayList<>();
-        for (boolean[] visibility : elementVisibility) {
-            newVisibility.add(visibility.clone());
-        }
-        dp.elementVisibility = newVisibility;
+        dp.elementVisibility = elementVisibility.clone();
 
         return dp;
     }
 
+    @Override
+    public void copyInto(Deck<T> target) {
+        super.copyInto(target);
+        PartialObservableDeck<T> dp = (PartialObservableDeck<T>) target;
+        dp.deckVisibility = deckVisibility.clone();
+        if (dp.elementVisibility.length == elementVisibility.length)
+            System.arraycopy(elementVisibility, 0, dp.elementVisibility, 0, elementVisibility.length);
+        else
+            dp.elementVisibility = elementVisibility.clone();
+    }
+
     public PartialObservableDeck<T> copy(int playerId) {
         PartialObservableDeck<T> dp = new PartialObservableDeck<>(componentName, ownerId, deckVisibility, componentID);
         this.copyTo(dp, playerId); // Copy super
 
         dp.deckVisibility = deckVisibility.clone();
-
-        ArrayList<boolean[]> newVisibility = new ArrayList<>();
-        for (boolean[] visibility : elementVisibility) {
-            newVisibility.add(visibility.clone());
-        }
-        dp.elementVisibility = newVisibility;
+        dp.elementVisibility = elementVisibility.clone();
 
         return dp;
     }
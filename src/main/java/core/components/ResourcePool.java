@@ -0,0 +1,151 @@
+package core.components;
+
+import java.util.Arrays;
+
+/**
+ * A count of each type of resource, where the types are the values of an enum. This is backed by an int[] indexed by
+ * the ordinal of the type, so look-ups and updates need no hashing or boxing, and copy() is a single array clone.
+ * <p>
+ * Unlike a Counter, this is not a Component and has no bounds: counts can go negative (for example victory points)
+ * unless take() is used. Iteration over the types (in toString(), for example) is in declaration order.
+ */
+public class ResourcePool<E extends Enum<E>> {
+
+    private final E[] types;
+    private final int[] counts;
+
+    public ResourcePool(Class<E> type) {
+        this.types = type.getEnumConstants();
+        this.counts = new int[types.length];
+    }
+
+    /**
+     * @param initialCount - the starting count of every type
+     */
+    public ResourcePool(Class<E> type, int initialCount) {
+        this(type);
+        Arrays.fill(counts, initialCount);
+    }
+
+    private ResourcePool(E[] types, int[] counts) {
+        this.types = types;
+        this.counts = counts;
+    }
+
+    public int get(E type) {
+        return counts[type.ordinal()];
+    }
+
+    public void set(E type, int count) {
+        counts[type.ordinal()] = count;
+    }
+
+    /**
+     * @return the new count of the type
+     */
+    public int add(E type, int amount) {
+        return counts[type.ordinal()] += amount;
+    }
+
+    /**
+     * @return the new count of the type
+     */
+    public int subtract(E type, int amount) {
+        return counts[type.ordinal()] -= amount;
+    }
+
+    /**
+     * Removes up to amount of the type, without going below zero
+     *
+     * @return the amount actually removed
+     */
+    public int take(E type, int amount) {
+        int i = type.ordinal();
+        int taken = Math.max(0, Math.min(amount, counts[i]));
+        counts[i] -= taken;
+        return taken;
+    }
+
+    /**
+     * @return true if there are at least amount of the type
+     */
+    public boolean has(E type, int amount) {
+        return counts[type.ordinal()] >= amount;
+    }
+
+    public void add(ResourcePool<E> other) {
+        for (int i = 0; i < counts.length; i++)
+            counts[i] += other.counts[i];
+    }
+
+    public void subtract(ResourcePool<E> other) {
+        for (int i = 0; i < counts.length; i++)
+            counts[i] -= other.counts[i];
+    }
+
+    /**
+     * @return true if this pool has at least as much of every type as the other (for example, a cost)
+     */
+    public boolean covers(ResourcePool<E> other) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] < other.counts[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the sum of the counts of all types
+     */
+    public int total() {
+        int retValue = 0;
+        for (int count : counts)
+            retValue += count;
+        return retValue;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    /**
+     * Sets all counts to those of the other pool, without allocating
+     */
+    public void copyFrom(ResourcePool<E> other) {
+        System.arraycopy(other.counts, 0, counts, 0, counts.length);
+    }
+
+    public ResourcePool<E> copy() {
+        return new ResourcePool<>(types, counts.clone());
+    }
+
+    /**
+     * @return a copy of the counts, indexed by ordinal
+     */
+    public int[] toArray() {
+        return counts.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ResourcePool)) return false;
+        ResourcePool<?> that = (ResourcePool<?>) o;
+        return types.getClass() == that.types.getClass() && Arrays.equals(counts, that.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < counts.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(types[i]).append("=").append(counts[i]);
+        }
+        return sb.append("}").toString();
+    }
+}
@@ -0,0 +1,37 @@
+package core.interfaces;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+
+/**
+ * Maps the actions of a game to dense integer codes in [0, getActionSpaceSize()), and back again. This is the same
+ * idea as the fixed action space that PyTAG needs, and is implemented by the forward model of games that support it.
+ * <p>
+ * Search algorithms can then hold statistics in arrays indexed by code (or share one instance per code) instead of
+ * using actions as keys in hash maps, which calls equals() and hashCode() on every look-up.
+ * <p>
+ * The contract is:
+ * - codes are stable: the code for an action depends only on the action (and the game parameters), and not on the
+ * state in which it is taken. The state passed to encode() is only used to find the parameters / board dimensions.
+ * - for a given acting player, two actions have the same code if and only if they are equal()
+ * (codes may be shared by the actions of different players, for example placing an X or an O on the same cell)
+ * - decode() gives the action for the current player in the state, which is equal() to any available action with
+ * that code
+ */
+public interface IActionEncoder {
+
+    /**
+     * @return the number of possible codes; this is fixed for the whole game
+     */
+    int getActionSpaceSize(AbstractGameState gameState);
+
+    /**
+     * @return the code for the action, or -1 if the action is not one the encoder knows about
+     */
+    int encode(AbstractGameState gameState, AbstractAction action);
+
+    /**
+     * @return the action with this code for the current player in the state
+     */
+    AbstractAction decode(AbstractGameState gameState, int code);
+}
@@ -0,0 +1,25 @@
+package core.interfaces;
+
+import core.AbstractGameState;
+
+import java.util.Random;
+
+/**
+ * What one player does not know about a state: which components are hidden from them, and the candidates for each.
+ * This is worked out once (by AbstractGameState.getInformationSet()), after which each call to sample() gives a new
+ * determinisation of the state as cheaply as the game allows. Information Set MCTS calls sample() at the start of
+ * every iteration, instead of copy(playerId), which works out the hidden information afresh each time.
+ * <p>
+ * The contract is that sample() draws from the same distribution as copy(playerId) on the state the information set
+ * was created from, and that neither changes that state. An information set is used by one search at a time, so it
+ * may keep scratch space between calls.
+ */
+public interface IInformationSet {
+
+    /**
+     * @param target - a state to overwrite, as for AbstractGameState.copyInto(), or null
+     * @param rnd    - random number generator to sample the hidden components with
+     * @return a determinisation of the state; this is target if it could be re-used, and a new state otherwise
+     */
+    AbstractGameState sample(AbstractGameState target, Random rnd);
+}
@@ -2,10 +2,38 @@ package core.interfaces;
 
 import core.AbstractGameState;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
 public interface IStateFeatureVector {
 
     double[] featureVector(AbstractGameState state, int playerID);
 
     String[] names();
 
+    /**
+     * Writes the feature vector into buffer, starting at its current position (which is advanced past the features).
+     * A direct buffer can be shared with numpy (or similar) without any copying.
+     * The default calls featureVector(); implementations should override this to avoid allocating an array per call.
+     */
+    default void featureVector(AbstractGameState state, int playerID, DoubleBuffer buffer) {
+        buffer.put(featureVector(state, playerID));
+    }
+
+    /**
+     * As for the DoubleBuffer version, but with features narrowed to float
+     */
+    default void featureVector(AbstractGameState state, int playerID, FloatBuffer buffer) {
+        for (double feature : featureVector(state, playerID))
+            buffer.put((float) feature);
+    }
+
+    /**
+     * @return true if featureVector() only reads information that playerID can observe. In this case it can be
+     * called on the full game state (which it must not modify), without first taking a state.copy(playerID).
+     */
+    default boolean readsOnlyObservableState() {
+        return false;
+    }
+
 }
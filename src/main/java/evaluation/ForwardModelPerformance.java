@@ -0,0 +1,252 @@
+package evaluation;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import players.simple.RandomPlayer;
+import utilities.Utils;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The 'perf' mode of ForwardModelTester. This plays a fixed corpus of seeds for each game with random players, and
+ * measures the cost of the forward model:
+ * - next() calls per second, overall and in each game phase (with enough calls to time reliably)
+ * - the average time to copy() the state, and to compute the available actions (in microseconds)
+ * - the bytes allocated per decision (as reported by the JVM for this thread)
+ * - the largest number of actions available at any decision
+ * Before this, we play games with other seeds for a couple of seconds so that the JIT has compiled the game. The
+ * corpus is then played several times, and we keep the best value of each metric, as timings on a shared machine
+ * are only ever made worse by noise.
+ * <p>
+ * The results can be written to a baseline file (with 'update'), and are otherwise compared to that file. If any
+ * metric is worse than the baseline by more than the threshold (as a proportion), or is missing (because the game
+ * now fails, or no longer reaches a game phase), then we throw an AssertionError listing every metric that has
+ * regressed. A baseline is not written if any game fails. Timings vary from machine to machine, so a baseline should be created
+ * on the machine on which it is to be checked.
+ * <p>
+ * Arguments (after 'perf'):
+ * - game: a pipe-delimited list of games, or 'all' (the default), optionally followed by |-name to exclude games
+ * - nPlayers: the number of players (defaults to the minimum for each game)
+ * - nGames: the number of seeds in the corpus (default 5); these are always the seeds 0 to nGames-1
+ * - repeats: the number of times the corpus is measured (default 5)
+ * - minTime: the corpus is played as many times as needed to take at least this long in each repeat (default 500ms)
+ * - baseline: the baseline file (default perf_baseline.tsv)
+ * - threshold: the proportion by which a metric can worsen before it counts as a regression (default 0.25)
+ * - update: writes the results to the baseline file instead of comparing to it
+ */
+public class ForwardModelPerformance {
+
+    public static final String NEXT_RATE = "next/s";
+    public static final String COPY_COST = "copy_us";
+    public static final String ACTION_COST = "actions_us";
+    public static final String ALLOCATION = "bytes/decision";
+    public static final String MAX_ACTIONS = "maxActions";
+
+    // the minimum number of next() calls in a game phase (over the corpus) for us to report its throughput
+    public static final int MIN_PHASE_CALLS = 1000;
+
+    private static final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String... args) {
+        String gameArg = Utils.getArg(args, "game", "all");
+        int nPlayers = Utils.getArg(args, "nPlayers", -1);
+        int nGames = Utils.getArg(args, "nGames", 5);
+        int repeats = Utils.getArg(args, "repeats", 5);
+        int minTime = Utils.getArg(args, "minTime", 500);
+        String baselineFile = Utils.getArg(args, "baseline", "perf_baseline.tsv");
+        double threshold = Utils.getArg(args, "threshold", 0.25);
+        boolean update = Arrays.asList(args).contains("update");
+
+        Map<String, Map<String, Double>> results = new LinkedHashMap<>();
+        List<String> failures = new ArrayList<>();
+        List<GameType> games = gamesFrom(gameArg);
+        for (GameType gameType : games) {
+            int players = nPlayers > 0 ? nPlayers : Math.max(gameType.getMinPlayers(), 1);
+            try {
+                long[] seeds = new long[nGames], warmUpSeeds = new long[nGames];
+                for (int i = 0; i < nGames; i++) {
+                    seeds[i] = i;
+                    warmUpSeeds[i] = nGames + i;
+                }
+                // games not in the corpus to warm up the JIT
+                measure(gameType, players, warmUpSeeds, 2000);
+                Map<String, Double> metrics = measure(gameType, players, seeds, minTime);
+                for (int r = 1; r < repeats; r++)
+                    measure(gameType, players, seeds, minTime).forEach((k, v) -> metrics.merge(k, v, (a, b) -> best(k, a, b)));
+                results.put(gameType.name(), metrics);
+                System.out.printf("%-20s %s%n", gameType.name(), metrics);
+            } catch (Exception | AssertionError e) {
+                System.out.printf("%-20s failed: %s%n", gameType.name(), e);
+                failures.add(gameType.name() + " failed: " + e);
+            }
+        }
+
+        if (update) {
+            if (!failures.isEmpty())
+                throw new AssertionError("Baseline not written, as " + failures.size() + " games failed: " + failures);
+            writeBaseline(baselineFile, results);
+            System.out.println("Baseline written to " + baselineFile);
+        } else {
+            // we only compare the games we were asked to measure (a failed game has no results, so all its metrics regress)
+            Map<String, Map<String, Double>> baseline = readBaseline(baselineFile);
+            baseline.keySet().retainAll(games.stream().map(GameType::name).collect(toList()));
+            List<String> regressions = compare(baseline, results, threshold);
+            regressions.forEach(System.out::println);
+            if (!regressions.isEmpty())
+                throw new AssertionError(regressions.size() + " metrics have regressed by more than " + threshold);
+            System.out.println("No regressions against " + baselineFile);
+        }
+    }
+
+    private static List<GameType> gamesFrom(String gameArg) {
+        List<String> names = Arrays.asList(gameArg.split("\\|"));
+        if (names.get(0).equals("all"))
+            return Arrays.stream(GameType.values())
+                    .filter(gt -> gt != GameType.GameTemplate && !names.contains("-" + gt.name()))
+                    .collect(toList());
+        return names.stream().map(GameType::valueOf).collect(toList());
+    }
+
+    /**
+     * Plays one game for each seed with random players (repeating the seeds until at least minMillis have passed), and
+     * returns the metrics over all of the games
+     */
+    public static Map<String, Double> measure(GameType gameType, int nPlayers, long[] seeds, long minMillis) {
+        long nextCalls = 0, nextNanos = 0, copyNanos = 0, actionNanos = 0, allocated = 0;
+        int decisions = 0, maxActions = 0, passes = 0;
+        Map<String, long[]> byPhase = new TreeMap<>();  // phase -> {next() calls, nanoseconds}
+        long threadId = Thread.currentThread().getId();
+        long end = System.currentTimeMillis() + minMillis;
+
+        do {
+            for (long seed : seeds) {
+                Game game = gameType.createGameInstance(nPlayers, seed);
+                AbstractGameState state = game.getGameState();
+                AbstractForwardModel fm = game.getForwardModel();
+                RandomPlayer player = new RandomPlayer(new Random(seed));
+                player.setForwardModel(fm);
+
+                while (state.isNotTerminal()) {
+                    long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+                    long start = System.nanoTime();
+                    List<AbstractAction> actions = fm.computeAvailableActions(state);
+                    long actionsDone = System.nanoTime();
+                    AbstractGameState copy = state.copy(state.getCurrentPlayer());
+                    long copyDone = System.nanoTime();
+                    AbstractAction action = player.getAction(copy, actions);
+
+                    String phase = String.valueOf(state.getGamePhase());
+                    long nextStart = System.nanoTime();
+                    fm.next(state, action);
+                    long nextDone = System.nanoTime();
+                    allocated += threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+                    actionNanos += actionsDone - start;
+                    copyNanos += copyDone - actionsDone;
+                    nextNanos += nextDone - nextStart;
+                    long[] phaseStats = byPhase.computeIfAbsent(phase, p -> new long[2]);
+                    phaseStats[0]++;
+                    phaseStats[1] += nextDone - nextStart;
+                    nextCalls++;
+                    decisions++;
+                    maxActions = Math.max(maxActions, actions.size());
+                }
+            }
+            passes++;
+        } while (System.currentTimeMillis() < end);
+
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        metrics.put(NEXT_RATE, rate(nextCalls, nextNanos));
+        for (Map.Entry<String, long[]> e : byPhase.entrySet()) {
+            // this depends only on the seeds, and not on how many passes we had time for, so the same phases are reported
+            if (e.getValue()[0] / passes >= MIN_PHASE_CALLS)
+                metrics.put(NEXT_RATE + ":" + e.getKey(), rate(e.getValue()[0], e.getValue()[1]));
+        }
+        metrics.put(COPY_COST, copyNanos / 1e3 / Math.max(decisions, 1));
+        metrics.put(ACTION_COST, actionNanos / 1e3 / Math.max(decisions, 1));
+        metrics.put(ALLOCATION, (double) allocated / Math.max(decisions, 1));
+        metrics.put(MAX_ACTIONS, (double) maxActions);
+        return metrics;
+    }
+
+    private static boolean higherIsBetter(String metric) {
+        return metric.startsWith(NEXT_RATE);
+    }
+
+    private static double best(String metric, double a, double b) {
+        return higherIsBetter(metric) ? Math.max(a, b) : Math.min(a, b);
+    }
+
+    private static double rate(long calls, long nanos) {
+        return nanos == 0 ? 0.0 : calls * 1e9 / nanos;
+    }
+
+    /**
+     * @return a description of each metric in the baseline that is worse in results by more than the threshold, or
+     * is missing from results (metrics that are only in results are new, and are ignored)
+     */
+    public static List<String> compare(Map<String, Map<String, Double>> baseline, Map<String, Map<String, Double>> results,
+                                       double threshold) {
+        List<String> regressions = new ArrayList<>();
+        for (String game : baseline.keySet()) {
+            Map<String, Double> current = results.get(game);
+            if (current == null) {
+                regressions.add(String.format("%s has no results", game));
+                continue;
+            }
+            for (Map.Entry<String, Double> metric : baseline.get(game).entrySet()) {
+                double oldValue = metric.getValue();
+                Double newValue = current.get(metric.getKey());
+                if (newValue == null) {
+                    regressions.add(String.format("%s %s is missing", game, metric.getKey()));
+                    continue;
+                }
+                // throughput should not fall; everything else is a cost that should not rise
+                boolean regressed = higherIsBetter(metric.getKey()) ?
+                        newValue < oldValue * (1.0 - threshold) :
+                        newValue > oldValue * (1.0 + threshold);
+                if (regressed)
+                    regressions.add(String.format("%s %s has regressed from %.2f to %.2f", game, metric.getKey(), oldValue, newValue));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * The baseline is a tab-separated file with one line per metric of each game: game, metric, value
+     */
+    public static Map<String, Map<String, Double>> readBaseline(String fileName) {
+        Map<String, Map<String, Double>> retValue = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length != 3 || line.startsWith("#"))
+                    continue;
+                retValue.computeIfAbsent(fields[0], g -> new LinkedHashMap<>()).put(fields[1], Double.parseDouble(fields[2]));
+            }
+        } catch (IOException e) {
+            throw new AssertionError("Unable to read baseline " + fileName + " (run with 'update' to create it) : " + e.getMessage());
+        }
+        return retValue;
+    }
+
+    public static void writeBaseline(String fileName, Map<String, Map<String, Double>> results) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(fileName))) {
+            writer.println("# game\tmetric\tvalue");
+            for (Map.Entry<String, Map<String, Double>> game : results.entrySet())
+                for (Map.Entry<String, Double> metric : game.getValue().entrySet())
+                    writer.printf("%s\t%s\t%.3f%n", game.getKey(), metric.getKey(), metric.getValue());
+        } catch (IOException e) {
+            throw new AssertionError("Unable to write baseline " + fileName + " : " + e.getMessage());
+        }
+    }
+}
@@ -32,7 +32,11 @@ public class ForwardModelTester {
     int decision = 0;
 
     public static void main(String... args) {
-        new ForwardModelTester(args);
+        // 'perf' measures the speed of the forward model instead (see ForwardModelPerformance)
+        if (Arrays.asList(args).contains("perf"))
+            ForwardModelPerformance.main(args);
+        else
+            new ForwardModelTester(args);
     }
 
     public ForwardModelTester(String... args) {
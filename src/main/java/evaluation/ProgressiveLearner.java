@@ -236,6 +236,7 @@ public class ProgressiveLearner {
         String fileName = String.format("%s_%d.data", prefix, iter);
         dataFilesByIteration[iter] = fileName;
         listener.setLogger(new FileStatsLogger(fileName, "\t", false));
+        listener.setKeepData(true);
         tournament.setListeners(Collections.singletonList(listener));
         tournament.run();
 
@@ -268,8 +269,13 @@ public class ProgressiveLearner {
     }
 
     private void learnFromNewData() {
-        // for the moment we will just supply the most recent file
-        learner.learnFrom(dataFilesByIteration[iter]);
+        // for the moment we will just supply the most recent data
+        // (which our learners can take straight from the listener; the file is also written for reference)
+        if (learner instanceof AbstractLearner)
+            ((AbstractLearner) learner).learnFrom(listener.getHeader(), listener.getData());
+        else
+            learner.learnFrom(dataFilesByIteration[iter]);
+        listener.clearData();
 
         String iterationPrefix = String.format("%s_%d", prefix, iter);
         learnedFilesByIteration[iter] = iterationPrefix;
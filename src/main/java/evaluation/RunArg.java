@@ -26,6 +26,20 @@ public enum RunArg {
             "\t If false, then each player will be assigned a player type independently.",
             true,
             new Usage[]{Usage.RunGames, Usage.ParameterSearch}),
+    commonSeeds("(Optional) If set, then NTBEA uses common random numbers: the n-th evaluation of every setting is played\n" +
+            "\t on the same game seed (and seat) for this many seeds, after which each evaluation has a new seed. The\n" +
+            "\t winner of each run is evaluated on a second set of this many seeds, which must give at least evalGames\n" +
+            "\t games (one per seed and team). Settings are then compared on the same games, and a game that has already\n" +
+            "\t been played (for example by the winner of an earlier run) is not played again. This assumes the agents are\n" +
+            "\t deterministic given the game seed. The default of 0 plays every game with a new seed.",
+            0,
+            new Usage[]{Usage.ParameterSearch}),
+    confidence("(Optional) If set (for example to 0.95), then tournaments stop playing a matchup once one agent is ahead\n" +
+            "\t of the others at this confidence. In exhaustive mode the games saved are given to the matchups\n" +
+            "\t that are still close; in random mode the whole tournament stops once one agent leads all others.\n" +
+            "\t The default of 0 plays every game.",
+            0.0,
+            new Usage[]{Usage.RunGames}),
     config("The location of a JSON file from which to read the configuration. \n" +
             "\t If this is specified, then all other arguments are ignored.",
             "",
@@ -127,6 +141,11 @@ public enum RunArg {
             "\t Defaults to the end of the tournament (-1)",
             -1,
             new Usage[]{Usage.RunGames}),
+    resume("(Optional) A directory for checkpoints. Tournaments log each game here, and NTBEA its completed runs and\n" +
+            "\t the samples of the current run. If the directory has checkpoints from an interrupted run with the same\n" +
+            "\t arguments (including the seed), then the run continues from where it stopped.",
+            "",
+            new Usage[]{Usage.RunGames, Usage.ParameterSearch}),
     searchSpace("The json-format file of the search space to use. No default.",
             "",
             new Usage[]{Usage.ParameterSearch}),
@@ -146,7 +165,19 @@ public enum RunArg {
             new Usage[]{Usage.ParameterSearch}),
     verbose("If true, then the result of each game is reported. Default is false.",
             false,
-            new Usage[]{Usage.RunGames, Usage.ParameterSearch});
+            new Usage[]{Usage.RunGames, Usage.ParameterSearch}),
+    workDir("(Optional) The directory shared with worker JVMs if workers > 0. Defaults to a new temporary directory.",
+            "",
+            new Usage[]{Usage.RunGames}),
+    worker("Used internally to start a worker JVM, which plays the units of work in workDir. Default is -1.",
+            -1,
+            new Usage[]{Usage.RunGames}),
+    workers("(Optional) If > 0, then the games are played by this many worker JVMs, each started with the same\n" +
+            "\t arguments (and so the same players). Each unit of work is claimed from workDir by one worker,\n" +
+            "\t and any units being played by a worker that crashes are re-queued for a restarted worker.\n" +
+            "\t Game listeners are not called for these games. Defaults to 0 (all games are played in this JVM).",
+            0,
+            new Usage[]{Usage.RunGames});
 
     public final String helpText;
     public final Object defaultValue;
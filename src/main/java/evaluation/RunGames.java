@@ -8,6 +8,8 @@ import evaluation.tournaments.AbstractTournament;
 import evaluation.tournaments.RandomRRTournament;
 import evaluation.tournaments.RoundRobinTournament;
 import evaluation.tournaments.SkillGrid;
+import evaluation.tournaments.TournamentCoordinator;
+import evaluation.tournaments.TournamentWorker;
 import games.GameType;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -25,12 +27,14 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.regex.Pattern;
 
 import static evaluation.RunArg.*;
 import static evaluation.tournaments.AbstractTournament.TournamentMode.*;
+import static utilities.Utils.getArg;
 import static java.util.stream.Collectors.toList;
 
 
@@ -45,6 +49,7 @@ public class RunGames implements IGameRunner {
     private AbstractPlayer focus;
     private AbstractTournament.TournamentMode tournamentMode;
     private String timeDir;
+    private String[] args;
 
     /**
      * Main function, creates and runs the tournament with the given settings and players.
@@ -76,6 +81,10 @@ public class RunGames implements IGameRunner {
                 throw new RuntimeException(e);
             }
         }
+        // the coordinator adds these to the arguments of a worker, which may otherwise just name a config file
+        runGames.config.put(worker, getArg(args, worker.name(), (int) runGames.config.get(worker)));
+        runGames.config.put(workDir, getArg(args, workDir.name(), (String) runGames.config.get(workDir)));
+        runGames.args = args;
         runGames.initialiseGamesAndPlayerCount();
         if (!runGames.config.get(RunArg.gameParams).equals("") && runGames.gamesAndPlayerCounts.keySet().size() > 1)
             throw new IllegalArgumentException("Cannot yet provide a gameParams argument if running multiple games");
@@ -105,6 +114,13 @@ public class RunGames implements IGameRunner {
         if (runGames.focus != null)
             runGames.tournamentMode = ONE_VS_ALL;
 
+        if ((int) runGames.config.get(worker) >= 0) {
+            TournamentWorker tournamentWorker = new TournamentWorker(new File((String) runGames.config.get(workDir)),
+                    (int) runGames.config.get(worker), agents, (String) runGames.config.get(gameParams));
+            System.out.printf("Worker %d played %d units%n", (int) runGames.config.get(worker), tournamentWorker.run());
+            return;
+        }
+
         runGames.timeDir = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
 
         // 3. Run!
@@ -133,7 +149,7 @@ public class RunGames implements IGameRunner {
                 RoundRobinTournament tournament = config.get(mode).equals("exhaustive") || tournamentMode == ONE_VS_ALL ?
                         new RoundRobinTournament(agents, gameType, playerCount, (int) config.get(matchups), tournamentMode, params, (boolean) config.get(byTeam)) :
                         new RandomRRTournament(agents, gameType, playerCount, tournamentMode, (int) config.get(matchups), (int) config.get(reportPeriod),
-                                System.currentTimeMillis(), params, (boolean) config.get(byTeam));
+                                ((Number) config.get(RunArg.seed)).longValue(), params, (boolean) config.get(byTeam));
 
                 // Add listeners
                 //noinspection unchecked
@@ -156,11 +172,40 @@ public class RunGames implements IGameRunner {
                 tournament.setVerbose((boolean) config.get(verbose));
                 tournament.setResultsFile((String) config.get(output));
                 tournament.setRandomGameParams((boolean) config.get(randomGameParams));
+                tournament.setStopConfidence(((Number) config.get(confidence)).doubleValue());
+                if ((int) config.get(workers) > 0)
+                    tournament.setCoordinator(createCoordinator());
+                if (!config.get(resume).equals(""))
+                    tournament.setCheckpoint(config.get(resume) + File.separator + gameName + "_" + playerCount + ".games");
                 tournament.run();
             }
         }
     }
 
+    /**
+     * The workers are started with the same arguments as this JVM (and the same classpath), so that they create the
+     * same players
+     */
+    private TournamentCoordinator createCoordinator() {
+        File dir;
+        try {
+            dir = config.get(workDir).equals("") ? Files.createTempDirectory("tag_work").toFile() : new File((String) config.get(workDir));
+        } catch (IOException e) {
+            throw new AssertionError("Unable to create a work directory : " + e.getMessage());
+        }
+        List<String> command = new ArrayList<>(Arrays.asList(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"), RunGames.class.getName()));
+        for (String arg : args) {
+            String name = arg.split("=")[0];
+            if (!name.equals(workers.name()) && !name.equals(workDir.name()) && !name.equals(worker.name()))
+                command.add(arg);
+        }
+        TournamentCoordinator coordinator = new TournamentCoordinator(dir, (int) config.get(workers), command);
+        coordinator.verbose = (boolean) config.get(verbose);
+        return coordinator;
+    }
+
     private void initialiseGamesAndPlayerCount() {
         String gameArg = config.get(RunArg.game).toString();
         String playerRange = config.get(RunArg.playerRange).toString();
@@ -21,6 +21,9 @@ public abstract class FeatureListener implements IGameListener {
     boolean currentPlayerOnly;
     IStatisticLogger logger;
     Game game;
+    // if true then each record is also kept in memory, so that a learner can use it without reading a file
+    boolean keepData;
+    List<double[]> data = new ArrayList<>();
 
     protected FeatureListener(Event.GameEvent frequency, boolean currentPlayerOnly) {
         this.currentPlayerOnly = currentPlayerOnly;
@@ -31,6 +34,35 @@ public abstract class FeatureListener implements IGameListener {
         this.logger = logger;
     }
 
+    public void setKeepData(boolean keepData) {
+        this.keepData = keepData;
+    }
+
+    /**
+     * @return the records kept since the last clearData(), with one entry for each column of getHeader()
+     */
+    public List<double[]> getData() {
+        return data;
+    }
+
+    public void clearData() {
+        data = new ArrayList<>();
+    }
+
+    /**
+     * @return the names of the columns of each record (as written to the logger)
+     */
+    public String[] getHeader() {
+        String[] names = names();
+        String[] header = new String[names.length + 11];
+        String[] start = {"GameID", "Player", "Round", "Turn", "CurrentScore"};
+        String[] end = {"PlayerCount", "TotalRounds", "ActionScore", "Win", "Ordinal", "FinalScore"};
+        System.arraycopy(start, 0, header, 0, start.length);
+        System.arraycopy(names, 0, header, start.length, names.length);
+        System.arraycopy(end, 0, header, start.length + names.length, end.length);
+        return header;
+    }
+
     @Override
     public void onEvent(Event event) {
 
@@ -64,33 +96,42 @@ public abstract class FeatureListener implements IGameListener {
         }).toArray();
         double[] ordinal = IntStream.range(0, totP).mapToDouble(state::getOrdinalPosition).toArray();
         double finalRound = state.getRoundCounter();
+        String[] header = getHeader();
         for (StateFeatureListener.LocalDataWrapper record : currentData) {
-            // we use a LinkedHashMap so that the order of the keys is preserved, and hence the
-            // data is written to file in a sensible order for human viewing
-            Map<String, Double> data = new LinkedHashMap<>();
-            data.put("GameID", (double) state.getGameID());
-            data.put("Player", (double) record.player);
-            data.put("Round", (double) record.gameRound);
-            data.put("Turn", (double) record.gameTurn);
-            data.put("CurrentScore", record.currentScore);
-            for (int i = 0; i < record.array.length; i++) {
-                data.put(names()[i], record.array[i]);
+            double[] row = new double[header.length];
+            row[0] = state.getGameID();
+            row[1] = record.player;
+            row[2] = record.gameRound;
+            row[3] = record.gameTurn;
+            row[4] = record.currentScore;
+            System.arraycopy(record.array, 0, row, 5, record.array.length);
+            int end = 5 + record.array.length;
+            row[end] = getGame().getPlayers().size();
+            row[end + 1] = finalRound;
+            row[end + 2] = record.actionScore;
+            row[end + 3] = winLoss[record.player];
+            row[end + 4] = ordinal[record.player];
+            row[end + 5] = finalScores[record.player];
+            if (keepData)
+                data.add(row);
+            if (logger != null) {
+                // we use a LinkedHashMap so that the order of the keys is preserved, and hence the
+                // data is written to file in a sensible order for human viewing
+                Map<String, Double> values = new LinkedHashMap<>();
+                for (int i = 0; i < header.length; i++)
+                    values.put(header[i], row[i]);
+                logger.record(values);
             }
-            data.put("PlayerCount", (double) getGame().getPlayers().size());
-            data.put("TotalRounds", finalRound);
-            data.put("ActionScore", record.actionScore);
-            data.put("Win", winLoss[record.player]);
-            data.put("Ordinal", ordinal[record.player]);
-            data.put("FinalScore", finalScores[record.player]);
-            logger.record(data);
         }
-        logger.processDataAndNotFinish();
+        if (logger != null)
+            logger.processDataAndNotFinish();
         currentData = new ArrayList<>();
     }
 
     @Override
     public void report() {
-        logger.processDataAndFinish();
+        if (logger != null)
+            logger.processDataAndFinish();
     }
 
     @Override
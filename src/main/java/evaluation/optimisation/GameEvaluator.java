@@ -12,9 +12,6 @@ import evodef.SolutionEvaluator;
 import games.GameType;
 
 import java.util.*;
-import java.util.stream.IntStream;
-
-import static java.util.stream.Collectors.toList;
 
 /**
  * Game Evaluator is used for NTBEA optimisation of parameters. It implements the SolutionEvaluator interface.
@@ -37,6 +34,14 @@ public class GameEvaluator implements SolutionEvaluator {
     IStateHeuristic stateHeuristic;
     IGameHeuristic gameHeuristic;
     List<IGameListener> listeners = new ArrayList<>();
+    int nTeams;
+    // The value of each game played, keyed by (settings, seed, seat); this is kept across NTBEA runs
+    Map<String, Double> cache = new HashMap<>();
+    int cacheHits = 0;
+    // if not null, the common random numbers: each settings is evaluated on these seeds in turn (and on
+    // validationSeeds by validate()), so that the settings we compare are played on the same games
+    long[] searchSeeds, validationSeeds;
+    Map<String, Integer> evaluationsOfSettings = new HashMap<>();
 
     /**
      * GameEvaluator
@@ -71,11 +76,34 @@ public class GameEvaluator implements SolutionEvaluator {
         if (avoidOppDupes && opponents.size() < nPlayers - 1)
             throw new AssertionError("Insufficient Opponents to avoid duplicates");
         if (opponents.isEmpty()) fullyCoop = true;
+        nTeams = game.createGameInstance(nPlayers, gameParams).getGameState().getNTeams();
+    }
+
+    /**
+     * Switches on common random numbers. The seeds are drawn from rnd, so are the same for the same evaluator seed.
+     *
+     * @param nSeeds the number of seeds on which each settings is evaluated (on each seat in turn). Once a settings
+     *               has played all of them, its later evaluations are on new seeds (as a repeated game would not be a
+     *               new sample). Zero switches common random numbers off, and each game then has a new seed.
+     */
+    public void setCommonSeeds(int nSeeds) {
+        if (nSeeds <= 0) {
+            searchSeeds = null;
+            validationSeeds = null;
+            return;
+        }
+        searchSeeds = new long[nSeeds];
+        validationSeeds = new long[nSeeds];
+        for (int i = 0; i < nSeeds; i++)
+            searchSeeds[i] = rnd.nextLong();
+        for (int i = 0; i < nSeeds; i++)
+            validationSeeds[i] = rnd.nextLong();
     }
 
     @Override
     public void reset() {
         nEvals = 0;
+        evaluationsOfSettings.clear();
     }
 
     @Override
@@ -94,9 +122,73 @@ public class GameEvaluator implements SolutionEvaluator {
      */
     @Override
     public double evaluate(int[] settings) {
+        if (searchSeeds == null) {
+            // We can reduce variance here by cycling the playerIndex on each iteration
+            return evaluate(settings, rnd.nextLong(), nEvals % nTeams);
+        }
+        // with common random numbers the n-th evaluation of any settings is the same game (other than the settings)
+        int n = countEvaluation(settings);
+        if (n >= searchSeeds.length * nTeams)
+            return evaluate(settings, rnd.nextLong(), n % nTeams);
+        return evaluate(settings, searchSeeds[n / nTeams], n % nTeams);
+    }
+
+    /**
+     * Evaluates the recommended settings at the end of a run. With common random numbers the index-th evaluation is
+     * on the index-th validation game (which are not used in the search), so that the winners of all runs are
+     * compared on the same games, and the games of a settings that wins more than one run are only played once.
+     * There must then be at least index + 1 validation games (see validationGames()), as a game repeated within the
+     * validation of one settings would not be a new sample.
+     */
+    public double validate(int[] settings, int index) {
+        if (validationSeeds == null)
+            return evaluate(settings);
+        if (index >= validationGames())
+            throw new IllegalArgumentException(String.format("Only %d validation games with %d common seeds, so cannot play game %d",
+                    validationGames(), validationSeeds.length, index));
+        return evaluate(settings, validationSeeds[index / nTeams], index % nTeams);
+    }
+
+    /**
+     * @return the number of distinct games on which validate() can evaluate a settings (one per seed and seat), or
+     * Integer.MAX_VALUE if we are not using common random numbers
+     */
+    public int validationGames() {
+        return validationSeeds == null ? Integer.MAX_VALUE : validationSeeds.length * nTeams;
+    }
+
+    /**
+     * Counts an evaluation of the settings that was made elsewhere (for example, before a run was resumed)
+     *
+     * @return the number of previous evaluations of the settings
+     */
+    int countEvaluation(int[] settings) {
+        return evaluationsOfSettings.merge(Arrays.toString(settings), 1, Integer::sum) - 1;
+    }
+
+    /**
+     * Plays one game, unless the same game has already been played, in which case its value is reused
+     *
+     * @param seed the random seed of the game (which also decides the opponents)
+     * @param seat the team of the settings being evaluated (ignored if we are not tuning a player)
+     */
+    public double evaluate(int[] settings, long seed, int seat) {
         if (debug)
             System.out.printf("Starting evaluation %d of %s at %tT%n", nEvals,
                     Arrays.toString(settings), System.currentTimeMillis());
+        nEvals++;
+        String key = Arrays.toString(settings) + "|" + seed + "|" + seat;
+        Double cached = cache.get(key);
+        if (cached != null) {
+            cacheHits++;
+            return cached;
+        }
+        double retValue = play(settings, seed, seat);
+        cache.put(key, retValue);
+        return retValue;
+    }
+
+    private double play(int[] settings, long seed, int seat) {
         Object configuredThing = searchSpace.getAgent(settings);
         boolean tuningPlayer = configuredThing instanceof AbstractPlayer;
         boolean tuningGame = configuredThing instanceof Game;
@@ -106,18 +198,16 @@ public class GameEvaluator implements SolutionEvaluator {
         int nTeams = newGame.getGameState().getNTeams();
         List<AbstractPlayer> allPlayers = new ArrayList<>(nTeams);
 
-        // We can reduce variance here by cycling the playerIndex on each iteration
         // If we're not tuning the player, then setting index to -99 means we just use the provided opponents list
-        int playerIndex = tuningPlayer ? nEvals % nTeams : -99;
+        int playerIndex = tuningPlayer ? seat : -99;
 
-        // create a random permutation of opponents - this is used if we want to avoid opponent duplicates
-        // if we allow duplicates, then we randomise them all independently
-        List<Integer> opponentOrdering = IntStream.range(0, opponents.size()).boxed().collect(toList());
-        Collections.shuffle(opponentOrdering);
+        // the opponents are drawn from the game seed, so that the same seed and seat is always the same game
+        // if we avoid opponent duplicates then we use them in order, otherwise we randomise them all independently
+        Random opponentRnd = new Random(seed);
         int count = 0;
         for (int i = 0; i < nTeams; i++) {
             if (!fullyCoop && i != playerIndex) {
-                int oppIndex = (avoidOppDupes) ? count : rnd.nextInt(opponents.size());
+                int oppIndex = (avoidOppDupes) ? count : opponentRnd.nextInt(opponents.size());
                 count = (count + 1) % nTeams;
                 allPlayers.add(opponents.get(oppIndex).copy());
             } else {
@@ -127,7 +217,7 @@ public class GameEvaluator implements SolutionEvaluator {
         }
 
         // always reset the random seed for each new game
-        newGame.reset(allPlayers, rnd.nextLong());
+        newGame.reset(allPlayers, seed);
 
         newGame.run();
         int playerOnTeam = -1;
@@ -138,12 +228,7 @@ public class GameEvaluator implements SolutionEvaluator {
         }
         if (playerOnTeam == -1)
             throw new AssertionError("No Player found on team " + playerIndex);
-        double retValue = tuningGame ? gameHeuristic.evaluateGame(newGame) : stateHeuristic.evaluateState(newGame.getGameState(), playerOnTeam);
-
-    //    System.out.println("GameEvaluator: " + retValue);
-
-        nEvals++;
-        return retValue;
+        return tuningGame ? gameHeuristic.evaluateGame(newGame) : stateHeuristic.evaluateState(newGame.getGameState(), playerOnTeam);
     }
 
     public void addListener(IGameListener listener) {
@@ -169,5 +254,12 @@ public class GameEvaluator implements SolutionEvaluator {
         return nEvals;
     }
 
+    /**
+     * @return The number of evaluations that reused the value of a game already played
+     */
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
 
 }
@@ -8,6 +8,11 @@ import core.interfaces.IStateHeuristic;
 import evaluation.listeners.IGameListener;
 import evaluation.tournaments.RoundRobinTournament;
 import org.apache.commons.math3.util.CombinatoricsUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+import evodef.SearchSpace;
+import evodef.SolutionEvaluator;
 import games.GameType;
 import ntbea.NTupleBanditEA;
 import ntbea.NTupleSystem;
@@ -20,9 +25,9 @@ import utilities.Pair;
 import utilities.StatSummary;
 import utilities.Utils;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.function.IntToDoubleFunction;
 import java.util.regex.Pattern;
@@ -47,6 +52,12 @@ public class NTBEA {
     int currentIteration = 0;
     IStateHeuristic stateHeuristic;
     IGameHeuristic gameHeuristic;
+    // for checkpoints: the score of each winner, and the samples taken so far in the current run
+    List<Pair<Double, Double>> winnerScores = new ArrayList<>();
+    List<int[]> sampledSettings = new ArrayList<>();
+    List<Double> sampledValues = new ArrayList<>();
+    static final int CHECKPOINT_PERIOD = 10;
+    static final String CHECKPOINT_FILE = "NTBEA_checkpoint.json";
 
     public NTBEA(NTBEAParameters parameters, GameType game, int nPlayers) {
         // Now initialise the other bits and pieces needed for the NTBEA package
@@ -107,6 +118,7 @@ public class NTBEA {
                 gameHeuristic,
                 true
         );
+        evaluator.setCommonSeeds(params.commonSeeds);
     }
 
     public void setOpponents(List<AbstractPlayer> opponents) {
@@ -124,8 +136,11 @@ public class NTBEA {
      * @return
      */
     public Pair<Object, int[]> run() {
+        if (params.evalGames > evaluator.validationGames())
+            throw new IllegalArgumentException(String.format("With %d common seeds there are only %d distinct games to evaluate each winner on, but evalGames is %d",
+                    params.commonSeeds, evaluator.validationGames(), params.evalGames));
 
-        for (currentIteration = 0; currentIteration < params.repeats; currentIteration++) {
+        for (currentIteration = readCheckpoint(); currentIteration < params.repeats; currentIteration++) {
             runIteration();
         }
 
@@ -159,6 +174,9 @@ public class NTBEA {
 
             RoundRobinTournament tournament = new RoundRobinTournament(players, game, nPlayers, gamesPerMatchup, NO_SELF_PLAY, params.gameParams, params.byTeam);
             tournament.verbose = false;
+            tournament.setRandomSeed(params.seed);
+            if (!params.checkpointDir.isEmpty())
+                tournament.setCheckpoint(params.checkpointDir + File.separator + "NTBEA_tournament.games");
             createListeners().forEach(tournament::addListener);
             tournament.run();
             // create a new list of results in descending order of score
@@ -199,6 +217,7 @@ public class NTBEA {
             }
         }
         if (params.verbose) {
+            System.out.printf("%nPlayed %d evaluation games, and reused the result of %d%n", evaluator.cache.size(), evaluator.getCacheHits());
             System.out.println("\nFinal Recommendation: ");
             // we don't log the final run to file to avoid duplication
             printDetailsOfRun(bestResult);
@@ -208,7 +227,53 @@ public class NTBEA {
 
     protected void runTrials() {
         evaluator.reset();
-        searchFramework.runTrial(evaluator, params.iterationsPerRun);
+        if (!sampledSettings.isEmpty()) {
+            // we are resuming a run, so we put its samples back in the model, and continue the search from the last
+            evaluator.nEvals = sampledSettings.size();
+            for (int i = 0; i < sampledSettings.size(); i++) {
+                landscapeModel.addPoint(sampledSettings.get(i), sampledValues.get(i));
+                evaluator.countEvaluation(sampledSettings.get(i));
+            }
+            searchFramework.seed = sampledSettings.get(sampledSettings.size() - 1);
+        }
+        searchFramework.runTrial(params.checkpointDir.isEmpty() ? evaluator : new CheckpointingEvaluator(),
+                params.iterationsPerRun - sampledSettings.size());
+        searchFramework.seed = null;
+    }
+
+    /**
+     * Records each sample taken by NTBEA, and checkpoints the run every CHECKPOINT_PERIOD samples
+     */
+    private class CheckpointingEvaluator implements SolutionEvaluator {
+        @Override
+        public void reset() {
+            evaluator.reset();
+        }
+
+        @Override
+        public double evaluate(double[] doubles) {
+            return evaluator.evaluate(doubles);
+        }
+
+        @Override
+        public double evaluate(int[] settings) {
+            double retValue = evaluator.evaluate(settings);
+            sampledSettings.add(settings.clone());
+            sampledValues.add(retValue);
+            if (sampledSettings.size() % CHECKPOINT_PERIOD == 0)
+                writeCheckpoint();
+            return retValue;
+        }
+
+        @Override
+        public SearchSpace searchSpace() {
+            return evaluator.searchSpace();
+        }
+
+        @Override
+        public int nEvals() {
+            return evaluator.nEvals();
+        }
     }
 
     protected void runIteration() {
@@ -230,12 +295,111 @@ public class NTBEA {
 
         winnersPerRun.add(params.searchSpace.getAgent(thisWinnerSettings));
         winnerSettings.add(thisWinnerSettings);
+        winnerScores.add(scoreOfBestAgent);
         Pair<Pair<Double, Double>, int[]> resultToReport = new Pair<>(scoreOfBestAgent, thisWinnerSettings);
         if (params.verbose)
             printDetailsOfRun(resultToReport);
         logDetailsOfRun(resultToReport);
         if (resultToReport.a.a > bestResult.a.a)
             bestResult = resultToReport;
+        sampledSettings.clear();
+        sampledValues.clear();
+        if (!params.checkpointDir.isEmpty())
+            writeCheckpoint();
+    }
+
+    /**
+     * The checkpoint has the settings and score of the winner of each completed run, the samples taken so far in the
+     * current run, and the state of the evaluator's random number generator (from which the seed of each game is
+     * drawn). It is written to a temporary file that then replaces the previous checkpoint.
+     */
+    @SuppressWarnings("unchecked")
+    protected void writeCheckpoint() {
+        JSONObject json = new JSONObject();
+        JSONArray winners = new JSONArray();
+        for (int i = 0; i < winnerSettings.size(); i++) {
+            JSONObject winner = new JSONObject();
+            winner.put("settings", toJSON(winnerSettings.get(i)));
+            winner.put("score", winnerScores.get(i).a);
+            winner.put("stdErr", winnerScores.get(i).b);
+            winners.add(winner);
+        }
+        json.put("winners", winners);
+        JSONArray samples = new JSONArray();
+        for (int i = 0; i < sampledSettings.size(); i++) {
+            JSONObject sample = new JSONObject();
+            sample.put("settings", toJSON(sampledSettings.get(i)));
+            sample.put("value", sampledValues.get(i));
+            samples.add(sample);
+        }
+        json.put("samples", samples);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(evaluator.rnd);
+            }
+            json.put("random", Base64.getEncoder().encodeToString(bytes.toByteArray()));
+
+            Utils.createDirectory(params.checkpointDir);
+            File file = new File(params.checkpointDir, CHECKPOINT_FILE);
+            File tmp = new File(params.checkpointDir, CHECKPOINT_FILE + ".tmp");
+            try (FileWriter writer = new FileWriter(tmp)) {
+                writer.write(json.toJSONString());
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new AssertionError("Unable to write checkpoint to " + params.checkpointDir + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Restores the state saved by writeCheckpoint() (if there is a checkpoint)
+     *
+     * @return the number of runs that were complete
+     */
+    protected int readCheckpoint() {
+        File file = new File(params.checkpointDir, CHECKPOINT_FILE);
+        if (params.checkpointDir.isEmpty() || !file.exists())
+            return 0;
+        try (FileReader reader = new FileReader(file)) {
+            JSONObject json = (JSONObject) JSONUtils.parser.parse(reader);
+            for (Object o : (JSONArray) json.get("winners")) {
+                JSONObject winner = (JSONObject) o;
+                int[] settings = fromJSON((JSONArray) winner.get("settings"));
+                Pair<Double, Double> score = new Pair<>(((Number) winner.get("score")).doubleValue(), ((Number) winner.get("stdErr")).doubleValue());
+                winnersPerRun.add(params.searchSpace.getAgent(settings));
+                winnerSettings.add(settings);
+                winnerScores.add(score);
+                if (score.a > bestResult.a.a)
+                    bestResult = new Pair<>(score, settings);
+            }
+            for (Object o : (JSONArray) json.get("samples")) {
+                JSONObject sample = (JSONObject) o;
+                sampledSettings.add(fromJSON((JSONArray) sample.get("settings")));
+                sampledValues.add(((Number) sample.get("value")).doubleValue());
+            }
+            byte[] bytes = Base64.getDecoder().decode((String) json.get("random"));
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                evaluator.rnd = (Random) in.readObject();
+            }
+        } catch (IOException | ParseException | ClassNotFoundException e) {
+            throw new AssertionError("Unable to read checkpoint " + file + " : " + e.getMessage());
+        }
+        if (params.verbose)
+            System.out.printf("Resuming NTBEA after %d runs and %d samples%n", winnerSettings.size(), sampledSettings.size());
+        return winnerSettings.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONArray toJSON(int[] settings) {
+        JSONArray retValue = new JSONArray();
+        for (int setting : settings)
+            retValue.add(setting);
+        return retValue;
+    }
+
+    private static int[] fromJSON(JSONArray settings) {
+        return settings.stream().mapToInt(o -> ((Number) o).intValue()).toArray();
     }
 
     private List<IGameListener> createListeners() {
@@ -248,7 +412,7 @@ public class NTBEA {
     protected Pair<Double, Double> evaluateWinner(int[] winnerSettings) {
 
         double[] results = IntStream.range(0, params.evalGames)
-                .mapToDouble(answer -> evaluator.evaluate(winnerSettings)).toArray();
+                .mapToDouble(i -> evaluator.validate(winnerSettings, i)).toArray();
 
         double avg = Arrays.stream(results).average().orElse(0.0);
         double stdErr = Math.sqrt(Arrays.stream(results)
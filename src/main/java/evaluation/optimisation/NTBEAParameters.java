@@ -44,6 +44,10 @@ public class NTBEAParameters {
     public ITPSearchSpace searchSpace;
     public AbstractParameters gameParams;
     public boolean byTeam;
+    // if positive, the number of common seeds on which every settings is evaluated (see GameEvaluator)
+    public int commonSeeds;
+    // if not empty, the directory in which the run is checkpointed (and from which it is resumed)
+    public String checkpointDir;
 
     public NTBEAParameters(Map<RunArg, Object> args) {
         this(args, Function.identity());
@@ -64,6 +68,8 @@ public class NTBEAParameters {
         verbose = (boolean) args.get(RunArg.verbose);
         seed = (long) args.get(RunArg.seed);
         byTeam = (boolean) args.get(RunArg.byTeam);
+        commonSeeds = (int) args.get(RunArg.commonSeeds);
+        checkpointDir = (String) args.get(RunArg.resume);
         GameType game = GameType.valueOf(args.get(RunArg.game).toString());
         gameParams = args.get(RunArg.gameParams).equals("") ? null :
                 AbstractParameters.createFromFile(game, (String) args.get(RunArg.gameParams));
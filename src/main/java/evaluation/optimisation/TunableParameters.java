@@ -420,7 +420,9 @@ public abstract class TunableParameters extends AbstractParameters implements IT
         if (!(o instanceof TunableParameters)) return false;
         TunableParameters that = (TunableParameters) o;
         // getRandomSeed() == that.getRandomSeed() && removed, so that equals (and hashcode) covers parameters only
-        return  _equals(o)
+        // subclasses compare their own fields in _equals(), and must not call equals() from there
+        return super.equals(o)
+                && _equals(o)
                 && that.parameterNames.equals(parameterNames)
                 && that.possibleValues.equals(possibleValues)
                 && that.currentValues.equals(currentValues)
@@ -0,0 +1,123 @@
+package evaluation.tournaments;
+
+import core.AbstractParameters;
+import core.AbstractPlayer;
+import core.Game;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static core.CoreConstants.GameResult;
+
+/**
+ * The result of one game of a tournament, for each position in the matchup (which is a team if the tournament is
+ * by team). This is all that a tournament needs to record the game, so that games can be played elsewhere (by a
+ * TournamentWorker) and written to a file as a single line.
+ */
+public class GameOutcome {
+
+    public final List<Integer> agentIDs;
+    public final long seed;
+    public final GameResult[] results;
+    public final int[] ordinals;
+
+    public GameOutcome(List<Integer> agentIDs, long seed, GameResult[] results, int[] ordinals) {
+        this.agentIDs = agentIDs;
+        this.seed = seed;
+        this.results = results;
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * Plays one game with the agents in the matchup. The agents are reseeded, and any random game parameters chosen,
+     * from the seed, so that the outcome depends only on the seed and not on which games were played before this one
+     * (or in which JVM).
+     *
+     * @param players  - the agents for each position
+     * @param agentIDs - the index of each agent in the tournament
+     * @param byTeam   - if true then each position is a team, and we take the result of its first player
+     */
+    public static GameOutcome play(Game game, List<AbstractPlayer> players, List<Integer> agentIDs, long seed,
+                                   boolean byTeam, boolean randomGameParams) {
+        Random seeds = new Random(seed);
+        for (AbstractPlayer player : players)
+            player.setRandomSeed(seeds.nextLong());
+
+        // Randomize parameters
+        if (randomGameParams) {
+            AbstractParameters params = game.getGameState().getGameParameters();
+            params.setRandomSeed(seed);
+            params.randomize();
+            System.out.println("Game parameters: " + params);
+        }
+        game.reset(players, seed);
+
+        game.run();  // Always running tournaments without visuals
+        GameResult[] playerResults = game.getGameState().getPlayerResults();
+        GameResult[] results = new GameResult[agentIDs.size()];
+        int[] ordinals = new int[agentIDs.size()];
+        for (int j = 0; j < agentIDs.size(); j++) {
+            int player = j;
+            // now we need to be careful if we have a team game, as the agents are indexed by Team, not player
+            if (byTeam) {
+                for (player = 0; player < game.getGameState().getNPlayers(); player++) {
+                    if (game.getGameState().getTeam(player) == j)
+                        break; // we stop after one player on the team to avoid double counting
+                }
+            }
+            results[j] = playerResults[player];
+            ordinals[j] = game.getGameState().getOrdinalPosition(player);
+        }
+        return new GameOutcome(agentIDs, seed, results, ordinals);
+    }
+
+    /**
+     * @return the agents and seed of a game, in the format read by agentsFromLine() and seedFromLine()
+     */
+    public static String gameToLine(List<Integer> agentIDs, long seed) {
+        return join(agentIDs) + "\t" + seed;
+    }
+
+    public static List<Integer> agentsFromLine(String line) {
+        return Arrays.stream(line.split("\t")[0].split(",")).map(Integer::valueOf).collect(Collectors.toList());
+    }
+
+    public static long seedFromLine(String line) {
+        return Long.parseLong(line.split("\t")[1]);
+    }
+
+    /**
+     * @return this outcome as a tab-separated line: agents, seed, results and ordinal positions
+     */
+    public String toLine() {
+        return gameToLine(agentIDs, seed) + "\t" +
+                Arrays.stream(results).map(GameResult::name).collect(Collectors.joining(",")) + "\t" +
+                Arrays.stream(ordinals).mapToObj(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the line is not a complete game outcome (for example if it was cut short)
+     */
+    public static GameOutcome fromLine(String line) {
+        String[] fields = line.split("\t");
+        if (fields.length != 4)
+            throw new IllegalArgumentException("Not a game outcome : " + line);
+        List<Integer> agentIDs = agentsFromLine(line);
+        GameResult[] results = Arrays.stream(fields[2].split(",", -1)).map(GameResult::valueOf).toArray(GameResult[]::new);
+        int[] ordinals = Arrays.stream(fields[3].split(",", -1)).mapToInt(Integer::parseInt).toArray();
+        if (results.length != agentIDs.size() || ordinals.length != agentIDs.size())
+            throw new IllegalArgumentException("Not a game outcome for " + agentIDs.size() + " agents : " + line);
+        return new GameOutcome(agentIDs, seedFromLine(line), results, ordinals);
+    }
+
+    private static String join(List<Integer> values) {
+        return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    @Override
+    public String toString() {
+        return toLine();
+    }
+}
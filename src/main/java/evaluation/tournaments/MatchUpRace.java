@@ -0,0 +1,97 @@
+package evaluation.tournaments;
+
+import java.util.List;
+
+/**
+ * Tracks the results of the games played by one matchup (one combination of agents in their positions) so that a
+ * tournament can stop playing it once the outcome is decided.
+ * <p>
+ * For each pair of positions we score +1 each time the first finishes ahead of the second (in ordinal position), -1
+ * each time it finishes behind, and 0 for a tie. The matchup is decided once the leading position is ahead of every
+ * position held by a different agent at the required confidence. This uses a Hoeffding bound, with a union bound over
+ * the maximum number of times we might look at the results (so that stopping as soon as the bound is passed does not
+ * inflate the error rate).
+ */
+public class MatchUpRace {
+
+    public final List<Integer> agentIDs;
+    private final double[][] score;
+    private int nGames;
+
+    public MatchUpRace(List<Integer> agentIDs) {
+        this.agentIDs = agentIDs;
+        this.score = new double[agentIDs.size()][agentIDs.size()];
+    }
+
+    /**
+     * @param ordinals - the ordinal position (1 is first) of each position in the matchup at the end of a game
+     */
+    public void update(int[] ordinals) {
+        for (int i = 0; i < ordinals.length; i++)
+            for (int j = 0; j < ordinals.length; j++)
+                score[i][j] += Integer.compare(ordinals[j], ordinals[i]);
+        nGames++;
+    }
+
+    public int getGamesPlayed() {
+        return nGames;
+    }
+
+    /**
+     * @return true if the matchup contains at least two different agents (i.e. there is an outcome to decide)
+     */
+    public boolean isContested() {
+        return agentIDs.stream().distinct().count() > 1;
+    }
+
+    /**
+     * @return the position with the highest total score against the others
+     */
+    public int leader() {
+        int leader = 0;
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < score.length; i++) {
+            double total = 0.0;
+            for (int j = 0; j < score.length; j++)
+                total += score[i][j];
+            if (total > best) {
+                best = total;
+                leader = i;
+            }
+        }
+        return leader;
+    }
+
+    /**
+     * @param maxLooks - the maximum number of games the matchup could play
+     * @return the confidence that the leader finishes ahead of every other agent in the matchup
+     */
+    public double confidence(int maxLooks) {
+        if (!isContested())
+            return 0.0;
+        int leader = leader();
+        double retValue = 1.0;
+        for (int j = 0; j < score.length; j++) {
+            if (agentIDs.get(j).equals(agentIDs.get(leader)))
+                continue;
+            retValue = Math.min(retValue, confidence(score[leader][j], nGames, maxLooks));
+        }
+        return retValue;
+    }
+
+    public boolean isDecided(double requiredConfidence, int maxLooks) {
+        return confidence(maxLooks) >= requiredConfidence;
+    }
+
+    /**
+     * The confidence that the expected pairwise score is positive, given the sum of n scores in [-1, 1], when we
+     * might have looked at the results up to maxLooks times.
+     */
+    public static double confidence(double sum, int n, int maxLooks) {
+        if (n == 0 || sum <= 0.0)
+            return 0.0;
+        double mean = sum / n;
+        // Hoeffding: P(mean > t) <= exp(-2 n t^2 / range^2), with a range of 2
+        return Math.max(0.0, 1.0 - Math.max(maxLooks, 1) * Math.exp(-n * mean * mean / 2.0));
+    }
+}
@@ -36,6 +36,7 @@ public class RandomRRTournament extends RoundRobinTournament {
      * Instead of recursively constructing all possible combinations of players for the game (as in the super-class)
      * here we create random matchups. This is designed for large numbers of players, for which an exhaustive
      * search of all permutations would be prohibitive.
+     * If a stopConfidence has been set, then we stop as soon as one agent is ahead of every other at that confidence.
      *
      * @param ignored - this input is ignored
      */
@@ -47,6 +48,13 @@ public class RandomRRTournament extends RoundRobinTournament {
             for (int j = 0; j < nTeams; j++)
                 matchup.add(idStream.getAsInt());
             evaluateMatchUp(matchup);
+            if (coordinator != null)
+                continue;  // the games have only been submitted, so there are no results yet
+            if (stopConfidence > 0.0 && leaderDecided(stopConfidence, totalMatchups)) {
+                if (verbose)
+                    System.out.printf("Stopping after %d of %d matchups as the leader is decided%n", i + 1, totalMatchups);
+                break;
+            }
             if(reportPeriod > 0 && (i+1) % reportPeriod == 0 && i != totalMatchups - 1) {
                 reportResults();
             }
@@ -7,6 +7,7 @@ import evaluation.listeners.TournamentMetricsGameListener;
 import games.GameType;
 import utilities.Pair;
 
+import java.io.File;
 import java.io.FileWriter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -28,6 +29,16 @@ public class RoundRobinTournament extends AbstractTournament {
     double[] pointsPerPlayerSquared;
     double[] rankPerPlayer;
     double[] rankPerPlayerSquared;
+    // for each pair of agents, the sum of +1 (ahead) / -1 (behind) / 0 (tie) over the games they played together
+    double[][] pairwiseScore;
+    int[][] pairwiseGames;
+    // if > 0, then matchups stop early once their outcome is decided at this confidence (see MatchUpRace)
+    protected double stopConfidence;
+    private final List<MatchUpRace> pendingRaces = new ArrayList<>();
+    // if not null, then games are played by worker JVMs instead of this one
+    protected TournamentCoordinator coordinator;
+    // if not null, then each game is logged here (and games logged by an earlier run are replayed)
+    protected TournamentCheckpoint checkpoint;
     protected LinkedHashMap<Integer, Pair<Double, Double>> finalWinRanking; // contains index of agent in agents
     protected LinkedHashMap<Integer, Pair<Double, Double>> finalOrdinalRanking; // contains index of agent in agents
     LinkedList<Integer> allAgentIds;
@@ -75,6 +86,8 @@ public class RoundRobinTournament extends AbstractTournament {
         }
         this.rankPerPlayer = new double[agents.size()];
         this.rankPerPlayerSquared = new double[agents.size()];
+        this.pairwiseScore = new double[agents.size()][agents.size()];
+        this.pairwiseGames = new int[agents.size()][agents.size()];
         this.gamesPerPlayer = new int[agents.size()];
         this.byTeam = byTeam;
         this.name = String.format("Game: %s, Players: %d, GamesPerMatchup: %d, Mode: %s", gameToPlay.name(), playersPerGame, gamesPerMatchUp, mode.name());
@@ -99,6 +112,20 @@ public class RoundRobinTournament extends AbstractTournament {
         }
         LinkedList<Integer> matchUp = new LinkedList<>();
         createAndRunMatchUp(matchUp);
+        if (!pendingRaces.isEmpty())
+            raceMatchUps();
+        if (coordinator != null) {
+            for (GameOutcome outcome : coordinator.run(game.getGameType(), nPlayers, byTeam)) {
+                recordOutcome(outcome);
+                if (checkpoint != null)
+                    checkpoint.record(outcome);
+            }
+        }
+        if (checkpoint != null) {
+            if (verbose)
+                System.out.printf("Resumed %d games from checkpoint%n", checkpoint.getReplayedGames());
+            checkpoint.close();
+        }
         reportResults();
 
         for (IGameListener listener : listeners)
@@ -150,8 +177,11 @@ public class RoundRobinTournament extends AbstractTournament {
                     // We will therefore use the first chunk of gameSeeds only (but use the same gameSeeds for each position)
                     evaluateMatchUp(matchup, gamesPerMatchUp / nTeams);
                 } else {
-                    Random rnd = new Random(System.currentTimeMillis());
+                    // the games use the seeds following the game's seed, which we set so the tournament can be repeated
+                    Random rnd = new Random(randomSeed + p);
                     gameSeeds = null;
+                    if (p == 0)
+                        game.getGameState().getGameParameters().setRandomSeed(randomSeed);
                     for (int m = 0; m < this.gamesPerMatchUp; m++) {
                         Collections.shuffle(agentOrder, rnd);
                         List<Integer> matchup = new ArrayList<>(nTeams);
@@ -169,7 +199,10 @@ public class RoundRobinTournament extends AbstractTournament {
         } else {
             // in this case we are in exhaustive mode, so we recursively construct all possible combinations of players
             if (matchUp.size() == nTeams) {
-                evaluateMatchUp(matchUp);
+                if (stopConfidence > 0.0)
+                    pendingRaces.add(new MatchUpRace(new ArrayList<>(matchUp)));  // these are run by raceMatchUps()
+                else
+                    evaluateMatchUp(matchUp);
             } else {
                 for (Integer agentID : this.allAgentIds) {
                     if (tournamentMode == SELF_PLAY || !matchUp.contains(agentID)) {
@@ -186,12 +219,58 @@ public class RoundRobinTournament extends AbstractTournament {
         evaluateMatchUp(agentIDs, gamesPerMatchUp);
     }
 
+    protected void evaluateMatchUp(List<Integer> agentIDsInThisGame, int nGames) {
+        evaluateMatchUp(agentIDsInThisGame, 0, nGames, null);
+    }
+
+    /**
+     * Plays every exhaustive matchup with racing: each undecided matchup plays one game in turn until it is decided
+     * at stopConfidence or has played gamesPerMatchUp games. The games saved by the decided matchups are then
+     * spent, one at a time in turn, on the matchups that are still undecided.
+     */
+    protected void raceMatchUps() {
+        int budget = pendingRaces.size() * gamesPerMatchUp;
+        // the first gamesPerMatchUp seeds are the same as those used without racing
+        Random seedRnd = new Random(randomSeed);
+        gameSeeds = IntStream.range(0, budget).map(i -> seedRnd.nextInt()).toArray();
+
+        int gamesUsed = 0;
+        boolean extraGames = false;
+        while (gamesUsed < budget) {
+            boolean played = false;
+            for (MatchUpRace race : pendingRaces) {
+                if (gamesUsed == budget)
+                    break;
+                if (race.isDecided(stopConfidence, budget))
+                    continue;
+                if (extraGames ? !race.isContested() : race.getGamesPlayed() >= gamesPerMatchUp)
+                    continue;
+                evaluateMatchUp(race.agentIDs, race.getGamesPlayed(), 1, race);
+                gamesUsed++;
+                played = true;
+            }
+            if (!played) {
+                if (extraGames)
+                    break;  // everything is decided
+                extraGames = true;
+            }
+        }
+        if (verbose) {
+            for (MatchUpRace race : pendingRaces)
+                System.out.printf("%s: %d games, confidence %.3f%n", race.agentIDs, race.getGamesPlayed(), race.confidence(budget));
+            System.out.printf("Racing used %d of %d games%n", gamesUsed, budget);
+        }
+        pendingRaces.clear();
+    }
+
     /**
      * Evaluates one combination of players.
      *
      * @param agentIDsInThisGame - IDs of agents participating in this run.
+     * @param firstGame          - the index (into the game seeds) of the first game to play
+     * @param race               - if not null, this is updated with the result of each game
      */
-    protected void evaluateMatchUp(List<Integer> agentIDsInThisGame, int nGames) {
+    protected void evaluateMatchUp(List<Integer> agentIDsInThisGame, int firstGame, int nGames, MatchUpRace race) {
         if (debug)
             System.out.printf("Evaluate %s at %tT%n", agentIDsInThisGame.toString(), System.currentTimeMillis());
         LinkedList<AbstractPlayer> matchUpPlayers = new LinkedList<>();
@@ -217,87 +296,87 @@ public class RoundRobinTournament extends AbstractTournament {
         }
 
         // Run the game N = gamesPerMatchUp times with these players
-        for (int i = 0; i < nGames; i++) {
+        for (int i = firstGame; i < firstGame + nGames; i++) {
             // Use the same seeds for all games in each matchup (if gameSeeds specified)
             long currentSeed = gameSeeds == null ? game.getGameState().getGameParameters().getRandomSeed() + i + 1 : gameSeeds[i];
-            game.reset(matchUpPlayers, currentSeed);
-
-            // Randomize parameters
-            if (randomGameParams) {
-                game.getGameState().getGameParameters().randomize();
-                System.out.println("Game parameters: " + game.getGameState().getGameParameters());
+            GameOutcome logged = checkpoint == null ? null : checkpoint.replay(agentIDsInThisGame, currentSeed);
+            if (logged != null) {
+                recordOutcome(logged);
+                if (race != null)
+                    race.update(logged.ordinals);
+                if (gameSeeds == null)
+                    game.getGameState().getGameParameters().setRandomSeed(currentSeed);  // as if the game were played
+                continue;
             }
-
-            game.run();  // Always running tournaments without visuals
-            GameResult[] results = game.getGameState().getPlayerResults();
-
-            int numDraws = 0;
-            for (int j = 0; j < matchUpPlayers.size(); j++) {
-                nGamesPlayed[agentIDsInThisGame.get(j)] += 1;
-                for (int k = 0; k < matchUpPlayers.size(); k++) {
-                    if (k != j) {
-                        nGamesPlayedPerOpponent[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)] += 1;
-                    }
-                }
-
-                // now we need to be careful if we have a team game, as the agents are indexed by Team, not player
-                if (byTeam) {
-                    for (int player = 0; player < game.getGameState().getNPlayers(); player++) {
-                        if (game.getGameState().getTeam(player) == j) {
-                            numDraws += updatePoints(results, agentIDsInThisGame, agentIDsInThisGame.get(j), player);
-                            break; // we stop after one player on the team to avoid double counting
-                        }
-                    }
-                } else {
-                    numDraws += updatePoints(results, agentIDsInThisGame, agentIDsInThisGame.get(j), j);
-                }
+            if (coordinator != null && race == null) {
+                // the game is played by a worker, and recorded once the coordinator has collected the results
+                coordinator.submit(agentIDsInThisGame, currentSeed);
+                continue;
             }
+            GameOutcome outcome = GameOutcome.play(game, matchUpPlayers, agentIDsInThisGame, currentSeed, byTeam, randomGameParams);
+            recordOutcome(outcome);
+            if (checkpoint != null)
+                checkpoint.record(outcome);
+            if (race != null)
+                race.update(outcome.ordinals);
+        }
+    }
 
-            if (numDraws > 0) {
-                double pointsPerDraw = 1.0 / numDraws;
-                for (int j = 0; j < matchUpPlayers.size(); j++) {
-                    if (results[j] == GameResult.DRAW_GAME) pointsPerPlayer[agentIDsInThisGame.get(j)] += pointsPerDraw;
-                    if (results[j] == GameResult.DRAW_GAME)
-                        pointsPerPlayerSquared[agentIDsInThisGame.get(j)] += pointsPerDraw * pointsPerDraw;
+    /**
+     * Adds the result of one game to the statistics of the agents that played it
+     */
+    protected void recordOutcome(GameOutcome outcome) {
+        List<Integer> agentIDsInThisGame = outcome.agentIDs;
+        int numDraws = 0;
+        for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+            nGamesPlayed[agentIDsInThisGame.get(j)] += 1;
+            for (int k = 0; k < agentIDsInThisGame.size(); k++) {
+                if (k != j) {
+                    nGamesPlayedPerOpponent[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)] += 1;
                 }
             }
-
-            if (verbose) {
-                StringBuffer sb = new StringBuffer();
-                sb.append("[");
-                for (int j = 0; j < matchUpPlayers.size(); j++) {
-                    for (int player = 0; player < game.getGameState().getNPlayers(); player++) {
-                        if (game.getGameState().getTeam(player) == j) {
-                            sb.append(results[player]).append(",");
-                            break; // we stop after one player on the team to avoid double counting
-                        }
-                    }
+            numDraws += updatePoints(outcome, agentIDsInThisGame.get(j), j);
+        }
+        for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+            for (int k = 0; k < agentIDsInThisGame.size(); k++) {
+                if (!agentIDsInThisGame.get(j).equals(agentIDsInThisGame.get(k))) {
+                    pairwiseScore[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)] += Integer.compare(outcome.ordinals[k], outcome.ordinals[j]);
+                    pairwiseGames[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)]++;
                 }
-                sb.setCharAt(sb.length() - 1, ']');
-                System.out.println(sb);
             }
+        }
 
+        if (numDraws > 0) {
+            double pointsPerDraw = 1.0 / numDraws;
+            for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+                if (outcome.results[j] == GameResult.DRAW_GAME) pointsPerPlayer[agentIDsInThisGame.get(j)] += pointsPerDraw;
+                if (outcome.results[j] == GameResult.DRAW_GAME)
+                    pointsPerPlayerSquared[agentIDsInThisGame.get(j)] += pointsPerDraw * pointsPerDraw;
+            }
         }
-        totalGamesRun += nGames;
+
+        if (verbose)
+            System.out.println(Arrays.toString(outcome.results).replace(" ", ""));
+        totalGamesRun++;
     }
 
-    private int updatePoints(GameResult[] results, List<Integer> matchUpPlayers, int j, int player) {
-        // j is the index of the agent in the matchup; player is the corresponding player number in the game
-        int ordinalPos = game.getGameState().getOrdinalPosition(player);
+    private int updatePoints(GameOutcome outcome, int j, int position) {
+        // j is the index of the agent in the tournament; position is its position in the matchup
+        int ordinalPos = outcome.ordinals[position];
         rankPerPlayer[j] += ordinalPos;
         rankPerPlayerSquared[j] += ordinalPos * ordinalPos;
 
-        if (results[player] == GameResult.WIN_GAME) {
+        if (outcome.results[position] == GameResult.WIN_GAME) {
             pointsPerPlayer[j] += 1;
             winsPerPlayer[j] += 1;
             pointsPerPlayerSquared[j] += 1;
-            for (int k : matchUpPlayers) {
+            for (int k : outcome.agentIDs) {
                 if (k != j) {
                     winsPerPlayerPerOpponent[j][k] += 1;
                 }
             }
         }
-        if (results[player] == GameResult.DRAW_GAME)
+        if (outcome.results[position] == GameResult.DRAW_GAME)
             return 1;
         return 0;
     }
@@ -376,6 +455,26 @@ public class RoundRobinTournament extends AbstractTournament {
             if (verbose) System.out.print(str);
         }
 
+        if (stopConfidence > 0.0) {
+            str = "---- Pairwise confidence ---- \n";
+            if (toFile) dataDump.add(str);
+            if (verbose) System.out.print(str);
+            for (int i = 0; i < this.agents.size(); i++) {
+                for (int j = i + 1; j < this.agents.size(); j++) {
+                    if (pairwiseGames[i][j] == 0)
+                        continue;
+                    // we report the pair from the point of view of the agent that is ahead
+                    int ahead = pairwiseScore[i][j] >= 0 ? i : j, behind = ahead == i ? j : i;
+                    str = String.format("%s ahead of %s: mean %.2f over %d games, confidence %.3f\n",
+                            agents.get(ahead), agents.get(behind),
+                            pairwiseScore[ahead][behind] / pairwiseGames[ahead][behind], pairwiseGames[ahead][behind],
+                            getPairwiseConfidence(ahead, behind));
+                    if (toFile) dataDump.add(str);
+                    if (verbose) System.out.print(str);
+                }
+            }
+        }
+
         // To file
         if (toFile) {
             try {
@@ -390,6 +489,30 @@ public class RoundRobinTournament extends AbstractTournament {
         }
     }
 
+    /**
+     * @return the confidence that agent i finishes ahead of agent j (see MatchUpRace), allowing for the results having
+     * been checked after every game of the tournament
+     */
+    public double getPairwiseConfidence(int i, int j) {
+        return MatchUpRace.confidence(pairwiseScore[i][j], pairwiseGames[i][j], totalGamesRun);
+    }
+
+    /**
+     * @return true if one agent is ahead of every other at the given confidence (with a union bound over maxLooks)
+     */
+    protected boolean leaderDecided(double confidence, int maxLooks) {
+        for (int i = 0; i < agents.size(); i++) {
+            boolean decided = true;
+            for (int j = 0; j < agents.size() && decided; j++) {
+                if (j != i)
+                    decided = MatchUpRace.confidence(pairwiseScore[i][j], pairwiseGames[i][j], maxLooks) >= confidence;
+            }
+            if (decided)
+                return true;
+        }
+        return false;
+    }
+
     public double getWinRate(int agentID) {
         return finalWinRanking.get(agentID).a;
     }
@@ -426,6 +549,31 @@ public class RoundRobinTournament extends AbstractTournament {
         this.randomSeed = randomSeed.longValue();
     }
 
+    /**
+     * @param stopConfidence - if > 0, then matchups stop once their outcome is decided at this confidence, and the
+     *                       games saved are given to the matchups that are still close
+     */
+    public void setStopConfidence(double stopConfidence) {
+        this.stopConfidence = stopConfidence;
+    }
+
+    /**
+     * @param coordinator - if not null, the games are played by the coordinator's workers (except when racing
+     *                    matchups, which needs the result of each game before the next is chosen). Game listeners
+     *                    are not called for these games, and randomGameParams is ignored.
+     */
+    public void setCoordinator(TournamentCoordinator coordinator) {
+        this.coordinator = coordinator;
+    }
+
+    /**
+     * @param checkpointFile - the file to which each game is logged. If it already exists (from an interrupted run
+     *                       with the same arguments) then the games in it are not played again.
+     */
+    public void setCheckpoint(String checkpointFile) {
+        this.checkpoint = new TournamentCheckpoint(new File(checkpointFile));
+    }
+
     public void setRandomGameParams(boolean randomGameParams) {
         this.randomGameParams = randomGameParams;
     }
@@ -65,7 +65,11 @@ public class SkillLadder {
                             "\t               The default is to spend 50% on tuning, and 50% on the final tournament to pick the best.\n" +
                             "\tgrid=          Default false. If true, then we run against all previous agents too.\n" +
                             "\tstartSettings= (Optional). A sequence of numbers that defines the starting agent. This is \n" +
-                            "\t               primarily useful if you need to re-start the ladder from a pre-calculated rung.\n"
+                            "\t               primarily useful if you need to re-start the ladder from a pre-calculated rung.\n" +
+                            "\tseed=          (Optional) The random seed for the tournaments and NTBEA runs.\n" +
+                            "\tresume=        (Optional) A directory for checkpoints of each tournament and NTBEA run. If the ladder is\n" +
+                            "\t               interrupted, then running it again with the same arguments (including the seed) continues\n" +
+                            "\t               from where it stopped.\n"
 
             );
             return;
@@ -99,6 +103,8 @@ public class SkillLadder {
         int[] currentBestSettings = new int[0];
 
         boolean runAgainstAllAgents = getArg(args, "grid", false);
+        long seed = getArg(args, "seed", System.currentTimeMillis());
+        String resume = getArg(args, "resume", "");
 
         List<AbstractPlayer> allAgents = new ArrayList<>(iterations);
         AbstractPlayer firstAgent;
@@ -156,6 +162,9 @@ public class SkillLadder {
                 RoundRobinTournament RRT = new RoundRobinTournament(agents, gameType, nPlayers, gamesPerIteration,
                         ONE_VS_ALL, params, false);
                 RRT.verbose = false;
+                RRT.setRandomSeed(seed);
+                if (!resume.isEmpty())
+                    RRT.setCheckpoint(resume + File.separator + "Budget_" + newBudget + "_vs_" + otherBudget + ".games");
                 for (String listenerClass : listenerClasses) {
                     if (listenerClass.isEmpty()) continue;
                     IGameListener gameTracker = IGameListener.createListener(listenerClass, null);
@@ -200,6 +209,8 @@ public class SkillLadder {
         ntbeaParameters.evalGames = 0;
         ntbeaParameters.opponentDescriptor = getArg(args, "player", "random");
         ntbeaParameters.logFile = "NTBEA_Runs.log";
+        if (!ntbeaParameters.checkpointDir.isEmpty())
+            ntbeaParameters.checkpointDir = ntbeaParameters.checkpointDir + File.separator + "Budget_" + agentBudget;
         return ntbeaParameters;
     }
 
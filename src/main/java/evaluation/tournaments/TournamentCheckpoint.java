@@ -0,0 +1,86 @@
+package evaluation.tournaments;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A log of the games a tournament has played, written as each game finishes (one GameOutcome per line), so that an
+ * interrupted tournament can be resumed. A tournament plays its games in the same order with the same seeds each
+ * time it is run with the same seed, so on resuming we replay() the logged outcomes in order instead of playing the
+ * games again. As each agent is reseeded from the seed of each game (see AbstractPlayer.setRandomSeed()), the games
+ * that are played are also the same as they would have been, and the statistics are exactly those of an uninterrupted
+ * run.
+ * <p>
+ * A game that was in progress when the run stopped is simply played again, and a partly written last line is dropped.
+ */
+public class TournamentCheckpoint {
+
+    private final File file;
+    private final List<GameOutcome> logged = new ArrayList<>();
+    private int replayed;
+    private PrintWriter writer;
+
+    public TournamentCheckpoint(File file) {
+        this.file = file;
+        if (file.exists()) {
+            try {
+                for (String line : Files.readAllLines(file.toPath())) {
+                    try {
+                        logged.add(GameOutcome.fromLine(line));
+                    } catch (IllegalArgumentException e) {
+                        // the run stopped while writing this line
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new AssertionError("Unable to read checkpoint " + file + " : " + e.getMessage());
+            }
+        } else if (file.getParentFile() != null && !file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+            throw new AssertionError("Unable to create directory for checkpoint " + file);
+        }
+        // we re-write the valid lines, so that anything we append starts on a new line
+        try {
+            writer = new PrintWriter(new FileWriter(file, false));
+            for (GameOutcome outcome : logged)
+                writer.println(outcome.toLine());
+            writer.flush();
+        } catch (IOException e) {
+            throw new AssertionError("Unable to write checkpoint " + file + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the logged outcome of the next game (which must be for the same agents and seed), or null if all the
+     * logged games have been replayed and this game needs to be played
+     */
+    public GameOutcome replay(List<Integer> agentIDs, long seed) {
+        if (replayed == logged.size())
+            return null;
+        GameOutcome outcome = logged.get(replayed);
+        if (!outcome.agentIDs.equals(agentIDs) || outcome.seed != seed)
+            throw new AssertionError(String.format("Game %d in checkpoint %s was %s with seed %d, but is now %s with seed %d. " +
+                    "A tournament can only be resumed with the same arguments (including the seed).",
+                    replayed, file, outcome.agentIDs, outcome.seed, agentIDs, seed));
+        replayed++;
+        return outcome;
+    }
+
+    public void record(GameOutcome outcome) {
+        writer.println(outcome.toLine());
+        writer.flush();
+    }
+
+    public int getLoggedGames() {
+        return logged.size();
+    }
+
+    public int getReplayedGames() {
+        return replayed;
+    }
+
+    public void close() {
+        writer.close();
+    }
+}
@@ -0,0 +1,195 @@
+package evaluation.tournaments;
+
+import games.GameType;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Runs the games of a tournament in other JVMs. The tournament submit()s each game (its agents and seed) instead of
+ * playing it, and then run() splits the games into units of work in a shared directory, starts the worker JVMs, and
+ * waits for them to write the results of every unit. The results are returned in the order the games were submitted,
+ * and each game is played with its agents reseeded from the game's seed (see GameOutcome.play()), so the tournament
+ * statistics are the same whatever the number of workers (as long as the agents have no time budget, and are seeded
+ * through AbstractPlayer.setRandomSeed()).
+ * <p>
+ * The files in the work directory are:
+ * - unit-N.todo : a unit waiting for a worker (first line is the game, player count and byTeam; then one game per line)
+ * - unit-N.running-W : a unit that worker W has claimed (by renaming the todo file, which only one worker can do)
+ * - unit-N.result : one GameOutcome per line, written once the whole unit has been played
+ * If a worker dies, then any unit it was running is renamed back to todo, and the worker is restarted (up to
+ * MAX_RESTARTS times) for as long as there are units to do. Each worker logs to worker-W.log in the directory.
+ * <p>
+ * Each worker is started with workerCommand (which must create the same agents in the same order as this JVM),
+ * followed by workDir=... and worker=W. See TournamentWorker.
+ */
+public class TournamentCoordinator {
+
+    public static final int UNIT_SIZE = 10;
+    public static final int MAX_RESTARTS = 3;
+    static final String TODO = ".todo", RUNNING = ".running-", RESULT = ".result";
+
+    private final File workDir;
+    private final int nWorkers;
+    private final List<String> workerCommand;
+    private final List<String> games = new ArrayList<>();
+    public boolean verbose = false;
+
+    /**
+     * @param workDir       - the directory to share with the workers (any units already in it are deleted)
+     * @param nWorkers      - the number of worker JVMs to run at once
+     * @param workerCommand - the command to start a worker
+     */
+    public TournamentCoordinator(File workDir, int nWorkers, List<String> workerCommand) {
+        this.workDir = workDir;
+        this.nWorkers = nWorkers;
+        this.workerCommand = workerCommand;
+    }
+
+    public void submit(List<Integer> agentIDs, long seed) {
+        games.add(GameOutcome.gameToLine(agentIDs, seed));
+    }
+
+    public int getPendingGames() {
+        return games.size();
+    }
+
+    /**
+     * Plays all the games submitted since the last call, and returns their outcomes in the order they were submitted
+     */
+    public List<GameOutcome> run(GameType gameType, int nPlayers, boolean byTeam) {
+        if (games.isEmpty())
+            return Collections.emptyList();
+        int nUnits = writeUnits(gameType.name() + "\t" + nPlayers + "\t" + byTeam);
+        if (verbose)
+            System.out.printf("Coordinator: %d games in %d units for %d workers in %s%n", games.size(), nUnits, nWorkers, workDir);
+
+        Process[] workers = new Process[nWorkers];
+        int[] restarts = new int[nWorkers];
+        // true once we have dealt with the exit of the current process of a worker, which may stay dead for some time
+        boolean[] reaped = new boolean[nWorkers];
+        try {
+            for (int w = 0; w < nWorkers; w++)
+                workers[w] = startWorker(w);
+            while (countFiles(RESULT) < nUnits) {
+                Thread.sleep(100);
+                for (int w = 0; w < nWorkers; w++) {
+                    if (workers[w].isAlive())
+                        continue;
+                    if (!reaped[w]) {
+                        reaped[w] = true;
+                        int requeued = requeue(w);
+                        if (workers[w].exitValue() != 0 || requeued > 0) {
+                            restarts[w]++;
+                            System.out.printf("Coordinator: worker %d exited with %d; %d units requeued%n", w, workers[w].exitValue(), requeued);
+                        }
+                    }
+                    if (countFiles(TODO) > 0) {
+                        if (restarts[w] > MAX_RESTARTS)
+                            throw new AssertionError("Worker " + w + " has failed too many times; see " + logFile(w));
+                        workers[w] = startWorker(w);
+                        reaped[w] = false;
+                    }
+                }
+                if (Arrays.stream(workers).noneMatch(Process::isAlive) && countFiles(TODO) == 0 && countFiles(RESULT) < nUnits)
+                    throw new AssertionError("All workers have finished, but not all units have results");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            for (Process worker : workers)
+                if (worker != null) worker.destroy();
+        }
+
+        List<GameOutcome> retValue = new ArrayList<>();
+        for (int u = 0; u < nUnits; u++)
+            retValue.addAll(readResults(unitFile(u, RESULT)));
+        if (retValue.size() != games.size())
+            throw new AssertionError(String.format("Expected %d game outcomes but have %d", games.size(), retValue.size()));
+        games.clear();
+        return retValue;
+    }
+
+    private int writeUnits(String header) {
+        if (!workDir.exists() && !workDir.mkdirs())
+            throw new AssertionError("Unable to create work directory " + workDir);
+        File[] old = workDir.listFiles((dir, name) -> name.startsWith("unit-"));
+        if (old != null)
+            for (File f : old)
+                if (!f.delete())
+                    throw new AssertionError("Unable to delete " + f);
+        int nUnits = (games.size() + UNIT_SIZE - 1) / UNIT_SIZE;
+        for (int u = 0; u < nUnits; u++) {
+            File tmp = new File(workDir, String.format("unit-%05d.tmp", u));
+            try (PrintWriter writer = new PrintWriter(new FileWriter(tmp))) {
+                writer.println(header);
+                for (String game : games.subList(u * UNIT_SIZE, Math.min(games.size(), (u + 1) * UNIT_SIZE)))
+                    writer.println(game);
+            } catch (IOException e) {
+                throw new AssertionError("Unable to write unit " + u + " : " + e.getMessage());
+            }
+            // rename only once complete, so that a worker never reads part of a unit
+            if (!tmp.renameTo(unitFile(u, TODO)))
+                throw new AssertionError("Unable to rename " + tmp);
+        }
+        return nUnits;
+    }
+
+    private Process startWorker(int w) {
+        List<String> command = new ArrayList<>(workerCommand);
+        command.add("workDir=" + workDir.getPath());
+        command.add("worker=" + w);
+        try {
+            return new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile(w)))
+                    .start();
+        } catch (IOException e) {
+            throw new AssertionError("Unable to start worker " + w + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Renames any unit that worker w had claimed back to a todo unit
+     *
+     * @return the number of units requeued
+     */
+    private int requeue(int w) {
+        File[] running = workDir.listFiles((dir, name) -> name.endsWith(RUNNING + w));
+        if (running == null)
+            return 0;
+        for (File f : running) {
+            String name = f.getName();
+            if (!f.renameTo(new File(workDir, name.substring(0, name.indexOf(RUNNING)) + TODO)))
+                throw new AssertionError("Unable to requeue " + f);
+        }
+        return running.length;
+    }
+
+    private int countFiles(String suffix) {
+        File[] files = workDir.listFiles((dir, name) -> name.startsWith("unit-") && name.endsWith(suffix));
+        return files == null ? 0 : files.length;
+    }
+
+    private File unitFile(int u, String suffix) {
+        return new File(workDir, String.format("unit-%05d", u) + suffix);
+    }
+
+    private File logFile(int w) {
+        return new File(workDir, "worker-" + w + ".log");
+    }
+
+    private static List<GameOutcome> readResults(File file) {
+        List<GameOutcome> retValue = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(file.toPath()))
+                if (!line.isEmpty())
+                    retValue.add(GameOutcome.fromLine(line));
+        } catch (IOException e) {
+            throw new AssertionError("Unable to read results " + file + " : " + e.getMessage());
+        }
+        return retValue;
+    }
+}
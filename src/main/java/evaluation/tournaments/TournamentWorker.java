@@ -0,0 +1,95 @@
+package evaluation.tournaments;
+
+import core.AbstractParameters;
+import core.AbstractPlayer;
+import core.Game;
+import games.GameType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.*;
+
+import static evaluation.tournaments.TournamentCoordinator.*;
+
+/**
+ * Plays the units of work written by a TournamentCoordinator, until there are none left to claim.
+ * The agents must be the same (and in the same order) as those of the tournament that submitted the games, which
+ * is the case when the worker is started with the same arguments to RunGames.
+ */
+public class TournamentWorker {
+
+    private final File workDir;
+    private final int id;
+    private final List<? extends AbstractPlayer> agents;
+    private final String gameParamsFile;
+    private Game game;
+    private String gameHeader = "";
+
+    /**
+     * @param gameParamsFile - a file from which to read the game parameters (if not empty)
+     */
+    public TournamentWorker(File workDir, int id, List<? extends AbstractPlayer> agents, String gameParamsFile) {
+        this.workDir = workDir;
+        this.id = id;
+        this.agents = agents;
+        this.gameParamsFile = gameParamsFile;
+    }
+
+    /**
+     * @return the number of units played
+     */
+    public int run() {
+        int played = 0;
+        while (true) {
+            File[] todo = workDir.listFiles((dir, name) -> name.startsWith("unit-") && name.endsWith(TODO));
+            if (todo == null || todo.length == 0)
+                return played;
+            Arrays.sort(todo);
+            for (File unit : todo) {
+                String name = unit.getName().substring(0, unit.getName().length() - TODO.length());
+                File claimed = new File(workDir, name + RUNNING + id);
+                // only one worker can rename the file, so if this fails another worker has the unit
+                if (!unit.renameTo(claimed))
+                    continue;
+                play(claimed, new File(workDir, name + RESULT));
+                played++;
+            }
+        }
+    }
+
+    private void play(File unit, File resultFile) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(unit.toPath());
+        } catch (IOException e) {
+            throw new AssertionError("Unable to read unit " + unit + " : " + e.getMessage());
+        }
+        String[] header = lines.get(0).split("\t");
+        boolean byTeam = Boolean.parseBoolean(header[2]);
+        if (!lines.get(0).equals(gameHeader)) {
+            GameType gameType = GameType.valueOf(header[0]);
+            int nPlayers = Integer.parseInt(header[1]);
+            game = gameParamsFile.isEmpty() ? gameType.createGameInstance(nPlayers) :
+                    gameType.createGameInstance(nPlayers, AbstractParameters.createFromFile(gameType, gameParamsFile));
+            gameHeader = lines.get(0);
+        }
+
+        File tmp = new File(workDir, resultFile.getName() + ".tmp-" + id);
+        try (PrintWriter writer = new PrintWriter(tmp)) {
+            for (String line : lines.subList(1, lines.size())) {
+                List<Integer> agentIDs = GameOutcome.agentsFromLine(line);
+                List<AbstractPlayer> players = new LinkedList<>();
+                for (int agentID : agentIDs)
+                    players.add(agents.get(agentID));
+                writer.println(GameOutcome.play(game, players, agentIDs, GameOutcome.seedFromLine(line), byTeam, false).toLine());
+            }
+        } catch (IOException e) {
+            throw new AssertionError("Unable to write results " + tmp + " : " + e.getMessage());
+        }
+        // the result only appears once complete; then the unit is no longer running
+        if (!tmp.renameTo(resultFile) || !unit.delete())
+            throw new AssertionError("Unable to complete unit " + unit);
+    }
+}
@@ -1,6 +1,7 @@
 package games;
 
 import core.*;
+import core.interfaces.IActionEncoder;
 import core.rules.AbstractRuleBasedForwardModel;
 import games.battlelore.*;
 import games.battlelore.gui.BattleloreGUI;
@@ -278,6 +279,14 @@ public enum GameType {
         }
     }
 
+    /**
+     * @return the encoder of actions to integer codes for the game, or null if it does not have one
+     */
+    public IActionEncoder createActionEncoder(AbstractParameters params, int nPlayers) {
+        AbstractForwardModel forwardModel = createForwardModel(params, nPlayers);
+        return forwardModel instanceof IActionEncoder ? (IActionEncoder) forwardModel : null;
+    }
+
     public AbstractParameters createParameters(long seed) {
         if (parameterClass == null) throw new AssertionError("No parameter class declared for the game: " + this);
         try {
@@ -3,9 +3,11 @@ package games.cantstop;
 import core.AbstractGameState;
 import core.StandardForwardModel;
 import core.StandardForwardModelWithTurnOrder;
+import core.UndoJournal;
 import core.actions.AbstractAction;
 import core.components.Dice;
 import core.forwardModels.SequentialActionForwardModel;
+import core.interfaces.IActionEncoder;
 import games.cantstop.actions.Pass;
 import games.cantstop.actions.RollDice;
 import games.cantstop.actions.AllocateDice;
@@ -15,7 +17,7 @@ import java.util.*;
 import static java.util.stream.Collectors.partitioningBy;
 import static java.util.stream.Collectors.toList;
 
-public class CantStopForwardModel extends StandardForwardModel {
+public class CantStopForwardModel extends StandardForwardModel implements IActionEncoder {
 
     private final Pass passAction = new Pass(false);
     private final RollDice rollAction = new RollDice();
@@ -42,6 +44,115 @@ public class CantStopForwardModel extends StandardForwardModel {
         firstState.setGamePhase(CantStopGamePhase.Decision);
     }
 
+    @Override
+    protected void _beforeAction(AbstractGameState currentState, AbstractAction action) {
+        UndoJournal journal = currentState.getUndoJournal();
+        if (journal != null) {
+            CantStopGameState state = (CantStopGameState) currentState;
+            if (action instanceof RollDice) {
+                // dice are changed in place, and have no valid value before the first roll
+                journal.pushObject(state.dice.stream().map(Dice::copy).collect(toList()));
+            } else if (action instanceof AllocateDice) {
+                // each marker moved is an entry in the temporary markers (-1 if there was none before)
+                for (int n : ((AllocateDice) action).getValues())
+                    journal.pushInt(state.temporaryMarkerPositions.getOrDefault(n, -1));
+            } else if (action instanceof Pass) {
+                // the temporary markers are replaced (not changed), and we may make them permanent
+                journal.pushObject(state.temporaryMarkerPositions);
+                journal.pushInt(state.getCurrentPlayer());
+                journal.pushObject(state.playerMarkerPositions[state.getCurrentPlayer()].clone());
+                journal.pushObject(state.completedColumns.clone());
+            } else {
+                throw new UnsupportedOperationException("Undo is not supported for " + action);
+            }
+            journal.pushObject(action);
+        }
+    }
+
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
+    @Override
+    protected void _undo(AbstractGameState gameState, UndoJournal journal) {
+        CantStopGameState state = (CantStopGameState) gameState;
+        AbstractAction action = journal.popObject();
+        if (action instanceof RollDice) {
+            state.dice = journal.popObject();
+        } else if (action instanceof AllocateDice) {
+            int[] values = ((AllocateDice) action).getValues();
+            for (int i = values.length - 1; i >= 0; i--) {
+                int position = journal.popInt();
+                if (position < 0)
+                    state.temporaryMarkerPositions.remove(values[i]);
+                else
+                    state.temporaryMarkerPositions.put(values[i], position);
+            }
+        } else {
+            state.completedColumns = journal.popObject();
+            int[] markers = journal.popObject();
+            state.playerMarkerPositions[journal.popInt()] = markers;
+            state.temporaryMarkerPositions = journal.popObject();
+        }
+    }
+
+    // Codes are Pass, bust, RollDice, then the single numbers that can be rolled with two dice, then the pairs of numbers
+    // (in any order); this assumes the two pairs of dice of the standard game
+    private static final int SINGLE_START = 3;
+
+    private int nNumbers(AbstractGameState gameState) {
+        return 2 * ((CantStopParameters) gameState.getGameParameters()).DICE_SIDES - 1;
+    }
+
+    @Override
+    public int getActionSpaceSize(AbstractGameState gameState) {
+        int n = nNumbers(gameState);
+        return SINGLE_START + n + n * (n + 1) / 2;
+    }
+
+    @Override
+    public int encode(AbstractGameState gameState, AbstractAction action) {
+        if (action instanceof Pass)
+            return ((Pass) action).bust ? 1 : 0;
+        if (action instanceof RollDice)
+            return 2;
+        if (!(action instanceof AllocateDice))
+            return -1;
+        int[] values = ((AllocateDice) action).getValues();
+        int n = nNumbers(gameState);
+        if (values.length == 1)
+            return SINGLE_START + values[0] - 2;
+        if (values.length != 2)
+            return -1;
+        int a = Math.min(values[0], values[1]) - 2, b = Math.max(values[0], values[1]) - 2;
+        // index of (a, b) with a <= b in the upper triangle, row by row
+        return SINGLE_START + n + a * n - a * (a - 1) / 2 + (b - a);
+    }
+
+    @Override
+    public AbstractAction decode(AbstractGameState gameState, int code) {
+        switch (code) {
+            case 0:
+                return passAction;
+            case 1:
+                return bust;
+            case 2:
+                return rollAction;
+        }
+        int n = nNumbers(gameState);
+        code -= SINGLE_START;
+        if (code < n)
+            return new AllocateDice(code + 2);
+        code -= n;
+        int a = 0;
+        while (code >= n - a) {
+            code -= n - a;
+            a++;
+        }
+        return new AllocateDice(a + 2, a + code + 2);
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         if (action instanceof Pass) {
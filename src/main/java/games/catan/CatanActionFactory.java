@@ -3,9 +3,9 @@ package games.catan;
 import core.actions.AbstractAction;
 import core.actions.ActionSpace;
 import core.actions.DoNothing;
-import core.components.Counter;
 import core.components.Deck;
 import core.components.Edge;
+import core.components.ResourcePool;
 import games.catan.actions.build.*;
 import games.catan.actions.dev.*;
 import games.catan.actions.discard.DiscardResources;
@@ -112,7 +112,7 @@ public class CatanActionFactory {
      */
     public static List<AbstractAction> getPlayerTradeOfferActions(CatanGameState gs, ActionSpace actionSpace, int playerID, OfferPlayerTrade tradeOffer) {
         ArrayList<AbstractAction> actions = new ArrayList<>();
-        HashMap<CatanParameters.Resource, Counter> resources = gs.getPlayerResources(playerID);
+        ResourcePool<CatanParameters.Resource> resources = gs.getPlayerResources(playerID);
         int n_players = gs.getNPlayers();
         if (tradeOffer == null) {
             // Construct new offer
@@ -121,7 +121,7 @@ public class CatanActionFactory {
                 if (playerIndex != playerID && gs.getNResourcesInHand(playerIndex) > 0) { // exclude current player and players with no resources in hand
                     for (CatanParameters.Resource resToOffer : CatanParameters.Resource.values()) {
                         if (resToOffer == CatanParameters.Resource.WILD) continue;
-                        int maxToOffer = resources.get(resToOffer).getValue();
+                        int maxToOffer = resources.get(resToOffer);
                         if (maxToOffer > 0) {
                             for (CatanParameters.Resource resToRequest : CatanParameters.Resource.values()) {
                                 if (resToRequest == CatanParameters.Resource.WILD) continue;
@@ -145,8 +145,8 @@ public class CatanActionFactory {
         } else {
             // Adjust existing offer
             List<AbstractAction> allCounterOffers = new ArrayList<>();
-            int maxToOffer = tradeOffer.offeringPlayerID == playerID ? resources.get(tradeOffer.resourceOffered).getValue() : ((CatanParameters) gs.getGameParameters()).max_resources_request_trade;
-            int maxToRequest = tradeOffer.otherPlayerID == playerID ? resources.get(tradeOffer.resourceRequested).getValue() : ((CatanParameters) gs.getGameParameters()).max_resources_request_trade;
+            int maxToOffer = tradeOffer.offeringPlayerID == playerID ? resources.get(tradeOffer.resourceOffered) : ((CatanParameters) gs.getGameParameters()).max_resources_request_trade;
+            int maxToRequest = tradeOffer.otherPlayerID == playerID ? resources.get(tradeOffer.resourceRequested) : ((CatanParameters) gs.getGameParameters()).max_resources_request_trade;
             if (maxToOffer > 0 && maxToRequest > 0) {
                 allCounterOffers = createTradeOfferActions(tradeOffer.offeringPlayerID, tradeOffer.otherPlayerID,
                         tradeOffer.resourceOffered, tradeOffer.resourceRequested, maxToOffer, maxToRequest,
@@ -219,7 +219,7 @@ public class CatanActionFactory {
             // Deep: Choose 1 resource at a time
             for (CatanParameters.Resource resource: CatanParameters.Resource.values()) {
                 if (resource == CatanParameters.Resource.WILD) continue;
-                if (gs.getPlayerResources(player).get(resource).getValue() > 0) actions.add(new DiscardResources(new CatanParameters.Resource[]{resource}, player));
+                if (gs.getPlayerResources(player).get(resource) > 0) actions.add(new DiscardResources(new CatanParameters.Resource[]{resource}, player));
             }
         }
         if (actions.size() == 0) actions.add(new DoNothing());
@@ -428,7 +428,7 @@ public class CatanActionFactory {
             List<CatanParameters.Resource> resourcesAvailable = new ArrayList<>();
             for (CatanParameters.Resource res : CatanParameters.Resource.values()) {
                 if (res == CatanParameters.Resource.WILD) continue;
-                if (gs.resourcePool.get(res).getValue() > 0)
+                if (gs.resourcePool.get(res) > 0)
                     for (int i = 0; i < ((CatanParameters) gs.getGameParameters()).nResourcesYoP; i++) {  // TODO this loop not needed if Utils.generateCombinations allows repetitions
                         resourcesAvailable.add(res);
                     }
@@ -452,7 +452,7 @@ public class CatanActionFactory {
                 } else {
                     // Deep: one resource at a time
                     for (CatanParameters.Resource res : CatanParameters.Resource.values()) {
-                        if (res != CatanParameters.Resource.WILD && gs.resourcePool.get(res).getValue() > 0)
+                        if (res != CatanParameters.Resource.WILD && gs.resourcePool.get(res) > 0)
                             actions.add(new DeepYearOfPlenty(player, res, cardType.nDeepSteps((CatanParameters) gs.getGameParameters())));
                     }
                 }
@@ -499,19 +499,18 @@ public class CatanActionFactory {
      */
     public static List<AbstractAction> getDefaultTradeActions(CatanGameState gs, ActionSpace actionSpace, int player) {
         ArrayList<AbstractAction> actions = new ArrayList<>();
-        HashMap<CatanParameters.Resource, Counter> playerExchangeRate = gs.getExchangeRates(player);
-        for (Map.Entry<CatanParameters.Resource, Counter> res: gs.playerResources.get(player).entrySet()) {
-            if (res.getKey() == CatanParameters.Resource.WILD) continue;
+        ResourcePool<CatanParameters.Resource> playerExchangeRate = gs.getExchangeRates(player);
+        for (CatanParameters.Resource resToGive : CatanParameters.Resource.values()) {
+            if (resToGive == CatanParameters.Resource.WILD) continue;
 
             // give N resources (minimum exchange rate for this resource)
-            CatanParameters.Resource resToGive = res.getKey();
-            int nGive = playerExchangeRate.get(res.getKey()).getValue();
-            int nOwned = res.getValue().getValue();
+            int nGive = playerExchangeRate.get(resToGive);
+            int nOwned = gs.playerResources.get(player).get(resToGive);
             if (nOwned >= nGive) {
                 // for 1 other resource
                 List<AbstractAction> trades = new ArrayList<>();
                 for (CatanParameters.Resource resToGet : CatanParameters.Resource.values()) {
-                    if (resToGet != CatanParameters.Resource.WILD && resToGive != resToGet && gs.getResourcePool().get(resToGet).getValue() > 0) {
+                    if (resToGet != CatanParameters.Resource.WILD && resToGive != resToGet && gs.getResourcePool().get(resToGet) > 0) {
                         trades.add(new DefaultTrade(resToGive, resToGet, nGive, player));
                     }
                 }
@@ -10,6 +10,7 @@ import core.components.Counter;
 import core.components.Deck;
 import core.components.Edge;
 import core.components.GraphBoardWithEdges;
+import core.components.ResourcePool;
 import evaluation.metrics.Event;
 import games.catan.actions.build.BuyAction;
 import games.catan.actions.discard.DiscardResourcesPhase;
@@ -71,23 +72,13 @@ public class CatanForwardModel extends StandardForwardModel {
             }
             state.playerTokens.add(tokens);
 
-            HashMap<CatanParameters.Resource, Counter> resources = new HashMap<>();
-            HashMap<CatanParameters.Resource, Counter> exchange = new HashMap<>();
-            for (CatanParameters.Resource res: CatanParameters.Resource.values()) {
-                resources.put(res, new Counter(res + " " + i));
-                exchange.put(res, new Counter(params.default_exchange_rate,1, params.default_exchange_rate,res + " " + i));
-            }
-            state.playerResources.add(resources);
-            state.exchangeRates.add(exchange);
+            state.playerResources.add(new ResourcePool<>(CatanParameters.Resource.class));
+            state.exchangeRates.add(new ResourcePool<>(CatanParameters.Resource.class, params.default_exchange_rate));
 
         }
 
         // create resource pool
-        state.resourcePool = new HashMap<>();
-        for (CatanParameters.Resource res : CatanParameters.Resource.values()) {
-            state.resourcePool.put(res, new Counter(res.name()));
-            state.resourcePool.get(res).increment(params.n_resource_cards);
-        }
+        state.resourcePool = new ResourcePool<>(CatanParameters.Resource.class, params.n_resource_cards);
 
         // create and shuffle developmentDeck
         state.devCards = new Deck<>("Development Deck", CoreConstants.VisibilityMode.HIDDEN_TO_ALL);
@@ -225,8 +216,8 @@ public class CatanForwardModel extends StandardForwardModel {
                                 // Move the card from the resource deck and give it to the player
                                 CatanParameters.Resource res = cp.productMapping.get(tile.getTileType());
                                 int nGenerated = cp.nProduction.get(settl.getBuildingType());
-                                gs.resourcePool.get(res).decrement(nGenerated);
-                                gs.playerResources.get(who).get(res).increment(nGenerated);
+                                gs.resourcePool.take(res, nGenerated);
+                                gs.playerResources.get(who).add(res, nGenerated);
                                 if (gs.getCoreGameParameters().verbose) {
                                     System.out.println("p" + who + " gets " + res);
                                 }
@@ -4,6 +4,8 @@ import core.AbstractGameState;
 import core.AbstractParameters;
 import core.actions.AbstractAction;
 import core.components.*;
+import core.components.Counter;
+import core.components.ResourcePool;
 import core.interfaces.IGamePhase;
 import games.GameType;
 import games.catan.actions.build.BuyAction;
@@ -23,17 +25,17 @@ public class CatanGameState extends AbstractGameState {
     protected int[] scores; // score for each player
     protected int[] victoryPoints; // secret points from victory cards
     protected int[] knights, roadLengths; // knight count and road length for each player
-    protected List<HashMap<CatanParameters.Resource, Counter>> exchangeRates; // exchange rate with bank for each resource
+    protected List<ResourcePool<CatanParameters.Resource>> exchangeRates; // exchange rate with bank for each resource
     protected int largestArmyOwner; // playerID of the player currently holding the largest army
     protected int longestRoadOwner; // playerID of the player currently holding the longest road
     protected int longestRoadLength, largestArmySize;
     int rollValue;
     protected Random rnd;
 
-    List<HashMap<CatanParameters.Resource, Counter>> playerResources;
+    List<ResourcePool<CatanParameters.Resource>> playerResources;
     List<HashMap<BuyAction.BuyType, Counter>> playerTokens;
     List<Deck<CatanCard>> playerDevCards;
-    HashMap<CatanParameters.Resource, Counter> resourcePool;
+    ResourcePool<CatanParameters.Resource> resourcePool;
     Deck<CatanCard> devCards;
     boolean developmentCardPlayed; // Tracks whether a player has played a development card this turn
 
@@ -89,12 +91,9 @@ public class CatanGameState extends AbstractGameState {
         return new ArrayList<Component>() {{
             add(catanGraph);
             for (int i = 0; i < nPlayers; i++) {
-                addAll(exchangeRates.get(i).values());
-                addAll(playerResources.get(i).values());
                 addAll(playerTokens.get(i).values());
             }
             addAll(playerDevCards);
-            addAll(resourcePool.values());
             add(devCards);
             for (CatanTile[] tiles: board) {
                 this.addAll(Arrays.asList(tiles));
@@ -193,7 +192,7 @@ public class CatanGameState extends AbstractGameState {
         return victoryPoints.clone();
     }
 
-    public HashMap<CatanParameters.Resource, Counter> getPlayerResources(int playerID) {
+    public ResourcePool<CatanParameters.Resource> getPlayerResources(int playerID) {
         return playerResources.get(playerID);
     }
 
@@ -233,7 +232,7 @@ public class CatanGameState extends AbstractGameState {
         return scores;
     }
 
-    public HashMap<CatanParameters.Resource, Counter> getExchangeRates(int playerID) {
+    public ResourcePool<CatanParameters.Resource> getExchangeRates(int playerID) {
         return exchangeRates.get(playerID);
     }
 
@@ -307,9 +306,9 @@ public class CatanGameState extends AbstractGameState {
 
     public int getNResourcesInHand(int player) {
         int deckSize = 0;
-        for (Map.Entry<CatanParameters.Resource, Counter> e: playerResources.get(player).entrySet()) {
-            if (e.getKey() == CatanParameters.Resource.WILD) continue;
-            deckSize += e.getValue().getValue();
+        for (CatanParameters.Resource r: CatanParameters.Resource.values()) {
+            if (r == CatanParameters.Resource.WILD) continue;
+            deckSize += playerResources.get(player).get(r);
         }
         return deckSize;
     }
@@ -317,11 +316,11 @@ public class CatanGameState extends AbstractGameState {
     public CatanParameters.Resource pickResourceFromHand(int player, int index) {
         int i = 0;
         CatanParameters.Resource res = null;
-        for (Map.Entry<CatanParameters.Resource, Counter> e: playerResources.get(player).entrySet()) {
-            if (e.getKey() == CatanParameters.Resource.WILD) continue;
-            res = e.getKey();
+        for (CatanParameters.Resource r: CatanParameters.Resource.values()) {
+            if (r == CatanParameters.Resource.WILD) continue;
+            res = r;
             if (index < i) return res;
-            i += e.getValue().getValue();
+            i += playerResources.get(player).get(r);
         }
         if (index < i) return res;
         return null;
@@ -366,12 +365,12 @@ public class CatanGameState extends AbstractGameState {
     /* checks if given resources cover the price or not */
     public boolean checkCost(HashMap<CatanParameters.Resource, Integer> cost, int playerId) {
         for (Map.Entry<CatanParameters.Resource, Integer> e: cost.entrySet()) {
-            if (playerResources.get(playerId).get(e.getKey()).getValue() < cost.get(e.getKey())) return false;
+            if (playerResources.get(playerId).get(e.getKey()) < cost.get(e.getKey())) return false;
         }
         return true;
     }
     public boolean checkCost(CatanParameters.Resource resource, int nRequired, int playerId) {
-        return playerResources.get(playerId).get(resource).getValue() >= nRequired;
+        return playerResources.get(playerId).get(resource) >= nRequired;
     }
 
     /**
@@ -379,8 +378,8 @@ public class CatanGameState extends AbstractGameState {
      * @return - true if successful, false otherwise
      */
     public boolean swapResources(int fromPlayer, int toPlayer, CatanParameters.Resource resource, int nResources) {
-        playerResources.get(fromPlayer).get(resource).decrement(nResources);
-        playerResources.get(toPlayer).get(resource).increment(nResources);
+        playerResources.get(fromPlayer).take(resource, nResources);
+        playerResources.get(toPlayer).add(resource, nResources);
         return true;
     }
 
@@ -389,7 +388,7 @@ public class CatanGameState extends AbstractGameState {
     public boolean spendResourcesIfPossible(HashMap<CatanParameters.Resource, Integer> cost, int playerId) {
         if (!checkCost(cost, playerId)) return false;
         for (Map.Entry<CatanParameters.Resource, Integer> e: cost.entrySet()) {
-            playerResources.get(playerId).get(e.getKey()).decrement(e.getValue());
+            playerResources.get(playerId).take(e.getKey(), e.getValue());
         }
         return true;
     }
@@ -423,8 +422,8 @@ public class CatanGameState extends AbstractGameState {
 
         // PO
         if (playerId != -1 || !getCoreGameParameters().partialObservable) {
-            for (CatanParameters.Resource r : resourcePool.keySet()) {
-                int nAvailable = ((CatanParameters) gameParameters).n_resource_cards - resourcePool.get(r).getValue();
+            for (CatanParameters.Resource r : CatanParameters.Resource.values()) {
+                int nAvailable = ((CatanParameters) gameParameters).n_resource_cards - resourcePool.get(r);
                 if (nAvailable > 0) {
                     for (int j = 0; j < nAvailable; j++) {
                         availableRes.add(r);
@@ -434,18 +433,10 @@ public class CatanGameState extends AbstractGameState {
         }
 
         for (int i = 0; i < getNPlayers(); i++) {
-            HashMap<CatanParameters.Resource, Counter> exchangeRate = new HashMap<>();
-            for (Map.Entry<CatanParameters.Resource, Counter> e: exchangeRates.get(i).entrySet()) {
-                exchangeRate.put(e.getKey(), e.getValue().copy());
-            }
-            copy.exchangeRates.add(exchangeRate);
+            copy.exchangeRates.add(exchangeRates.get(i).copy());
 
             // Resources in hand
-            HashMap<CatanParameters.Resource, Counter> playerRes = new HashMap<>();
-            for (Map.Entry<CatanParameters.Resource, Counter> e: playerResources.get(i).entrySet()) {
-                playerRes.put(e.getKey(), e.getValue().copy());
-            }
-            copy.playerResources.add(playerRes);
+            copy.playerResources.add(playerResources.get(i).copy());
 
             // Dev cards in hand
             copy.playerDevCards.add(playerDevCards.get(i).copy());
@@ -454,17 +445,15 @@ public class CatanGameState extends AbstractGameState {
             if (playerId != -1 || !getCoreGameParameters().partialObservable) {
                 if (i != playerId) {
                     // Resources in hand are hidden
-                    for (CatanParameters.Resource r : playerResources.get(i).keySet()) {
-                        copy.playerResources.get(i).get(r).setValue(0);
-                    }
+                    copy.playerResources.get(i).clear();
 
                     // VP from dev cards hidden too
                     copy.victoryPoints[i] = 0;
                 } else {
                     // Remove from list of resources that may be in other player's hands the ones we know are in our hand
-                    for (Map.Entry<CatanParameters.Resource, Counter> e: playerResources.get(i).entrySet()) {
-                        for (int j = 0; j < e.getValue().getValue(); j++) {
-                            availableRes.remove(e.getKey());
+                    for (CatanParameters.Resource r : CatanParameters.Resource.values()) {
+                        for (int j = 0; j < playerResources.get(i).get(r); j++) {
+                            availableRes.remove(r);
                         }
                     }
                 }
@@ -487,10 +476,7 @@ public class CatanGameState extends AbstractGameState {
 
         copy.developmentCardPlayed = developmentCardPlayed;
 
-        copy.resourcePool = new HashMap<>();
-        for (Map.Entry<CatanParameters.Resource, Counter> e: resourcePool.entrySet()) {
-            copy.resourcePool.put(e.getKey(), e.getValue().copy());
-        }
+        copy.resourcePool = resourcePool.copy();
 
         // PO
         if (playerId != -1 || !getCoreGameParameters().partialObservable) {
@@ -504,7 +490,7 @@ public class CatanGameState extends AbstractGameState {
                     for (int j = 0; j < nInHand; j++) {
                         if (availableRes.size() == 0) break;
                         CatanParameters.Resource r = availableRes.remove(rnd.nextInt(availableRes.size()));
-                        copy.playerResources.get(i).get(r).increment();
+                        copy.playerResources.get(i).add(r, 1);
                     }
                 }
 
@@ -557,7 +543,7 @@ public class CatanGameState extends AbstractGameState {
         }
     }
 
-    public HashMap<CatanParameters.Resource, Counter> getResourcePool() {
+    public ResourcePool<CatanParameters.Resource> getResourcePool() {
         return resourcePool;
     }
 
@@ -4,14 +4,12 @@ import core.AbstractGameState;
 import core.AbstractParameters;
 import core.CoreConstants;
 import core.components.BoardNodeWithEdges;
-import core.components.Counter;
+import core.components.ResourcePool;
 import core.interfaces.IStateHeuristic;
 import evaluation.optimisation.TunableParameters;
 import games.catan.components.Building;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 
 import static games.catan.components.Building.Type.Settlement;
 
@@ -98,11 +96,11 @@ public class CatanHeuristic extends TunableParameters implements IStateHeuristic
 
         // value player ports
         if (playerPorts != 0.0){
-            HashMap<CatanParameters.Resource, Counter> playerExchangeRates = state.getExchangeRates(playerId);
-            for(Map.Entry<CatanParameters.Resource, Counter> e: playerExchangeRates.entrySet()){
-                    if(e.getValue().getValue() < ((CatanParameters)state.getGameParameters()).default_exchange_rate - 1)
+            ResourcePool<CatanParameters.Resource> playerExchangeRates = state.getExchangeRates(playerId);
+            for(CatanParameters.Resource r: CatanParameters.Resource.values()){
+                    if(playerExchangeRates.get(r) < ((CatanParameters)state.getGameParameters()).default_exchange_rate - 1)
                         stateValue += playerPorts * 0.2;
-                    else if (e.getValue().getValue() < ((CatanParameters)state.getGameParameters()).default_exchange_rate)
+                    else if (playerExchangeRates.get(r) < ((CatanParameters)state.getGameParameters()).default_exchange_rate)
                         stateValue += playerPorts * 0.1;
             }
         }
@@ -3,12 +3,12 @@ package games.catan.actions.build;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.Counter;
+import core.components.ResourcePool;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
 import games.catan.components.Building;
 import games.catan.components.CatanTile;
 
-import java.util.HashMap;
 import java.util.Objects;
 
 import static games.catan.stats.CatanMetrics.CatanEvent.PortSettle;
@@ -52,11 +52,11 @@ public class BuildSettlement extends AbstractAction {
             if(settlement.getHarbour() != null){
                 gs.logEvent(PortSettle, String.valueOf(playerID));
 
-                HashMap<CatanParameters.Resource, Counter> exchangeRates = cgs.getExchangeRates(playerID);
+                ResourcePool<CatanParameters.Resource> exchangeRates = cgs.getExchangeRates(playerID);
                 CatanParameters.Resource harbour = settlement.getHarbour();
                 int newRate = cp.harbour_exchange_rate;
                 if (harbour == CatanParameters.Resource.WILD) newRate = cp.harbour_wild_exchange_rate;
-                exchangeRates.get(harbour).setValue(Math.min(exchangeRates.get(harbour).getValue(), newRate));
+                exchangeRates.set(harbour, Math.min(exchangeRates.get(harbour), newRate));
             }
             cgs.addScore(playerID, cp.buildingValue.get(Building.Type.Settlement));
 
@@ -43,7 +43,7 @@ public class DeepYearOfPlenty extends AbstractAction implements IExtendedSequenc
         ArrayList<AbstractAction> actions = new ArrayList<>();
         CatanGameState gs = (CatanGameState) state;
         for (CatanParameters.Resource res: CatanParameters.Resource.values()) {
-            if (res != CatanParameters.Resource.WILD && gs.getResourcePool().get(res).getValue() > 0)
+            if (res != CatanParameters.Resource.WILD && gs.getResourcePool().get(res) > 0)
                 actions.add(new PlayYearOfPlenty(new CatanParameters.Resource[]{res}, playerID, false));
         }
         return actions;
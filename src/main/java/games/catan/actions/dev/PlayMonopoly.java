@@ -2,8 +2,8 @@ package games.catan.actions.dev;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
-import core.components.Counter;
 import core.components.Deck;
+import core.components.ResourcePool;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
 import games.catan.components.CatanCard;
@@ -33,12 +33,12 @@ public class PlayMonopoly extends AbstractAction {
             int nCollected = 0;
             for (int targetPlayerID = 0; targetPlayerID < gs.getNPlayers(); targetPlayerID++){
                 if (targetPlayerID != gs.getCurrentPlayer()) {
-                    Counter c = cgs.getPlayerResources(targetPlayerID).get(resource);
-                    nCollected += c.getValue();
-                    c.setValue(0);
+                    ResourcePool<CatanParameters.Resource> targetResources = cgs.getPlayerResources(targetPlayerID);
+                    nCollected += targetResources.get(resource);
+                    targetResources.set(resource, 0);
                 }
             }
-            cgs.getPlayerResources(player).get(resource).increment(nCollected);
+            cgs.getPlayerResources(player).add(resource, nCollected);
         } else {
             throw new AssertionError("Cannot use a Monopoly Card that is not in hand.");
         }
@@ -2,14 +2,13 @@ package games.catan.actions.dev;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
-import core.components.Counter;
 import core.components.Deck;
+import core.components.ResourcePool;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
 import games.catan.components.CatanCard;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -28,7 +27,7 @@ public class PlayYearOfPlenty extends AbstractAction {
     public boolean execute(AbstractGameState gs) {
         CatanGameState cgs = (CatanGameState) gs;
         Deck<CatanCard> playerDevDeck = cgs.getPlayerDevCards(player);
-        HashMap<CatanParameters.Resource, Counter> playerResources = cgs.getPlayerResources(player);
+        ResourcePool<CatanParameters.Resource> playerResources = cgs.getPlayerResources(player);
 
         Optional<CatanCard> yearOfPlenty = playerDevDeck.stream()
                 .filter(card -> card.cardType == CatanCard.CardType.YEAR_OF_PLENTY)
@@ -39,14 +38,14 @@ public class PlayYearOfPlenty extends AbstractAction {
                 playerDevDeck.remove(yearOfPlentyCard);
             }
             for (CatanParameters.Resource r: resources) {
-                if (cgs.getResourcePool().get(r).getValue() <= 0) {
+                if (cgs.getResourcePool().get(r) <= 0) {
                     throw new AssertionError("Cannot use a Year of Plenty Card for resources that are not in deck: " + Arrays.toString(resources));
                 }
             }
             for (CatanParameters.Resource r: resources) {
                 // swaps resources from common to player deck
-                playerResources.get(r).increment();
-                cgs.getResourcePool().get(r).decrement();
+                playerResources.add(r, 1);
+                cgs.getResourcePool().take(r, 1);
             }
         } else {
             throw new AssertionError("Cannot use a Year of Plenty Card that is not in hand.");
@@ -22,8 +22,8 @@ public class DiscardResources extends AbstractAction {
     public boolean execute(AbstractGameState gs) {
         CatanGameState cgs = (CatanGameState)gs;
         for (CatanParameters.Resource resource: resourcesToDiscard){
-            cgs.getPlayerResources(playerID).get(resource).decrement();
-            cgs.getResourcePool().get(resource).increment();
+            cgs.getPlayerResources(playerID).take(resource, 1);
+            cgs.getResourcePool().add(resource, 1);
         }
         return true;
     }
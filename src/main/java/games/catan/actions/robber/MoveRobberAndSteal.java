@@ -39,8 +39,8 @@ public class MoveRobberAndSteal extends MoveRobber {
                 }
                 int cardIndex = random.nextInt(nResTarget);
                 CatanParameters.Resource resource = cgs.pickResourceFromHand(targetPlayer, cardIndex);
-                cgs.getPlayerResources(player).get(resource).increment();
-                cgs.getPlayerResources(targetPlayer).get(resource).decrement();
+                cgs.getPlayerResources(player).add(resource, 1);
+                cgs.getPlayerResources(targetPlayer).take(resource, 1);
             }
 
             cgs.setGamePhase(Main);
@@ -33,8 +33,8 @@ public class StealResource extends AbstractAction {
         }
         int cardIndex = random.nextInt(nResTarget);
         CatanParameters.Resource resource = cgs.pickResourceFromHand(targetPlayerID, cardIndex);
-        cgs.getPlayerResources(playerID).get(resource).increment();
-        cgs.getPlayerResources(targetPlayerID).get(resource).decrement();
+        cgs.getPlayerResources(playerID).add(resource, 1);
+        cgs.getPlayerResources(targetPlayerID).take(resource, 1);
         cgs.setGamePhase(Main);
         return true;
     }
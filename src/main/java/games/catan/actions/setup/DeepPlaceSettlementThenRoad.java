@@ -88,8 +88,8 @@ public class DeepPlaceSettlementThenRoad extends PlaceSettlementWithRoad impleme
             for (CatanTile t: tiles){
                 CatanParameters.Resource res = cp.productMapping.get(t.getTileType());
                 if (res!=null){
-                    cgs.getPlayerResources(player).get(res).increment();
-                    cgs.getResourcePool().get(res).decrement();
+                    cgs.getPlayerResources(player).add(res, 1);
+                    cgs.getResourcePool().take(res, 1);
                     if (state.getCoreGameParameters().verbose) {
                         System.out.println("At setup Player " + player + " got " + res);
                     }
@@ -51,8 +51,8 @@ public class PlaceSettlementWithRoad extends AbstractAction {
                 for (CatanTile t: tiles){
                     CatanParameters.Resource res = cp.productMapping.get(t.getTileType());
                     if (res!=null){
-                        cgs.getPlayerResources(player).get(res).increment();
-                        cgs.getResourcePool().get(res).decrement();
+                        cgs.getPlayerResources(player).add(res, 1);
+                        cgs.getResourcePool().take(res, 1);
                         if (gs.getCoreGameParameters().verbose) {
                             System.out.println("Setup: p" + player + " got " + res + " (last settle)");
                         }
@@ -138,12 +138,12 @@ public class DeepConstructNewOffer extends AbstractAction implements IExtendedSe
             case ChooseResourceOffer:
                 for (Resource res: Resource.values()) {
                     if (res == Resource.WILD) continue;
-                    if (gs.getPlayerResources(offeringPlayerID).get(res).getValue() == 0) continue;
+                    if (gs.getPlayerResources(offeringPlayerID).get(res) == 0) continue;
                     actions.add(new DeepConstructNewOffer(player, OfferPlayerTrade.Stage.Offer, offeringPlayerID, otherPlayerID, res));
                 }
                 break;
             case ChooseNOffered:
-                int nAvailableOffer = stage == OfferPlayerTrade.Stage.Offer? gs.getPlayerResources(offeringPlayerID).get(resourceOffered).getValue() : ((CatanParameters)gs.getGameParameters()).max_resources_request_trade;
+                int nAvailableOffer = stage == OfferPlayerTrade.Stage.Offer? gs.getPlayerResources(offeringPlayerID).get(resourceOffered) : ((CatanParameters)gs.getGameParameters()).max_resources_request_trade;
                 for (int i = 1; i <= nAvailableOffer; i++) {
                     actions.add(new DeepConstructNewOffer(player, otherPlayerID, resourceOffered, i));
                 }
@@ -155,7 +155,7 @@ public class DeepConstructNewOffer extends AbstractAction implements IExtendedSe
                 }
                 break;
             case ChooseNRequested:
-                int nAvailableRequest = stage == OfferPlayerTrade.Stage.CounterOffer? gs.getPlayerResources(otherPlayerID).get(resourceRequested).getValue() : ((CatanParameters)gs.getGameParameters()).max_resources_request_trade;
+                int nAvailableRequest = stage == OfferPlayerTrade.Stage.CounterOffer? gs.getPlayerResources(otherPlayerID).get(resourceRequested) : ((CatanParameters)gs.getGameParameters()).max_resources_request_trade;
                 for (int i = 1; i <= nAvailableRequest; i++) {
                     actions.add(new DeepConstructNewOffer(player, stage, offeringPlayerID, otherPlayerID, resourceOffered, nOffered, resourceRequested, i));
                 }
@@ -73,8 +73,8 @@ public class DeepCounterOffer extends AbstractAction implements IExtendedSequenc
         List<AbstractAction> actions = new ArrayList<>();
         CatanGameState gs = (CatanGameState) state;
         OfferPlayerTrade opt = (OfferPlayerTrade) gs.getTradeOffer();
-        int nAvailableOffer = opt.offeringPlayerID == player? gs.getPlayerResources(player).get(opt.resourceOffered).getValue() : ((CatanParameters)gs.getGameParameters()).max_resources_request_trade;
-        int nAvailableRequest = opt.otherPlayerID == player? gs.getPlayerResources(player).get(opt.resourceRequested).getValue() : ((CatanParameters)gs.getGameParameters()).max_resources_request_trade;
+        int nAvailableOffer = opt.offeringPlayerID == player? gs.getPlayerResources(player).get(opt.resourceOffered) : ((CatanParameters)gs.getGameParameters()).max_resources_request_trade;
+        int nAvailableRequest = opt.otherPlayerID == player? gs.getPlayerResources(player).get(opt.resourceRequested) : ((CatanParameters)gs.getGameParameters()).max_resources_request_trade;
 
         // Fill in the respective choice
         switch(choice) {
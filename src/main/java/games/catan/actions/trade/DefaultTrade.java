@@ -27,9 +27,9 @@ public class DefaultTrade extends AbstractAction {
     @Override
     public boolean execute(AbstractGameState gs) {
         CatanGameState cgs = (CatanGameState)gs;
-        if (cgs.getPlayerResources(player).get(resourceOffer).getValue() < exchangeRate) throw new AssertionError("Player does not have enough resources for this trade");
-        cgs.getPlayerResources(player).get(resourceOffer).decrement(exchangeRate);
-        cgs.getPlayerResources(player).get(resourceToGet).increment();
+        if (cgs.getPlayerResources(player).get(resourceOffer) < exchangeRate) throw new AssertionError("Player does not have enough resources for this trade");
+        cgs.getPlayerResources(player).take(resourceOffer, exchangeRate);
+        cgs.getPlayerResources(player).add(resourceToGet, 1);
         return true;
     }
 
@@ -5,7 +5,7 @@ import core.AbstractPlayer;
 import core.CoreConstants;
 import core.Game;
 import core.actions.AbstractAction;
-import core.components.Counter;
+import core.components.ResourcePool;
 import games.catan.CatanGameState;
 import games.catan.CatanParameters;
 import games.catan.actions.build.BuildCity;
@@ -411,14 +411,14 @@ public class CatanGUI extends AbstractGUIManager implements IScreenHighlight {
         return wrapper;
     }
 
-    private String resourcePrint(HashMap<CatanParameters.Resource, Counter> resourcePool, CatanParameters cp) {
+    private String resourcePrint(ResourcePool<CatanParameters.Resource> resourcePool, CatanParameters cp) {
         StringBuilder s = new StringBuilder();
-        for (CatanParameters.Resource res: resourcePool.keySet()) {
+        for (CatanParameters.Resource res: CatanParameters.Resource.values()) {
             if (res == CatanParameters.Resource.WILD) continue;
             if (gs.getCoreGameParameters().alwaysDisplayFullObservable) {
-                s.append(res).append("=").append(resourcePool.get(res).getValue()).append("/").append(cp.n_resource_cards).append(", ");
+                s.append(res).append("=").append(resourcePool.get(res)).append("/").append(cp.n_resource_cards).append(", ");
             } else {
-                s.append(res).append("=").append(CatanParameters.ResourceAmount.translate(resourcePool.get(res).getValue(), cp).po).append(", ");
+                s.append(res).append("=").append(CatanParameters.ResourceAmount.translate(resourcePool.get(res), cp).po).append(", ");
             }
         }
         s.append("]");
@@ -194,7 +194,6 @@ public class ColtExpressParameters extends TunableParameters {
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof ColtExpressParameters)) return false;
-        if (!super.equals(o)) return false;
         ColtExpressParameters that = (ColtExpressParameters) o;
         return nCardsInHand == that.nCardsInHand &&
                 nCardsInHandExtraDoc == that.nCardsInHandExtraDoc &&
@@ -1,11 +1,13 @@
 package games.connect4;
 import core.AbstractGameState;
 import core.CoreConstants;
+import core.UndoJournal;
 import core.actions.AbstractAction;
 import core.actions.SetGridValueAction;
 import core.components.GridBoard;
 import core.components.Token;
 import core.forwardModels.SequentialActionForwardModel;
+import core.interfaces.IActionEncoder;
 import utilities.Pair;
 
 import java.util.ArrayList;
@@ -14,7 +16,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 
-public class Connect4ForwardModel extends SequentialActionForwardModel {
+public class Connect4ForwardModel extends SequentialActionForwardModel implements IActionEncoder {
 
     @Override
     protected void _setup(AbstractGameState firstState) {
@@ -50,6 +52,56 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
         return actions;
     }
 
+    @Override
+    protected void _beforeAction(AbstractGameState currentState, AbstractAction action) {
+        UndoJournal journal = currentState.getUndoJournal();
+        if (journal != null) {
+            // we need the cell that is set, and the winning cells (which are replaced, not changed, at the end)
+            Connect4GameState c4gs = (Connect4GameState) currentState;
+            SetGridValueAction<?> setValue = (SetGridValueAction<?>) action;
+            journal.pushObject(c4gs.winnerCells);
+            journal.pushObject(c4gs.gridBoard.getElement(setValue.getX(), setValue.getY()));
+            journal.pushInt(setValue.getX());
+            journal.pushInt(setValue.getY());
+        }
+    }
+
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
+    @Override
+    protected void _undo(AbstractGameState gameState, UndoJournal journal) {
+        Connect4GameState c4gs = (Connect4GameState) gameState;
+        int y = journal.popInt();
+        int x = journal.popInt();
+        c4gs.gridBoard.setElement(x, y, journal.popObject());
+        c4gs.winnerCells = journal.popObject();
+    }
+
+    // one code per cell (not per column, as the same column gives a different action as it fills up)
+    @Override
+    public int getActionSpaceSize(AbstractGameState gameState) {
+        GridBoard<Token> board = ((Connect4GameState) gameState).gridBoard;
+        return board.getWidth() * board.getHeight();
+    }
+
+    @Override
+    public int encode(AbstractGameState gameState, AbstractAction action) {
+        if (!(action instanceof SetGridValueAction))
+            return -1;
+        SetGridValueAction<?> setValue = (SetGridValueAction<?>) action;
+        return setValue.getX() * ((Connect4GameState) gameState).gridBoard.getHeight() + setValue.getY();
+    }
+
+    @Override
+    public AbstractAction decode(AbstractGameState gameState, int code) {
+        GridBoard<Token> board = ((Connect4GameState) gameState).gridBoard;
+        return new SetGridValueAction<>(board.getComponentID(), code / board.getHeight(), code % board.getHeight(),
+                Connect4Constants.playerMapping.get(gameState.getCurrentPlayer()));
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         Connect4GameState c4gs = (Connect4GameState) currentState;
@@ -53,6 +53,20 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
         return s;
     }
 
+    @Override
+    protected boolean _copyInto(AbstractGameState target, int playerId) {
+        Connect4GameState s = (Connect4GameState) target;
+        if (s.gridBoard.getComponentID() != gridBoard.getComponentID()
+                || s.gridBoard.getWidth() != gridBoard.getWidth() || s.gridBoard.getHeight() != gridBoard.getHeight())
+            return false;
+        gridBoard.copyInto(s.gridBoard);
+
+        s.winnerCells.clear();
+        for (Pair<Integer, Integer> wC : this.winnerCells)
+            s.winnerCells.add(wC.copy());
+        return true;
+    }
+
     @Override
     protected double _getHeuristicScore(int playerId) {
         return new Connect4Heuristic().evaluateState(this, playerId);
@@ -75,7 +89,6 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Connect4GameState)) return false;
-        if (!super.equals(o)) return false;
         Connect4GameState that = (Connect4GameState) o;
         return Objects.equals(gridBoard, that.gridBoard);
     }
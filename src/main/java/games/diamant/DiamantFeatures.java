@@ -5,6 +5,8 @@ import core.interfaces.IStateFeatureJSON;
 import core.interfaces.IStateFeatureVector;
 import org.json.simple.JSONObject;
 
+import java.nio.DoubleBuffer;
+
 public class DiamantFeatures implements IStateFeatureVector, IStateFeatureJSON {
 
     @Override
@@ -30,20 +32,31 @@ public class DiamantFeatures implements IStateFeatureVector, IStateFeatureJSON {
 
     @Override
     public double[] featureVector(AbstractGameState gameState, int playerId) {
-        DiamantGameState gs = (DiamantGameState) gameState;
         double[] retVal = new double[getObservationSpace()];
-        retVal[0] = gs.getTreasureChests().get(playerId).getValue();
-        retVal[1] = gs.path.getComponents().get(gs.path.getSize()-1).getNumberOfGems(); // nGemsOnPath;
-        retVal[2] = gs.playerInCave.size();
-        retVal[3] = gs.nCave;
-        retVal[4] = gs.nHazardExplosionsOnPath;
-        retVal[5] = gs.nHazardPoissonGasOnPath;
-        retVal[6] = gs.nHazardRockfallsOnPath;
-        retVal[7] = gs.nHazardScorpionsOnPath;
-        retVal[8] = gs.nHazardSnakesOnPath;
+        featureVector(gameState, playerId, DoubleBuffer.wrap(retVal));
         return retVal;
     }
 
+    @Override
+    public void featureVector(AbstractGameState gameState, int playerId, DoubleBuffer buffer) {
+        DiamantGameState gs = (DiamantGameState) gameState;
+        buffer.put(gs.getTreasureChests().get(playerId).getValue());
+        buffer.put(gs.path.getComponents().get(gs.path.getSize()-1).getNumberOfGems()); // nGemsOnPath;
+        buffer.put(gs.playerInCave.size());
+        buffer.put(gs.nCave);
+        buffer.put(gs.nHazardExplosionsOnPath);
+        buffer.put(gs.nHazardPoissonGasOnPath);
+        buffer.put(gs.nHazardRockfallsOnPath);
+        buffer.put(gs.nHazardScorpionsOnPath);
+        buffer.put(gs.nHazardSnakesOnPath);
+    }
+
+    @Override
+    public boolean readsOnlyObservableState() {
+        // only our own chest is hidden from the other players
+        return true;
+    }
+
 //    public double[] normFeatureVector() {
 //        double[] retVal = new double[getObservationSpace()];
 //        retVal[0] = getTreasureChests().get(getCurrentPlayer()).getValue() / 100d;
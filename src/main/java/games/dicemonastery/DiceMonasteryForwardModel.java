@@ -430,7 +430,7 @@ public class DiceMonasteryForwardModel extends StandardForwardModel {
                                     continue;
                                 if (state.writtenTexts.get(text) == text.rewards.length)  // have they all been written
                                     continue;
-                                if (!WriteText.meetsRequirements(text, state.playerTreasuries.get(currentPlayer)))  // vellum, candles and inks
+                                if (!WriteText.meetsRequirements(text, state.getStores(currentPlayer, r -> true)))  // vellum, candles and inks
                                     continue;
                                 Set<Integer> validPieties = eligibleMonks.stream()
                                         .map(Monk::getPiety)
@@ -4,6 +4,7 @@ import core.AbstractGameState;
 import core.AbstractParameters;
 import core.components.Component;
 import core.components.Deck;
+import core.components.ResourcePool;
 import core.components.Token;
 import evaluation.metrics.Event;
 import games.GameType;
@@ -28,8 +29,8 @@ public class DiceMonasteryGameState extends AbstractGameState {
     Map<ActionArea, DMArea> actionAreas = new HashMap<>();
     Map<Integer, Monk> allMonks = new HashMap<>();
     Map<Integer, ActionArea> monkLocations = new HashMap<>();
-    List<EnumMap<Resource, Integer>> playerTreasuries = new ArrayList<>();
-    Map<Integer, Map<Resource, Integer>> playerBids = new HashMap<>();
+    List<ResourcePool<Resource>> playerTreasuries = new ArrayList<>();
+    Map<Integer, ResourcePool<Resource>> playerBids = new HashMap<>();
     int nextRetirementReward = 0;
     Map<Treasure, Integer> treasuresCommissioned = new HashMap<>();
     List<List<Treasure>> treasuresOwnedPerPlayer = new ArrayList<>();
@@ -73,7 +74,7 @@ public class DiceMonasteryGameState extends AbstractGameState {
         treasuresOwnedPerPlayer = new ArrayList<>();
         playerBids = new HashMap<>();
         for (int p = 0; p < getNPlayers(); p++) {
-            playerTreasuries.add(new EnumMap<>(Resource.class));
+            playerTreasuries.add(new ResourcePool<>(Resource.class));
             treasuresOwnedPerPlayer.add(new ArrayList<>());
         }
         nextRetirementReward = 0;
@@ -110,7 +111,7 @@ public class DiceMonasteryGameState extends AbstractGameState {
         int currentLevel = getResource(player, resource, STOREROOM);
         if (currentLevel + amount < 0)
             throw new IllegalArgumentException(String.format("Only have %d %s in stock; cannot remove %d", currentLevel, resource, -amount));
-        playerTreasuries.get(player).put(resource, currentLevel + amount);
+        playerTreasuries.get(player).add(resource, amount);
     }
 
     public void moveCubes(int player, Resource resource, int count, ActionArea from, ActionArea to) {
@@ -144,9 +145,10 @@ public class DiceMonasteryGameState extends AbstractGameState {
         if (beer > totalBeer || mead > totalMead)
             throw new AssertionError(String.format("Cannot bid more beer or mead than you have %d of %d, %d of %d", beer, totalBeer, mead, totalMead));
 
-        playerBids.put(player, new HashMap<>());
-        playerBids.get(player).put(BEER, beer);
-        playerBids.get(player).put(MEAD, mead);
+        ResourcePool<Resource> bid = new ResourcePool<>(Resource.class);
+        bid.set(BEER, beer);
+        bid.set(MEAD, mead);
+        playerBids.put(player, bid);
         return true;
     }
 
@@ -164,8 +166,8 @@ public class DiceMonasteryGameState extends AbstractGameState {
             throw new AssertionError(String.format("Wrong season (%s) for Viking raids!", season));
 
         List<Integer> bidPerPlayer = IntStream.range(0, getNPlayers()).map(player -> {
-                    Map<Resource, Integer> bid = playerBids.get(player);
-                    return bid.getOrDefault(BEER, 0) + bid.getOrDefault(MEAD, 0) * 2;
+                    ResourcePool<Resource> bid = playerBids.get(player);
+                    return bid.get(BEER) + bid.get(MEAD) * 2;
                 }
         ).boxed().collect(toList());
 
@@ -202,7 +204,6 @@ public class DiceMonasteryGameState extends AbstractGameState {
 
         List<Integer> retValue = new ArrayList<>();
         for (int player = 0; player < bidPerPlayer.size(); player++) {
-            Map<Resource, Integer> treasury = playerTreasuries.get(player);
             if (bidPerPlayer.get(player) == lowestBid) {
                 // add them to the list of player to make a sacrifice decision
                 retValue.add(player);
@@ -212,9 +213,7 @@ public class DiceMonasteryGameState extends AbstractGameState {
                 int vp = playerRewards[playerOrdinality.get(player)];
                 addVP(vp, player);
                 // and then lose stuff in Bid
-                treasury.merge(BEER, -playerBids.get(player).getOrDefault(BEER, 0), Integer::sum);
-                treasury.merge(MEAD, -playerBids.get(player).getOrDefault(MEAD, 0), Integer::sum);
-                playerBids.remove(player);
+                playerTreasuries.get(player).subtract(playerBids.remove(player));
             }
         }
         return retValue;
@@ -300,15 +299,20 @@ public class DiceMonasteryGameState extends AbstractGameState {
 
     public int getResource(int player, Resource resource, ActionArea location) {
         if (location == STOREROOM) {
-            return playerTreasuries.get(player).getOrDefault(resource, 0);
+            return playerTreasuries.get(player).get(resource);
         }
         return actionAreas.get(location).count(resource, player);
     }
 
     public Map<Resource, Integer> getStores(int player, Predicate<Resource> predicate) {
-        return playerTreasuries.get(player).entrySet().stream()
-                .filter(e -> e.getValue() > 0 && predicate.test(e.getKey()))
-                .collect(toMap(Map.Entry::getKey, Map.Entry::getValue, Integer::sum, () -> new EnumMap<>(Resource.class)));
+        ResourcePool<Resource> treasury = playerTreasuries.get(player);
+        Map<Resource, Integer> retValue = new EnumMap<>(Resource.class);
+        for (Resource resource : Resource.values()) {
+            int count = treasury.get(resource);
+            if (count > 0 && predicate.test(resource))
+                retValue.put(resource, count);
+        }
+        return retValue;
     }
 
     public List<Monk> monksIn(ActionArea region, int player) {
@@ -639,10 +643,10 @@ public class DiceMonasteryGameState extends AbstractGameState {
         retValue.playerTreasuries = new ArrayList<>();
         retValue.playerBids = new HashMap<>();
         for (int p = 0; p < getNPlayers(); p++) {
-            retValue.playerTreasuries.add(new EnumMap<>(playerTreasuries.get(p)));
+            retValue.playerTreasuries.add(playerTreasuries.get(p).copy());
             retValue.treasuresOwnedPerPlayer.add(new ArrayList<>(treasuresOwnedPerPlayer.get(p)));
             if (playerBids.containsKey(p))
-                retValue.playerBids.put(p, new HashMap<>(playerBids.get(p)));
+                retValue.playerBids.put(p, playerBids.get(p).copy());
         }
         retValue.nextRetirementReward = nextRetirementReward;
         retValue.writtenTexts.putAll(writtenTexts);
@@ -703,8 +707,8 @@ public class DiceMonasteryGameState extends AbstractGameState {
 
     @Override
     public double getGameScore(int playerId) {
-        return (double) (playerTreasuries.get(playerId).getOrDefault(BEER, 0) / 2) +
-                playerTreasuries.get(playerId).getOrDefault(MEAD, 0) +
+        return (double) (playerTreasuries.get(playerId).get(BEER) / 2) +
+                playerTreasuries.get(playerId).get(MEAD) +
                 getVictoryPoints(playerId);
     }
 
@@ -8,11 +8,13 @@ import core.components.Component;
 import core.components.Deck;
 import core.components.PartialObservableDeck;
 import core.interfaces.IGamePhase;
+import core.interfaces.IInformationSet;
 import core.interfaces.IPrintable;
 import games.GameType;
 import games.dominion.DominionConstants.DeckType;
 import games.dominion.actions.IDelayedAction;
 import games.dominion.cards.CardType;
+import games.dominion.cards.CardTypeCounts;
 import games.dominion.cards.DominionCard;
 
 import java.util.*;
@@ -211,17 +213,34 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
                 allCards = getDeck(deck, playerId);
                 break;
             case ALL:
-                allCards = new Deck<>("temp", VISIBLE_TO_ALL);
-                allCards.add(playerHands[playerId]);
-                allCards.add(playerDiscards[playerId]);
-                allCards.add(playerDrawPiles[playerId]);
-                allCards.add(playerTableaux[playerId]);
-                break;
+                return cardsOfType(type, playerId, DeckType.HAND) + cardsOfType(type, playerId, DeckType.DISCARD)
+                        + cardsOfType(type, playerId, DeckType.DRAW) + cardsOfType(type, playerId, DeckType.TABLE);
             default:
                 throw new IllegalStateException("Unexpected value: " + deck);
         }
 
-        return (int) allCards.stream().filter(c -> c.cardType() == type).count();
+        int count = 0;
+        for (int i = 0; i < allCards.getSize(); i++) {
+            if (allCards.get(i).cardType() == type)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the multiset of card types in the specified deck (or all of a player's cards for DeckType.ALL)
+     */
+    public CardTypeCounts cardCounts(int playerId, DeckType deck) {
+        CardTypeCounts retValue = new CardTypeCounts();
+        if (deck == DeckType.ALL) {
+            retValue.addAll(playerHands[playerId]);
+            retValue.addAll(playerDiscards[playerId]);
+            retValue.addAll(playerDrawPiles[playerId]);
+            retValue.addAll(playerTableaux[playerId]);
+        } else {
+            retValue.addAll(getDeck(deck, playerId));
+        }
+        return retValue;
     }
 
     public List<CardType> cardsToBuy() {
@@ -263,41 +282,10 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
             retValue.cardsIncludedInGame.put(ct, cardsIncludedInGame.get(ct));
         }
         for (int p = 0; p < playerCount; p++) {
-            if (playerId == -1) {
-                retValue.playerHands[p] = playerHands[p].copy();
-                retValue.playerDrawPiles[p] = playerDrawPiles[p].copy();
-            } else if (playerId == p) {
-                // need to shuffle drawpile separately
-                retValue.playerHands[p] = playerHands[p].copy();
-                retValue.playerDrawPiles[p] = playerDrawPiles[p].copy();
-                retValue.playerDrawPiles[p].shuffleVisible(rnd, p, false);
-            } else {
-                // need to combine and shuffle hands and drawpiles
-                retValue.playerDrawPiles[p] = playerDrawPiles[p].copy();
-                retValue.playerHands[p] = playerHands[p].copy();
-                for (int i = 0; i < retValue.playerHands[p].getSize(); i++) {
-                    // if we (the perspective player) can see the card, then we need to keep it in place
-                    // if not then we move it to the *bottom* of the drawpile (this is the end of an ArrayList...so more efficient?)
-                    if (!retValue.playerHands[p].getVisibilityForPlayer(i, playerId)) {
-                        retValue.playerDrawPiles[p].add(retValue.playerHands[p].get(i), retValue.playerDrawPiles[p].getSize());
-                    }
-                }
-                // we have now moved all the non-visible Hand cards into the Draw pile to reshuffle
-                retValue.playerHands[p].clear(); // we will need to reconstruct this, including visibility status in a sec
-                // we then reshuffle all the non-visible cards
-                retValue.playerDrawPiles[p].shuffleVisible(rnd, playerId, false);
-                // we then remove cards from the top of the shuffled draw pile (in the region we know is not visible)
-                for (int i = 0; i < playerHands[p].getSize(); i++) {
-                    if (!playerHands[p].getVisibilityForPlayer(i, playerId)) {
-                        // we then pick cards from the end of the drawpile List and add them to the Hand
-                        // possibly more efficient picking from the end of an ArrayList?
-                        retValue.playerHands[p].add(retValue.playerDrawPiles[p].pick(retValue.playerDrawPiles[p].getSize() - 1), i);
-                    } else {
-                        // we know what this card is, so copy over visibility status
-                        retValue.playerHands[p].add(playerHands[p].get(i).copy(), playerHands[p].getVisibilityOfComponent(i).clone());
-                    }
-                }
-            }
+            retValue.playerHands[p] = playerHands[p].copy();
+            retValue.playerDrawPiles[p] = playerDrawPiles[p].copy();
+            if (playerId != -1)
+                redeterminise(retValue, p, playerId);
             retValue.playerDiscards[p] = playerDiscards[p].copy();
             retValue.playerTableaux[p] = playerTableaux[p].copy();
         }
@@ -313,6 +301,74 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
         return retValue;
     }
 
+    @Override
+    protected boolean _copyInto(AbstractGameState target, int playerId) {
+        DominionGameState s = (DominionGameState) target;
+        if (s.trashPile.getComponentID() != trashPile.getComponentID())
+            return false;  // a state from another game
+        s.cardsIncludedInGame.clear();
+        s.cardsIncludedInGame.putAll(cardsIncludedInGame);
+        for (int p = 0; p < playerCount; p++) {
+            playerHands[p].copyInto(s.playerHands[p]);
+            playerDrawPiles[p].copyInto(s.playerDrawPiles[p]);
+            if (playerId != -1)
+                redeterminise(s, p, playerId);
+            playerDiscards[p].copyInto(s.playerDiscards[p]);
+            playerTableaux[p].copyInto(s.playerTableaux[p]);
+        }
+        trashPile.copyInto(s.trashPile);
+        s.buysLeftForCurrentPlayer = buysLeftForCurrentPlayer;
+        s.actionsLeftForCurrentPlayer = actionsLeftForCurrentPlayer;
+        s.spentSoFar = spentSoFar;
+        s.additionalSpendAvailable = additionalSpendAvailable;
+
+        System.arraycopy(defenceStatus, 0, s.defenceStatus, 0, defenceStatus.length);
+
+        s.delayedActions.clear();
+        for (IDelayedAction action : delayedActions)
+            s.delayedActions.add(action.copy());
+        return true;
+    }
+
+    private void redeterminise(DominionGameState retValue, int p, int playerId) {
+        // For our own deck only the drawpile is unknown, for other players the hand is as well.
+        // We redeterminise by counting the cards we cannot see, and then sampling from these counts
+        // into each hidden position. Visibility stays in place, as we know which positions are known to whom
+        // (if not what the card is), and no cards need to be moved between decks.
+        PartialObservableDeck<DominionCard> hand = retValue.playerHands[p];
+        PartialObservableDeck<DominionCard> drawPile = retValue.playerDrawPiles[p];
+        CardTypeCounts hiddenCards = new CardTypeCounts();
+        if (playerId != p)
+            countHiddenCards(hand, playerId, hiddenCards);
+        countHiddenCards(drawPile, playerId, hiddenCards);
+        if (playerId != p)
+            redeterminiseHiddenCards(hand, playerId, hiddenCards);
+        redeterminiseHiddenCards(drawPile, playerId, hiddenCards);
+    }
+
+    private static void countHiddenCards(PartialObservableDeck<DominionCard> deck, int playerId, CardTypeCounts counts) {
+        for (int i = 0; i < deck.getSize(); i++) {
+            if (!deck.getVisibilityForPlayer(i, playerId))
+                counts.add(deck.get(i));
+        }
+    }
+
+    private void redeterminiseHiddenCards(PartialObservableDeck<DominionCard> deck, int playerId, CardTypeCounts counts) {
+        for (int i = 0; i < deck.getSize(); i++) {
+            if (!deck.getVisibilityForPlayer(i, playerId))
+                deck.setComponent(i, counts.sample(rnd));
+        }
+    }
+
+    /**
+     * The hidden cards are the same as those redeterminised by copy(playerId), and each sample deals them into the
+     * same positions.
+     */
+    @Override
+    public IInformationSet getInformationSet(int playerId) {
+        return new DominionInformationSet(this, playerId);
+    }
+
     /**
      * Provide a simple numerical assessment of the current game state, the bigger the better.
      * Subjective heuristic function definition.
@@ -0,0 +1,66 @@
+package games.dominion;
+
+import core.AbstractGameState;
+import core.components.PartialObservableDeck;
+import core.interfaces.IInformationSet;
+import games.dominion.cards.DominionCard;
+
+import java.util.Random;
+
+/**
+ * The hidden information of a DominionGameState from the perspective of one player. This is what
+ * DominionGameState._copy(playerId) works out each time it is called: the cards in the draw pile (and for other
+ * players the hand) that the player cannot see, which are re-dealt amongst those same positions.
+ * <p>
+ * Here we find the positions and the cards once, and each sample() then only deals a random permutation of the cards
+ * into a copy of the state.
+ */
+public class DominionInformationSet implements IInformationSet {
+
+    private final DominionGameState state;
+    private final int[][] hiddenInHand, hiddenInDrawPile;
+    // the cards to deal for each player; these are re-shuffled in place by each sample()
+    private final DominionCard[][] hiddenCards;
+
+    DominionInformationSet(DominionGameState state, int playerId) {
+        this.state = state;
+        int nPlayers = state.getNPlayers();
+        hiddenInHand = new int[nPlayers][];
+        hiddenInDrawPile = new int[nPlayers][];
+        hiddenCards = new DominionCard[nPlayers][];
+        for (int p = 0; p < nPlayers; p++) {
+            // we can always see our own hand
+            hiddenInHand[p] = p == playerId ? new int[0] : state.playerHands[p].getPositions(playerId, false);
+            hiddenInDrawPile[p] = state.playerDrawPiles[p].getPositions(playerId, false);
+            hiddenCards[p] = new DominionCard[hiddenInHand[p].length + hiddenInDrawPile[p].length];
+            int n = 0;
+            for (int i : hiddenInHand[p])
+                hiddenCards[p][n++] = state.playerHands[p].get(i);
+            for (int i : hiddenInDrawPile[p])
+                hiddenCards[p][n++] = state.playerDrawPiles[p].get(i);
+        }
+    }
+
+    @Override
+    public AbstractGameState sample(AbstractGameState target, Random rnd) {
+        DominionGameState retValue = (DominionGameState) state.copyInto(target, -1);
+        for (int p = 0; p < hiddenCards.length; p++) {
+            DominionCard[] cards = hiddenCards[p];
+            for (int i = cards.length; i > 1; i--) {
+                int j = rnd.nextInt(i);
+                DominionCard tmp = cards[i - 1];
+                cards[i - 1] = cards[j];
+                cards[j] = tmp;
+            }
+            int n = deal(retValue.playerHands[p], hiddenInHand[p], cards, 0);
+            deal(retValue.playerDrawPiles[p], hiddenInDrawPile[p], cards, n);
+        }
+        return retValue;
+    }
+
+    private static int deal(PartialObservableDeck<DominionCard> deck, int[] positions, DominionCard[] cards, int next) {
+        for (int i : positions)
+            deck.setComponent(i, cards[next++]);
+        return next;
+    }
+}
@@ -104,8 +104,12 @@ public class DominionParameters extends TunableParameters {
      */
     @Override
     protected AbstractParameters _copy() {
-        return this;
-        // currently parameters are immutable
+        // copy() gives the copy a new random seed, so this cannot be shared with the original
+        DominionParameters retValue = new DominionParameters(System.currentTimeMillis());
+        retValue.cardsUsed = new ArrayList<>(cardsUsed);
+        retValue.dataPath = dataPath;
+        retValue.VICTORY_CARDS_PER_PLAYER = VICTORY_CARDS_PER_PLAYER.clone();
+        return retValue;
     }
 
     /**
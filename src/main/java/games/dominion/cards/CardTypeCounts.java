@@ -0,0 +1,88 @@
+package games.dominion.cards;
+
+import core.components.Deck;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A multiset view of a collection of Dominion cards, held as an int[] of counts indexed by CardType ordinal.
+ * Almost all decisions in Dominion only depend on how many cards of each type are in a pile, and not on
+ * their order. This is used during redeterminisation to sample hidden cards directly from the counts, instead
+ * of moving cards between decks and shuffling them.
+ * <p>
+ * As DominionCards are immutable (copy() returns the same instance), we keep one exemplar card per type and
+ * hand that back out when sampling.
+ */
+public class CardTypeCounts {
+
+    private static final CardType[] allTypes = CardType.values();
+
+    private final int[] counts = new int[allTypes.length];
+    private final DominionCard[] exemplars = new DominionCard[allTypes.length];
+    private int total;
+
+    public CardTypeCounts() {
+    }
+
+    public void add(DominionCard card) {
+        int index = card.cardType().ordinal();
+        counts[index]++;
+        if (exemplars[index] == null)
+            exemplars[index] = card;
+        total++;
+    }
+
+    public void addAll(Deck<DominionCard> deck) {
+        for (int i = 0; i < deck.getSize(); i++)
+            add(deck.get(i));
+    }
+
+    /**
+     * Draws a card at random from the multiset (without replacement). This is equivalent to shuffling the
+     * cards and then drawing the top one, but without needing to hold the cards in any order.
+     *
+     * @param rnd - random number generator to use
+     * @return the card drawn; this is removed from the counts
+     */
+    public DominionCard sample(Random rnd) {
+        if (total == 0)
+            throw new IllegalStateException("No cards left to sample from");
+        int target = rnd.nextInt(total);
+        for (int i = 0; i < counts.length; i++) {
+            target -= counts[i];
+            if (target < 0) {
+                counts[i]--;
+                total--;
+                return exemplars[i];
+            }
+        }
+        throw new AssertionError("Counts and total are out of sync");
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof CardTypeCounts) {
+            CardTypeCounts other = (CardTypeCounts) obj;
+            return Arrays.equals(counts, other.counts);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0)
+                sb.append(String.format("%s: %d, ", allTypes[i], counts[i]));
+        }
+        if (sb.length() > 0)
+            sb.setLength(sb.length() - 2);
+        return sb.toString();
+    }
+}
@@ -158,6 +158,13 @@ public class DominionCard extends Card {
         }
         return false;
     }
+
+    @Override
+    public int hashCode() {
+        // consistent with equals(), and independent of the component ID, so that sets of cards iterate in the same
+        // order in every game with the same seed
+        return type.ordinal();
+    }
 }
 
 
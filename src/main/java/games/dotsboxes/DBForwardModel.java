@@ -2,7 +2,9 @@ package games.dotsboxes;
 
 import core.AbstractGameState;
 import core.StandardForwardModel;
+import core.UndoJournal;
 import core.actions.AbstractAction;
+import core.interfaces.IActionEncoder;
 import utilities.Vector2D;
 
 import java.util.ArrayList;
@@ -10,7 +12,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 
-public class DBForwardModel extends StandardForwardModel {
+public class DBForwardModel extends StandardForwardModel implements IActionEncoder {
 
     @Override
     protected void _setup(AbstractGameState firstState) {
@@ -50,6 +52,68 @@ public class DBForwardModel extends StandardForwardModel {
         dbgs.nCellsPerPlayer = new int[dbgs.getNPlayers()];
     }
 
+    @Override
+    protected void _beforeAction(AbstractGameState currentState, AbstractAction action) {
+        UndoJournal journal = currentState.getUndoJournal();
+        if (journal != null) {
+            // Any cells completed by the action must be next to the edge added, so the edge is all we need
+            journal.pushBoolean(((DBGameState) currentState).lastActionScored);
+            journal.pushObject(((AddGridCellEdge) action).edge);
+        }
+    }
+
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
+    @Override
+    protected void _undo(AbstractGameState gameState, UndoJournal journal) {
+        DBGameState dbgs = (DBGameState) gameState;
+        DBEdge edge = journal.popObject();
+        dbgs.edgeToOwnerMap.remove(edge);
+        for (DBCell c : dbgs.edgeToCellMap.get(edge)) {
+            Integer owner = dbgs.cellToOwnerMap.remove(c);
+            if (owner != null)
+                dbgs.nCellsPerPlayer[owner]--;
+        }
+        dbgs.lastActionScored = journal.popBoolean();
+    }
+
+    // The horizontal edges come first, row by row, followed by the vertical edges
+    @Override
+    public int getActionSpaceSize(AbstractGameState gameState) {
+        DBParameters dbp = (DBParameters) gameState.getGameParameters();
+        return dbp.gridWidth * (dbp.gridHeight + 1) + (dbp.gridWidth + 1) * dbp.gridHeight;
+    }
+
+    @Override
+    public int encode(AbstractGameState gameState, AbstractAction action) {
+        if (!(action instanceof AddGridCellEdge))
+            return -1;
+        DBParameters dbp = (DBParameters) gameState.getGameParameters();
+        DBEdge edge = ((AddGridCellEdge) action).edge;
+        // edges have no direction, so we start from the top-left end
+        int x = Math.min(edge.from.getX(), edge.to.getX());
+        int y = Math.min(edge.from.getY(), edge.to.getY());
+        if (edge.from.getY() == edge.to.getY())
+            return y * dbp.gridWidth + x;
+        return dbp.gridWidth * (dbp.gridHeight + 1) + y * (dbp.gridWidth + 1) + x;
+    }
+
+    @Override
+    public AbstractAction decode(AbstractGameState gameState, int code) {
+        DBParameters dbp = (DBParameters) gameState.getGameParameters();
+        int nHorizontal = dbp.gridWidth * (dbp.gridHeight + 1);
+        if (code < nHorizontal) {
+            int x = code % dbp.gridWidth, y = code / dbp.gridWidth;
+            return new AddGridCellEdge(new DBEdge(new Vector2D(x, y), new Vector2D(x + 1, y)));
+        }
+        code -= nHorizontal;
+        int x = code % (dbp.gridWidth + 1), y = code / (dbp.gridWidth + 1);
+        return new AddGridCellEdge(new DBEdge(new Vector2D(x, y), new Vector2D(x, y + 1)));
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         DBGameState dbgs = (DBGameState) currentState;
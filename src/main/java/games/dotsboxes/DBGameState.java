@@ -67,6 +67,25 @@ public class DBGameState extends AbstractGameState {
         return dbgs;
     }
 
+    @Override
+    protected boolean _copyInto(AbstractGameState target, int playerId) {
+        DBGameState dbgs = (DBGameState) target;
+        // the board itself is immutable, so is shared as in _copy()
+        dbgs.edges = edges;
+        dbgs.cells = cells;
+        dbgs.edgeToCellMap = edgeToCellMap;
+        dbgs.cellToEdgesMap = cellToEdgesMap;
+        dbgs.lastActionScored = lastActionScored;
+
+        System.arraycopy(nCellsPerPlayer, 0, dbgs.nCellsPerPlayer, 0, nCellsPerPlayer.length);
+        dbgs.cellToOwnerMap.clear();
+        dbgs.cellToOwnerMap.putAll(cellToOwnerMap);
+        dbgs.edgeToOwnerMap.clear();
+        dbgs.edgeToOwnerMap.putAll(edgeToOwnerMap);
+        dbgs.heuristic = heuristic;
+        return true;
+    }
+
     @Override
     protected double _getHeuristicScore(int playerId) {
         if (heuristic == null) { // lazy initialization
@@ -92,7 +111,6 @@ public class DBGameState extends AbstractGameState {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof DBGameState)) return false;
-        if (!super.equals(o)) return false;
         DBGameState that = (DBGameState) o;
         return lastActionScored == that.lastActionScored && Objects.equals(heuristic, that.heuristic) && Objects.equals(edges, that.edges) && Objects.equals(cells, that.cells) && Objects.equals(edgeToCellMap, that.edgeToCellMap) && Objects.equals(cellToEdgesMap, that.cellToEdgesMap) && Arrays.equals(nCellsPerPlayer, that.nCellsPerPlayer) && Objects.equals(cellToOwnerMap, that.cellToOwnerMap) && Objects.equals(edgeToOwnerMap, that.edgeToOwnerMap);
     }
@@ -21,6 +21,12 @@ public class DBStateFeaturesReduced implements IStateFeatureVector {
         return retValue;
     }
 
+    @Override
+    public boolean readsOnlyObservableState() {
+        // Dots and Boxes is a perfect information game
+        return true;
+    }
+
     @Override
     public String[] names() {
         return names;
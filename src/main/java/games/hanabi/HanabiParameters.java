@@ -79,7 +79,6 @@ public class HanabiParameters extends TunableParameters {
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof HanabiParameters)) return false;
-        if(!super.equals(o)) return false;
         HanabiParameters that = (HanabiParameters) o;
 
         return nNumberCards == that.nNumberCards &&
@@ -5,9 +5,9 @@ import core.components.PartialObservableDeck;
 import core.interfaces.IStateFeatureVector;
 import games.loveletter.cards.LoveLetterCard;
 
-import java.util.HashSet;
+import java.nio.DoubleBuffer;
+import java.util.EnumSet;
 import java.util.Set;
-import java.util.stream.IntStream;
 
 import static games.loveletter.cards.LoveLetterCard.CardType.*;
 
@@ -22,14 +22,19 @@ public class LLStateFeaturesReduced implements IStateFeatureVector {
 
     @Override
     public double[] featureVector(AbstractGameState gs, int playerId) {
+        double[] retValue = new double[names.length];
+        featureVector(gs, playerId, DoubleBuffer.wrap(retValue));
+        return retValue;
+    }
+
+    @Override
+    public void featureVector(AbstractGameState gs, int playerId, DoubleBuffer buffer) {
         LoveLetterGameState llgs = (LoveLetterGameState) gs;
         LoveLetterParameters llp = (LoveLetterParameters) gs.getGameParameters();
 
-        double[] retValue = new double[names.length];
-
         double cardValues = 0;
 
-        Set<LoveLetterCard.CardType> cardTypes = new HashSet<>();
+        Set<LoveLetterCard.CardType> cardTypes = EnumSet.noneOf(LoveLetterCard.CardType.class);
         for (LoveLetterCard card : llgs.getPlayerHandCards().get(playerId).getComponents()) {
             cardValues += card.cardType.getValue();
             cardTypes.add(card.cardType);
@@ -39,34 +44,38 @@ public class LLStateFeaturesReduced implements IStateFeatureVector {
         double nRequiredTokens = (llgs.getNPlayers() == 2 ? llp.nTokensWin2 : llgs.getNPlayers() == 3 ? llp.nTokensWin3 : llp.nTokensWin4);
         if (nRequiredTokens < llgs.affectionTokens[playerId]) nRequiredTokens = llgs.affectionTokens[playerId];
 
-        retValue[0] = cardValues / maxCardValue;
-        retValue[1] = llgs.affectionTokens[playerId] / nRequiredTokens;
+        buffer.put(cardValues / maxCardValue);
+        buffer.put(llgs.affectionTokens[playerId] / nRequiredTokens);
 
-        if (cardTypes.contains(Countess)) retValue[2] = 1.0;
-        if (cardTypes.contains(King)) retValue[6] = 1.0;
-        if (cardTypes.contains(Baron)) retValue[3] = 1.0;
-        if (cardTypes.contains(Handmaid)) retValue[5] = 1.0;
-        if (cardTypes.contains(Guard)) retValue[4] = 1.0;
-        if (cardTypes.contains(Priest)) retValue[7] = 1.0;
-        if (cardTypes.contains(Prince)) retValue[8] = 1.0;
-        if (cardTypes.contains(Princess)) retValue[9] = 1.0;
+        buffer.put(cardTypes.contains(Countess) ? 1.0 : 0.0);
+        buffer.put(cardTypes.contains(Baron) ? 1.0 : 0.0);
+        buffer.put(cardTypes.contains(Guard) ? 1.0 : 0.0);
+        buffer.put(cardTypes.contains(Handmaid) ? 1.0 : 0.0);
+        buffer.put(cardTypes.contains(King) ? 1.0 : 0.0);
+        buffer.put(cardTypes.contains(Priest) ? 1.0 : 0.0);
+        buffer.put(cardTypes.contains(Prince) ? 1.0 : 0.0);
+        buffer.put(cardTypes.contains(Princess) ? 1.0 : 0.0);
 
         int visibleCards = 0;
+        int maxOtherScore = Integer.MIN_VALUE;
         for (int player = 0; player < llgs.getNPlayers(); player++) {
             if (player != playerId) {
                 PartialObservableDeck<LoveLetterCard> deck = llgs.getPlayerHandCards().get(player);
-                visibleCards += (int) IntStream.range(0, deck.getSize()).filter(i -> deck.getVisibilityForPlayer(i, playerId)).count();
+                for (int i = 0; i < deck.getSize(); i++) {
+                    if (deck.getVisibilityForPlayer(i, playerId))
+                        visibleCards++;
+                }
+                maxOtherScore = Math.max(maxOtherScore, (int) llgs.getGameScore(player));
             }
         }
-        retValue[10] = visibleCards / (llgs.getNPlayers() - 1.0);
-
-        int maxOtherScore = IntStream.range(0, llgs.getNPlayers())
-                .filter(p -> p != playerId)
-                .map(p -> (int) llgs.getGameScore(p)).max().orElseThrow(() -> new AssertionError("??"));
-        retValue[11] = (llgs.affectionTokens[playerId] - maxOtherScore) / nRequiredTokens;
-
-        return retValue;
+        buffer.put(visibleCards / (llgs.getNPlayers() - 1.0));
+        buffer.put((llgs.affectionTokens[playerId] - maxOtherScore) / nRequiredTokens);
+    }
 
+    @Override
+    public boolean readsOnlyObservableState() {
+        // we only look at other players' cards that are visible to us
+        return true;
     }
 
     @Override
@@ -4,7 +4,7 @@ import core.AbstractGameState;
 import core.interfaces.IStateFeatureVector;
 import games.stratego.components.Piece;
 
-import java.util.ArrayList;
+import java.nio.DoubleBuffer;
 import java.util.List;
 
 public class StrategoFeatures implements IStateFeatureVector {
@@ -21,6 +21,14 @@ public class StrategoFeatures implements IStateFeatureVector {
     // Value = Piece Type
     @Override
     public double[] featureVector(AbstractGameState state, int playerID) {
+        StrategoGameState sgs = (StrategoGameState) state;
+        double[] retValue = new double[sgs.gridBoard.getComponents().size()];
+        featureVector(state, playerID, DoubleBuffer.wrap(retValue));
+        return retValue;
+    }
+
+    @Override
+    public void featureVector(AbstractGameState state, int playerID, DoubleBuffer buffer) {
         /* Scheme
         * 1 Unknown Player Piece (I don't think this ever happens)
         * 2 - 13 Player Piece Type
@@ -29,55 +37,29 @@ public class StrategoFeatures implements IStateFeatureVector {
         * 0 Empty Space */
         StrategoGameState sgs = (StrategoGameState) state;
         List<Piece> pieces = sgs.gridBoard.getComponents();
-        List<Double> values = new ArrayList<>();
-        int changeSignRed = playerID == 0 ? 1 : -1;
-        int changeSignBlue = playerID == 0 ? -1 : 1;
+        Piece.Alliance playerAlliance = playerID == 0 ? Piece.Alliance.RED : Piece.Alliance.BLUE;
 
         for (Piece piece : pieces) {
-            if (piece != null) {
-
-                // Player is Red
-                if (playerID == 0) {
-
-                    // Player Pieces
-                    if (piece.getPieceAlliance() == Piece.Alliance.RED) {
-                        values.add((double) ((piece.getPieceType().ordinal() + 1)));
-                    }
-
-                    // Opponent Piece is known
-                    else if (piece.getPieceAlliance() == Piece.Alliance.BLUE && piece.isPieceKnown()) {
-                        values.add((double) ((piece.getPieceType().ordinal() + 1) * changeSignBlue));
-                    }
-
-                    // Enemy Unknown
-                    else {
-                        values.add(-1.0);
-                    }
-                }
-
-                // Player is Blue
-                else if (playerID == 1) {
-                    if (piece.getPieceAlliance() == Piece.Alliance.BLUE) {
-                        values.add((double) ((piece.getPieceType().ordinal() + 1)));
-                    }
-
-                    // Opponent Piece is known
-                    else if (piece.getPieceAlliance() == Piece.Alliance.RED && piece.isPieceKnown()) {
-                        values.add((double) ((piece.getPieceType().ordinal() + 1) * changeSignRed));
-                    }
-
-                    // Enemy Unknown
-                    else {
-                        values.add(-1.0);
-                    }
-                }
-            }
-            // Empty Space
-            else {
-                values.add(0.0);
+            if (piece == null) {
+                // Empty Space
+                buffer.put(0.0);
+            } else if (piece.getPieceAlliance() == playerAlliance) {
+                // Player Pieces
+                buffer.put(piece.getPieceType().ordinal() + 1);
+            } else if (piece.isPieceKnown()) {
+                // Opponent Piece is known
+                buffer.put(-(piece.getPieceType().ordinal() + 1));
+            } else {
+                // Enemy Unknown
+                buffer.put(-1.0);
             }
         }
-        return values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    @Override
+    public boolean readsOnlyObservableState() {
+        // the types of opponent pieces are only used once they are known
+        return true;
     }
 
 }
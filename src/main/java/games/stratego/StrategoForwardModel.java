@@ -3,6 +3,7 @@ package games.stratego;
 import core.AbstractGameState;
 import core.CoreConstants;
 import core.StandardForwardModel;
+import core.UndoJournal;
 import core.actions.AbstractAction;
 import core.actions.ActionSpace;
 import core.components.GridBoard;
@@ -96,6 +97,48 @@ public class StrategoForwardModel extends StandardForwardModel implements ITreeA
         return _computeAvailableActions(gameState, ActionSpace.Default);
     }
 
+    @Override
+    protected void _beforeAction(AbstractGameState currentState, AbstractAction action) {
+        UndoJournal journal = currentState.getUndoJournal();
+        if (journal != null) {
+            if (!(action instanceof Move))
+                throw new UnsupportedOperationException("Undo is only supported for Move actions, not " + action);
+            // A move (or attack) only changes the two cells involved, and the pieces on them
+            StrategoGameState state = (StrategoGameState) currentState;
+            Move move = (Move) action;
+            Piece movedPiece = move.getPiece(state);
+            Vector2D to = move.to(state);
+            Piece target = state.gridBoard.getElement(to.getX(), to.getY());
+            if (target != null)
+                journal.pushBoolean(target.isPieceKnown());
+            journal.pushObject(target);
+            journal.pushObject(to.copy());
+            journal.pushBoolean(movedPiece.isPieceKnown());
+            journal.pushObject(movedPiece.getPiecePosition().copy());
+            journal.pushObject(movedPiece);
+        }
+    }
+
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
+    @Override
+    protected void _undo(AbstractGameState gameState, UndoJournal journal) {
+        StrategoGameState state = (StrategoGameState) gameState;
+        Piece movedPiece = journal.popObject();
+        Vector2D from = journal.popObject();
+        movedPiece.setPieceKnown(journal.popBoolean());
+        movedPiece.setPiecePosition(from);
+        Vector2D to = journal.popObject();
+        Piece target = journal.popObject();
+        if (target != null)
+            target.setPieceKnown(journal.popBoolean());
+        state.gridBoard.setElement(to, target);
+        state.gridBoard.setElement(from, movedPiece);
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         if (currentState.getGameStatus() == CoreConstants.GameResult.GAME_END || currentState.isActionInProgress()){
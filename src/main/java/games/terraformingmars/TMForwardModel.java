@@ -31,16 +31,16 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
         TMGameParameters params = (TMGameParameters) firstState.getGameParameters();
         Random rnd = new Random(params.getRandomSeed());
 
-        gs.playerResources = new HashMap[gs.getNPlayers()];
-        gs.playerProduction = new HashMap[gs.getNPlayers()];
+        gs.playerResources = new EnumMap[gs.getNPlayers()];
+        gs.playerProduction = new EnumMap[gs.getNPlayers()];
         gs.playerResourceMap = new HashSet[gs.getNPlayers()];
         gs.playerDiscountEffects = new HashMap[gs.getNPlayers()];
-        gs.playerResourceIncreaseGen = new HashMap[gs.getNPlayers()];
+        gs.playerResourceIncreaseGen = new EnumMap[gs.getNPlayers()];
 
         for (int i = 0; i < gs.getNPlayers(); i++) {
-            gs.playerResources[i] = new HashMap<>();
-            gs.playerProduction[i] = new HashMap<>();
-            gs.playerResourceIncreaseGen[i] = new HashMap<>();
+            gs.playerResources[i] = new EnumMap<>(TMTypes.Resource.class);
+            gs.playerProduction[i] = new EnumMap<>(TMTypes.Resource.class);
+            gs.playerResourceIncreaseGen[i] = new EnumMap<>(TMTypes.Resource.class);
             for (TMTypes.Resource res : TMTypes.Resource.values()) {
                 int startingRes = params.startingResources.get(res);
                 if (res == TR && gs.getNPlayers() == 1) {
@@ -342,9 +342,13 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
         TMGameParameters params = (TMGameParameters) gs.getGameParameters();
         int player = gs.getCurrentPlayer();
 
-        List<AbstractAction> possibleActions = getAllActions(gs);
+        // Only cards the player can afford are turned into PlayCard actions here - the cost check is the
+        // cheapest requirement and rules out most of the hand, so we avoid building their full requirement sets
+        List<AbstractAction> possibleActions = getAllActions(gs, true);
 
-        // Wrap actions that can actually be played and must be paid for
+        // Wrap actions that can actually be played and must be paid for. The wrappers are made here rather than
+        // lazily: agents choose between the wrapped actions, so every one is needed anyway, and making one costs
+        // little next to the requirement checks above
         for (AbstractAction aa : possibleActions) {
             TMAction a = (TMAction) aa;
             if (a != null && a.canBePlayed(gs)) {
@@ -368,6 +372,15 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
      * @return - list of all actions available, playable and not playable
      */
     public List<AbstractAction> getAllActions(TMGameState gs) {
+        return getAllActions(gs, false);
+    }
+
+    /**
+     * @param gs                    - current state
+     * @param skipUnaffordableCards - if true, cards in hand that the player cannot pay for are not included
+     * @return - list of all actions available (see getAllActions(TMGameState))
+     */
+    private List<AbstractAction> getAllActions(TMGameState gs, boolean skipUnaffordableCards) {
         // If there is an action in progress (see IExtendedSequence), then delegate to that
         // Regular game loop calls will not reach here, but external calls (e.g. GUI, agents) will and need correct info
         if (gs.isActionInProgress()) {
@@ -418,7 +431,10 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
 
             // Play a card actions
             for (int i = 0; i < gs.playerHands[player].getSize(); i++) {
-                possibleActions.add(new PlayCard(player, gs.playerHands[player].get(i), false));
+                TMCard card = gs.playerHands[player].get(i);
+                if (skipUnaffordableCards && card.cost != 0 && !gs.canPlayerPay(player, card, null, MegaCredit, Math.abs(card.cost), false))
+                    continue;
+                possibleActions.add(new PlayCard(player, card, false));
             }
 
             // Buy a standard project
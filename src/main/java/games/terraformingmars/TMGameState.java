@@ -47,9 +47,9 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
     HashSet<Effect>[] playerPersistingEffects;
 
     // Player-specific counters
-    HashMap<TMTypes.Resource, Counter>[] playerResources;
-    HashMap<TMTypes.Resource, Boolean>[] playerResourceIncreaseGen;  // True if this resource was increased this gen
-    HashMap<TMTypes.Resource, Counter>[] playerProduction;
+    EnumMap<TMTypes.Resource, Counter>[] playerResources;
+    EnumMap<TMTypes.Resource, Boolean>[] playerResourceIncreaseGen;  // True if this resource was increased this gen
+    EnumMap<TMTypes.Resource, Counter>[] playerProduction;
     HashMap<TMTypes.Tag, Counter>[] playerCardsPlayedTags;
     HashMap<TMTypes.CardType, Counter>[] playerCardsPlayedTypes;
     HashMap<TMTypes.Tile, Counter>[] playerTilesPlaced;
@@ -167,9 +167,9 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
         copy.playerResourceMap = new HashSet[getNPlayers()];
         copy.playerPersistingEffects = new HashSet[getNPlayers()];
         copy.playerDiscountEffects = new HashMap[getNPlayers()];
-        copy.playerResources = new HashMap[getNPlayers()];
-        copy.playerResourceIncreaseGen = new HashMap[getNPlayers()];
-        copy.playerProduction = new HashMap[getNPlayers()];
+        copy.playerResources = new EnumMap[getNPlayers()];
+        copy.playerResourceIncreaseGen = new EnumMap[getNPlayers()];
+        copy.playerProduction = new EnumMap[getNPlayers()];
         copy.playerCardsPlayedTags = new HashMap[getNPlayers()];
         copy.playerCardsPlayedTypes = new HashMap[getNPlayers()];
         copy.playerTilesPlaced = new HashMap[getNPlayers()];
@@ -182,9 +182,9 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
             copy.playerResourceMap[i] = new HashSet<>();
             copy.playerPersistingEffects[i] = new HashSet<>();
             copy.playerDiscountEffects[i] = new HashMap<>();
-            copy.playerResources[i] = new HashMap<>();
-            copy.playerResourceIncreaseGen[i] = new HashMap<>();
-            copy.playerProduction[i] = new HashMap<>();
+            copy.playerResources[i] = new EnumMap<>(TMTypes.Resource.class);
+            copy.playerResourceIncreaseGen[i] = new EnumMap<>(TMTypes.Resource.class);
+            copy.playerProduction[i] = new EnumMap<>(TMTypes.Resource.class);
             copy.playerCardsPlayedTags[i] = new HashMap<>();
             copy.playerCardsPlayedTypes[i] = new HashMap<>();
             copy.playerTilesPlaced[i] = new HashMap<>();
@@ -412,11 +412,11 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
      * Public API
      */
 
-    public HashMap<TMTypes.Resource, Counter>[] getPlayerProduction() {
+    public EnumMap<TMTypes.Resource, Counter>[] getPlayerProduction() {
         return playerProduction;
     }
 
-    public HashMap<TMTypes.Resource, Counter>[] getPlayerResources() {
+    public EnumMap<TMTypes.Resource, Counter>[] getPlayerResources() {
         return playerResources;
     }
 
@@ -507,7 +507,7 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
         return generation;
     }
 
-    public HashMap<TMTypes.Resource, Boolean>[] getPlayerResourceIncreaseGen() {
+    public EnumMap<TMTypes.Resource, Boolean>[] getPlayerResourceIncreaseGen() {
         return playerResourceIncreaseGen;
     }
 
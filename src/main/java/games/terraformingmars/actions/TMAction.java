@@ -9,6 +9,7 @@ import games.terraformingmars.TMTypes;
 import games.terraformingmars.components.TMCard;
 import games.terraformingmars.rules.effects.Effect;
 import games.terraformingmars.rules.requirements.AdjacencyRequirement;
+import games.terraformingmars.rules.requirements.PlayableActionRequirement;
 import games.terraformingmars.rules.requirements.Requirement;
 import games.terraformingmars.rules.requirements.ResourceRequirement;
 import utilities.Pair;
@@ -126,8 +127,13 @@ public class TMAction extends AbstractAction {
         }
         if (played && standardProject == null && basicResourceAction == null) return false;
         if (requirements != null && requirements.size() > 0) {
+            // Cheap checks on counters, tags and resources (including the cost) first, as these rule out most
+            // actions; only then recurse into the (much more expensive) playability of any nested effects
             for (Requirement r: requirements) {
-                if (!r.testCondition(gs)) return false;
+                if (!(r instanceof PlayableActionRequirement) && !r.testCondition(gs)) return false;
+            }
+            for (Requirement r: requirements) {
+                if (r instanceof PlayableActionRequirement && !r.testCondition(gs)) return false;
             }
         }
         return true;
@@ -104,7 +104,8 @@ public class CounterRequirement implements Requirement<TMGameState> {
                 thresholdIdx = Utils.indexOf(which.getValues(), thresholdIdx);
             }
         } else {
-            gs.getAllComponents();
+            // Counters are never replaced within a state, so the lookup by ID is safe without rebuilding the
+            // full component registry (getComponentById() will rebuild it on a miss, e.g. on a fresh copy)
             which = (Counter) gs.getComponentById(counterID);
         }
 
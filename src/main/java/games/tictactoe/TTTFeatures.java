@@ -5,8 +5,7 @@ import core.interfaces.IStateFeatureJSON;
 import core.interfaces.IStateFeatureVector;
 import org.json.simple.JSONObject;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.DoubleBuffer;
 
 public class TTTFeatures implements IStateFeatureVector, IStateFeatureJSON {
 
@@ -42,21 +41,32 @@ public class TTTFeatures implements IStateFeatureVector, IStateFeatureJSON {
     @Override
     public double[] featureVector(AbstractGameState state, int playerID) {
         TicTacToeGameState tttgs = (TicTacToeGameState) state;
-        List<Double> listVec = new ArrayList<>();
+        double[] retValue = new double[tttgs.gridBoard.getWidth() * tttgs.gridBoard.getHeight()];
+        featureVector(state, playerID, DoubleBuffer.wrap(retValue));
+        return retValue;
+    }
+
+    @Override
+    public void featureVector(AbstractGameState state, int playerID, DoubleBuffer buffer) {
+        TicTacToeGameState tttgs = (TicTacToeGameState) state;
         String playerSymbol = (playerID == 0) ? "x" : "o";
         for (int x = 0; x < tttgs.gridBoard.getWidth(); x++) {
             for (int y = 0; y < tttgs.gridBoard.getHeight(); y++) {
-                String cellSymbol = tttgs.gridBoard.getElement(x, y).toString();
+                String cellSymbol = tttgs.gridBoard.getElement(x, y).getTokenType();
                 if (cellSymbol.equals(playerSymbol)) {
-                    listVec.add(1.0);
+                    buffer.put(1.0);
                 } else if (cellSymbol.equals(".")) {
-                    listVec.add(0.0);
+                    buffer.put(0.0);
                 } else {
-                    listVec.add(-1.0);
+                    buffer.put(-1.0);
                 }
             }
         }
-        return listVec.stream().mapToDouble(i -> i).toArray();
+    }
+
+    @Override
+    public boolean readsOnlyObservableState() {
+        return true;
     }
 
 //    @Override
@@ -3,11 +3,13 @@ package games.tictactoe;
 import core.AbstractGameState;
 import core.CoreConstants;
 import core.StandardForwardModel;
+import core.UndoJournal;
 import core.actions.AbstractAction;
 import core.actions.ActionSpace;
 import core.actions.SetGridValueAction;
 import core.components.GridBoard;
 import core.components.Token;
+import core.interfaces.IActionEncoder;
 import core.interfaces.ITreeActionSpace;
 import utilities.ActionTreeNode;
 
@@ -16,7 +18,7 @@ import java.util.Arrays;
 import java.util.List;
 
 
-public class TicTacToeForwardModel extends StandardForwardModel implements ITreeActionSpace {
+public class TicTacToeForwardModel extends StandardForwardModel implements ITreeActionSpace, IActionEncoder {
 
     @Override
     protected void _setup(AbstractGameState firstState) {
@@ -51,6 +53,30 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
         return actions;
         }
 
+    @Override
+    protected void _beforeAction(AbstractGameState currentState, AbstractAction action) {
+        UndoJournal journal = currentState.getUndoJournal();
+        if (journal != null) {
+            // the only change is to the cell that is set, as the end of game is recorded in the core state
+            SetGridValueAction<?> setValue = (SetGridValueAction<?>) action;
+            journal.pushObject(((TicTacToeGameState) currentState).gridBoard.getElement(setValue.getX(), setValue.getY()));
+            journal.pushInt(setValue.getX());
+            journal.pushInt(setValue.getY());
+        }
+    }
+
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
+    @Override
+    protected void _undo(AbstractGameState gameState, UndoJournal journal) {
+        int y = journal.popInt();
+        int x = journal.popInt();
+        ((TicTacToeGameState) gameState).gridBoard.setElement(x, y, journal.popObject());
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         if (checkAndProcessGameEnd((TicTacToeGameState) currentState)) {
@@ -159,6 +185,28 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
         gameState.setPlayerResult(CoreConstants.GameResult.LOSE_GAME, 1 - winningPlayer);
     }
 
+    // one code per cell, as the token placed is given by the current player
+    @Override
+    public int getActionSpaceSize(AbstractGameState gameState) {
+        GridBoard<Token> board = ((TicTacToeGameState) gameState).gridBoard;
+        return board.getWidth() * board.getHeight();
+    }
+
+    @Override
+    public int encode(AbstractGameState gameState, AbstractAction action) {
+        if (!(action instanceof SetGridValueAction))
+            return -1;
+        SetGridValueAction<?> setValue = (SetGridValueAction<?>) action;
+        return setValue.getX() * ((TicTacToeGameState) gameState).gridBoard.getHeight() + setValue.getY();
+    }
+
+    @Override
+    public AbstractAction decode(AbstractGameState gameState, int code) {
+        GridBoard<Token> board = ((TicTacToeGameState) gameState).gridBoard;
+        return new SetGridValueAction<>(board.getComponentID(), code / board.getHeight(), code % board.getHeight(),
+                TicTacToeConstants.playerMapping.get(gameState.getCurrentPlayer()));
+    }
+
     public ActionTreeNode initActionTree(AbstractGameState gameState){
         int gridSize = ((TicTacToeGameState) gameState).gridBoard.getWidth();
         ActionTreeNode root = new ActionTreeNode(0, "root");
@@ -32,7 +32,6 @@ public class TicTacToeGameParameters extends TunableParameters {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
-        if (!super.equals(o)) return false;
         TicTacToeGameParameters that = (TicTacToeGameParameters) o;
         return gridSize == that.gridSize;
     }
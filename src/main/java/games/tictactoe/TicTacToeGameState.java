@@ -43,6 +43,16 @@ public class TicTacToeGameState extends AbstractGameState implements IPrintable,
         return s;
     }
 
+    @Override
+    protected boolean _copyInto(AbstractGameState target, int playerId) {
+        TicTacToeGameState s = (TicTacToeGameState) target;
+        if (s.gridBoard.getComponentID() != gridBoard.getComponentID()
+                || s.gridBoard.getWidth() != gridBoard.getWidth() || s.gridBoard.getHeight() != gridBoard.getHeight())
+            return false;
+        gridBoard.copyInto(s.gridBoard);
+        return true;
+    }
+
     @Override
     protected double _getHeuristicScore(int playerId) {
         return new TicTacToeHeuristic().evaluateState(this, playerId);
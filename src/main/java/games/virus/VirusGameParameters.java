@@ -92,7 +92,6 @@ public class VirusGameParameters extends TunableParameters {
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof VirusGameParameters)) return false;
-        if (!super.equals(o)) return false;
         VirusGameParameters that = (VirusGameParameters) o;
         return nCardsPerOrgan == that.nCardsPerOrgan &&
                 nCardsDiscardLatexGlove == that.nCardsDiscardLatexGlove &&
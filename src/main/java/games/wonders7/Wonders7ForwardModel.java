@@ -27,11 +27,9 @@ public class Wonders7ForwardModel extends StandardForwardModel {
         wgs.currentAge = 1;
         wgs.direction = 1;
 
-        // Then fills every player's hashmaps, so each player has 0 of each resource
+        // Then empties every player's resource pool, so each player has 0 of each resource
         for (int i = 0; i < wgs.getNPlayers(); i++) { // For each
-            for (Wonders7Constants.Resource type : Wonders7Constants.Resource.values()) {
-                wgs.playerResources.get(i).put(type, 0);
-            }
+            wgs.playerResources.get(i).clear();
         }
 
         //System.out.println("THE GAME HAS STARTED");
@@ -64,7 +62,7 @@ public class Wonders7ForwardModel extends StandardForwardModel {
             for (Wonders7Constants.Resource resource : keys) {  // Goes through all keys for each resource
                 int stageValue = Math.toIntExact(wgs.getPlayerWonderBoard(player).type.resourcesProduced.get(resource)); // Number of resource the card provides
                 int playerValue = wgs.getPlayerResources(player).get(resource); // Number of resource the player owns
-                wgs.getPlayerResources(player).put(resource, stageValue + playerValue); // Adds the resources provided by the stage to the players resource count
+                wgs.getPlayerResources(player).set(resource, stageValue + playerValue); // Adds the resources provided by the stage to the players resource count
             }
         }
 
@@ -228,12 +226,12 @@ public class Wonders7ForwardModel extends StandardForwardModel {
             for (int i=0; i< wgs.getNPlayers(); i++){
                 int nextplayer = (i+1)% wgs.getNPlayers();
                 if(wgs.getPlayerResources(i).get(Shield) > wgs.getPlayerResources(nextplayer).get(Shield)){ // IF PLAYER i WINS
-                    wgs.getPlayerResources(i).put(Victory,  wgs.getPlayerResources(i).get(Victory)+(2*wgs.currentAge-1)); // 2N-1 POINTS FOR PLAYER i
-                    wgs.getPlayerResources(nextplayer).put(Victory,  wgs.getPlayerResources(nextplayer).get(Victory)-1); // -1 FOR THE PLAYER i+1
+                    wgs.getPlayerResources(i).set(Victory,  wgs.getPlayerResources(i).get(Victory)+(2*wgs.currentAge-1)); // 2N-1 POINTS FOR PLAYER i
+                    wgs.getPlayerResources(nextplayer).set(Victory,  wgs.getPlayerResources(nextplayer).get(Victory)-1); // -1 FOR THE PLAYER i+1
                 }
                 else if (wgs.getPlayerResources(i).get(Shield) < wgs.getPlayerResources(nextplayer).get(Shield)){ // IF PLAYER i+1 WINS
-                    wgs.getPlayerResources(i).put(Victory,  wgs.getPlayerResources(i).get(Victory)-1);// -1 POINT FOR THE PLAYER i
-                    wgs.getPlayerResources(nextplayer).put(Victory,  wgs.getPlayerResources(nextplayer).get(Victory)+(2*wgs.currentAge-1));// 2N-1 POINTS FOR PLAYER i+1
+                    wgs.getPlayerResources(i).set(Victory,  wgs.getPlayerResources(i).get(Victory)-1);// -1 POINT FOR THE PLAYER i
+                    wgs.getPlayerResources(nextplayer).set(Victory,  wgs.getPlayerResources(nextplayer).get(Victory)+(2*wgs.currentAge-1));// 2N-1 POINTS FOR PLAYER i+1
                 }
             }
 
@@ -260,7 +258,7 @@ public class Wonders7ForwardModel extends StandardForwardModel {
                 // Sets of different science symbols
                 vp += 7*Math.min(Math.min(wgs.getPlayerResources(i).get(Cog),wgs.getPlayerResources(i).get(Compass)),wgs.getPlayerResources(i).get(Tablet));
 
-                wgs.getPlayerResources(i).put(Victory, vp);
+                wgs.getPlayerResources(i).set(Victory, vp);
             }
 
             int winner = 0;
@@ -272,7 +270,7 @@ public class Wonders7ForwardModel extends StandardForwardModel {
                     winner = i;
                 }
                 // In a tie, break with coins
-                else if (wgs.getPlayerResources(i).get(Victory).equals(wgs.getPlayerResources(winner).get(Victory))){
+                else if (wgs.getPlayerResources(i).get(Victory) == wgs.getPlayerResources(winner).get(Victory)){
                     if (wgs.getPlayerResources(i).get(Coin) >= wgs.getPlayerResources(winner).get(Coin)){
                         wgs.setPlayerResult(CoreConstants.GameResult.LOSE_GAME,winner);
                         wgs.setPlayerResult(CoreConstants.GameResult.WIN_GAME,i);
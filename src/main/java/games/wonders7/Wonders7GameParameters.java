@@ -34,7 +34,6 @@ public class Wonders7GameParameters extends TunableParameters {
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Wonders7GameParameters)) return false;
-        if (!super.equals(o)) return false;
         Wonders7GameParameters that = (Wonders7GameParameters) o;
         return nWonderCardsPerPlayer == that.nWonderCardsPerPlayer;
     }
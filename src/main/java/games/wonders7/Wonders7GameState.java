@@ -5,6 +5,7 @@ import core.AbstractParameters;
 import core.actions.AbstractAction;
 import core.components.Component;
 import core.components.Deck;
+import core.components.ResourcePool;
 import games.GameType;
 import games.wonders7.cards.Wonder7Card;
 import games.wonders7.cards.Wonder7Board;
@@ -16,7 +17,7 @@ import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
 public class Wonders7GameState extends AbstractGameState {
 
     int currentAge; // int from 1,2,3 of current age
-    List<HashMap<Wonders7Constants.Resource, Integer>> playerResources; // Each player's full resource counts
+    List<ResourcePool<Wonders7Constants.Resource>> playerResources; // Each player's full resource counts
     List<Deck<Wonder7Card>> playerHands; // Player Hands
     List<Deck<Wonder7Card>> playedCards; // Player used cards
     Deck<Wonder7Card> ageDeck; // The 'draw deck' for the Age
@@ -33,7 +34,7 @@ public class Wonders7GameState extends AbstractGameState {
         // Each player starts off with no resources
         playerResources = new ArrayList<>(); // New arraylist , containing different hashmaps for each player
         for (int i = 0; i < getNPlayers(); i++) {
-            playerResources.add(new HashMap<>());
+            playerResources.add(new ResourcePool<>(Wonders7Constants.Resource.class));
         }
     }
 
@@ -65,8 +66,8 @@ public class Wonders7GameState extends AbstractGameState {
         copy.playerWonderBoard = new Wonder7Board[getNPlayers()];
         copy.turnActions = new AbstractAction[getNPlayers()]; // Player actions are not visible
 
-        for (HashMap<Wonders7Constants.Resource, Integer> map : playerResources) {
-            copy.playerResources.add(new HashMap<>(map));
+        for (ResourcePool<Wonders7Constants.Resource> map : playerResources) {
+            copy.playerResources.add(map.copy());
         }
         for (Deck<Wonder7Card> deck : playerHands) {
             copy.playerHands.add(deck.copy());
@@ -127,19 +128,19 @@ public class Wonders7GameState extends AbstractGameState {
     public double getGameScore(int playerId) {
         // return the players score for the current game state.
         // This may not apply for all games
-        List<HashMap<Wonders7Constants.Resource, Integer>> playerResourcesCopy = new ArrayList<>();
-        for (HashMap<Wonders7Constants.Resource, Integer> map : playerResources) {
-            playerResourcesCopy.add(new HashMap<>(map));
+        List<ResourcePool<Wonders7Constants.Resource>> playerResourcesCopy = new ArrayList<>();
+        for (ResourcePool<Wonders7Constants.Resource> map : playerResources) {
+            playerResourcesCopy.add(map.copy());
         }
         // Evaluate military conflicts
         int nextplayer = (playerId +1)% getNPlayers();
         if(playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Shield) > playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Shield)){ // IF PLAYER i WINS
-            playerResourcesCopy.get(playerId).put(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Victory)+(2*currentAge-1)); // 2N-1 POINTS FOR PLAYER i
-            playerResourcesCopy.get(nextplayer).put(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Victory)-1); // -1 FOR THE PLAYER i+1
+            playerResourcesCopy.get(playerId).set(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Victory)+(2*currentAge-1)); // 2N-1 POINTS FOR PLAYER i
+            playerResourcesCopy.get(nextplayer).set(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Victory)-1); // -1 FOR THE PLAYER i+1
         }
         else if (playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Shield) < playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Shield)){ // IF PLAYER i+1 WINS
-            playerResourcesCopy.get(playerId).put(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Victory)-1);// -1 POINT FOR THE PLAYER i
-            playerResourcesCopy.get(nextplayer).put(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Victory)+(2*currentAge-1));// 2N-1 POINTS FOR PLAYER i+1
+            playerResourcesCopy.get(playerId).set(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Victory)-1);// -1 POINT FOR THE PLAYER i
+            playerResourcesCopy.get(nextplayer).set(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Victory)+(2*currentAge-1));// 2N-1 POINTS FOR PLAYER i+1
         }
 
         int vp = playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Victory);
@@ -152,7 +153,7 @@ public class Wonders7GameState extends AbstractGameState {
         // Sets of different science symbols
         vp += 7*Math.min(Math.min(playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Cog),playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Compass)),playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Tablet));
 
-        playerResourcesCopy.get(playerId).put(Wonders7Constants.Resource.Victory, vp);
+        playerResourcesCopy.get(playerId).set(Wonders7Constants.Resource.Victory, vp);
         return playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Victory);
     }
 
@@ -205,11 +206,11 @@ public class Wonders7GameState extends AbstractGameState {
     }
 
 
-    public List<HashMap<Wonders7Constants.Resource, Integer>> getAllPlayerResources() {
+    public List<ResourcePool<Wonders7Constants.Resource>> getAllPlayerResources() {
         return playerResources;
     } // Return all player's resources hashmap
 
-    public HashMap<Wonders7Constants.Resource, Integer> getPlayerResources(int index) {
+    public ResourcePool<Wonders7Constants.Resource> getPlayerResources(int index) {
         return playerResources.get(index);
     } // Return players resource hashmap
 
@@ -1,11 +1,11 @@
 package games.wonders7;
 
 import core.AbstractGameState;
+import core.components.ResourcePool;
 import core.interfaces.IStateHeuristic;
 import evaluation.optimisation.TunableParameters;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 public class Wonders7Heuristic extends TunableParameters implements IStateHeuristic {
@@ -33,21 +33,21 @@ public class Wonders7Heuristic extends TunableParameters implements IStateHeuris
         double highestVP = 0.0; // Highest VP
         double lowestVP = 0.0; // Highest VP
 
-        List<HashMap<Wonders7Constants.Resource, Integer>> playerResourcesCopy = new ArrayList<>();
-        for (HashMap<Wonders7Constants.Resource, Integer> map : wgs.playerResources) {
-            playerResourcesCopy.add(new HashMap<>(map));  // Will be used to calculate everybody's VP scores
+        List<ResourcePool<Wonders7Constants.Resource>> playerResourcesCopy = new ArrayList<>();
+        for (ResourcePool<Wonders7Constants.Resource> map : wgs.playerResources) {
+            playerResourcesCopy.add(map.copy());  // Will be used to calculate everybody's VP scores
         }
 
         for (int i=0;i<wgs.getNPlayers();i++){
             // Evaluate military conflicts
             int nextplayer = (i+1)% wgs.getNPlayers();
             if(playerResourcesCopy.get(i).get(Wonders7Constants.Resource.Shield) > playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Shield)){ // IF PLAYER i WINS
-                playerResourcesCopy.get(i).put(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(i).get(Wonders7Constants.Resource.Victory)+(2*wgs.currentAge-1)); // 2N-1 POINTS FOR PLAYER i
-                playerResourcesCopy.get(nextplayer).put(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Victory)-1); // -1 FOR THE PLAYER i+1
+                playerResourcesCopy.get(i).set(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(i).get(Wonders7Constants.Resource.Victory)+(2*wgs.currentAge-1)); // 2N-1 POINTS FOR PLAYER i
+                playerResourcesCopy.get(nextplayer).set(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Victory)-1); // -1 FOR THE PLAYER i+1
             }
             else if (playerResourcesCopy.get(i).get(Wonders7Constants.Resource.Shield) < playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Shield)){ // IF PLAYER i+1 WINS
-                playerResourcesCopy.get(i).put(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(i).get(Wonders7Constants.Resource.Victory)-1);// -1 POINT FOR THE PLAYER i
-                playerResourcesCopy.get(nextplayer).put(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Victory)+(2*wgs.currentAge-1));// 2N-1 POINTS FOR PLAYER i+1
+                playerResourcesCopy.get(i).set(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(i).get(Wonders7Constants.Resource.Victory)-1);// -1 POINT FOR THE PLAYER i
+                playerResourcesCopy.get(nextplayer).set(Wonders7Constants.Resource.Victory,  playerResourcesCopy.get(nextplayer).get(Wonders7Constants.Resource.Victory)+(2*wgs.currentAge-1));// 2N-1 POINTS FOR PLAYER i+1
             }
 
             int vp = playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Victory);
@@ -59,9 +59,9 @@ public class Wonders7Heuristic extends TunableParameters implements IStateHeuris
             vp += (int)Math.pow(playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Tablet),2);
             // Sets of different science symbols
             vp += 7*Math.min(Math.min(playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Cog),playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Compass)),playerResourcesCopy.get(playerId).get(Wonders7Constants.Resource.Tablet));
-            playerResourcesCopy.get(i).put(Wonders7Constants.Resource.Victory, vp);
+            playerResourcesCopy.get(i).set(Wonders7Constants.Resource.Victory, vp);
         }
-        if (wgs.currentAge == 4) playerResourcesCopy.get(playerId).put(Wonders7Constants.Resource.Victory, wgs.playerResources.get(playerId).get(Wonders7Constants.Resource.Victory)); // If Game is completed and VP have already been calculated for players, use already calculated scores
+        if (wgs.currentAge == 4) playerResourcesCopy.get(playerId).set(Wonders7Constants.Resource.Victory, wgs.playerResources.get(playerId).get(Wonders7Constants.Resource.Victory)); // If Game is completed and VP have already been calculated for players, use already calculated scores
 
         // Counts the accumulated total of each player in the game
         for (int i=0;i<wgs.getNPlayers();i++){
@@ -54,7 +54,7 @@ public class BuildStage extends AbstractAction {
         for (Wonders7Constants.Resource resource: keys){  // Goes through all keys for each resource
             int stageValue = wgs.getPlayerWonderBoard(player).type.getStageProduce(wgs.getPlayerWonderBoard(player).wonderStage - 1, resource); // Number of resource the stage provides
             int playerValue = wgs.getPlayerResources(player).get(resource); // Number of resource the player owns
-            wgs.getPlayerResources(player).put(resource, playerValue + stageValue); // Adds the resources provided by the stage to the players resource count
+            wgs.getPlayerResources(player).set(resource, playerValue + stageValue); // Adds the resources provided by the stage to the players resource count
         }
 
         // remove the card from the players hand to the playedDeck
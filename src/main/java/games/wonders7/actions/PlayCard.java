@@ -3,6 +3,7 @@ package games.wonders7.actions;
 import core.AbstractGameState;
 import core.actions.DrawCard;
 import core.components.Deck;
+import core.components.ResourcePool;
 import games.wonders7.Wonders7Constants;
 import games.wonders7.Wonders7GameParameters;
 import games.wonders7.Wonders7GameState;
@@ -35,7 +36,7 @@ public class PlayCard extends DrawCard {
         Wonders7GameState wgs = (Wonders7GameState) gameState;
 
         Deck<Wonder7Card> playerHand = wgs.getPlayerHand(player);
-        HashMap<Wonders7Constants.Resource, Integer> playerResources = wgs.getPlayerResources(player);
+        ResourcePool<Wonders7Constants.Resource> playerResources = wgs.getPlayerResources(player);
 
         // Finds the played card
         Wonder7Card card = null;
@@ -56,7 +57,7 @@ public class PlayCard extends DrawCard {
         if (!free && card.constructionCost.get(Coin) != null) {
             int cardValue = card.getNCost(Coin); // Number of coins the card costs
             int playerCoins = playerResources.get(Coin); // Number of coins the player owns
-            playerResources.put(Coin, playerCoins - cardValue);// Subtracts coins
+            playerResources.set(Coin, playerCoins - cardValue);// Subtracts coins
         }
 
         // Collects the resources player may not have
@@ -71,14 +72,14 @@ public class PlayCard extends DrawCard {
             }
         }
         if (!neededResources.isEmpty()) {
-            HashMap<Wonders7Constants.Resource, Integer> neighbourLResources = wgs.getPlayerResources((wgs.getNPlayers()+player-1)%wgs.getNPlayers()); // Resources available to the neighbour on left
-            HashMap<Wonders7Constants.Resource, Integer> neighbourRResources = wgs.getPlayerResources((player+1)%wgs.getNPlayers()); // Resources available to the neighbour on right
+            ResourcePool<Wonders7Constants.Resource> neighbourLResources = wgs.getPlayerResources((wgs.getNPlayers()+player-1)%wgs.getNPlayers()); // Resources available to the neighbour on left
+            ResourcePool<Wonders7Constants.Resource> neighbourRResources = wgs.getPlayerResources((player+1)%wgs.getNPlayers()); // Resources available to the neighbour on right
 
             // Calculates combined resources of neighbour and player
             Set<Wonders7Constants.Resource> extendedChoice = new HashSet<>();
             for (Wonders7Constants.Resource resource : neededResources.keySet()) { // Goes through every resource provided by the neighbour
-                boolean leftHasResource = neighbourLResources.get(resource) != null && neighbourLResources.get(resource) > 0;
-                boolean rightHasResource = neighbourRResources.get(resource) != null && neighbourRResources.get(resource) > 0;
+                boolean leftHasResource = neighbourLResources.get(resource) > 0;
+                boolean rightHasResource = neighbourRResources.get(resource) > 0;
                 if (leftHasResource && rightHasResource) {
                     // Both neighbours have this resource, may have to choose which neighbour to buy from.
                     // But, check if we don't need to buy all from both neighbours.
@@ -88,11 +89,11 @@ public class PlayCard extends DrawCard {
                     if (combined == card.constructionCost.get(resource)) {
                         // No choice, we need to buy all from both neighbours.
                         int neighbourLCoins = neighbourLResources.get(Coin); // Neighbour's coin count
-                        neighbourLResources.put(Coin, neighbourLCoins + nCostNeighbourResource * neighbourLResources.get(resource)); // Neighbour receives coins from player
+                        neighbourLResources.set(Coin, neighbourLCoins + nCostNeighbourResource * neighbourLResources.get(resource)); // Neighbour receives coins from player
                         int neighbourRCoins = neighbourRResources.get(Coin); // Neighbour's coin count
-                        neighbourRResources.put(Coin, neighbourRCoins + nCostNeighbourResource * neighbourRResources.get(resource)); // Neighbour receives coins from player
+                        neighbourRResources.set(Coin, neighbourRCoins + nCostNeighbourResource * neighbourRResources.get(resource)); // Neighbour receives coins from player
 
-                        playerResources.put(Coin, playerResources.get(Coin) - coinCost); // Player pays coins to neighbour
+                        playerResources.set(Coin, playerResources.get(Coin) - coinCost); // Player pays coins to neighbour
                         continue;
                     }
                     extendedChoice.add(resource);
@@ -100,12 +101,12 @@ public class PlayCard extends DrawCard {
                     // Only one neighbour has this resource, we need to buy all from them.
                     if (leftHasResource) {
                         int neighbourCoins = neighbourLResources.get(Coin);
-                        neighbourLResources.put(Coin, neighbourCoins + coinCost); // Neighbour receives coins from player
+                        neighbourLResources.set(Coin, neighbourCoins + coinCost); // Neighbour receives coins from player
                     } else {
                         int neighbourCoins = neighbourRResources.get(Coin);
-                        neighbourRResources.put(Coin, neighbourCoins + coinCost); // Neighbour receives coins from player
+                        neighbourRResources.set(Coin, neighbourCoins + coinCost); // Neighbour receives coins from player
                     }
-                    playerResources.put(Coin, playerResources.get(Coin) - coinCost); // Player pays coins to neighbour
+                    playerResources.set(Coin, playerResources.get(Coin) - coinCost); // Player pays coins to neighbour
                 }
             }
             if (!extendedChoice.isEmpty()) {
@@ -117,16 +118,14 @@ public class PlayCard extends DrawCard {
             // Gives player to the right their money and removes coins from current player
             int currentPlayerCoins = playerResources.get(Wonders7Constants.Resource.Coin); // Current players coin count
             int neighbourCoins = wgs.getPlayerResources((player + 1) % wgs.getNPlayers()).get(Wonders7Constants.Resource.Coin); // Neighbour's coin count
-            playerResources.put(Wonders7Constants.Resource.Coin, currentPlayerCoins - coinCost); // Player pays coins to neighbour
-            wgs.getPlayerResources((player + 1) % wgs.getNPlayers()).put(Wonders7Constants.Resource.Coin, neighbourCoins + coinCost); // Neighbour receives coins for player
+            playerResources.set(Wonders7Constants.Resource.Coin, currentPlayerCoins - coinCost); // Player pays coins to neighbour
+            wgs.getPlayerResources((player + 1) % wgs.getNPlayers()).set(Wonders7Constants.Resource.Coin, neighbourCoins + coinCost); // Neighbour receives coins for player
         }
 
         // Gives player resources produced from card
         Set<Wonders7Constants.Resource> keys = card.resourcesProduced.keySet(); // Gets all the resources the card provides
         for (Wonders7Constants.Resource resource: keys){  // Goes through all keys for each resource
-            int cardValue = card.getNProduced(resource); // Number of resource the card provides
-            int playerValue = playerResources.get(resource); // Number of resource the player owns
-            playerResources.put(resource, playerValue + cardValue); // Adds the resources provided by the card to the players resource count
+            playerResources.add(resource, card.getNProduced(resource)); // Adds the resources provided by the card to the players resource count
         }
 
         // remove the card from the players hand to the playedDeck
@@ -53,7 +53,7 @@ public class SpecialEffect extends DrawCard {
                 for (Wonders7Constants.Resource resource: keys){  // Goes through all keys for each resource
                     int cardValue = card.getNProduced(resource); // Number of resource the card provides
                     int playerValue = wgs.getPlayerResources(wgs.getCurrentPlayer()).get(resource); // Number of resource the player owns
-                    wgs.getPlayerResources(wgs.getCurrentPlayer()).put(resource, playerValue + cardValue); // Adds the resources provided by the card to the players resource count
+                    wgs.getPlayerResources(wgs.getCurrentPlayer()).set(resource, playerValue + cardValue); // Adds the resources provided by the card to the players resource count
                 }
 
                 // remove the card from the players hand to the playedDeck
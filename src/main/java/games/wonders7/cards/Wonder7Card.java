@@ -1,6 +1,7 @@
 package games.wonders7.cards;
 
 import core.components.Card;
+import core.components.ResourcePool;
 import games.wonders7.Wonders7Constants;
 import games.wonders7.Wonders7GameParameters;
 import games.wonders7.Wonders7GameState;
@@ -143,8 +144,8 @@ public class Wonder7Card extends Card {
         if (coinCost > wgs.getPlayerResources(player).get(Coin))
             return false; // If player can't pay the neighbours for the resources needed
 
-        HashMap<Wonders7Constants.Resource, Integer> neighbourLResources = wgs.getPlayerResources((wgs.getNPlayers()+player-1)%wgs.getNPlayers()); // Resources available to the neighbour on left
-        HashMap<Wonders7Constants.Resource, Integer> neighbourRResources = wgs.getPlayerResources((player+1)%wgs.getNPlayers()); // Resources available to the neighbour on right
+        ResourcePool<Wonders7Constants.Resource> neighbourLResources = wgs.getPlayerResources((wgs.getNPlayers()+player-1)%wgs.getNPlayers()); // Resources available to the neighbour on left
+        ResourcePool<Wonders7Constants.Resource> neighbourRResources = wgs.getPlayerResources((player+1)%wgs.getNPlayers()); // Resources available to the neighbour on right
 
         // Calculates combined resources of neighbour and player
         for (Wonders7Constants.Resource resource : constructionCost.keySet()) { // Goes through every resource provided by the neighbour
@@ -0,0 +1,23 @@
+package players;
+
+/**
+ * An IAnyTimePlayer that can keep searching on a background thread while other players are deciding.
+ * <p>
+ * If isPondering() is true, then before each decision by another player the Game sends this player its own
+ * observation of the current state via registerUpdatedObservation(). The player can start (or continue) its search
+ * from that observation, and should stop when it is next asked for an action, or when stopPondering() is called.
+ * <p>
+ * Time spent pondering is on a different thread, so is not charged to the player's ElapsedCpuChessTimer. It is
+ * reported separately by getPonderTime() so that any competition rules on its use can be enforced.
+ */
+public interface IPonderingPlayer extends IAnyTimePlayer {
+
+    boolean isPondering();
+
+    void stopPondering();
+
+    /**
+     * @return total CPU time spent pondering (in milliseconds) since the player was initialised for the current game
+     */
+    double getPonderTime();
+}
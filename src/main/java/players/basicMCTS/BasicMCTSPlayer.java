@@ -42,6 +42,11 @@ public class BasicMCTSPlayer extends AbstractPlayer {
         setName("Basic MCTS");
     }
 
+    @Override
+    public void setRandomSeed(long seed) {
+        rnd = new Random(seed);
+    }
+
     @Override
     public AbstractAction _getAction(AbstractGameState gameState, List<AbstractAction> actions) {
         // Search for best action from the root
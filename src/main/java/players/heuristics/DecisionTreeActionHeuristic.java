@@ -1,93 +1,75 @@
 package players.heuristics;
 
-import com.globalmentor.apache.hadoop.fs.BareLocalFileSystem;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.interfaces.IActionFeatureVector;
 import core.interfaces.IActionHeuristic;
 import core.interfaces.IStateFeatureVector;
-import org.apache.hadoop.fs.FileSystem;
-import org.apache.spark.ml.linalg.Vectors;
-import org.apache.spark.ml.regression.DecisionTreeRegressionModel;
-import org.apache.spark.sql.SparkSession;
 
+import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Uses a decision tree learned by DecisionTreeLearner, which writes it as a FlatDecisionTree, so that no
+ * machine-learning library is needed to use the heuristic.
+ */
 public class DecisionTreeActionHeuristic implements IActionHeuristic {
 
-    static SparkSession spark = SparkSession
-            .builder()
-            .appName("Java Spark SQL basic example")
-            //     .config("spark.driver.memory", "1g")
-            .master("local").getOrCreate();
-    static {
-        // And the hack to get this to work on Windows (without the Winutils.exe and hadoop.dll nightmare)
-        spark.sparkContext().hadoopConfiguration().setClass("fs.file.impl", BareLocalFileSystem.class, FileSystem.class);
-    }
+    public static final String TREE_FILE = "DecisionTree.txt";
 
-    DecisionTreeRegressionModel drModel;
+    FlatDecisionTree tree;
     IStateFeatureVector stateFeatures;
     IActionFeatureVector actionFeatures;
+
+    /**
+     * @param directory the directory written by DecisionTreeLearner (or the FlatDecisionTree file itself)
+     */
     public DecisionTreeActionHeuristic(IStateFeatureVector stateFeatures, IActionFeatureVector actionFeatures, String directory) {
         // load in the Decision Tree model from the directory
         if (directory == null || directory.isEmpty()) {
             System.out.println("No directory specified for Decision Tree model");
             return;  // this is fine; we just use a null value
         }
-        drModel = DecisionTreeRegressionModel.load(directory);
+        File file = new File(directory);
+        if (file.isDirectory())
+            file = new File(directory, TREE_FILE);
+        if (!file.exists())
+            throw new AssertionError("No decision tree found at " + file +
+                    " (a model saved only in the Spark format can be converted with DecisionTreeLearner.convert())");
+        tree = FlatDecisionTree.loadFromFile(file.getPath());
+        String[] expectedNames = new String[stateFeatures.names().length + actionFeatures.names().length];
+        System.arraycopy(stateFeatures.names(), 0, expectedNames, 0, stateFeatures.names().length);
+        System.arraycopy(actionFeatures.names(), 0, expectedNames, stateFeatures.names().length, actionFeatures.names().length);
+        if (!Arrays.equals(tree.featureNames, expectedNames))
+            throw new AssertionError("Incompatible features in decision tree " + file);
         this.stateFeatures = stateFeatures;
         this.actionFeatures = actionFeatures;
     }
+
     @Override
     public double evaluateAction(AbstractAction action, AbstractGameState state) {
-        if (drModel == null) return 0;  // no model, no prediction (this is fine
+        if (tree == null) return 0;  // no model, no prediction (this is fine
         // get the features for the state and action
         int playerId = state.getCurrentPlayer();
         double[] stateFeatures = this.stateFeatures.featureVector(state, playerId);
         double[] actionFeatures = this.actionFeatures.featureVector(action, state, playerId);
-        // combine the features
-        double[] features = new double[stateFeatures.length + actionFeatures.length];
-        System.arraycopy(stateFeatures, 0, features, 0, stateFeatures.length);
-        System.arraycopy(actionFeatures, 0, features, stateFeatures.length, actionFeatures.length);
-        // return the prediction from the model
-
-        return drModel.predict(Vectors.dense(features));
+        // return the prediction from the model (the tree indexes the state features followed by the action features)
+        return tree.predict(stateFeatures, actionFeatures);
     }
 
     @Override
     public double[] evaluateAllActions(List<AbstractAction> actions, AbstractGameState state) {
-        if (drModel == null) return new double[actions.size()];  // no model, no prediction (this is fine)
+        if (tree == null) return new double[actions.size()];  // no model, no prediction (this is fine)
         // First we get the state features once
         int playerId = state.getCurrentPlayer();
         double[] stateFeatures = this.stateFeatures.featureVector(state, playerId);
-        // Then we get the action features for each action
-        double[][] actionFeatures = new double[actions.size()][];
-        for (int i = 0; i < actions.size(); i++) {
-            actionFeatures[i] = this.actionFeatures.featureVector(actions.get(i), state, playerId);
-        }
-        // Then we combine the features
-        double[][] features = new double[actions.size()][stateFeatures.length + actionFeatures[0].length];
-        for (int i = 0; i < actions.size(); i++) {
-            System.arraycopy(stateFeatures, 0, features[i], 0, stateFeatures.length);
-            System.arraycopy(actionFeatures[i], 0, features[i], stateFeatures.length, actionFeatures[i].length);
-        }
-        // Then we return the predictions from the model
+        // Then we return the predictions from the model for the features of each action
         double[] predictions = new double[actions.size()];
         for (int i = 0; i < actions.size(); i++) {
-            predictions[i] = drModel.predict(Vectors.dense(features[i]));
+            predictions[i] = tree.predict(stateFeatures, this.actionFeatures.featureVector(actions.get(i), state, playerId));
         }
         return predictions;
     }
 
-    public static String prettifyDecisionTreeDescription(DecisionTreeRegressionModel model, String[] featureNames) {
-        // the debug string of model contains labels of the form 'feature nn', where nn is the index of the feature
-        // We want to replace these with the actual feature names
-        // we go in reverse to stop replacing 'feature 10' with 'nameOfFeature0' etc.
-        String debugString = model.toDebugString();
-        for (int i = featureNames.length-1; i >= 0; i--) {
-            debugString = debugString.replace("feature " + i, featureNames[i]);
-        }
-        return debugString;
-    }
-
 }
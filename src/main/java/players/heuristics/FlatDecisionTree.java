@@ -0,0 +1,125 @@
+package players.heuristics;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A regression tree held as flat arrays, so that a prediction is a walk down the arrays with no allocation (and
+ * with no dependency on the library that learned the tree).
+ * <p>
+ * Node 0 is the root. An internal node splits on feature[node]: if the value is <= threshold[node] we go to
+ * left[node], otherwise to right[node]. A leaf has a feature of -1, and its prediction is value[node].
+ * <p>
+ * The file format is tab separated, with the first line the names of the features, and then one line per node of
+ * feature, threshold, left, right and value.
+ */
+public class FlatDecisionTree {
+
+    public final String[] featureNames;
+    final int[] feature;
+    final double[] threshold;
+    final int[] left;
+    final int[] right;
+    final double[] value;
+
+    public FlatDecisionTree(String[] featureNames, int[] feature, double[] threshold, int[] left, int[] right, double[] value) {
+        this.featureNames = featureNames;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.left = left;
+        this.right = right;
+        this.value = value;
+    }
+
+    public double predict(double[] features) {
+        int node = 0;
+        while (feature[node] >= 0)
+            node = features[feature[node]] <= threshold[node] ? left[node] : right[node];
+        return value[node];
+    }
+
+    /**
+     * Predicts from features that are the concatenation of stateFeatures and actionFeatures (without copying them)
+     */
+    public double predict(double[] stateFeatures, double[] actionFeatures) {
+        int node = 0;
+        while (feature[node] >= 0) {
+            int f = feature[node];
+            double x = f < stateFeatures.length ? stateFeatures[f] : actionFeatures[f - stateFeatures.length];
+            node = x <= threshold[node] ? left[node] : right[node];
+        }
+        return value[node];
+    }
+
+    public int nodes() {
+        return feature.length;
+    }
+
+    public void writeToFile(String file) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file, false))) {
+            writer.println(String.join("\t", featureNames));
+            for (int i = 0; i < feature.length; i++)
+                writer.println(feature[i] + "\t" + threshold[i] + "\t" + left[i] + "\t" + right[i] + "\t" + value[i]);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Error writing decision tree to " + file);
+        }
+    }
+
+    public static FlatDecisionTree loadFromFile(String file) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String[] names = reader.readLine().split("\\t");
+            List<String[]> nodes = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty())
+                    nodes.add(line.split("\\t"));
+            }
+            int n = nodes.size();
+            int[] feature = new int[n], left = new int[n], right = new int[n];
+            double[] threshold = new double[n], value = new double[n];
+            for (int i = 0; i < n; i++) {
+                String[] node = nodes.get(i);
+                feature[i] = Integer.parseInt(node[0]);
+                threshold[i] = Double.parseDouble(node[1]);
+                left[i] = Integer.parseInt(node[2]);
+                right[i] = Integer.parseInt(node[3]);
+                value[i] = Double.parseDouble(node[4]);
+                if (feature[i] >= names.length || (feature[i] >= 0 && (left[i] <= i || right[i] <= i || left[i] >= n || right[i] >= n)))
+                    throw new AssertionError("Invalid node " + i + " in decision tree " + file);
+            }
+            return new FlatDecisionTree(names, feature, threshold, left, right, value);
+        } catch (FileNotFoundException e) {
+            throw new AssertionError("File not found : " + file);
+        } catch (IOException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            e.printStackTrace();
+            throw new AssertionError("Error reading decision tree from " + file);
+        }
+    }
+
+    /**
+     * @return the tree in the style of the debug description of a Spark tree, with the names of the features
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("DecisionTree with %d nodes%n", nodes()));
+        describe(0, 1, sb);
+        return sb.toString();
+    }
+
+    private void describe(int node, int depth, StringBuilder sb) {
+        StringBuilder indent = new StringBuilder();
+        for (int i = 0; i < depth; i++)
+            indent.append(" ");
+        if (feature[node] < 0) {
+            sb.append(indent).append("Predict: ").append(value[node]).append(String.format("%n"));
+            return;
+        }
+        sb.append(indent).append(String.format("If (%s <= %s)%n", featureNames[feature[node]], threshold[node]));
+        describe(left[node], depth + 1, sb);
+        sb.append(indent).append(String.format("Else (%s > %s)%n", featureNames[feature[node]], threshold[node]));
+        describe(right[node], depth + 1, sb);
+    }
+}
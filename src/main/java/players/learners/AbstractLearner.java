@@ -57,13 +57,34 @@ public abstract class AbstractLearner implements ILearner {
         targetType = newTarget;
     }
 
+    @Override
+    public void learnFrom(String... files) {
+        loadData(files);
+        learnFromData();
+    }
+
+    /**
+     * Learns from data already in memory (for example from FeatureListener.getData()), rather than from files
+     *
+     * @param header the names of the columns, as in the header line of a file written by FeatureListener
+     * @param data   one array per row, with the same columns as the header
+     */
+    public void learnFrom(String[] header, List<double[]> data) {
+        loadData(header, data);
+        learnFromData();
+    }
+
+    /**
+     * Learns from the data in dataArray and target (which have been loaded from files or memory)
+     */
+    protected abstract void learnFromData();
+
     protected void loadData(String... files) {
         List<double[]> data = new ArrayList<>();
+        String[] fileHeader = null;
         for (String file : files) {
             try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                header = reader.readLine().split("\\t");
-                descriptions = new String[header.length - 11];
-                System.arraycopy(header, 5, descriptions, 0, descriptions.length);
+                fileHeader = reader.readLine().split("\\t");
                 while (reader.ready()) {
                     double[] datum = Arrays.stream(reader.readLine().split("\\t")).mapToDouble(Double::parseDouble).toArray();
                     data.add(datum);
@@ -76,6 +97,13 @@ public abstract class AbstractLearner implements ILearner {
                 throw new AssertionError("Problem parsing data as numeric : " + file);
             }
         }
+        loadData(fileHeader, data);
+    }
+
+    protected void loadData(String[] header, List<double[]> data) {
+        this.header = header;
+        descriptions = new String[header.length - 11];
+        System.arraycopy(header, 5, descriptions, 0, descriptions.length);
 
         // now convert data to [][]
         // we assume (for the moment) that the columns are: GameID, Player, Round, Turn, CurrentScore... Win, Ordinal, FinalScore
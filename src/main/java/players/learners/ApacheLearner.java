@@ -21,22 +21,31 @@ public abstract class ApacheLearner extends AbstractLearner {
     Dataset<Row> apacheData;
     boolean debug = false;
 
-    static SparkSession spark = SparkSession
-            .builder()
-            .appName("Java Spark SQL basic example")
-            //     .config("spark.driver.memory", "1g")
-            .master("local").getOrCreate();
-    static {
-        // And the hack to get this to work on Windows (without the Winutils.exe and hadoop.dll nightmare)
-        spark.sparkContext().hadoopConfiguration().setClass("fs.file.impl", BareLocalFileSystem.class, FileSystem.class);
+    private static SparkSession spark;
+
+    /**
+     * The session is only created when first needed (starting it takes several seconds), so that loading a learner
+     * class is cheap
+     */
+    static synchronized SparkSession spark() {
+        if (spark == null) {
+            spark = SparkSession
+                    .builder()
+                    .appName("Java Spark SQL basic example")
+                    //     .config("spark.driver.memory", "1g")
+                    .master("local").getOrCreate();
+            // And the hack to get this to work on Windows (without the Winutils.exe and hadoop.dll nightmare)
+            spark.sparkContext().hadoopConfiguration().setClass("fs.file.impl", BareLocalFileSystem.class, FileSystem.class);
+        }
+        return spark;
     }
+
     public ApacheLearner(double gamma, Target target) {
         super(gamma, target);
     }
 
     @Override
-    public void learnFrom(String... files) {
-        loadData(files);
+    protected void learnFromData() {
         // first add the target to the data array so that we can convert to an apache dataset (we just add on the target)
         double[][] apacheDataArray = new double[dataArray.length][dataArray[0].length];
         for (int i = 0; i < dataArray.length; i++) {
@@ -60,7 +69,7 @@ public abstract class ApacheLearner extends AbstractLearner {
         );
 
         // and convert to an apache Dataset
-        apacheData = spark.createDataFrame(rowList, schema);
+        apacheData = spark().createDataFrame(rowList, schema);
 
         if (debug)
             apacheData.show(10);
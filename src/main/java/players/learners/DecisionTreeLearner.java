@@ -3,13 +3,19 @@ package players.learners;
 import org.apache.spark.ml.feature.RFormula;
 import org.apache.spark.ml.regression.DecisionTreeRegressionModel;
 import org.apache.spark.ml.regression.DecisionTreeRegressor;
+import org.apache.spark.ml.tree.ContinuousSplit;
+import org.apache.spark.ml.tree.InternalNode;
+import org.apache.spark.ml.tree.Node;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import players.heuristics.DecisionTreeActionHeuristic;
+import players.heuristics.FlatDecisionTree;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DecisionTreeLearner extends ApacheLearner {
 
@@ -59,16 +65,21 @@ public class DecisionTreeLearner extends ApacheLearner {
         drModel = dr.fit(training);
 
         if (debug)
-            System.out.println(DecisionTreeActionHeuristic.prettifyDecisionTreeDescription(drModel, descriptions));
+            System.out.println(prettifyDecisionTreeDescription(drModel, descriptions));
 
     }
 
+    /**
+     * Writes the Spark model to the directory, along with a FlatDecisionTree (which is what
+     * DecisionTreeActionHeuristic uses) and a description of the tree
+     */
     @Override
     public void writeToFile(String file) {
         try {
             drModel.write().overwrite().save(file);
+            flatten(drModel, descriptions).writeToFile(file + File.separator + DecisionTreeActionHeuristic.TREE_FILE);
             BufferedWriter writer = new BufferedWriter(new java.io.FileWriter(file + File.separator + "Description.txt"));
-            writer.write(DecisionTreeActionHeuristic.prettifyDecisionTreeDescription(drModel, descriptions));
+            writer.write(prettifyDecisionTreeDescription(drModel, descriptions));
             writer.close();
         } catch (IOException e) {
             e.printStackTrace();
@@ -83,4 +94,71 @@ public class DecisionTreeLearner extends ApacheLearner {
         return "DecisionTree";
     }
 
+    /**
+     * Converts a Spark model to a FlatDecisionTree. The nodes are numbered depth-first, so that the children of a
+     * node always follow it.
+     *
+     * @param featureNames the names of the features, in the order the model indexes them
+     */
+    public static FlatDecisionTree flatten(DecisionTreeRegressionModel model, String[] featureNames) {
+        List<Node> nodes = new ArrayList<>();
+        List<int[]> children = new ArrayList<>();
+        addNode(model.rootNode(), nodes, children);
+        int n = nodes.size();
+        int[] feature = new int[n], left = new int[n], right = new int[n];
+        double[] threshold = new double[n], value = new double[n];
+        for (int i = 0; i < n; i++) {
+            Node node = nodes.get(i);
+            value[i] = node.prediction();
+            feature[i] = -1;
+            left[i] = -1;
+            right[i] = -1;
+            if (node instanceof InternalNode) {
+                if (!(((InternalNode) node).split() instanceof ContinuousSplit))
+                    throw new AssertionError("Only continuous splits are supported (features are all numeric)");
+                ContinuousSplit split = (ContinuousSplit) ((InternalNode) node).split();
+                feature[i] = split.featureIndex();
+                threshold[i] = split.threshold();
+                left[i] = children.get(i)[0];
+                right[i] = children.get(i)[1];
+            }
+        }
+        return new FlatDecisionTree(featureNames, feature, threshold, left, right, value);
+    }
+
+    private static int addNode(Node node, List<Node> nodes, List<int[]> children) {
+        int index = nodes.size();
+        nodes.add(node);
+        children.add(new int[2]);
+        if (node instanceof InternalNode) {
+            children.get(index)[0] = addNode(((InternalNode) node).leftChild(), nodes, children);
+            children.get(index)[1] = addNode(((InternalNode) node).rightChild(), nodes, children);
+        }
+        return index;
+    }
+
+    /**
+     * Writes a FlatDecisionTree for a model that was saved only in the Spark format, so that it can be used by
+     * DecisionTreeActionHeuristic
+     *
+     * @param directory    the directory of the saved Spark model
+     * @param featureNames the names of the state features followed by those of the action features
+     */
+    public static void convert(String directory, String... featureNames) {
+        spark();  // so that the model is loaded by our session
+        DecisionTreeRegressionModel model = DecisionTreeRegressionModel.load(directory);
+        flatten(model, featureNames).writeToFile(directory + File.separator + DecisionTreeActionHeuristic.TREE_FILE);
+    }
+
+    public static String prettifyDecisionTreeDescription(DecisionTreeRegressionModel model, String[] featureNames) {
+        // the debug string of model contains labels of the form 'feature nn', where nn is the index of the feature
+        // We want to replace these with the actual feature names
+        // we go in reverse to stop replacing 'feature 10' with 'nameOfFeature0' etc.
+        String debugString = model.toDebugString();
+        for (int i = featureNames.length-1; i >= 0; i--) {
+            debugString = debugString.replace("feature " + i, featureNames[i]);
+        }
+        return debugString;
+    }
+
 }
@@ -0,0 +1,182 @@
+package players.learners;
+
+import java.io.FileWriter;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Fits a linear (identity link) or logistic (logit link) model in-process, with no external library. The output is
+ * the same coefficients file as OLSLearner and LogisticLearner, so it can be used by LinearStateHeuristic,
+ * LinearActionHeuristic and LogisticStateHeuristic (and the others that read these files).
+ * <p>
+ * The fit is by iteratively reweighted least squares (which is a single step for the linear model), with an L2
+ * penalty of regularisation on the coefficients of the standardised features (not on the bias), which is the
+ * convention of the Spark learners. Each step sums its statistics over nThreads shards of the data in parallel,
+ * and then solves the normal equations, which are only as large as the number of features.
+ */
+public class GLMLearner extends AbstractLearner {
+
+    public enum Link {
+        IDENTITY, LOGIT
+    }
+
+    public static int MAX_ITERATIONS = 25;
+    public static double TOLERANCE = 1e-8;
+
+    Link link;
+    double regularisation;
+    int nThreads;
+    double[] coefficients;
+    int iterations;
+    boolean debug = false;
+
+    public GLMLearner(double gamma, Target target, Link link) {
+        this(gamma, target, link, 0.1, Runtime.getRuntime().availableProcessors());
+    }
+
+    public GLMLearner(double gamma, Target target, Link link, double regularisation, int nThreads) {
+        super(gamma, target);
+        this.link = link;
+        this.regularisation = regularisation;
+        this.nThreads = Math.max(1, nThreads);
+    }
+
+    @Override
+    protected void learnFromData() {
+        int n = dataArray.length;
+        int k = dataArray[0].length;  // the first column is the bias term
+        if (link == Link.LOGIT)
+            for (double[] t : target)
+                if (t[0] < 0.0 || t[0] > 1.0)
+                    throw new AssertionError("Logistic regression needs a target in [0, 1], not " + t[0] + " (try WIN or ORD_SCALE)");
+
+        // the penalty on each coefficient is scaled by the variance of its feature
+        double[] penalty = new double[k];
+        for (int j = 1; j < k; j++) {
+            int col = j;
+            double mean = Arrays.stream(dataArray).mapToDouble(row -> row[col]).average().orElse(0.0);
+            double variance = Arrays.stream(dataArray).mapToDouble(row -> (row[col] - mean) * (row[col] - mean)).sum() / n;
+            // a small amount in any case, so that a constant feature does not make the equations singular
+            penalty[j] = regularisation * variance + 1e-9;
+        }
+
+        double[] beta = new double[k];
+        for (iterations = 1; iterations <= MAX_ITERATIONS; iterations++) {
+            double[] current = beta;
+            // A = X'WX / n + penalty, b = X'Wz / n; each shard sums over its rows, which we then add together
+            double[][] sums = IntStream.range(0, nThreads).parallel()
+                    .mapToObj(shard -> sumShard((int) ((long) shard * n / nThreads), (int) ((long) (shard + 1) * n / nThreads), current))
+                    .reduce(GLMLearner::add).orElseThrow(AssertionError::new);
+            double[][] a = new double[k][k + 1];
+            for (int i = 0; i < k; i++) {
+                for (int j = 0; j < k; j++)
+                    a[i][j] = sums[i][j] / n;
+                a[i][i] += penalty[i];
+                a[i][k] = sums[i][k] / n;
+            }
+            beta = solve(a);
+            double change = 0.0;
+            for (int j = 0; j < k; j++)
+                change = Math.max(change, Math.abs(beta[j] - current[j]));
+            if (link == Link.IDENTITY || change < TOLERANCE)
+                break;
+        }
+        coefficients = beta;
+        if (debug)
+            System.out.printf("%s converged after %d iterations : %s%n", name(), iterations, Arrays.toString(coefficients));
+    }
+
+    /**
+     * @return for the rows from start to end, X'WX in the first k columns, and X'Wz in the last
+     */
+    private double[][] sumShard(int start, int end, double[] beta) {
+        int k = beta.length;
+        double[][] retValue = new double[k][k + 1];
+        for (int r = start; r < end; r++) {
+            double[] x = dataArray[r];
+            double y = target[r][0];
+            double w = 1.0, z = y;
+            if (link == Link.LOGIT) {
+                double eta = 0.0;
+                for (int j = 0; j < k; j++)
+                    eta += x[j] * beta[j];
+                double mu = 1.0 / (1.0 + Math.exp(-eta));
+                w = Math.max(mu * (1.0 - mu), 1e-10);
+                z = eta + (y - mu) / w;
+            }
+            for (int i = 0; i < k; i++) {
+                double wx = w * x[i];
+                for (int j = i; j < k; j++)
+                    retValue[i][j] += wx * x[j];
+                retValue[i][k] += wx * z;
+            }
+        }
+        // we only summed the upper triangle
+        for (int i = 0; i < k; i++)
+            for (int j = 0; j < i; j++)
+                retValue[i][j] = retValue[j][i];
+        return retValue;
+    }
+
+    private static double[][] add(double[][] a, double[][] b) {
+        for (int i = 0; i < a.length; i++)
+            for (int j = 0; j < a[i].length; j++)
+                a[i][j] += b[i][j];
+        return a;
+    }
+
+    /**
+     * Solves the linear equations with augmented matrix a (which is overwritten) by Gaussian elimination with
+     * partial pivoting
+     */
+    static double[] solve(double[][] a) {
+        int k = a.length;
+        for (int col = 0; col < k; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < k; row++)
+                if (Math.abs(a[row][col]) > Math.abs(a[pivot][col]))
+                    pivot = row;
+            if (Math.abs(a[pivot][col]) < 1e-300)
+                throw new AssertionError("Singular matrix in GLMLearner");
+            double[] swap = a[col];
+            a[col] = a[pivot];
+            a[pivot] = swap;
+            for (int row = col + 1; row < k; row++) {
+                double factor = a[row][col] / a[col][col];
+                for (int j = col; j <= k; j++)
+                    a[row][j] -= factor * a[col][j];
+            }
+        }
+        double[] retValue = new double[k];
+        for (int row = k - 1; row >= 0; row--) {
+            double sum = a[row][k];
+            for (int j = row + 1; j < k; j++)
+                sum -= a[row][j] * retValue[j];
+            retValue[row] = sum / a[row][row];
+        }
+        return retValue;
+    }
+
+    public double[] getCoefficients() {
+        return coefficients;
+    }
+
+    @Override
+    public void writeToFile(String prefix) {
+        String file = prefix + ".txt";
+        try (FileWriter writer = new FileWriter(file, false)) {
+            writer.write("BIAS\t" + String.join("\t", descriptions) + "\n");
+            writer.write(Arrays.stream(coefficients).mapToObj(d -> String.format("%.6g", d)).collect(joining("\t")));
+            writer.write("\n");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public String name() {
+        return link == Link.LOGIT ? "GLM-Logistic" : "GLM-Linear";
+    }
+}
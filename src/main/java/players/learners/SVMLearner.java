@@ -41,9 +41,7 @@ public class SVMLearner extends AbstractLearner {
     }
 
     @Override
-    public void learnFrom(String... files) {
-        loadData(files);
-
+    protected void learnFromData() {
         // SVM is at least available as a regressor (Apache only supports SVMs for classification)
         // unlike the Weka Logistic implementation, here we do not do any messing about with a bias term
         // which is just passed through (it is the first element in dataArray)
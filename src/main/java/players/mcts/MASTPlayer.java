@@ -1,12 +1,7 @@
 package players.mcts;
 
-import core.interfaces.IActionHeuristic;
 import core.interfaces.IActionKey;
 import players.simple.BoltzmannActionPlayer;
-import utilities.Pair;
-
-import java.util.List;
-import java.util.Map;
 
 public class MASTPlayer extends BoltzmannActionPlayer implements IMASTUser {
 
@@ -15,7 +10,7 @@ public class MASTPlayer extends BoltzmannActionPlayer implements IMASTUser {
         super(new MASTActionHeuristic(null, actionKey, defaultValue), temperature, epsilon, seed);
     }
     @Override
-    public void setStats(List<Map<Object, Pair<Integer, Double>>> MASTStats) {
+    public void setStats(MASTTable MASTStats) {
         ((MASTActionHeuristic)this.actionHeuristic).MASTStatistics = MASTStats;
     }
 }
@@ -0,0 +1,210 @@
+package players.mcts;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import core.interfaces.IActionEncoder;
+import core.interfaces.IActionKey;
+
+import java.util.Arrays;
+
+/**
+ * Move-Average Sampling Technique (MAST) statistics: the number of visits to, and the total value of, each action
+ * for each player. This is shared by the MCTS tree (which updates it after each iteration), and by MASTPlayer and
+ * MASTActionHeuristic (which read it during rollouts/expansion).
+ * <p>
+ * Actions are held under a long key (see key()), in one open-addressing table per player, so that neither updates
+ * nor look-ups need to allocate. Decay between decisions is applied lazily: rather than rewriting every entry we
+ * increase the weight given to all later updates, so that decay() is O(1) and mean values are unaffected.
+ * <p>
+ * Keys are hashes, so two distinct actions with the same hashCode() (or IActionKey hash) will share statistics.
+ * If the game has an IActionEncoder (see setActionEncoder()) then the code of the action is used instead, which is
+ * both cheaper to compute and free of collisions.
+ */
+public class MASTTable {
+
+    private static final double MAX_WEIGHT = 1e100;
+
+    // marks keys that are action codes, rather than a class hash plus action hash
+    private static final long ENCODED_KEY = 0x7fffffffL << 32;
+
+    private final Table[] tables;
+    private IActionEncoder actionEncoder;
+    private AbstractGameState encoderState;
+    // the weight given to a new update; this grows as 1/gamma on each decay, so older data is relatively discounted
+    private double weight = 1.0;
+
+    public MASTTable(int nPlayers) {
+        tables = new Table[nPlayers];
+        for (int p = 0; p < nPlayers; p++)
+            tables[p] = new Table();
+    }
+
+    /**
+     * @param actionKey - used to group similar actions; if null then the action's own hashCode is used
+     * @return the key under which statistics for the action are held
+     */
+    public static long key(IActionKey actionKey, AbstractAction action) {
+        int hash = actionKey == null ? action.hashCode() : actionKey.hash(action);
+        return ((long) action.getClass().hashCode() << 32) | (hash & 0xffffffffL);
+    }
+
+    /**
+     * Uses the action codes of the game for keys, where no IActionKey is given
+     *
+     * @param gameState - any state of the game, used by the encoder to find the game parameters
+     */
+    public void setActionEncoder(IActionEncoder actionEncoder, AbstractGameState gameState) {
+        this.actionEncoder = actionEncoder;
+        this.encoderState = gameState;
+    }
+
+    /**
+     * As for key(), but using the action encoder of this table (if there is one) when actionKey is null.
+     * All users of a table should use this, so that they agree on keys.
+     */
+    public long keyFor(IActionKey actionKey, AbstractAction action) {
+        if (actionKey == null && actionEncoder != null) {
+            int code = actionEncoder.encode(encoderState, action);
+            if (code >= 0)
+                return ENCODED_KEY | code;
+        }
+        return key(actionKey, action);
+    }
+
+    public void update(int player, long key, double value) {
+        tables[player].add(key, weight, value * weight);
+    }
+
+    /**
+     * @return the (decayed) number of visits to the action; 0.0 if there are no statistics for it
+     */
+    public double getVisits(int player, long key) {
+        int slot = tables[player].find(key);
+        return slot < 0 ? 0.0 : tables[player].visits[slot] / weight;
+    }
+
+    /**
+     * @return the (decayed) total value of the action; 0.0 if there are no statistics for it
+     */
+    public double getTotalValue(int player, long key) {
+        int slot = tables[player].find(key);
+        return slot < 0 ? 0.0 : tables[player].values[slot] / weight;
+    }
+
+    /**
+     * @return the mean value of the action, or defaultValue if it has fewer than one (decayed) visit
+     */
+    public double getMeanValue(int player, long key, double defaultValue) {
+        Table table = tables[player];
+        int slot = table.find(key);
+        if (slot < 0 || table.visits[slot] < weight)
+            return defaultValue;
+        return table.values[slot] / table.visits[slot];
+    }
+
+    public int size(int player) {
+        return tables[player].size;
+    }
+
+    public int getNPlayers() {
+        return tables.length;
+    }
+
+    /**
+     * Discounts all current statistics by gamma. Values of gamma outside [0, 1) have no effect, and a gamma of 0.0
+     * removes all statistics.
+     */
+    public void decay(double gamma) {
+        if (gamma < 0.0 || gamma >= 1.0)
+            return;
+        if (gamma == 0.0) {
+            clear();
+            return;
+        }
+        weight /= gamma;
+        if (weight > MAX_WEIGHT) {
+            // rescale everything before we lose precision
+            for (Table table : tables)
+                table.scale(1.0 / weight);
+            weight = 1.0;
+        }
+    }
+
+    public void clear() {
+        for (Table table : tables)
+            table.clear();
+        weight = 1.0;
+    }
+
+    // Linear-probing hash table from long key to (visits, value). We never remove individual entries.
+    private static class Table {
+        long[] keys = new long[16];
+        double[] visits = new double[16];
+        double[] values = new double[16];
+        boolean[] used = new boolean[16];
+        int size;
+
+        private int slotFor(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+        }
+
+        int find(long key) {
+            int slot = slotFor(key);
+            while (used[slot]) {
+                if (keys[slot] == key)
+                    return slot;
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            return -1;
+        }
+
+        void add(long key, double visitIncrement, double valueIncrement) {
+            int slot = slotFor(key);
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    visits[slot] += visitIncrement;
+                    values[slot] += valueIncrement;
+                    return;
+                }
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            visits[slot] = visitIncrement;
+            values[slot] = valueIncrement;
+            size++;
+            if (size * 2 > keys.length)
+                resize();
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            double[] oldVisits = visits;
+            double[] oldValues = values;
+            boolean[] oldUsed = used;
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            visits = new double[capacity];
+            values = new double[capacity];
+            used = new boolean[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i])
+                    add(oldKeys[i], oldVisits[i], oldValues[i]);
+            }
+        }
+
+        void scale(double factor) {
+            for (int i = 0; i < keys.length; i++) {
+                visits[i] *= factor;
+                values[i] *= factor;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(used, false);
+            size = 0;
+        }
+    }
+}
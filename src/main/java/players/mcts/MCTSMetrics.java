@@ -46,6 +46,9 @@ public class MCTSMetrics implements IMetricsCollection {
                 records.put("fmCalls", mctsPlayer.root.fmCallsCount / visits);
                 records.put("copyCalls", mctsPlayer.root.copyCount / visits);
                 records.put("time", mctsPlayer.root.timeTaken);
+                records.put("clockChecks", mctsPlayer.root.budgetClock == null ? 0 : mctsPlayer.root.budgetClock.getChecks());
+                records.put("clockOverhead", mctsPlayer.root.budgetClock == null ? 0.0 : mctsPlayer.root.budgetClock.getOverheadMillis());
+                records.put("ponderTime", mctsPlayer.getPonderTime());
                 return true;
             }
             return false;
@@ -74,6 +77,9 @@ public class MCTSMetrics implements IMetricsCollection {
             cols.put("fmCalls", Integer.class);
             cols.put("copyCalls", Integer.class);
             cols.put("time", Double.class);
+            cols.put("clockChecks", Integer.class);
+            cols.put("clockOverhead", Double.class);
+            cols.put("ponderTime", Double.class);
             return cols;
         }
     }
@@ -57,10 +57,15 @@ public class MCTSParams extends PlayerParameters {
     public boolean nodesStoreScoreDelta = true;
     public boolean maintainMasterState = false;
     public boolean discardStateAfterEachIteration = true;  // default will remove reference to OpenLoopState in backup(). Saves memory!
+    public boolean poolStates = false;  // re-use the state copied for each iteration (needs discardStateAfterEachIteration)
+    public boolean cacheInformationSet = false;  // Information_Set only: work out the hidden information once per decision
+    public int transpositionTableSize = 0;  // Closed_Loop OneTree only: if > 0, share nodes between transpositions, and hold at most this many
     public MCTSEnums.RolloutTermination rolloutTermination = DEFAULT;
     public IStateHeuristic heuristic = AbstractGameState::getHeuristicScore;
     public IActionKey MASTActionKey;
     public double MASTDefaultValue = 0.0;
+    public boolean ponder = false;  // continue searching on a background thread during other players' turns
+    public int ponderBudget = 100000;  // the most iterations a pondered tree can have, however long the other players take
 
     public MCTSParams() {
         this(System.currentTimeMillis());
@@ -102,11 +107,16 @@ public class MCTSParams extends PlayerParameters {
         addTunableParameter("nodesStoreScoreDelta", true);
         addTunableParameter("maintainMasterState", false);
         addTunableParameter("discardStateAfterEachIteration", true);
+        addTunableParameter("poolStates", false);
+        addTunableParameter("cacheInformationSet", false);
+        addTunableParameter("transpositionTableSize", 0);
         addTunableParameter("advantageFunction", IActionHeuristic.nullReturn);
         addTunableParameter("omaVisits", 0);
         addTunableParameter("paranoid", false);
         addTunableParameter("MASTActionKey", IActionKey.class);
         addTunableParameter("MASTDefaultValue", 0.0);
+        addTunableParameter("ponder", false);
+        addTunableParameter("ponderBudget", 100000);
     }
 
     @Override
@@ -151,12 +161,17 @@ public class MCTSParams extends PlayerParameters {
         discardStateAfterEachIteration = (boolean) getParameterValue("discardStateAfterEachIteration");
         if (information == Closed_Loop)
             discardStateAfterEachIteration = false;
+        poolStates = (boolean) getParameterValue("poolStates") && discardStateAfterEachIteration;
+        cacheInformationSet = (boolean) getParameterValue("cacheInformationSet");
+        transpositionTableSize = (int) getParameterValue("transpositionTableSize");
         if (expansionPolicy == MCTSEnums.Strategies.MAST || rolloutType == MCTSEnums.Strategies.MAST
                 || (biasVisits > 0 && advantageFunction == null)) {
             useMAST = true;
         }
         MASTActionKey = (IActionKey) getParameterValue("MASTActionKey");
         MASTDefaultValue = (double) getParameterValue("MASTDefaultValue");
+        ponder = (boolean) getParameterValue("ponder");
+        ponderBudget = (int) getParameterValue("ponderBudget");
 
         advantageFunction = (IActionHeuristic) getParameterValue("advantageFunction");
         heuristic = (IStateHeuristic) getParameterValue("heuristic");
@@ -8,19 +8,17 @@ import core.interfaces.IActionHeuristic;
 import evaluation.listeners.IGameListener;
 import core.interfaces.IStateHeuristic;
 import evaluation.metrics.Event;
-import players.IAnyTimePlayer;
+import players.IPonderingPlayer;
 import players.heuristics.CoarseTunableHeuristic;
-import utilities.Pair;
-import utilities.Utils;
+import utilities.ElapsedCpuTimer;
 
 import java.util.*;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 import static players.mcts.MCTSEnums.OpponentTreePolicy.*;
 import static players.mcts.MCTSEnums.OpponentTreePolicy.MultiTree;
 
-public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
+public class MCTSPlayer extends AbstractPlayer implements IPonderingPlayer {
 
     // Random object for this player
     protected Random rnd;
@@ -31,9 +29,18 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
     protected AbstractPlayer rolloutStrategy;
     protected boolean debug = false;
     protected SingleTreeNode root;
-    List<Map<Object, Pair<Integer, Double>>> MASTStats;
+    MASTTable MASTStats;
+    // the MAST statistics are decayed once for each of our decisions, which may be when we start to ponder
+    private boolean MASTDecayed;
     private AbstractPlayer opponentModel;
     private IActionHeuristic advantageFunction;
+    // Pondering (searching during other players' turns) runs on a separate thread from ponderRoot, which is the
+    // root of a tree for the state when history had ponderHistorySize actions in it
+    private Thread ponderThread;
+    private volatile boolean stopPondering;
+    private SingleTreeNode ponderRoot;
+    private int ponderHistorySize;
+    private double ponderTime;
 
     public MCTSPlayer() {
         this(System.currentTimeMillis());
@@ -65,6 +72,10 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
         if (advantageFunction instanceof AbstractPlayer)
             ((AbstractPlayer) advantageFunction).initializePlayer(state);
         MASTStats = null;
+        MASTDecayed = false;
+        stopPondering();
+        ponderRoot = null;
+        ponderTime = 0.0;
     }
 
     /**
@@ -83,16 +94,24 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
 
     @Override
     public AbstractAction _getAction(AbstractGameState gameState, List<AbstractAction> actions) {
+        stopPondering();
+        // If we have been pondering, then we start from the relevant part of that tree (if we can find it)
+        root = reusePonderTree(gameState);
+        boolean reusedTree = root != null;
+        ponderRoot = null;
+
         // Search for best action from the root
-        if (params.opponentTreePolicy == MultiTree)
-            root = new MultiTreeNode(this, gameState, rnd);
-        else
-            root = SingleTreeNode.createRootNode(this, gameState, rnd, getFactory());
+        if (!reusedTree) {
+            if (params.opponentTreePolicy == MultiTree)
+                root = new MultiTreeNode(this, gameState, rnd);
+            else
+                root = SingleTreeNode.createRootNode(this, gameState, rnd, getFactory());
+        }
 
-        if (MASTStats != null)
-            root.MASTStatistics = MASTStats.stream()
-                    .map(m -> Utils.decay(m, params.MASTGamma))
-                    .collect(Collectors.toList());
+        if (MASTStats != null && !reusedTree) {
+            decayMAST();
+            root.MASTStatistics = MASTStats;
+        }
 
         if (rolloutStrategy instanceof IMASTUser) {
             ((IMASTUser) rolloutStrategy).setStats(root.MASTStatistics);
@@ -115,12 +134,108 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
             System.out.println(root.toString());
 
         MASTStats = root.MASTStatistics;
+        MASTDecayed = false;
 
         if (root.children.size() > 2 * actions.size() && !params.actionSpace.equals(gameState.getCoreGameParameters().actionSpace))
             throw new AssertionError(String.format("Unexpectedly large number of children: %d with action size of %d", root.children.size(), actions.size()) );
         return root.bestAction();
     }
 
+    /**
+     * Called when another player is about to decide. If pondering is switched on, we continue searching on a
+     * background thread until we are next asked for a decision. Where possible the tree from any earlier pondering is
+     * kept and extended.
+     */
+    @Override
+    public void registerUpdatedObservation(AbstractGameState gameState) {
+        if (!params.ponder)
+            return;
+        stopPondering();
+        if (gameState.getCurrentPlayer() == getPlayerID() || !gameState.isNotTerminalForPlayer(getPlayerID()))
+            return;
+        SingleTreeNode newRoot = reusePonderTree(gameState);
+        if (newRoot == null) {
+            if (params.opponentTreePolicy == MultiTree)
+                return;
+            newRoot = SingleTreeNode.createRootNode(this, gameState, rnd, getFactory());
+            // the root decision is not ours, but we still want to roll out with our own policy
+            newRoot.opponentModels = SingleTreeNode.opponentModelsFor(this, getPlayerID(), gameState.getNPlayers());
+            if (MASTStats != null) {
+                decayMAST();
+                newRoot.MASTStatistics = MASTStats;
+            }
+        }
+        if (rolloutStrategy instanceof IMASTUser)
+            ((IMASTUser) rolloutStrategy).setStats(newRoot.MASTStatistics);
+        if (opponentModel instanceof IMASTUser)
+            ((IMASTUser) opponentModel).setStats(newRoot.MASTStatistics);
+
+        ponderRoot = newRoot;
+        ponderHistorySize = gameState.getHistory().size();
+        stopPondering = false;
+        SingleTreeNode treeToSearch = newRoot;
+        ponderThread = new Thread(() -> {
+            ElapsedCpuTimer timer = new ElapsedCpuTimer();
+            try {
+                treeToSearch.ponder(() -> stopPondering);
+            } catch (RuntimeException | AssertionError e) {
+                // a failed ponder is not fatal; we just search from scratch when asked for a decision
+                if (debug)
+                    e.printStackTrace();
+                ponderRoot = null;
+            }
+            ponderTime += timer.elapsedMillis();
+        }, toString() + "-ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+
+    private void decayMAST() {
+        if (!MASTDecayed) {
+            MASTStats.decay(params.MASTGamma);
+            MASTDecayed = true;
+        }
+    }
+
+    /**
+     * @return the node in the last pondered tree that matches gameState, detached as a new root, or null if there
+     * is no such node
+     */
+    private SingleTreeNode reusePonderTree(AbstractGameState gameState) {
+        if (ponderRoot == null)
+            return null;
+        List<AbstractAction> history = gameState.getHistory();
+        if (history.size() < ponderHistorySize)
+            return null;  // history has been hidden from us, so we cannot tell what has happened
+        return ponderRoot.reRoot(history.subList(ponderHistorySize, history.size()), gameState, this);
+    }
+
+    @Override
+    public boolean isPondering() {
+        return params.ponder;
+    }
+
+    /**
+     * Stops any background search, and waits for it to finish
+     */
+    @Override
+    public void stopPondering() {
+        stopPondering = true;
+        if (ponderThread != null) {
+            try {
+                ponderThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ponderThread = null;
+        }
+    }
+
+    @Override
+    public double getPonderTime() {
+        return ponderTime;
+    }
+
 
     public AbstractPlayer getOpponentModel(int playerID) {
         return opponentModel;
@@ -128,6 +243,8 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
 
     @Override
     public void finalizePlayer(AbstractGameState state) {
+        stopPondering();
+        ponderRoot = null;
         rolloutStrategy.onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, state));
         opponentModel.onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, state));
         if (heuristic instanceof IGameListener)
@@ -137,6 +254,16 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
 
     }
 
+    @Override
+    public void setRandomSeed(long seed) {
+        rnd = new Random(seed);
+        rolloutStrategy.setRandomSeed(rnd.nextLong());
+        if (opponentModel != rolloutStrategy)
+            opponentModel.setRandomSeed(rnd.nextLong());
+        if (advantageFunction instanceof AbstractPlayer)
+            ((AbstractPlayer) advantageFunction).setRandomSeed(rnd.nextLong());
+    }
+
     @Override
     public MCTSPlayer copy() {
         return new MCTSPlayer((MCTSParams) params.copy());
@@ -52,16 +52,10 @@ public class MultiTreeNode extends SingleTreeNode {
                 opponentModels[p] = player.getOpponentModel(p);
         }
         // only root node maintains MAST statistics
-        MASTStatistics = new ArrayList<>();
-        for (int i = 0; i < state.getNPlayers(); i++)
-            MASTStatistics.add(new HashMap<>());
+        MASTStatistics = new MASTTable(state.getNPlayers());
         MASTFunction = (a, s) -> {
-            Map<Object, Pair<Integer, Double>> MAST = MASTStatistics.get(decisionPlayer);
-            if (MAST.containsKey(a)) {
-                Pair<Integer, Double> stats = MAST.get(a);
-                return stats.b / (stats.a + params.epsilon);
-            }
-            return 0.0;
+            long key = MASTStatistics.keyFor(params.MASTActionKey, a);
+            return MASTStatistics.getTotalValue(decisionPlayer, key) / (MASTStatistics.getVisits(decisionPlayer, key) + params.epsilon);
         };
         instantiate(null, null, state);
 
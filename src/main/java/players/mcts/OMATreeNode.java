@@ -1,6 +1,5 @@
 package players.mcts;
 
-import com.sun.xml.bind.v2.runtime.unmarshaller.XsiNilLoader;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import utilities.Pair;
@@ -2,6 +2,8 @@ package players.mcts;
 
 import core.*;
 import core.actions.AbstractAction;
+import core.interfaces.IActionEncoder;
+import core.interfaces.IInformationSet;
 import core.interfaces.IStateHeuristic;
 import players.PlayerConstants;
 import utilities.*;
@@ -26,6 +28,8 @@ public class SingleTreeNode {
     protected AbstractGameState state;
     // State in this node (open loop - this is updated by onward trajectory....be very careful about using)
     protected AbstractGameState openLoopState;
+    // Used at the root (in open loop only) if the forward model can undo actions
+    private AbstractGameState undoState;
     // Parameters guiding the search
     protected MCTSParams params;
     protected AbstractForwardModel forwardModel;
@@ -55,6 +59,7 @@ public class SingleTreeNode {
     int round, turn, turnOwner;
     boolean terminalNode;
     double timeTaken;
+    BudgetClock budgetClock;
     double highReward = Double.NEGATIVE_INFINITY;
     double lowReward = Double.POSITIVE_INFINITY;
     // Root node of tree
@@ -64,8 +69,23 @@ public class SingleTreeNode {
     // Children of this node. The value is an Array because we have to cater for the possibility that the next decision
     // could be by any player - each of which would transition to a different Node OpenLoop search. (Closed Loop will
     // only ever have one position in the array populated: and similarly if we are using a SelfOnly tree).
-    Map<AbstractAction, SingleTreeNode[]> children = new HashMap<>();
-    List<Map<Object, Pair<Integer, Double>>> MASTStatistics; // a list of one Map per player. Action -> (visits, totValue)
+    // The children are kept in the order they were added, as the hash codes of actions often include component IDs,
+    // which differ from game to game; this keeps a seeded search the same whatever was played before it.
+    Map<AbstractAction, SingleTreeNode[]> children = new LinkedHashMap<>();
+    MASTTable MASTStatistics; // Action -> (visits, totValue) for each player
+    // If the game has an action encoder, then the root holds one instance of each action per player (indexed by code),
+    // which all nodes share as keys rather than each taking their own copy
+    IActionEncoder actionEncoder;
+    AbstractAction[][] canonicalActions;
+    // If states are pooled, the root re-uses the state copied for each iteration once the iteration is over
+    GameStatePool statePool;
+    // If the information set is cached, the root samples each iteration's determinisation from this
+    IInformationSet informationSet;
+    private boolean informationSetChecked;
+    // In closed loop search with a transposition table, the root finds existing nodes for states reached by another
+    // path. A node may then have more than one parent, so we also record the nodes visited on each iteration.
+    TranspositionTable transpositions;
+    List<SingleTreeNode> nodesInTree;
     ToDoubleBiFunction<AbstractAction, AbstractGameState> advantageFunction = (a, s) -> advantagesOfActionsFromOLS.getOrDefault(a, 0.0);
     ToDoubleBiFunction<AbstractAction, AbstractGameState> MASTFunction;
     // The total value of all trajectories through this node (one element per player)
@@ -89,21 +109,39 @@ public class SingleTreeNode {
         retValue.forwardModel = player.getForwardModel();
         retValue.heuristic = player.heuristic;
         retValue.rnd = rnd;
-        retValue.opponentModels = new AbstractPlayer[state.getNPlayers()];
-        for (int p = 0; p < retValue.opponentModels.length; p++) {
-            if (p == retValue.decisionPlayer)
-                retValue.opponentModels[p] = player.rolloutStrategy;
-            else
-                retValue.opponentModels[p] = player.getOpponentModel(p);
-            retValue.opponentModels[p].getParameters().actionSpace = player.params.actionSpace;  // TODO makes sense?
-        }
+        retValue.opponentModels = opponentModelsFor(player, retValue.decisionPlayer, state.getNPlayers());
         // only root node maintains MAST statistics
-        retValue.MASTStatistics = new ArrayList<>();
-        for (int i = 0; i < state.getNPlayers(); i++)
-            retValue.MASTStatistics.add(new HashMap<>());
+        retValue.MASTStatistics = new MASTTable(state.getNPlayers());
         MASTActionHeuristic MASTHeuristic = new MASTActionHeuristic(retValue.MASTStatistics, retValue.params.MASTActionKey, retValue.params.MASTDefaultValue);
         retValue.MASTFunction = MASTHeuristic::evaluateAction;
+        if (retValue.forwardModel instanceof IActionEncoder) {
+            retValue.actionEncoder = (IActionEncoder) retValue.forwardModel;
+            retValue.canonicalActions = new AbstractAction[state.getNPlayers()][retValue.actionEncoder.getActionSpaceSize(state)];
+            retValue.MASTStatistics.setActionEncoder(retValue.actionEncoder, state);
+        }
+        if (retValue.params.poolStates)
+            retValue.statePool = new GameStatePool(2);
+        if (retValue.params.transpositionTableSize > 0 && retValue.params.information == Closed_Loop
+                && retValue.params.opponentTreePolicy == OneTree) {
+            retValue.transpositions = new TranspositionTable(retValue.params.transpositionTableSize);
+            retValue.nodesInTree = new ArrayList<>();
+        }
         retValue.instantiate(null, null, state);
+        if (retValue.transpositions != null)
+            retValue.transpositions.add(retValue);
+        return retValue;
+    }
+
+    // the player's own rollout policy is used for self, and its opponent model for everyone else
+    static AbstractPlayer[] opponentModelsFor(MCTSPlayer player, int self, int nPlayers) {
+        AbstractPlayer[] retValue = new AbstractPlayer[nPlayers];
+        for (int p = 0; p < nPlayers; p++) {
+            if (p == self)
+                retValue[p] = player.rolloutStrategy;
+            else
+                retValue[p] = player.getOpponentModel(p);
+            retValue[p].getParameters().actionSpace = player.params.actionSpace;  // TODO makes sense?
+        }
         return retValue;
     }
 
@@ -173,6 +211,8 @@ public class SingleTreeNode {
         openLoopState = actionState;
         if (actionState.getCurrentPlayer() == this.decisionPlayer && actionState.isNotTerminalForPlayer(decisionPlayer)) {
             actionsFromOpenLoopState = forwardModel.computeAvailableActions(actionState, params.actionSpace);
+            if (root.actionEncoder != null)
+                actionsFromOpenLoopState = root.canonical(actionsFromOpenLoopState, decisionPlayer);
             //      System.out.printf("Setting OLS actions for P%d (%d)%n%s%n", decisionPlayer, actionState.getCurrentPlayer(),
 //                actionsFromOpenLoopState.stream().map(a -> "\t" + a.toString() + "\n").collect(joining()));
             if (actionsFromOpenLoopState.size() != actionsFromOpenLoopState.stream().distinct().count())
@@ -194,7 +234,7 @@ public class SingleTreeNode {
             }
             for (AbstractAction action : actionsFromOpenLoopState) {
                 if (!children.containsKey(action)) {
-                    children.put(action.copy(), null); // mark a new node to be expanded
+                    children.put(keyCopy(action), null); // mark a new node to be expanded
                     // This *does* rely on a good equals method being implemented for Actions
                     if (!children.containsKey(action))
                         throw new AssertionError("We have an action that does not obey the equals/hashcode contract" + action);
@@ -203,42 +243,44 @@ public class SingleTreeNode {
         }
     }
 
+    /**
+     * Replaces each action with the one instance of it held by the root, adding a copy of any new ones
+     */
+    private List<AbstractAction> canonical(List<AbstractAction> actions, int player) {
+        AbstractAction[] known = canonicalActions[player];
+        List<AbstractAction> retValue = new ArrayList<>(actions.size());
+        for (AbstractAction action : actions) {
+            int code = actionEncoder.encode(state, action);
+            if (code < 0) {
+                retValue.add(action.copy());
+            } else {
+                if (known[code] == null)
+                    known[code] = action.copy();
+                retValue.add(known[code]);
+            }
+        }
+        return retValue;
+    }
+
+    // Actions from the open loop state are already copies if we have an action encoder, so can be used directly as keys
+    private AbstractAction keyCopy(AbstractAction action) {
+        return root.actionEncoder == null ? action.copy() : action;
+    }
+
     /**
      * Performs full MCTS search, using the defined budget limits.
      */
     public void mctsSearch() {
 
-        // Variables for tracking time budget
-        double avgTimeTaken;
-        timeTaken = 0.0;
-        long remaining;
-        int remainingLimit = params.breakMS;
-        ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer();
-        if (params.budgetType == BUDGET_TIME) {
-            elapsedTimer.setMaxTimeMillis(params.budget);
-        }
+        // Tracking time budget; we stop if we do not have time for at least two more iterations
+        budgetClock = new BudgetClock(params.budget, params.breakMS, 2.0);
 
         // Tracking number of iterations for iteration budget
         int numIters = 0;
         rolloutActionsTaken = 0;
         boolean stop = false;
         while (!stop) {
-            switch (params.information) {
-                case Closed_Loop:
-                    openLoopState = state;
-                    break;
-                case Open_Loop:
-                    openLoopState = state.copy();
-                    copyCount++;
-                    break;
-                case Information_Set:
-                    openLoopState = state.copy(decisionPlayer);
-                    copyCount++;
-                    break;
-            }
-
-            // New timer for this iteration
-            ElapsedCpuTimer elapsedTimerIteration = new ElapsedCpuTimer();
+            resetOpenLoopState();
 
             // Selection + expansion: navigate tree until a node not fully expanded is found, add a new node to the tree
             oneSearchIteration();
@@ -250,10 +292,7 @@ public class SingleTreeNode {
             PlayerConstants budgetType = params.budgetType;
             if (budgetType == BUDGET_TIME) {
                 // Time budget
-                timeTaken += (elapsedTimerIteration.elapsedMillis());
-                avgTimeTaken = timeTaken / numIters;
-                remaining = elapsedTimer.remainingTimeMillis();
-                stop = remaining <= 2 * avgTimeTaken || remaining <= remainingLimit;
+                stop = !budgetClock.checkBudget();
             } else if (budgetType == BUDGET_ITERATIONS) {
                 // Iteration budget
                 stop = numIters >= params.budget;
@@ -266,6 +305,139 @@ public class SingleTreeNode {
                 stop = (copyCount + fmCallsCount) > params.budget || numIters > params.budget;
             }
         }
+        timeTaken = budgetClock.elapsedMillis();
+    }
+
+    /**
+     * Runs search iterations from this (root) node until told to stop. This is used to ponder during other
+     * players' turns, when there is no budget as such: we keep searching until we are asked for a decision, or the
+     * root has been visited ponderBudget times (so that the tree does not grow without limit if other players are
+     * slow to decide).
+     *
+     * @param stop - checked before each iteration
+     */
+    void ponder(BooleanSupplier stop) {
+        rolloutActionsTaken = 0;
+        while (!stop.getAsBoolean() && nVisits < params.ponderBudget) {
+            resetOpenLoopState();
+            oneSearchIteration();
+        }
+    }
+
+    private void resetOpenLoopState() {
+        switch (params.information) {
+            case Closed_Loop:
+                openLoopState = state;
+                break;
+            case Open_Loop:
+                if (forwardModel.supportsUndo(state, params.actionSpace)) {
+                    // Rather than copy the root state for each iteration, we undo the previous iteration
+                    if (undoState == null) {
+                        undoState = state.copy();
+                        undoState.setUndoEnabled(true);
+                        copyCount++;
+                    } else {
+                        forwardModel.undoAll(undoState);
+                    }
+                    openLoopState = undoState;
+                } else {
+                    openLoopState = statePool == null ? state.copy() : statePool.acquire(state, -1);
+                    copyCount++;
+                }
+                break;
+            case Information_Set:
+                if (params.cacheInformationSet && !informationSetChecked) {
+                    // the game may not support this, in which case we copy(decisionPlayer) as usual
+                    informationSet = state.getInformationSet(decisionPlayer);
+                    informationSetChecked = true;
+                }
+                if (informationSet != null)
+                    openLoopState = statePool == null ? informationSet.sample(null, rnd) : statePool.acquire(informationSet, rnd);
+                else
+                    openLoopState = statePool == null ? state.copy(decisionPlayer) : statePool.acquire(state, decisionPlayer);
+                copyCount++;
+                break;
+        }
+    }
+
+    /**
+     * Re-uses the relevant part of this tree for a later decision (for example after pondering during the turns
+     * of other players). We follow the actions taken since the state at this root, and if the node reached is in
+     * the tree it is detached and becomes the root of a new tree for newState, keeping all of its statistics.
+     * <p>
+     * This is only supported for open loop (or information set) search with a single tree and no paranoia. In
+     * closed loop the states stored on nodes would not match newState, and the other tree policies either do not
+     * hold nodes for all players, or have statistics that depend on nodes above the new root. Nor can we re-use a
+     * tree with a transposition table, as its nodes may have parents outside the subtree of the new root.
+     *
+     * @param actionsTaken - the actions taken (by any player) since the state at this root
+     * @param newState     - the state at which the next decision is to be made
+     * @param player       - the player who will search from the new root
+     * @return the new root node, or null if the tree cannot be re-used
+     */
+    SingleTreeNode reRoot(List<AbstractAction> actionsTaken, AbstractGameState newState, MCTSPlayer player) {
+        if (parent != null)
+            throw new AssertionError("Only a root node can be re-rooted");
+        if (params.information == Closed_Loop || params.paranoid || params.opponentTreePolicy != OneTree
+                || transpositions != null)
+            return null;
+
+        SingleTreeNode node = this;
+        for (int i = 0; i < actionsTaken.size(); i++) {
+            SingleTreeNode[] nodeArray = node.children.get(actionsTaken.get(i));
+            if (nodeArray == null)
+                return null;
+            if (i == actionsTaken.size() - 1) {
+                node = nodeArray[newState.getCurrentPlayer()];
+            } else {
+                // we do not know who acted next, so this is only safe if just one player has ever done so
+                node = null;
+                for (SingleTreeNode n : nodeArray) {
+                    if (n != null) {
+                        if (node != null)
+                            return null;
+                        node = n;
+                    }
+                }
+            }
+            if (node == null)
+                return null;
+        }
+        if (node.decisionPlayer != newState.getCurrentPlayer())
+            return null;
+
+        // detach the node, and give it everything a root needs
+        node.parent = null;
+        node.actionToReach = null;
+        node.MASTStatistics = MASTStatistics;
+        node.MASTFunction = MASTFunction;
+        node.actionEncoder = actionEncoder;
+        node.canonicalActions = canonicalActions;
+        node.statePool = statePool;
+        // the information set (if any) is for the old state, so is worked out again when first needed
+        node.informationSet = null;
+        node.informationSetChecked = false;
+        node.lowReward = lowReward;
+        node.highReward = highReward;
+        node.fmCallsCount = 0;
+        node.copyCount = 1;
+        node.opponentModels = opponentModelsFor(player, player.getPlayerID(), newState.getNPlayers());
+        node.round = newState.getRoundCounter();
+        node.turn = newState.getTurnCounter();
+        node.turnOwner = newState.getCurrentPlayer();
+        node.terminalNode = !newState.isNotTerminal();
+        node.state = newState.copy();
+        node.setActionsFromOpenLoopState(newState);
+        // and remove any actions that are no longer available to us
+        node.children.keySet().retainAll(node.actionsFromOpenLoopState);
+
+        int depthOffset = node.depth;
+        for (SingleTreeNode n : node.allNodesInTree()) {
+            n.root = node;
+            n.depth -= depthOffset;
+            n.opponentModels = node.opponentModels;
+        }
+        return node;
     }
 
     /**
@@ -273,6 +445,7 @@ public class SingleTreeNode {
      * Its result is purely stored in the tree generated from root
      */
     protected void oneSearchIteration() {
+        AbstractGameState iterationState = openLoopState;
         double[] startingValues = IntStream.range(0, openLoopState.getNPlayers())
                 .mapToDouble(i -> heuristic.evaluateState(openLoopState, i)).toArray();
 
@@ -280,7 +453,8 @@ public class SingleTreeNode {
         actionsInRollout = new ArrayList<>();
 
         SingleTreeNode selected = treePolicy(actionsInTree);
-        if (selected == this && openLoopState.isNotTerminalForPlayer(decisionPlayer) && nVisits > 3)
+        if (selected == this && openLoopState.isNotTerminalForPlayer(decisionPlayer) && nVisits > 3
+                && (transpositions == null || !transpositions.isFull()))
             throw new AssertionError("We have not expanded or selected a new node");
         // by this point (and really earlier) we should have expanded a new node.
         // selected == this is a clear sign that we have a problem in the expansion phase
@@ -294,6 +468,9 @@ public class SingleTreeNode {
 
         selected.backUp(delta);
         updateMASTStatistics(actionsInTree, actionsInRollout, delta);
+        // backUp() has removed all references to the state used in this iteration, so it can be recycled
+        if (statePool != null && iterationState != state && iterationState != undoState)
+            statePool.release(iterationState);
     }
 
     protected void updateMASTStatistics(List<Pair<Integer, AbstractAction>> tree, List<Pair<Integer, AbstractAction>> rollout, double[] value) {
@@ -387,6 +564,10 @@ public class SingleTreeNode {
 
         SingleTreeNode cur = this;
         int actingPlayer = cur.decisionPlayer;
+        if (transpositions != null) {
+            nodesInTree.clear();
+            nodesInTree.add(this);
+        }
 
         // Keep iterating while the state reached is not terminal and the depth of the tree is not exceeded
         while (cur.openLoopState.isNotTerminalForPlayer(actingPlayer) && cur.depth < params.maxTreeDepth && cur.actionsFromOpenLoopState.size() > 0) {
@@ -403,6 +584,23 @@ public class SingleTreeNode {
                     // using it to populate a new node.
                 }
                 cur.advance(nextState, chosen, false);
+                if (transpositions != null) {
+                    // if we have already reached this state by another path, then we link to that node, and carry
+                    // on down the tree from it; otherwise we create the new node, unless the tree is full
+                    SingleTreeNode existing = transpositions.get(nextState);
+                    if (existing == null && transpositions.isFull())
+                        return cur;
+                    if (existing != null) {
+                        cur.addChild(chosen, existing, nextState);
+                        cur = existing;
+                        nodesInTree.add(cur);
+                        treeActions.add(new Pair<>(actingPlayer, chosen));
+                        continue;
+                    }
+                    SingleTreeNode retValue = cur.expandNode(chosen, nextState);
+                    nodesInTree.add(retValue);
+                    return retValue;
+                }
                 // then create the new node
                 return cur.expandNode(chosen, nextState);
             } else {
@@ -415,6 +613,8 @@ public class SingleTreeNode {
                     cur.advance(cur.openLoopState, chosen, false);
                 }
                 cur = cur.nextNodeInTree(chosen);
+                if (transpositions != null)
+                    nodesInTree.add(cur);
                 // else we keep cur, but will exit immediately
                 treeActions.add(new Pair<>(actingPlayer, chosen));
             }
@@ -458,7 +658,7 @@ public class SingleTreeNode {
         // the expansion order will use the actionValueFunction (if it exists, or the MAST order if specified)
         // else pick a random unchosen action
 
-        Collections.shuffle(notChosen);
+        Collections.shuffle(notChosen, rnd);
 
         AbstractAction chosen = null;
 
@@ -483,12 +683,18 @@ public class SingleTreeNode {
 
     protected SingleTreeNode expandNode(AbstractAction actionCopy, AbstractGameState nextState) {
         // then instantiate a new node
-        int nextPlayer = params.opponentTreePolicy.selfOnlyTree ? decisionPlayer : nextState.getCurrentPlayer();
         SingleTreeNode tn = SingleTreeNode.createChildNode(this, actionCopy, nextState, factory);
+        addChild(actionCopy, tn, nextState);
+        if (root.transpositions != null)
+            root.transpositions.add(tn);
+        return tn;
+    }
+
+    private void addChild(AbstractAction actionCopy, SingleTreeNode child, AbstractGameState nextState) {
+        int nextPlayer = params.opponentTreePolicy.selfOnlyTree ? decisionPlayer : nextState.getCurrentPlayer();
         SingleTreeNode[] nodeArray = new SingleTreeNode[nextState.getNPlayers()];
-        nodeArray[nextPlayer] = tn; // we store this by id of the player who will take their turn next
+        nodeArray[nextPlayer] = child; // we store this by id of the player who will take their turn next
         children.put(actionCopy, nodeArray);
-        return tn;
     }
 
 
@@ -597,10 +803,10 @@ public class SingleTreeNode {
                 // need to create a new node - this is because we have a different player acting than expected
                 if (params.opponentTreePolicy.selfOnlyTree)
                     throw new AssertionError("Not sure this should be possible though");
-                nodeArray[nextPlayer] = SingleTreeNode.createChildNode(this, actionChosen.copy(), openLoopState, factory);
+                nodeArray[nextPlayer] = SingleTreeNode.createChildNode(this, keyCopy(actionChosen), openLoopState, factory);
                 nextNode = nodeArray[nextPlayer];
             } else if (params.opponentTreePolicy.selfOnlyTree && nextNode.decisionPlayer != decisionPlayer) {
-                nodeArray[nextPlayer] = SingleTreeNode.createChildNode(this, actionChosen.copy(), openLoopState, factory);
+                nodeArray[nextPlayer] = SingleTreeNode.createChildNode(this, keyCopy(actionChosen), openLoopState, factory);
                 nextNode = nodeArray[nextPlayer];
             } else {
                 // pick up the existing one, and set the state
@@ -874,53 +1080,64 @@ public class SingleTreeNode {
             if (n.root.highReward < stats.getMax())
                 n.root.highReward = stats.getMax();
         }
-        while (n != null) {
-            if (params.discardStateAfterEachIteration) {
-                n.openLoopState = null; // releases for Garbage Collection
-                if (n.depth > 0 && !params.maintainMasterState)
-                    n.state = null;
+        if (root.transpositions != null) {
+            // a node may have more than one parent, so we back up along the path taken this iteration
+            List<SingleTreeNode> path = root.nodesInTree;
+            for (int i = path.size() - 1; i >= 0; i--)
+                path.get(i).backUpNode(result, squaredResults);
+        } else {
+            while (n != null) {
+                n.backUpNode(result, squaredResults);
+                n = n.parent;
             }
-            n.nVisits++;
-            // Here we look at actionsFromOpenLoopState to see which ones were valid
-            // when we passed through, and keep track of valid visits
-            if (params.information != Closed_Loop)
-                for (AbstractAction action : n.actionsFromOpenLoopState) {
-                    if (!n.nValidVisits.containsKey(action))
-                        n.nValidVisits.put(action, 1);
-                    else
-                        n.nValidVisits.put(action, n.nValidVisits.get(action) + 1);
+        }
+    }
+
+    private void backUpNode(double[] result, double[] squaredResults) {
+        if (params.discardStateAfterEachIteration) {
+            openLoopState = null; // releases for Garbage Collection
+            if (depth > 0 && !params.maintainMasterState)
+                state = null;
+        }
+        nVisits++;
+        // Here we look at actionsFromOpenLoopState to see which ones were valid
+        // when we passed through, and keep track of valid visits
+        if (params.information != Closed_Loop)
+            for (AbstractAction action : actionsFromOpenLoopState) {
+                if (!nValidVisits.containsKey(action))
+                    nValidVisits.put(action, 1);
+                else
+                    nValidVisits.put(action, nValidVisits.get(action) + 1);
+            }
+        switch (params.opponentTreePolicy) {
+            case SelfOnly:
+                for (int j = 0; j < result.length; j++) {
+                    totValue[j] += result[root.decisionPlayer];
+                    totSquares[j] += squaredResults[root.decisionPlayer];
                 }
-            switch (params.opponentTreePolicy) {
-                case SelfOnly:
+                break;
+            case OneTree:
+            case MultiTree:
+            case OMA_All:
+            case OMA:
+                if (params.paranoid) {
+                    int paranoid = root.paranoidPlayer == -1 ? root.decisionPlayer : root.paranoidPlayer;
                     for (int j = 0; j < result.length; j++) {
-                        n.totValue[j] += result[root.decisionPlayer];
-                        n.totSquares[j] += squaredResults[root.decisionPlayer];
-                    }
-                    break;
-                case OneTree:
-                case MultiTree:
-                case OMA_All:
-                case OMA:
-                    if (params.paranoid) {
-                        int paranoid = root.paranoidPlayer == -1 ? root.decisionPlayer : root.paranoidPlayer;
-                        for (int j = 0; j < result.length; j++) {
-                            if (j == paranoid) {
-                                n.totValue[j] += result[paranoid];
-                                n.totSquares[j] += squaredResults[paranoid];
-                            } else {
-                                n.totValue[j] -= result[paranoid];
-                                n.totSquares[j] += squaredResults[paranoid];
-                            }
-                        }
-                    } else {
-                        for (int j = 0; j < result.length; j++) {
-                            n.totValue[j] += result[j];
-                            n.totSquares[j] += squaredResults[j];
+                        if (j == paranoid) {
+                            totValue[j] += result[paranoid];
+                            totSquares[j] += squaredResults[paranoid];
+                        } else {
+                            totValue[j] -= result[paranoid];
+                            totSquares[j] += squaredResults[paranoid];
                         }
                     }
-                    break;
-            }
-            n = n.parent;
+                } else {
+                    for (int j = 0; j < result.length; j++) {
+                        totValue[j] += result[j];
+                        totSquares[j] += squaredResults[j];
+                    }
+                }
+                break;
         }
     }
 
@@ -929,11 +1146,7 @@ public class SingleTreeNode {
         for (Pair<Integer, AbstractAction> pair : rolloutActions) {
             AbstractAction action = pair.b;
             int player = pair.a;
-            Object actionKey = params.MASTActionKey == null ? action.copy() : params.MASTActionKey.key(action);
-            Pair<Integer, Double> stats = MASTStatistics.get(player).getOrDefault(actionKey, new Pair<>(0, 0.0));
-            stats.a++;  // visits
-            stats.b += delta[player];   // value
-            MASTStatistics.get(player).put(actionKey, stats);
+            MASTStatistics.update(player, MASTStatistics.keyFor(params.MASTActionKey, action), delta[player]);
         }
     }
 
@@ -1059,15 +1272,19 @@ public class SingleTreeNode {
     public List<SingleTreeNode> allNodesInTree() {
         List<SingleTreeNode> retValue = new ArrayList<>();
         Queue<SingleTreeNode> nodeQueue = new ArrayDeque<>();
+        // with a transposition table a node can be the child of more than one node, but is only listed once
+        Set<SingleTreeNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
         nodeQueue.add(this);
+        seen.add(this);
         while (!nodeQueue.isEmpty()) {
             SingleTreeNode node = nodeQueue.poll();
             retValue.add(node);
-            nodeQueue.addAll(node.getChildren().values().stream()
+            node.getChildren().values().stream()
                     .filter(Objects::nonNull)
                     .flatMap(Arrays::stream)
                     .filter(Objects::nonNull)
-                    .collect(toList()));
+                    .filter(seen::add)
+                    .forEach(nodeQueue::add);
         }
         return retValue;
     }
@@ -0,0 +1,86 @@
+package players.mcts;
+
+import core.AbstractGameState;
+
+/**
+ * The nodes of a closed loop MCTS tree, held under the hashCode() of their state, so that a state reached by a
+ * different order of moves is found, and shares the node (and so the statistics) of the state reached first. The
+ * tree is then a directed acyclic graph; there are no cycles as the game tick of a child is always later.
+ * <p>
+ * This holds at most capacity nodes, and the search stops adding nodes once that many have been created, so that
+ * memory no longer grows with the number of iterations. Each hash has one slot; if two nodes want the same slot then
+ * the one nearer the root is kept (it is above more of the tree, so more likely to be reached again), and the other
+ * stays in the tree but can no longer be found from another path. Two states only share a node if they are equal(),
+ * so a collision of hashes is never mistaken for a transposition.
+ */
+public class TranspositionTable {
+
+    private final SingleTreeNode[] nodes;
+    private final int[] hashes;
+    private final int mask;
+    private final int capacity;
+    private int size;
+    private int hits;
+
+    public TranspositionTable(int capacity) {
+        this.capacity = capacity;
+        int slots = Integer.highestOneBit(Math.max(capacity, 1));
+        if (slots < capacity)
+            slots <<= 1;
+        nodes = new SingleTreeNode[slots];
+        hashes = new int[slots];
+        mask = slots - 1;
+    }
+
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * @return the node for the state, or null if there is none in the table
+     */
+    public SingleTreeNode get(AbstractGameState state) {
+        int hash = state.hashCode();
+        int slot = slot(hash);
+        SingleTreeNode node = nodes[slot];
+        if (node != null && hashes[slot] == hash && state.equals(node.state)) {
+            hits++;
+            return node;
+        }
+        return null;
+    }
+
+    /**
+     * Records a new node of the tree (whose state must not then change)
+     */
+    public void add(SingleTreeNode node) {
+        int hash = node.state.hashCode();
+        int slot = slot(hash);
+        if (nodes[slot] == null || nodes[slot].depth >= node.depth) {
+            nodes[slot] = node;
+            hashes[slot] = hash;
+        }
+        size++;
+    }
+
+    /**
+     * @return true if the tree has as many nodes as it may hold
+     */
+    public boolean isFull() {
+        return size >= capacity;
+    }
+
+    /**
+     * @return the number of nodes created in the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of times a state was found in the table (each one a node that did not need to be created)
+     */
+    public int getHits() {
+        return hits;
+    }
+}
@@ -4,7 +4,6 @@ import core.AbstractGameState;
 import core.interfaces.IPrintable;
 import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStateHeuristic;
-import org.knowm.xchart.style.markers.None;
 
 import java.io.File;
 import java.io.FileWriter;
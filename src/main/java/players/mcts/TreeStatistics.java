@@ -24,6 +24,8 @@ public class TreeStatistics {
 
     public TreeStatistics(SingleTreeNode root) {
         Queue<SingleTreeNode> nodeQueue = new ArrayDeque<>();
+        // with a transposition table a node can be the child of more than one node, but is only counted once
+        Set<SingleTreeNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
         if (root instanceof MultiTreeNode) {
             throw new AssertionError("Not expected");
             //         for (SingleTreeNode node : ((MultiTreeNode) root).roots)
@@ -52,7 +54,7 @@ public class TreeStatistics {
                         .flatMap(Arrays::stream)
                         .filter(Objects::nonNull)
                         .collect(toList())) {
-                    if (child != null)
+                    if (child != null && seen.add(child))
                         nodeQueue.add(child);
                 }
                 if (node.children.values().stream().allMatch(Objects::isNull))
@@ -103,7 +103,9 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
         double delta = 0;
         double previousScore = 0;
         int fmCalls = 0, copyCalls = 0;
-        AbstractGameState gs = gameStates[startIndex].copy();
+        // gs is only ever copied (below) and never advanced itself, so the stored state can be used as it is. The states
+        // stored in the individual are shared with other individuals after crossover, so are not recycled.
+        AbstractGameState gs = gameStates[startIndex];
 
         // This lot are a local record for use in debugging; Very useful, with no compute overhead for keeping a local copy
         AbstractGameState[] oldGameStates = new AbstractGameState[gameStates.length];
@@ -3,21 +3,21 @@ package players.rhea;
 import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
+import core.interfaces.IActionEncoder;
 import players.PlayerConstants;
 import players.mcts.MASTPlayer;
+import players.mcts.MASTTable;
 import players.simple.RandomPlayer;
-import utilities.ElapsedCpuTimer;
+import utilities.BudgetClock;
 import utilities.Pair;
-import utilities.Utils;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class RHEAPlayer extends AbstractPlayer {
     private static final AbstractPlayer randomPlayer = new RandomPlayer();
     private final Random randomGenerator;
     RHEAParams params;
-    List<Map<Object, Pair<Integer, Double>>> MASTStatistics; // a list of one Map per player. Action -> (visits, totValue)
+    MASTTable MASTStatistics; // Action -> (visits, totValue) for each player
     protected List<RHEAIndividual> population = new ArrayList<>();
     // Budgets
     protected double timePerIteration = 0, timeTaken = 0, initTime = 0;
@@ -42,18 +42,21 @@ public class RHEAPlayer extends AbstractPlayer {
         this(new RHEAParams(seed));
     }
 
+    @Override
+    public void setRandomSeed(long seed) {
+        randomGenerator.setSeed(seed);
+    }
+
     @Override
     public void initializePlayer(AbstractGameState state) {
-        MASTStatistics = new ArrayList<>();
-        for (int i = 0; i < state.getNPlayers(); i++)
-            MASTStatistics.add(new HashMap<>());
+        MASTStatistics = new MASTTable(state.getNPlayers());
         population = new ArrayList<>();
     }
 
     @Override
     public AbstractAction _getAction(AbstractGameState stateObs, List<AbstractAction> possibleActions) {
-        ElapsedCpuTimer timer = new ElapsedCpuTimer();  // New timer for this game tick
-        timer.setMaxTimeMillis(params.budget);
+        // New clock for this game tick; RHEA runs until the break time is reached
+        BudgetClock timer = new BudgetClock(params.budget, params.breakMS, 0.0);
         numIters = 0;
         fmCalls = 0;
         copyCalls = 0;
@@ -62,14 +65,12 @@ public class RHEAPlayer extends AbstractPlayer {
 
         if (params.useMAST) {
             if (MASTStatistics == null) {
-                MASTStatistics = new ArrayList<>();
-                for (int i = 0; i < stateObs.getNPlayers(); i++)
-                    MASTStatistics.add(new HashMap<>());
+                MASTStatistics = new MASTTable(stateObs.getNPlayers());
             } else {
-                MASTStatistics = MASTStatistics.stream()
-                        .map(m -> Utils.decay(m, params.discountFactor))
-                        .collect(Collectors.toList());
+                MASTStatistics.decay(params.discountFactor);
             }
+            if (getForwardModel() instanceof IActionEncoder)
+                MASTStatistics.setActionEncoder((IActionEncoder) getForwardModel(), stateObs);
             mastPlayer = new MASTPlayer(null, 1.0, 0.0, System.currentTimeMillis(), 0.0);
             mastPlayer.setStats(MASTStatistics);
         }
@@ -113,10 +114,9 @@ public class RHEAPlayer extends AbstractPlayer {
         return retValue;
     }
 
-    private boolean budgetLeft(ElapsedCpuTimer timer) {
+    private boolean budgetLeft(BudgetClock timer) {
         if (params.budgetType == PlayerConstants.BUDGET_TIME) {
-            long remaining = timer.remainingTimeMillis();
-            return remaining > params.breakMS;
+            return timer.checkBudget();
         } else if (params.budgetType == PlayerConstants.BUDGET_FM_CALLS) {
             return fmCalls < params.budget;
         } else if (params.budgetType == PlayerConstants.BUDGET_COPY_CALLS) {
@@ -282,10 +282,7 @@ public class RHEAPlayer extends AbstractPlayer {
             AbstractAction action = rolloutActions[i];
             if (action == null)
                 break;
-            Pair<Integer, Double> stats = MASTStatistics.get(player).getOrDefault(action, new Pair<>(0, 0.0));
-            stats.a++;  // visits
-            stats.b += delta;   // value
-            MASTStatistics.get(player).put(action.copy(), stats);
+            MASTStatistics.update(player, MASTStatistics.keyFor(null, action), delta);
         }
     }
 
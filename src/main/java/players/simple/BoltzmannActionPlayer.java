@@ -20,6 +20,9 @@ import java.util.Random;
  *
  *  Hence, it can be used to implement an epsilon-greedy strategy by setting temperature to
  *  a large negative number and epsilon to a value > 0.
+ *
+ *  The actionHeuristic can be a OneStepLookahead (to value each action by the state it leads to), in which case it
+ *  is given this player's forward model.
  */
 public class BoltzmannActionPlayer extends AbstractPlayer {
 
@@ -53,6 +56,8 @@ public class BoltzmannActionPlayer extends AbstractPlayer {
 
     @Override
     public AbstractAction _getAction(AbstractGameState gameState, List<AbstractAction> possibleActions) {
+        if (actionHeuristic instanceof OneStepLookahead)
+            ((OneStepLookahead) actionHeuristic).setForwardModel(getForwardModel());
         double[] actionValues = actionHeuristic.evaluateAllActions(possibleActions, gameState);
         Map<AbstractAction, Double> actionToValueMap = new HashMap<>();
         for (int i = 0; i < possibleActions.size(); i++) {
@@ -61,6 +66,13 @@ public class BoltzmannActionPlayer extends AbstractPlayer {
         return Utils.sampleFrom(actionToValueMap, temperature, epsilon, rnd);
     }
 
+    @Override
+    public void setRandomSeed(long seed) {
+        rnd.setSeed(seed);
+        if (actionHeuristic instanceof OneStepLookahead)
+            ((OneStepLookahead) actionHeuristic).setRandomSeed(rnd.nextLong());
+    }
+
     @Override
     public AbstractPlayer copy() {
         return this; // stateless (except for rnd)
@@ -12,10 +12,13 @@ import org.json.simple.JSONObject;
 public class OSLAHeuristic extends TunableParameters {
 
     int plyDepth = 1;
+    // the number of threads over which the actions are evaluated (see OneStepLookahead)
+    int nThreads = 1;
     private IStateHeuristic heuristic = AbstractGameState::getHeuristicScore;
 
     public OSLAHeuristic() {
         addTunableParameter("heuristic", (IStateHeuristic) AbstractGameState::getHeuristicScore);
+        addTunableParameter("nThreads", 1);
         _reset();
     }
 
@@ -23,12 +26,14 @@ public class OSLAHeuristic extends TunableParameters {
     protected AbstractParameters _copy() {
         OSLAHeuristic retValue = new OSLAHeuristic();
         retValue.plyDepth = plyDepth;
+        retValue.nThreads = nThreads;
         retValue.heuristic = heuristic;
         return retValue;
     }
 
     @Override
     public void _reset() {
+        nThreads = (int) getParameterValue("nThreads");
         if (heuristic instanceof TunableParameters) {
             TunableParameters tunableHeuristic = (TunableParameters) heuristic;
             for (String name : tunableHeuristic.getParameterNames()) {
@@ -41,14 +46,14 @@ public class OSLAHeuristic extends TunableParameters {
     protected boolean _equals(Object o) {
         if (o instanceof OSLAHeuristic) {
            OSLAHeuristic other = (OSLAHeuristic) o;
-           return other.plyDepth == plyDepth && other.heuristic.equals(heuristic);
+           return other.plyDepth == plyDepth && other.nThreads == nThreads && other.heuristic.equals(heuristic);
         }
         return false;
     }
 
     @Override
     public Object instantiate() {
-        return new OSLAPlayer(heuristic);
+        return new OSLAPlayer(heuristic, nThreads);
     }
 
 }
@@ -1,26 +1,29 @@
 package players.simple;
 
-import core.AbstractForwardModel;
 import core.AbstractGameState;
-import core.AbstractGameStateWithTurnOrder;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
-import core.turnorders.StandardTurnOrder;
 
 import java.util.List;
 import java.util.Random;
 
 import static utilities.Utils.noise;
 
+/**
+ * Takes the action that leads to the best state after one step (or after the end of the round, when all players take
+ * their turn in order), as valued by the heuristic. The actions are evaluated by a OneStepLookahead, which spreads
+ * them over nThreads.
+ */
 public class OSLAPlayer extends AbstractPlayer {
 
     // Heuristics used for the agent
     IStateHeuristic heuristic;
+    final int nThreads;
+    final OneStepLookahead lookahead;
 
     public OSLAPlayer(Random random) {
-        this.rnd = random;
-        setName("OSLA");
+        this(null, random, 1);
     }
 
     public OSLAPlayer() {
@@ -31,74 +34,49 @@ public class OSLAPlayer extends AbstractPlayer {
         this(heuristic, new Random());
     }
 
+    public OSLAPlayer(IStateHeuristic heuristic, int nThreads) {
+        this(heuristic, new Random(), nThreads);
+    }
+
     public OSLAPlayer(IStateHeuristic heuristic, Random random) {
-        this(random);
+        this(heuristic, random, 1);
+    }
+
+    public OSLAPlayer(IStateHeuristic heuristic, Random random, int nThreads) {
+        this.rnd = random;
         this.heuristic = heuristic;
+        this.nThreads = nThreads;
+        this.lookahead = new OneStepLookahead(heuristic, nThreads, random.nextLong());
         setName("OSLA");
     }
 
     @Override
     public AbstractAction _getAction(AbstractGameState gs, List<AbstractAction> actions) {
+        lookahead.setForwardModel(getForwardModel());
+        double[] valState = lookahead.evaluateAllActions(actions, gs);
+
+        // noise is added in the order of the actions, and ties go to the first, so that the choice does not
+        // depend on the order in which the actions were evaluated
         double maxQ = Double.NEGATIVE_INFINITY;
         AbstractAction bestAction = null;
-        double[] valState = new double[actions.size()];
-        int playerID = gs.getCurrentPlayer();
-
         for (int actionIndex = 0; actionIndex < actions.size(); actionIndex++) {
-            AbstractAction action = actions.get(actionIndex);
-            AbstractGameState gsCopy = gs.copy();
-            getForwardModel().next(gsCopy, action);
-
-            if (gs instanceof AbstractGameStateWithTurnOrder && ((AbstractGameStateWithTurnOrder)gsCopy).getTurnOrder() instanceof StandardTurnOrder) {
-                advanceToEndOfRoundWithRandomActions(gsCopy, playerID);
-            }
-
-            if (heuristic != null) {
-                valState[actionIndex] = heuristic.evaluateState(gsCopy, playerID);
-            } else {
-                valState[actionIndex] = gsCopy.getHeuristicScore(playerID);
-            }
-
             double Q = noise(valState[actionIndex], getParameters().exploreEpsilon, rnd.nextDouble());
-            //     System.out.println(Arrays.stream(valState).mapToObj(v -> String.format("%1.3f", v)).collect(Collectors.joining("\t")));
-
             if (Q > maxQ) {
                 maxQ = Q;
-                bestAction = action;
+                bestAction = actions.get(actionIndex);
             }
         }
-
         return bestAction;
     }
 
     @Override
-    public OSLAPlayer copy() {
-        return new OSLAPlayer(heuristic, new Random(rnd.nextInt()));
+    public void setRandomSeed(long seed) {
+        super.setRandomSeed(seed);
+        lookahead.setRandomSeed(rnd.nextLong());
     }
 
-    private void advanceToEndOfRoundWithRandomActions(AbstractGameState gsCopy, int startingPlayer) {
-        // we assume that every other player now has to make a decision
-        RandomPlayer rnd = new RandomPlayer(this.rnd);
-        AbstractForwardModel fm = getForwardModel();
-        if (gsCopy.getCurrentPlayer() == startingPlayer) {
-            // first get to the end of our actions
-            while (gsCopy.getCurrentPlayer() == startingPlayer && gsCopy.isNotTerminal()) {
-                AbstractAction action = rnd.getAction(gsCopy, fm.computeAvailableActions(gsCopy, rnd.parameters.actionSpace));
-                fm.next(gsCopy, action);
-            }
-        }
-        // then each other player gets their round
-        if (gsCopy.isNotTerminal()) {
-            for (int p = 0; p < gsCopy.getNPlayers() - 1; p++) {
-                int currentPlayer = gsCopy.getCurrentPlayer();
-                if (currentPlayer == startingPlayer) {
-                    throw new AssertionError("Not expecting to return to player " + getPlayerID());
-                }
-                while (gsCopy.getCurrentPlayer() == currentPlayer && gsCopy.isNotTerminal()) {
-                    AbstractAction action = rnd.getAction(gsCopy, fm.computeAvailableActions(gsCopy, rnd.parameters.actionSpace));
-                    fm.next(gsCopy, action);
-                }
-            }
-        }
+    @Override
+    public OSLAPlayer copy() {
+        return new OSLAPlayer(heuristic, new Random(rnd.nextInt()), nThreads);
     }
 }
@@ -0,0 +1,161 @@
+package players.simple;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.AbstractGameStateWithTurnOrder;
+import core.actions.AbstractAction;
+import core.actions.ActionSpace;
+import core.interfaces.IActionHeuristic;
+import core.interfaces.IExtendedSequence;
+import core.interfaces.IStateHeuristic;
+import core.turnorders.StandardTurnOrder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Values an action by applying it to a copy of the state and evaluating the state reached (from the point of view of
+ * the player who took the action). This is the evaluation used by OSLAPlayer, and as an IActionHeuristic it can also
+ * be given to BoltzmannActionPlayer (which will set the forward model on it).
+ * <p>
+ * If nThreads > 1 then evaluateAllActions() spreads the actions over a fork-join pool of that size (which is shared by
+ * all lookaheads with the same number of threads). The heuristic must then be safe to use from several threads at once.
+ * Only a stateless forward model (one whose copy() is itself, as for a StandardForwardModel) is shared between the
+ * threads; a forward model that keeps state of its own (such as an AbstractRuleBasedForwardModel, which tracks the
+ * rule it is executing) cannot be, so for these the actions are always evaluated on the calling thread.
+ * The values returned are the same however the threads are scheduled, and the same as with a single thread: each
+ * action is applied to its own copy of the action and state, and any random actions taken after it (to reach the
+ * end of the round, in games with a StandardTurnOrder) use a Random seeded from the position of the action in the list.
+ * <p>
+ * The forward model must be set with setForwardModel() before any actions are evaluated.
+ */
+public class OneStepLookahead implements IActionHeuristic {
+
+    private static final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+    final IStateHeuristic heuristic;
+    final int nThreads;
+    private final Random rnd;
+    private AbstractForwardModel forwardModel;
+    // true if the forward model can be used by several threads at once
+    private boolean sharedForwardModel;
+
+    /**
+     * @param heuristic - the heuristic used to value the state after each action; if null then the game's own
+     *                  heuristic score is used
+     * @param nThreads  - the number of threads over which the actions are evaluated
+     * @param seed      - seed for the random actions taken to reach the end of the round
+     */
+    public OneStepLookahead(IStateHeuristic heuristic, int nThreads, long seed) {
+        this.heuristic = heuristic;
+        this.nThreads = Math.max(nThreads, 1);
+        this.rnd = new Random(seed);
+    }
+
+    public OneStepLookahead(int nThreads) {
+        this(null, nThreads, System.currentTimeMillis());
+    }
+
+    public void setForwardModel(AbstractForwardModel forwardModel) {
+        if (forwardModel != this.forwardModel) {
+            this.forwardModel = forwardModel;
+            this.sharedForwardModel = forwardModel != null && forwardModel.copy() == forwardModel;
+        }
+    }
+
+    public void setRandomSeed(long seed) {
+        rnd.setSeed(seed);
+    }
+
+    private void checkForwardModel() {
+        if (forwardModel == null)
+            throw new IllegalStateException("OneStepLookahead needs a forward model: call setForwardModel() first");
+    }
+
+    @Override
+    public double evaluateAction(AbstractAction action, AbstractGameState state) {
+        checkForwardModel();
+        return evaluate(action, state, state.copy(), rnd.nextLong());
+    }
+
+    @Override
+    public double[] evaluateAllActions(List<AbstractAction> actions, AbstractGameState state) {
+        checkForwardModel();
+        double[] values = new double[actions.size()];
+        long seed = rnd.nextLong();
+        if (nThreads == 1 || actions.size() < 2 || !sharedForwardModel) {
+            // If the forward model can undo actions, then we only need to copy the state once
+            AbstractGameState undoState = null;
+            if (forwardModel.supportsUndo(state, ActionSpace.Default)
+                    && actions.stream().noneMatch(a -> a instanceof IExtendedSequence)) {
+                undoState = state.copy();
+                undoState.setUndoEnabled(true);
+            }
+            for (int i = 0; i < actions.size(); i++) {
+                values[i] = evaluate(actions.get(i), state, undoState != null ? undoState : state.copy(), seed + i);
+                if (undoState != null)
+                    forwardModel.undoAll(undoState);
+            }
+        } else {
+            ForkJoinPool pool = pools.computeIfAbsent(nThreads, ForkJoinPool::new);
+            try {
+                pool.submit(() -> IntStream.range(0, actions.size()).parallel()
+                        .forEach(i -> values[i] = evaluate(actions.get(i), state, state.copy(), seed + i))
+                ).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw new AssertionError("Error evaluating actions", e.getCause());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Applies (a copy of) the action to gsCopy, which is then evaluated for the player acting in state
+     */
+    private double evaluate(AbstractAction action, AbstractGameState state, AbstractGameState gsCopy, long seed) {
+        int playerID = state.getCurrentPlayer();
+        forwardModel.next(gsCopy, action.copy());
+
+        if (state instanceof AbstractGameStateWithTurnOrder && ((AbstractGameStateWithTurnOrder) gsCopy).getTurnOrder() instanceof StandardTurnOrder) {
+            advanceToEndOfRoundWithRandomActions(gsCopy, playerID, new Random(seed));
+        }
+
+        return heuristic != null ? heuristic.evaluateState(gsCopy, playerID) : gsCopy.getHeuristicScore(playerID);
+    }
+
+    private void advanceToEndOfRoundWithRandomActions(AbstractGameState gsCopy, int startingPlayer, Random random) {
+        // we assume that every other player now has to make a decision
+        RandomPlayer rnd = new RandomPlayer(random);
+        AbstractForwardModel fm = forwardModel;
+        if (gsCopy.getCurrentPlayer() == startingPlayer) {
+            // first get to the end of our actions
+            while (gsCopy.getCurrentPlayer() == startingPlayer && gsCopy.isNotTerminal()) {
+                AbstractAction action = rnd.getAction(gsCopy, fm.computeAvailableActions(gsCopy, rnd.parameters.actionSpace));
+                fm.next(gsCopy, action);
+            }
+        }
+        // then each other player gets their round
+        if (gsCopy.isNotTerminal()) {
+            for (int p = 0; p < gsCopy.getNPlayers() - 1; p++) {
+                int currentPlayer = gsCopy.getCurrentPlayer();
+                if (currentPlayer == startingPlayer) {
+                    throw new AssertionError("Not expecting to return to player " + startingPlayer);
+                }
+                while (gsCopy.getCurrentPlayer() == currentPlayer && gsCopy.isNotTerminal()) {
+                    AbstractAction action = rnd.getAction(gsCopy, fm.computeAvailableActions(gsCopy, rnd.parameters.actionSpace));
+                    fm.next(gsCopy, action);
+                }
+            }
+        }
+    }
+}
@@ -12,7 +12,7 @@ public class RandomPlayer extends AbstractPlayer {
     /**
      * Random generator for this agent.
      */
-    private final Random rnd;
+    private Random rnd;
 
     public RandomPlayer(Random rnd) {
         this.rnd = rnd;
@@ -29,6 +29,11 @@ public class RandomPlayer extends AbstractPlayer {
         return actions.get(randomAction);
     }
 
+    @Override
+    public void setRandomSeed(long seed) {
+        rnd = new Random(seed);
+    }
+
     @Override
     public String toString() {
         return "Random";
@@ -3,9 +3,18 @@ package utilities;
 import core.actions.AbstractAction;
 import org.json.simple.JSONObject;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
+/**
+ * A node in a tree of actions, used to give a fixed-size action space (the leaves of the tree) for RL agents via PyTAG.
+ * The tree structure is built once (initActionTree() in ITreeActionSpace), and then the values (1 = valid) and actions
+ * are updated for each decision (updateActionTree()).
+ * <p>
+ * To keep the per-decision cost proportional to the number of valid actions rather than the size of the tree, the root
+ * keeps a flat index of the leaves (built on first use, and rebuilt if the structure changes), a lookup by name, and
+ * a record of which nodes have been set since the last resetTree(). getLeafMask() gives the leaf values as an int[]
+ * that is updated in place as values are set.
+ */
 public class ActionTreeNode {
 
     int value;
@@ -14,6 +23,21 @@ public class ActionTreeNode {
     List<ActionTreeNode> children;
     int SubNodes;
     ActionTreeNode parent;
+    ActionTreeNode root = this;
+
+    // set on each node when its value or action has been set since the last reset of the tree
+    private boolean active;
+    // position of this node in the root's leaf index (or -1 if not a leaf, or not yet indexed)
+    private int leafIndex = -1;
+    // look-up of the first node (breadth-first) in this sub-tree with each name
+    private Map<String, ActionTreeNode> nameIndex;
+    private int nameIndexVersion = -1;
+
+    // only used on the root node
+    private int structureVersion;
+    private List<ActionTreeNode> leaves;
+    private int[] leafMask;
+    private final List<ActionTreeNode> activeNodes = new ArrayList<>();
 
     // Constructors
     public ActionTreeNode() {
@@ -40,10 +64,13 @@ public class ActionTreeNode {
 
     // Methods for Flattening
 
+    // the values of all nodes in the tree breadth first, excluding the root
     public int[] getActionMask() {
-        List<Integer> vals = this.flattenValues();
-        vals.remove(0);
-        return vals.stream().mapToInt(i -> i).toArray();
+        List<ActionTreeNode> nodes = flattenTree();
+        int[] retValue = new int[nodes.size() - 1];
+        for (int i = 1; i < nodes.size(); i++)
+            retValue[i - 1] = nodes.get(i).value;
+        return retValue;
     }
 
     public List<String> getActionMaskNames() {
@@ -52,69 +79,108 @@ public class ActionTreeNode {
         return vals;
     }
 
-    // Searches the tree breadth first for all leaf nodes and returns them
+    /**
+     * @return all leaf nodes, in breadth first order. On the root this is the cached leaf index, and must not be
+     * modified.
+     */
     public List<ActionTreeNode> getLeafNodes(){
-        List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
+        if (root == this) {
+            buildLeafIndex();
+            return leaves;
+        }
         List<ActionTreeNode> leafNodes = new ArrayList<ActionTreeNode>();
-        nodes.add(this);
-        while(nodes.size() > 0){
-            ActionTreeNode node = nodes.remove(0);
-            if(node.children.size() == 0){
+        for (ActionTreeNode node : flattenTree()) {
+            if (node.children.size() == 0)
+                leafNodes.add(node);
+        }
+        return leafNodes;
+    }
+
+    /**
+     * The values of all leaf nodes, in the same order as getLeafNodes(). This array is owned by the tree and updated
+     * in place as values change, so copy it if it needs to be kept.
+     */
+    public int[] getLeafMask() {
+        if (root != this)
+            throw new IllegalStateException("The leaf mask is only available from the root of the tree");
+        buildLeafIndex();
+        return leafMask;
+    }
+
+    private void buildLeafIndex() {
+        if (leaves != null)
+            return;
+        List<ActionTreeNode> leafNodes = new ArrayList<>();
+        for (ActionTreeNode node : flattenTree()) {
+            if (node.children.size() == 0) {
+                node.leafIndex = leafNodes.size();
                 leafNodes.add(node);
             } else {
-                nodes.addAll(node.children);
+                node.leafIndex = -1;
             }
         }
-        return leafNodes;
+        leaves = Collections.unmodifiableList(leafNodes);
+        leafMask = new int[leafNodes.size()];
+        for (int i = 0; i < leafMask.length; i++)
+            leafMask[i] = leafNodes.get(i).value;
     }
 
+    // all nodes in the tree breadth first, starting with this one
     public List<ActionTreeNode> flattenTree(){
         List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
-        List<ActionTreeNode> nodes1 = new ArrayList<ActionTreeNode>();
         nodes.add(this);
-        nodes1.add(this);
-        while (nodes1.size() > 0) {
-            ActionTreeNode node = nodes1.remove(0);
-            nodes.add(node);
-            nodes1.addAll(node.children);
-        }
+        // nodes doubles as the queue, as each node is added exactly once
+        for (int i = 0; i < nodes.size(); i++)
+            nodes.addAll(nodes.get(i).children);
         return nodes;
     }
 
     public List<String> flattenNames(){
         List<String> names = new ArrayList<String>();
-        List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
-        nodes.add(this);
-        while (nodes.size() > 0){
-            ActionTreeNode node = nodes.remove(0);
+        for (ActionTreeNode node : flattenTree())
             names.add(node.name);
-            nodes.addAll(node.children);
-        }
         return names;
     }
 
     public List<Integer> flattenValues(){
         List<Integer> values = new ArrayList<Integer>();
-        List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
-        nodes.add(this);
-        while(nodes.size() > 0){
-            ActionTreeNode node = nodes.remove(0);
+        for (ActionTreeNode node : flattenTree())
             values.add(node.value);
-            nodes.addAll(node.children);
-        }
         return values;
     }
 
     // Reset all the nodes in the tree, keeps structure only sets value and action to 0/null
     public void resetTree(){
-        List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
-        nodes.add(this);
-        while(nodes.size() > 0){
-            ActionTreeNode node = nodes.remove(0);
-            node.value = 0;
-            node.action = null;
-            nodes.addAll(node.children);
+        if (root == this) {
+            // we only need to reset the nodes that have been changed
+            for (ActionTreeNode node : activeNodes) {
+                node.value = 0;
+                node.action = null;
+                node.active = false;
+                if (node.leafIndex >= 0 && leafMask != null)
+                    leafMask[node.leafIndex] = 0;
+            }
+            activeNodes.clear();
+        } else {
+            for (ActionTreeNode node : flattenTree()) {
+                node.value = 0;
+                node.action = null;
+                node.updateLeafMask();
+            }
+        }
+    }
+
+    private void markActive() {
+        if (!active) {
+            active = true;
+            root.activeNodes.add(this);
         }
+        updateLeafMask();
+    }
+
+    private void updateLeafMask() {
+        if (leafIndex >= 0 && root.leafMask != null)
+            root.leafMask[leafIndex] = value;
     }
 
     public ActionTreeNode findChildrenByName(String name){
@@ -122,19 +188,16 @@ public class ActionTreeNode {
     }
     // sets the value of the node to 1 if it is found
     public ActionTreeNode findChildrenByName(String name, boolean setAvailable){
-        List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
-        nodes.add(this);
-        while(nodes.size() > 0){
-            ActionTreeNode node = nodes.remove(0);
-            nodes.addAll(node.children);
-            if (node.name.equals(name)){
-                if(setAvailable){
-                    node.value = 1;
-                }
-                return node;
-            }
+        if (nameIndex == null || nameIndexVersion != root.structureVersion) {
+            nameIndex = new HashMap<>();
+            for (ActionTreeNode node : flattenTree())
+                nameIndex.putIfAbsent(node.name, node);
+            nameIndexVersion = root.structureVersion;
         }
-        return null;
+        ActionTreeNode node = nameIndex.get(name);
+        if (node != null && setAvailable)
+            node.setValue(1);
+        return node;
     }
 
     public String toJsonString() {
@@ -156,26 +219,29 @@ public class ActionTreeNode {
 
     // Add Child Functions
     public ActionTreeNode addChild(){
-        ActionTreeNode child = new ActionTreeNode();
-        this.children.add(child);
-        child.parent = this;
-        child.updateSubNodes();
-        return child;
+        return addChild(new ActionTreeNode());
     }
 
     public ActionTreeNode addChild(int value){
-        ActionTreeNode child = new ActionTreeNode(value);
-        this.children.add(child);
-        child.parent = this;
-        child.updateSubNodes();
-        return child;
+        return addChild(new ActionTreeNode(value));
     }
 
     public ActionTreeNode addChild(int value, String name){
-        ActionTreeNode child = new ActionTreeNode(value, name);
+        return addChild(new ActionTreeNode(value, name));
+    }
+
+    private ActionTreeNode addChild(ActionTreeNode child) {
         this.children.add(child);
         child.parent = this;
+        child.root = root;
         child.updateSubNodes();
+        // the structure has changed, so any indices will need to be rebuilt
+        root.structureVersion++;
+        root.leaves = null;
+        root.leafMask = null;
+        leafIndex = -1;
+        if (child.value != 0)
+            child.markActive();
         return child;
     }
 
@@ -207,8 +273,9 @@ public class ActionTreeNode {
     public AbstractAction getAction() {return action;}
     public void setAction(AbstractAction action) {
         this.value = 1;
-        this.parent.value = 1;
         this.action = action;
+        markActive();
+        this.parent.setValue(1);
     }
     public AbstractAction getActionByVector(int[] vector){
         ActionTreeNode node = this;
@@ -222,6 +289,7 @@ public class ActionTreeNode {
     }
     public void setValue(int value) {
         this.value = value;
+        markActive();
     }
     public String getName() {
         return name;
@@ -243,8 +311,7 @@ public class ActionTreeNode {
     // For testing purposes
     public List<ActionTreeNode> getValidLeaves() {
         List<ActionTreeNode> validLeaves = new ArrayList<ActionTreeNode>();
-        List<ActionTreeNode> leaves = getLeafNodes();
-        for (ActionTreeNode leaf : leaves) {
+        for (ActionTreeNode leaf : getLeafNodes()) {
             if (leaf.value == 1) {
                 validLeaves.add(leaf);
             }
@@ -0,0 +1,109 @@
+package utilities;
+
+/**
+ * A CPU time budget for iterative search algorithms (MCTS, RHEA, RMHC...), designed to be cheap to check every
+ * iteration.
+ * <p>
+ * Reading the thread CPU time is a comparatively expensive JNI call, and for fast games doing so once or twice per
+ * iteration (as with a new ElapsedCpuTimer per iteration) is a noticeable fraction of the total time. Instead,
+ * checkBudget() only reads the clock every k iterations. After each reading k is re-calculated from the observed
+ * cost of recent iterations, so that we expect to use no more than half of the remaining slack before the next
+ * reading. k can at most double each time, so that a sudden increase in iteration cost is still caught quickly.
+ * <p>
+ * We stop when the remaining time is no more than safetyIterations times the mean iteration time, or no more than
+ * breakMillis. Counting the clock readings and the time they take gives the overhead of the budget itself.
+ */
+public class BudgetClock {
+
+    private final ElapsedCpuTimer timer;
+    private final long budgetNanos;
+    private final long breakNanos;
+    private final double safetyIterations;
+
+    private int iterations;
+    private int nextCheck = 1;
+    private int checkInterval = 1;
+    private long lastElapsed;
+    private int lastCheckIterations;
+
+    private int checks;
+    private long overheadNanos;
+
+    /**
+     * @param budgetMillis     - total CPU time budget
+     * @param breakMillis      - stop when there is less than this left
+     * @param safetyIterations - stop when there is time for fewer than this many (mean) iterations
+     */
+    public BudgetClock(long budgetMillis, int breakMillis, double safetyIterations) {
+        this(new ElapsedCpuTimer(), budgetMillis, breakMillis, safetyIterations);
+    }
+
+    // for tests, with a timer that we control
+    BudgetClock(ElapsedCpuTimer timer, long budgetMillis, int breakMillis, double safetyIterations) {
+        this.timer = timer;
+        this.budgetNanos = budgetMillis * 1000000;
+        this.breakNanos = breakMillis * 1000000L;
+        this.safetyIterations = safetyIterations;
+    }
+
+    /**
+     * Call once per iteration of the search (i.e. after each unit of work).
+     *
+     * @return true if there is budget left for another iteration
+     */
+    public boolean checkBudget() {
+        iterations++;
+        if (iterations < nextCheck)
+            return true;
+
+        long elapsed = sample();
+        long remaining = budgetNanos - elapsed;
+        double meanIteration = elapsed / (double) iterations;
+        if (remaining <= safetyIterations * meanIteration || remaining <= breakNanos)
+            return false;
+
+        // now decide how long until we next look at the clock
+        double recentIteration = (elapsed - lastElapsed) / (double) (iterations - lastCheckIterations);
+        double iterationCost = Math.max(meanIteration, recentIteration);
+        double slack = remaining - Math.max(safetyIterations * meanIteration, breakNanos);
+        int interval = iterationCost > 0.0 ? (int) Math.min(slack / (2.0 * iterationCost), Integer.MAX_VALUE) : Integer.MAX_VALUE;
+        checkInterval = Math.max(1, Math.min(interval, 2 * checkInterval));
+        nextCheck = iterations + checkInterval;
+        lastElapsed = elapsed;
+        lastCheckIterations = iterations;
+        return true;
+    }
+
+    private long sample() {
+        long start = System.nanoTime();
+        long retValue = timer.elapsed();
+        overheadNanos += System.nanoTime() - start;
+        checks++;
+        return retValue;
+    }
+
+    /**
+     * @return CPU time used since the clock was created; this always reads the clock
+     */
+    public double elapsedMillis() {
+        return sample() / 1e6;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return the number of times the CPU clock has been read
+     */
+    public int getChecks() {
+        return checks;
+    }
+
+    /**
+     * @return the total time spent reading the CPU clock
+     */
+    public double getOverheadMillis() {
+        return overheadNanos / 1e6;
+    }
+}
@@ -33,8 +33,8 @@ public class DeterminisationUtilities {
         for (Deck<C> d : decks) {
             if (d instanceof PartialObservableDeck) {
                 PartialObservableDeck<C> pod = (PartialObservableDeck<C>) d;
-                for (int i = 0; i < pod.getSize(); i++) {
-                    if (!pod.getVisibilityForPlayer(i, player) && lambda.test(pod.get(i)))
+                for (int i : pod.getPositions(player, false)) {
+                    if (lambda.test(pod.get(i)))
                         allCards.add(pod.get(i));
                 }
             } else {
@@ -66,8 +66,8 @@ public class DeterminisationUtilities {
         for (Deck<C> d : decks) {
             if (d instanceof PartialObservableDeck) {
                 PartialObservableDeck<C> pod = (PartialObservableDeck<C>) d;
-                for (int i = 0; i < pod.getSize(); i++) {
-                    if (!pod.getVisibilityForPlayer(i, player) && lambda.test(pod.get(i)))
+                for (int i : pod.getPositions(player, false)) {
+                    if (lambda.test(pod.get(i)))
                         pod.setComponent(i, allCards.draw());
                 }
             } else {
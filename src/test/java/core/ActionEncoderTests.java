@@ -0,0 +1,72 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.interfaces.IActionEncoder;
+import games.GameType;
+import org.junit.*;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ActionEncoderTests {
+
+    Random rnd = new Random(1702);
+
+    /**
+     * Plays random games, checking that every available action has a code in range, that codes are distinct, and
+     * that decoding gives back an equal action
+     */
+    private void checkEncoder(GameType gameType, int nPlayers) {
+        for (int seed = 0; seed < 5; seed++) {
+            Game game = gameType.createGameInstance(nPlayers, seed);
+            AbstractForwardModel fm = game.getForwardModel();
+            assertTrue(fm instanceof IActionEncoder);
+            IActionEncoder encoder = (IActionEncoder) fm;
+            AbstractGameState state = game.getGameState();
+            int size = encoder.getActionSpaceSize(state);
+            Set<Integer> seen = new HashSet<>();
+
+            while (state.isNotTerminal()) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                Set<Integer> codes = new HashSet<>();
+                for (AbstractAction action : actions) {
+                    int code = encoder.encode(state, action);
+                    assertTrue(code >= 0 && code < size);
+                    assertTrue(codes.add(code));
+                    assertEquals(action, encoder.decode(state, code));
+                }
+                seen.addAll(codes);
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+            assertEquals(size, encoder.getActionSpaceSize(state));
+            assertTrue(seen.size() <= size);
+        }
+    }
+
+    @Test
+    public void ticTacToe() {
+        checkEncoder(GameType.TicTacToe, 2);
+    }
+
+    @Test
+    public void connect4() {
+        checkEncoder(GameType.Connect4, 2);
+    }
+
+    @Test
+    public void dotsAndBoxes() {
+        checkEncoder(GameType.DotsAndBoxes, 2);
+    }
+
+    @Test
+    public void cantStop() {
+        checkEncoder(GameType.CantStop, 3);
+    }
+
+    @Test
+    public void gamesWithoutAnEncoder() {
+        assertNull(GameType.LoveLetter.createActionEncoder(GameType.LoveLetter.createParameters(1), 2));
+        assertNotNull(GameType.TicTacToe.createActionEncoder(GameType.TicTacToe.createParameters(1), 2));
+    }
+}
@@ -0,0 +1,110 @@
+package core;
+
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.*;
+import players.PlayerConstants;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CopyIntoTests {
+
+    Random rnd = new Random(5530);
+
+    // AbstractGameState.equals() also compares the game parameters, which fails for some games, so we check the rest
+    private void assertSameState(AbstractGameState expected, AbstractGameState actual) {
+        assertTrue(expected._equals(actual));
+        assertEquals(expected.getGameStatus(), actual.getGameStatus());
+        assertArrayEquals(expected.getPlayerResults(), actual.getPlayerResults());
+        assertEquals(expected.getGameTick(), actual.getGameTick());
+        assertEquals(expected.getTurnOwner(), actual.getTurnOwner());
+        assertEquals(expected.getHistory(), actual.getHistory());
+    }
+
+    /**
+     * Plays random games, checking that each state acquired from the pool is the recycled one, is the same as a
+     * copy, and can then be advanced without changing the original
+     */
+    private void checkCopyInto(GameType gameType, int nPlayers) {
+        GameStatePool pool = new GameStatePool(1);
+        for (int seed = 0; seed < 5; seed++) {
+            Game game = gameType.createGameInstance(nPlayers, seed);
+            AbstractForwardModel fm = game.getForwardModel();
+            AbstractGameState state = game.getGameState();
+            AbstractGameState recycled = null;
+
+            while (state.isNotTerminal()) {
+                AbstractGameState copy = state.copy();
+                AbstractGameState pooled = pool.acquire(state, -1);
+                if (recycled != null)
+                    assertSame(recycled, pooled);
+                assertNotSame(state, pooled);
+                assertSameState(copy, pooled);
+                assertEquals(fm.computeAvailableActions(copy), fm.computeAvailableActions(pooled));
+
+                List<AbstractAction> pooledActions = fm.computeAvailableActions(pooled);
+                fm.next(pooled, pooledActions.get(rnd.nextInt(pooledActions.size())));
+                assertSameState(copy, state);
+                pool.release(pooled);
+                recycled = pooled;
+
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+        }
+    }
+
+    @Test
+    public void ticTacToe() {
+        checkCopyInto(GameType.TicTacToe, 2);
+    }
+
+    @Test
+    public void connect4() {
+        checkCopyInto(GameType.Connect4, 2);
+    }
+
+    @Test
+    public void dotsAndBoxes() {
+        checkCopyInto(GameType.DotsAndBoxes, 3);
+    }
+
+    @Test
+    public void dominion() {
+        checkCopyInto(GameType.Dominion, 3);
+    }
+
+    @Test
+    public void unsupportedGamesCopy() {
+        Game game = GameType.LoveLetter.createGameInstance(2, 1);
+        AbstractGameState state = game.getGameState();
+        GameStatePool pool = new GameStatePool(1);
+        AbstractGameState first = pool.acquire(state, 0);
+        pool.release(first);
+        AbstractGameState second = pool.acquire(state, 0);
+        assertNotSame(first, second);
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void mctsWithPooledStates() {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int p = 0; p < 2; p++) {
+            MCTSParams params = new MCTSParams(420 + p);
+            params.information = MCTSEnums.Information.Information_Set;
+            params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+            params.budget = 200;
+            params.poolStates = true;
+            players.add(new MCTSPlayer(params));
+        }
+        Game game = GameType.Connect4.createGameInstance(2, 84);
+        game.reset(players);
+        game.run();
+        assertFalse(game.getGameState().isNotTerminal());
+    }
+}
@@ -0,0 +1,175 @@
+package core;
+
+import evaluation.listeners.IGameListener;
+import evaluation.metrics.Event;
+import games.GameType;
+import org.junit.*;
+import players.PlayerConstants;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import players.simple.RandomPlayer;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GameRecordTests {
+
+    static class ActionLog implements IGameListener {
+        Game game;
+        List<String> taken = new ArrayList<>();
+        int started, finished;
+
+        @Override
+        public void onEvent(Event event) {
+            switch ((Event.GameEvent) event.type) {
+                case ABOUT_TO_START:
+                    started++;
+                    break;
+                case ACTION_TAKEN:
+                    // component IDs differ between games, so we use the description of the action
+                    taken.add(event.playerID + ":" + event.action.getString(event.state));
+                    break;
+                case GAME_OVER:
+                    finished++;
+            }
+        }
+
+        @Override
+        public void report() {
+        }
+
+        @Override
+        public void setGame(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        public Game getGame() {
+            return game;
+        }
+    }
+
+    private Game playRecordedGame(GameType gameType, int nPlayers, long seed, ActionLog log) {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int p = 0; p < nPlayers; p++)
+            players.add(new RandomPlayer(new Random(seed + p)));
+        return playRecordedGame(gameType, players, seed, log);
+    }
+
+    private Game playRecordedGame(GameType gameType, List<AbstractPlayer> players, long seed, ActionLog log) {
+        int nPlayers = players.size();
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        game.addListener(log);
+        game.setRecording(true);
+        game.reset(players);
+        game.run();
+        return game;
+    }
+
+    private GameRecord roundTrip(GameRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        record.write(new DataOutputStream(bytes));
+        // one byte per decision, plus the checksums and a small header
+        assertEquals((record.getNActions() + GameRecord.CHECK_INTERVAL - 1) / GameRecord.CHECK_INTERVAL, record.getNChecks());
+        assertTrue(bytes.size() < record.getNActions() + 4 * record.getNChecks() + 100);
+        return GameRecord.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private void checkReplay(GameType gameType, int nPlayers, long seed) throws IOException {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int p = 0; p < nPlayers; p++)
+            players.add(new RandomPlayer(new Random(seed + p)));
+        checkReplay(gameType, players, seed);
+    }
+
+    private void checkReplay(GameType gameType, List<AbstractPlayer> players, long seed) throws IOException {
+        int nPlayers = players.size();
+        ActionLog original = new ActionLog();
+        Game game = playRecordedGame(gameType, players, seed, original);
+        GameRecord record = game.getRecord();
+        assertTrue(record.isComplete());
+        assertEquals(original.taken.size(), record.getNActions());
+
+        ActionLog replayed = new ActionLog();
+        Game replay = roundTrip(record).replay(null, Collections.singletonList(replayed));
+        assertEquals(1, replayed.started);
+        assertEquals(1, replayed.finished);
+        assertEquals(original.taken, replayed.taken);
+        assertEquals(game.getNDecisions(), replay.getNDecisions());
+        AbstractGameState before = game.getGameState(), after = replay.getGameState();
+        assertArrayEquals(before.getPlayerResults(), after.getPlayerResults());
+        for (int p = 0; p < nPlayers; p++) {
+            assertEquals(before.getGameScore(p), after.getGameScore(p), 1e-9);
+            assertEquals(game.getPlayers().get(p).toString(), replay.getPlayers().get(p).toString());
+        }
+    }
+
+    @Test
+    public void connect4ReplaysExactly() throws IOException {
+        checkReplay(GameType.Connect4, 2, 42);
+    }
+
+    @Test
+    public void loveLetterReplaysExactly() throws IOException {
+        checkReplay(GameType.LoveLetter, 3, 1234);
+    }
+
+    @Test
+    public void dominionWithPonderingReplaysExactly() throws IOException {
+        // Dominion redeterminises each copy of the state for a player with its own random number generator, and the
+        // MCTS player is sent a copy to ponder on during the other players' turns
+        MCTSParams params = new MCTSParams(3);
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 50;
+        params.ponder = true;
+        params.ponderBudget = 200;
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(new MCTSPlayer(params));
+        players.add(new RandomPlayer(new Random(4)));
+        players.add(new RandomPlayer(new Random(5)));
+        checkReplay(GameType.Dominion, players, 602);
+    }
+
+    @Test
+    public void divergenceIsDetected() {
+        GameRecord record = playRecordedGame(GameType.Dominion, 3, 911, new ActionLog()).getRecord();
+        Game game = record.createGame(null);
+        // a copy for a player uses the random number generator of the game, so the shuffles now differ
+        for (int i = 0; i < 10; i++)
+            game.getGameState().copy(1);
+        try {
+            game.replay(record);
+            fail("Replay should have diverged");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Replay has diverged"));
+        }
+    }
+
+    @Test
+    public void recordsAppendToOneFile() throws IOException {
+        File file = File.createTempFile("records", ".bin");
+        file.deleteOnExit();
+        List<Integer> lengths = new ArrayList<>();
+        for (int seed = 0; seed < 3; seed++) {
+            GameRecord record = playRecordedGame(GameType.TicTacToe, 2, seed, new ActionLog()).getRecord();
+            record.appendTo(file.getPath());
+            lengths.add(record.getNActions());
+        }
+        List<GameRecord> records = GameRecord.readAll(file.getPath());
+        assertEquals(3, records.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, records.get(i).getSeed());
+            assertEquals((int) lengths.get(i), records.get(i).getNActions());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mismatchedParametersAreRejected() {
+        GameRecord record = playRecordedGame(GameType.LoveLetter, 2, 7, new ActionLog()).getRecord();
+        AbstractParameters params = GameType.LoveLetter.createParameters(7);
+        params.setMaxRounds(params.getMaxRounds() + 1);
+        record.createGame(params);
+    }
+}
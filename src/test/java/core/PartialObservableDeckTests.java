@@ -0,0 +1,98 @@
+package core;
+
+import core.components.Card;
+import core.components.Deck;
+import core.components.PartialObservableDeck;
+import org.junit.*;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PartialObservableDeckTests {
+
+    PartialObservableDeck<Card> deck;
+
+    @Before
+    public void setup() {
+        deck = new PartialObservableDeck<>("test", -1, new boolean[]{true, false, false});
+        for (int i = 0; i < 10; i++)
+            deck.add(new Card("C" + i));
+        // player 1 can see the even cards, and player 2 the first three
+        for (int i = 0; i < 10; i += 2)
+            deck.setVisibilityOfComponent(i, 1, true);
+        for (int i = 0; i < 3; i++)
+            deck.setVisibilityOfComponent(i, 2, true);
+    }
+
+    @Test
+    public void visibility() {
+        assertTrue(deck.isComponentVisible(4, 1));
+        assertFalse(deck.isComponentVisible(5, 1));
+        assertArrayEquals(new boolean[]{true, true, true}, deck.getVisibilityOfComponent(2));
+        assertArrayEquals(new int[]{1, 3, 5, 7, 9}, deck.getPositions(1, false));
+        assertArrayEquals(new int[]{0, 1, 2}, deck.getPositions(2, true));
+        assertNull(deck.getVisibleComponents(1).get(3));
+        // changing the returned array has no effect on the deck
+        deck.getVisibilityOfComponent(3)[1] = true;
+        assertFalse(deck.isComponentVisible(3, 1));
+    }
+
+    @Test
+    public void shuffleUsesSameSequenceAsCollectionsShuffle() {
+        List<Card> expected = new ArrayList<>(deck.getComponents());
+        Collections.shuffle(expected, new Random(42));
+        List<boolean[]> visibility = new ArrayList<>();
+        for (int i = 0; i < deck.getSize(); i++)
+            visibility.add(deck.getVisibilityOfComponent(i));
+        Map<Card, boolean[]> visibilityOf = new HashMap<>();
+        for (int i = 0; i < deck.getSize(); i++)
+            visibilityOf.put(deck.get(i), visibility.get(i));
+
+        deck.shuffle(new Random(42));
+        assertEquals(expected, deck.getComponents());
+        // the visibility moves with the card
+        for (int i = 0; i < deck.getSize(); i++)
+            assertArrayEquals(visibilityOf.get(deck.get(i)), deck.getVisibilityOfComponent(i));
+    }
+
+    @Test
+    public void shuffleHiddenLeavesVisibleInPlace() {
+        List<Card> before = new ArrayList<>(deck.getComponents());
+        deck.shuffleVisible(new Random(3), 1, false);
+        Set<Card> hidden = new HashSet<>();
+        for (int i = 0; i < deck.getSize(); i++) {
+            if (i % 2 == 0)
+                assertSame(before.get(i), deck.get(i));
+            else
+                hidden.add(deck.get(i));
+            // visibility stays with the position for hidden cards
+            assertEquals(i % 2 == 0, deck.isComponentVisible(i, 1));
+        }
+        assertEquals(new HashSet<>(Arrays.asList(before.get(1), before.get(3), before.get(5), before.get(7), before.get(9))), hidden);
+    }
+
+    @Test
+    public void addAndRemoveKeepVisibilityAligned() {
+        Deck<Card> other = new Deck<>("other", CoreConstants.VisibilityMode.HIDDEN_TO_ALL);
+        other.add(new Card("X"));
+        other.add(new Card("Y"));
+        deck.add(other);
+        assertEquals(12, deck.getSize());
+        assertEquals(12, deck.getPositions(0, true).length);
+        assertArrayEquals(new boolean[]{true, false, false}, deck.getVisibilityOfComponent(1));
+        assertTrue(deck.isComponentVisible(2, 1));
+
+        PartialObservableDeck<Card> copy = deck.copy();
+        Card drawn = deck.draw();
+        assertEquals("Y", drawn.getComponentName());
+        assertEquals(11, deck.getSize());
+        assertTrue(deck.isComponentVisible(1, 1));
+        assertEquals(12, copy.getSize());
+
+        deck.add(copy);
+        assertEquals(23, deck.getSize());
+        assertTrue(deck.isComponentVisible(13, 1));
+        assertFalse(deck.isComponentVisible(12, 1));
+    }
+}
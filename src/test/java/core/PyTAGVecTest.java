@@ -0,0 +1,66 @@
+package core;
+
+import games.GameType;
+import org.junit.Test;
+import players.python.PythonAgent;
+import players.simple.RandomPlayer;
+
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PyTAGVecTest {
+
+    Random rnd = new Random(97);
+
+    private PyTAGVec createEnvs(int nThreads) throws Exception {
+        List<AbstractPlayer> players = Arrays.asList(new PythonAgent(), new RandomPlayer(new Random(5)));
+        return new PyTAGVec(GameType.TicTacToe, null, players, 321, true, 3, nThreads);
+    }
+
+    // each environment's part of the shared buffers is what that environment reports on its own
+    private void checkSlices(PyTAGVec envs) throws Exception {
+        int obsSpace = envs.getObservationSpace(), actionSpace = envs.getActionSpace();
+        DoubleBuffer observations = envs.getObservations();
+        assertEquals(envs.getNumEnvs() * obsSpace, observations.capacity());
+        for (int i = 0; i < envs.getNumEnvs(); i++) {
+            PyTAG env = envs.getEnv(i);
+            double[] slice = new double[obsSpace];
+            for (int j = 0; j < obsSpace; j++)
+                slice[j] = observations.get(i * obsSpace + j);
+            assertArrayEquals(env.getObservationVector(), slice, 0.0);
+            assertArrayEquals(env.getActionMask(),
+                    Arrays.copyOfRange(envs.getActionMasks(), i * actionSpace, (i + 1) * actionSpace));
+            assertEquals(env.getPlayerID(), envs.getPlayerIDs()[i]);
+        }
+    }
+
+    private void stepAndCheck(int nThreads) throws Exception {
+        try (PyTAGVec envs = createEnvs(nThreads)) {
+            envs.reset();
+            // the buffer can be wrapped by numpy without copying
+            assertTrue(envs.getObservations().isDirect());
+            assertEquals(ByteOrder.nativeOrder(), envs.getObservations().order());
+            checkSlices(envs);
+            for (int step = 0; step < 20; step++) {
+                int[] actions = new int[envs.getNumEnvs()];
+                for (int i = 0; i < actions.length; i++)
+                    actions[i] = envs.getEnv(i).sampleRNDAction(envs.getEnv(i).getActionMask(), rnd);
+                envs.step(actions);
+                checkSlices(envs);
+            }
+        }
+    }
+
+    @Test
+    public void buffersMatchEachEnvironment() throws Exception {
+        stepAndCheck(1);
+    }
+
+    @Test
+    public void buffersMatchEachEnvironmentInParallel() throws Exception {
+        stepAndCheck(3);
+    }
+}
@@ -0,0 +1,56 @@
+package core;
+
+import core.components.ResourcePool;
+import games.wonders7.Wonders7Constants.Resource;
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class ResourcePoolTests {
+
+    ResourcePool<Resource> pool;
+
+    @Before
+    public void setup() {
+        pool = new ResourcePool<>(Resource.class);
+    }
+
+    @Test
+    public void addAndTake() {
+        assertEquals(0, pool.get(Resource.Wood));
+        assertEquals(3, pool.add(Resource.Wood, 3));
+        assertEquals(2, pool.take(Resource.Wood, 2));
+        // take() never goes below zero, but subtract() does
+        assertEquals(1, pool.take(Resource.Wood, 5));
+        assertEquals(0, pool.get(Resource.Wood));
+        assertEquals(-2, pool.subtract(Resource.Coin, 2));
+        assertEquals(-2, pool.total());
+    }
+
+    @Test
+    public void bulkOperations() {
+        ResourcePool<Resource> cost = new ResourcePool<>(Resource.class);
+        cost.set(Resource.Stone, 2);
+        cost.set(Resource.Ore, 1);
+        assertFalse(pool.covers(cost));
+        pool.add(cost);
+        pool.add(Resource.Glass, 1);
+        assertTrue(pool.covers(cost));
+        pool.subtract(cost);
+        assertEquals(0, pool.get(Resource.Stone));
+        assertEquals(1, pool.total());
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        pool.set(Resource.Clay, 4);
+        ResourcePool<Resource> copy = pool.copy();
+        assertEquals(pool, copy);
+        assertEquals(pool.hashCode(), copy.hashCode());
+        copy.add(Resource.Clay, 1);
+        assertEquals(4, pool.get(Resource.Clay));
+        assertNotEquals(pool, copy);
+        copy.copyFrom(pool);
+        assertEquals(pool, copy);
+    }
+}
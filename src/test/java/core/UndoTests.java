@@ -0,0 +1,139 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.actions.ActionSpace;
+import games.GameType;
+import org.junit.*;
+import players.PlayerConstants;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import players.simple.OSLAPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class UndoTests {
+
+    Random rnd = new Random(3902);
+
+    // AbstractGameState.equals() also compares the game parameters, which fails for some games, so we check the rest
+    private void assertSameState(AbstractGameState expected, AbstractGameState actual) {
+        assertTrue(expected._equals(actual));
+        assertEquals(expected.getGameStatus(), actual.getGameStatus());
+        assertArrayEquals(expected.getPlayerResults(), actual.getPlayerResults());
+        assertEquals(expected.getGamePhase(), actual.getGamePhase());
+        assertEquals(expected.getGameTick(), actual.getGameTick());
+        assertEquals(expected.getRoundCounter(), actual.getRoundCounter());
+        assertEquals(expected.getTurnCounter(), actual.getTurnCounter());
+        assertEquals(expected.getTurnOwner(), actual.getTurnOwner());
+        assertEquals(expected.getFirstPlayer(), actual.getFirstPlayer());
+    }
+
+    /**
+     * Plays random games, checking after each action that undo restores the previous state, and at the end that
+     * undoAll restores the initial state.
+     */
+    private void checkUndo(GameType gameType, int nPlayers) {
+        for (int seed = 0; seed < 5; seed++) {
+            Game game = gameType.createGameInstance(nPlayers, seed);
+            AbstractForwardModel fm = game.getForwardModel();
+            assertTrue(fm.supportsUndo());
+            AbstractGameState state = game.getGameState();
+            state.setUndoEnabled(true);
+            AbstractGameState initialState = state.copy();
+
+            int depth = 0;
+            while (state.isNotTerminal()) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+                AbstractGameState before = state.copy();
+                fm.next(state, action.copy());
+                fm.undo(state);
+                assertSameState(before, state);
+                assertEquals(before.getHistory().size(), state.getHistory().size());
+                assertEquals(fm.computeAvailableActions(before), fm.computeAvailableActions(state));
+
+                fm.next(state, action.copy());
+                depth++;
+                assertEquals(depth, state.getUndoJournal().getDepth());
+            }
+            fm.undoAll(state);
+            assertEquals(0, state.getUndoJournal().getDepth());
+            assertSameState(initialState, state);
+            assertEquals(0, state.getGameTick());
+        }
+    }
+
+    @Test
+    public void ticTacToe() {
+        checkUndo(GameType.TicTacToe, 2);
+    }
+
+    @Test
+    public void connect4() {
+        checkUndo(GameType.Connect4, 2);
+    }
+
+    @Test
+    public void dotsAndBoxes() {
+        checkUndo(GameType.DotsAndBoxes, 3);
+    }
+
+    @Test
+    public void stratego() {
+        checkUndo(GameType.Stratego, 2);
+    }
+
+    @Test
+    public void cantStop() {
+        checkUndo(GameType.CantStop, 3);
+    }
+
+    @Test
+    public void searchCopiesStatesInADeepActionSpace() {
+        // The deep moves of Stratego are extended action sequences, which cannot be undone
+        Game game = GameType.Stratego.createGameInstance(2, 7);
+        AbstractForwardModel fm = game.getForwardModel();
+        ActionSpace deep = new ActionSpace(ActionSpace.Structure.Deep);
+        MCTSParams params = new MCTSParams(7);
+        params.information = MCTSEnums.Information.Open_Loop;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 50;
+        List<AbstractPlayer> players = Arrays.asList(new MCTSPlayer(params), new OSLAPlayer(new Random(7)));
+        for (AbstractPlayer player : players)
+            player.getParameters().actionSpace = deep;
+        game.reset(players);
+        AbstractGameState state = game.getGameState();
+        assertTrue(fm.supportsUndo(state, ActionSpace.Default));
+        assertFalse(fm.supportsUndo(state, deep));
+
+        for (int i = 0; i < 20 && state.isNotTerminal(); i++) {
+            int player = state.getCurrentPlayer();
+            AbstractGameState observation = state.copy(player);
+            List<AbstractAction> actions = fm.computeAvailableActions(observation, deep);
+            AbstractAction action = players.get(player).getAction(observation, actions);
+            assertTrue(actions.contains(action));
+            fm.next(state, action);
+            if (state.isActionInProgress())
+                assertFalse(fm.supportsUndo(state, ActionSpace.Default));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unsupportedGamesCannotEnableUndo() {
+        Game game = GameType.LoveLetter.createGameInstance(2, 1);
+        AbstractGameState state = game.getGameState();
+        state.setUndoEnabled(true);
+        game.getForwardModel().next(state, game.getForwardModel().computeAvailableActions(state).get(0));
+    }
+
+    @Test
+    public void copiesDoNotUndo() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 1);
+        AbstractGameState state = game.getGameState();
+        state.setUndoEnabled(true);
+        assertNull(state.copy().getUndoJournal());
+    }
+}
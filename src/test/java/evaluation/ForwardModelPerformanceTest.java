@@ -0,0 +1,69 @@
+package evaluation;
+
+import games.GameType;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static evaluation.ForwardModelPerformance.*;
+import static org.junit.Assert.*;
+
+public class ForwardModelPerformanceTest {
+
+    private Map<String, Map<String, Double>> results(double rate, double copyCost) {
+        Map<String, Double> metrics = new HashMap<>();
+        metrics.put(NEXT_RATE, rate);
+        metrics.put(COPY_COST, copyCost);
+        Map<String, Map<String, Double>> retValue = new HashMap<>();
+        retValue.put("TicTacToe", metrics);
+        return retValue;
+    }
+
+    @Test
+    public void measuresAllMetrics() {
+        Map<String, Double> metrics = measure(GameType.TicTacToe, 2, new long[]{0, 1}, 0);
+        assertTrue(metrics.get(NEXT_RATE) > 0.0);
+        assertTrue(metrics.get(COPY_COST) > 0.0);
+        assertTrue(metrics.get(ACTION_COST) > 0.0);
+        assertTrue(metrics.get(ALLOCATION) > 0.0);
+        assertEquals(9.0, metrics.get(MAX_ACTIONS), 0.0);
+    }
+
+    @Test
+    public void regressionsAreBeyondTheThreshold() {
+        Map<String, Map<String, Double>> baseline = results(1000.0, 10.0);
+        assertTrue(compare(baseline, results(800.0, 12.0), 0.25).isEmpty());
+        // faster is never a regression
+        assertTrue(compare(baseline, results(5000.0, 1.0), 0.25).isEmpty());
+        List<String> regressions = compare(baseline, results(700.0, 13.0), 0.25);
+        assertEquals(2, regressions.size());
+        // a game that is not in the baseline is ignored
+        assertTrue(compare(new HashMap<>(), results(1.0, 100.0), 0.25).isEmpty());
+    }
+
+    @Test
+    public void missingResultsAreRegressions() {
+        Map<String, Map<String, Double>> baseline = results(1000.0, 10.0);
+        // a game that failed has no results
+        assertEquals(1, compare(baseline, new HashMap<>(), 0.25).size());
+        Map<String, Map<String, Double>> current = results(1000.0, 10.0);
+        current.get("TicTacToe").remove(COPY_COST);
+        List<String> regressions = compare(baseline, current, 0.25);
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).contains(COPY_COST));
+    }
+
+    @Test
+    public void baselineRoundTrip() throws IOException {
+        File file = File.createTempFile("perf_baseline", ".tsv");
+        file.deleteOnExit();
+        writeBaseline(file.getPath(), results(1234.5, 6.789));
+        Map<String, Map<String, Double>> read = readBaseline(file.getPath());
+        assertEquals(1234.5, read.get("TicTacToe").get(NEXT_RATE), 0.001);
+        assertEquals(6.789, read.get("TicTacToe").get(COPY_COST), 0.001);
+    }
+}
@@ -0,0 +1,95 @@
+package evaluation.optimisation;
+
+import core.AbstractPlayer;
+import games.GameType;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+import org.junit.Before;
+import org.junit.Test;
+import players.heuristics.WinOnlyHeuristic;
+import players.mcts.MCTSParams;
+import players.simple.RandomPlayer;
+import utilities.JSONUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GameEvaluatorTest {
+
+    GameEvaluator evaluator;
+    int[] settingsA = {0, 0}, settingsB = {1, 1};
+
+    @Before
+    public void setup() throws ParseException {
+        JSONObject json = (JSONObject) JSONUtils.parser.parse(
+                "{\"K\" : [0.1, 1.0], \"rolloutLength\" : [0, 10], \"budget\" : 10}");
+        ITPSearchSpace searchSpace = new ITPSearchSpace(new MCTSParams(), json);
+        List<AbstractPlayer> opponents = Collections.singletonList(new RandomPlayer());
+        evaluator = new GameEvaluator(GameType.TicTacToe, searchSpace, null, 2, opponents, 42,
+                new WinOnlyHeuristic(), null, true);
+    }
+
+    @Test
+    public void newSeedsAreNotReused() {
+        for (int i = 0; i < 10; i++)
+            evaluator.evaluate(settingsA);
+        assertEquals(10, evaluator.nEvals());
+        assertEquals(0, evaluator.getCacheHits());
+    }
+
+    @Test
+    public void commonSeedsAreReusedAcrossRuns() {
+        evaluator.setCommonSeeds(5);
+        for (int i = 0; i < 4; i++)
+            evaluator.evaluate(settingsA);
+        assertEquals(0, evaluator.getCacheHits());
+
+        // a new run evaluates the settings on the same games as the last
+        evaluator.reset();
+        for (int i = 0; i < 4; i++)
+            evaluator.evaluate(settingsA);
+        assertEquals(4, evaluator.getCacheHits());
+
+        // but other settings are played
+        for (int i = 0; i < 4; i++)
+            evaluator.evaluate(settingsB);
+        assertEquals(4, evaluator.getCacheHits());
+        assertEquals(8, evaluator.cache.size());
+    }
+
+    @Test
+    public void validationGamesAreSharedByWinners() {
+        evaluator.setCommonSeeds(5);
+        double[] first = new double[10];
+        for (int i = 0; i < 10; i++)
+            first[i] = evaluator.validate(settingsA, i);
+        assertEquals(0, evaluator.getCacheHits());
+
+        // validation games are not those used in the search
+        evaluator.evaluate(settingsA);
+        assertEquals(0, evaluator.getCacheHits());
+
+        for (int i = 0; i < 10; i++)
+            assertEquals(first[i], evaluator.validate(settingsA, i), 0.0);
+        assertEquals(10, evaluator.getCacheHits());
+    }
+
+    @Test
+    public void exhaustedCommonSeedsAreNotRepeated() {
+        // two seeds on each of two seats give four distinct games, and after that each evaluation is a new game
+        evaluator.setCommonSeeds(2);
+        for (int i = 0; i < 10; i++)
+            evaluator.evaluate(settingsA);
+        assertEquals(0, evaluator.getCacheHits());
+        assertEquals(10, evaluator.cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validationNeedsEnoughSeeds() {
+        evaluator.setCommonSeeds(2);
+        assertEquals(4, evaluator.validationGames());
+        evaluator.validate(settingsA, 4);
+    }
+}
@@ -0,0 +1,55 @@
+package evaluation.tournaments;
+
+import core.AbstractPlayer;
+import games.GameType;
+import org.junit.Test;
+import players.simple.OSLAPlayer;
+import players.simple.RandomPlayer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static evaluation.tournaments.AbstractTournament.TournamentMode.NO_SELF_PLAY;
+import static org.junit.Assert.*;
+
+public class MatchUpRaceTest {
+
+    @Test
+    public void confidenceGrowsWithGamesAndMargin() {
+        assertEquals(0.0, MatchUpRace.confidence(0.0, 10, 100), 0.0);
+        assertEquals(0.0, MatchUpRace.confidence(-5.0, 10, 100), 0.0);
+        assertTrue(MatchUpRace.confidence(18, 20, 100) > MatchUpRace.confidence(9, 10, 100));
+        assertTrue(MatchUpRace.confidence(18, 20, 100) > MatchUpRace.confidence(10, 20, 100));
+        // looking more often needs more evidence
+        assertTrue(MatchUpRace.confidence(18, 20, 10) > MatchUpRace.confidence(18, 20, 1000));
+        assertTrue(MatchUpRace.confidence(90, 100, 100) > 0.99);
+    }
+
+    @Test
+    public void raceTracksTheLeader() {
+        MatchUpRace race = new MatchUpRace(Arrays.asList(3, 5, 3));
+        assertTrue(race.isContested());
+        for (int i = 0; i < 30; i++)
+            race.update(new int[]{2, 1, 3});
+        assertEquals(1, race.leader());
+        assertEquals(30, race.getGamesPlayed());
+        assertTrue(race.isDecided(0.95, 100));
+        assertFalse(new MatchUpRace(Arrays.asList(2, 2)).isContested());
+    }
+
+    @Test
+    public void decidedMatchUpsStopEarly() {
+        List<AbstractPlayer> agents = Arrays.asList(new OSLAPlayer(new Random(1)), new RandomPlayer(new Random(2)));
+        RoundRobinTournament tournament = new RoundRobinTournament(agents, GameType.Connect4, 2, 50,
+                NO_SELF_PLAY, null, false);
+        tournament.setVerbose(false);
+        tournament.setRandomSeed(42);
+        tournament.setStopConfidence(0.95);
+        tournament.run();
+        assertTrue(tournament.nGamesPlayed[0] < 100);
+        assertEquals(tournament.nGamesPlayed[0], tournament.nGamesPlayed[1]);
+        assertTrue(tournament.getPairwiseConfidence(0, 1) > 0.95);
+        assertEquals(0, tournament.getWinnerIndex());
+    }
+}
@@ -0,0 +1,137 @@
+package evaluation.tournaments;
+
+import core.AbstractPlayer;
+import games.GameType;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import players.simple.FirstActionPlayer;
+import players.simple.RandomPlayer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static core.CoreConstants.GameResult;
+import static core.CoreConstants.GameResult.LOSE_GAME;
+import static core.CoreConstants.GameResult.WIN_GAME;
+import static evaluation.tournaments.AbstractTournament.TournamentMode.NO_SELF_PLAY;
+import static org.junit.Assert.*;
+
+public class TournamentCheckpointTest {
+
+    private List<AbstractPlayer> firstActionAgents() {
+        AbstractPlayer first = new FirstActionPlayer(), second = new FirstActionPlayer();
+        first.setName("First");
+        second.setName("Second");
+        return Arrays.asList(first, second);
+    }
+
+    // agents whose play depends on their random number generators
+    private List<AbstractPlayer> randomAgents() {
+        MCTSParams params = new MCTSParams(7);
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 20;
+        return Arrays.asList(new RandomPlayer(new Random(5)), new MCTSPlayer(params));
+    }
+
+    private RoundRobinTournament runTournament(List<AbstractPlayer> agents, GameType gameType, String checkpointFile) {
+        RoundRobinTournament tournament = new RoundRobinTournament(agents, gameType, 2, 10,
+                NO_SELF_PLAY, null, false);
+        tournament.setVerbose(false);
+        tournament.setRandomSeed(31);
+        if (checkpointFile != null)
+            tournament.setCheckpoint(checkpointFile);
+        tournament.run();
+        return tournament;
+    }
+
+    private RoundRobinTournament runTournament(String checkpointFile) {
+        return runTournament(firstActionAgents(), GameType.LoveLetter, checkpointFile);
+    }
+
+    private void assertSameResults(RoundRobinTournament expected, RoundRobinTournament actual) {
+        assertArrayEquals(expected.nGamesPlayed, actual.nGamesPlayed);
+        assertArrayEquals(expected.winsPerPlayer, actual.winsPerPlayer, 0.0);
+        assertArrayEquals(expected.pointsPerPlayer, actual.pointsPerPlayer, 0.0);
+        assertArrayEquals(expected.rankPerPlayer, actual.rankPerPlayer, 0.0);
+    }
+
+    @Test
+    public void resumedTournamentMatchesUninterruptedRun() throws IOException {
+        RoundRobinTournament uninterrupted = runTournament(null);
+
+        File file = File.createTempFile("tournament", ".games");
+        file.deleteOnExit();
+        assertTrue(file.delete());
+        RoundRobinTournament checkpointed = runTournament(file.getPath());
+        assertSameResults(uninterrupted, checkpointed);
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(20, lines.size());
+
+        // simulate a run that stopped part way through writing the eighth game
+        try (PrintWriter writer = new PrintWriter(file)) {
+            for (String line : lines.subList(0, 7))
+                writer.println(line);
+            writer.print(lines.get(7).substring(0, 5));
+        }
+        TournamentCheckpoint checkpoint = new TournamentCheckpoint(file);
+        assertEquals(7, checkpoint.getLoggedGames());
+        checkpoint.close();
+
+        RoundRobinTournament resumed = runTournament(file.getPath());
+        assertSameResults(uninterrupted, resumed);
+        assertEquals(lines, Files.readAllLines(file.toPath()));
+    }
+
+    @Test
+    public void resumedTournamentWithRandomAgentsMatchesUninterruptedRun() throws IOException {
+        File file = File.createTempFile("tournament", ".games");
+        file.deleteOnExit();
+        assertTrue(file.delete());
+        RoundRobinTournament uninterrupted = runTournament(randomAgents(), GameType.TicTacToe, file.getPath());
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(20, lines.size());
+
+        // the agents are new, and skip the first seven games, but each game is still played as before
+        try (PrintWriter writer = new PrintWriter(file)) {
+            for (String line : lines.subList(0, 7))
+                writer.println(line);
+        }
+        RoundRobinTournament resumed = runTournament(randomAgents(), GameType.TicTacToe, file.getPath());
+        assertSameResults(uninterrupted, resumed);
+        assertEquals(lines, Files.readAllLines(file.toPath()));
+    }
+
+    @Test
+    public void lineCutShortInTheOrdinalsIsDropped() throws IOException {
+        File file = File.createTempFile("tournament", ".games");
+        file.deleteOnExit();
+        String line = new GameOutcome(Arrays.asList(0, 1), 12345L, new GameResult[]{
+                WIN_GAME, LOSE_GAME}, new int[]{1, 2}).toLine();
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println(line);
+            writer.print(line.substring(0, line.length() - 1));
+        }
+        TournamentCheckpoint checkpoint = new TournamentCheckpoint(file);
+        assertEquals(1, checkpoint.getLoggedGames());
+        checkpoint.close();
+        assertEquals(Arrays.asList(line), Files.readAllLines(file.toPath()));
+    }
+
+    @Test(expected = AssertionError.class)
+    public void checkpointMustMatchTheTournament() throws IOException {
+        File file = File.createTempFile("tournament", ".games");
+        file.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println(new GameOutcome(Arrays.asList(0, 1), 12345L, new GameResult[]{
+                    WIN_GAME, LOSE_GAME}, new int[]{1, 2}).toLine());
+        }
+        runTournament(file.getPath());
+    }
+}
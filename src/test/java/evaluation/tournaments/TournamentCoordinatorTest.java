@@ -0,0 +1,102 @@
+package evaluation.tournaments;
+
+import core.AbstractPlayer;
+import core.CoreConstants;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.*;
+
+import static evaluation.tournaments.AbstractTournament.TournamentMode.NO_SELF_PLAY;
+import static org.junit.Assert.*;
+
+public class TournamentCoordinatorTest {
+
+    @Test
+    public void outcomeRoundTrip() {
+        GameOutcome outcome = new GameOutcome(Arrays.asList(2, 0, 1), -123L,
+                new CoreConstants.GameResult[]{CoreConstants.GameResult.WIN_GAME, CoreConstants.GameResult.LOSE_GAME, CoreConstants.GameResult.DRAW_GAME},
+                new int[]{1, 3, 2});
+        GameOutcome read = GameOutcome.fromLine(outcome.toLine());
+        assertEquals(outcome.agentIDs, read.agentIDs);
+        assertEquals(outcome.seed, read.seed);
+        assertArrayEquals(outcome.results, read.results);
+        assertArrayEquals(outcome.ordinals, read.ordinals);
+    }
+
+    @Test
+    public void workersPlayEveryGame() throws IOException {
+        File players = Files.createTempDirectory("players").toFile();
+        File work = Files.createTempDirectory("work").toFile();
+        for (int i = 0; i < 2; i++) {
+            try (PrintWriter writer = new PrintWriter(new File(players, "random" + i + ".json"))) {
+                writer.println("{\"class\":\"players.simple.RandomPlayer\"}");
+            }
+        }
+        List<String> command = Arrays.asList(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"), "evaluation.RunGames",
+                "game=TicTacToe", "nPlayers=2", "playerDirectory=" + players.getPath());
+        TournamentCoordinator coordinator = new TournamentCoordinator(work, 2, command);
+
+        List<AbstractPlayer> agents = Arrays.asList(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2)));
+        RoundRobinTournament tournament = new RoundRobinTournament(agents, GameType.TicTacToe, 2, 12,
+                NO_SELF_PLAY, null, false);
+        tournament.setVerbose(false);
+        tournament.setCoordinator(coordinator);
+        tournament.run();
+
+        assertEquals(24, tournament.nGamesPlayed[0]);
+        assertEquals(24, tournament.nGamesPlayed[1]);
+        assertEquals(0, coordinator.getPendingGames());
+        // 24 games in units of 10
+        assertEquals(3, work.listFiles((dir, name) -> name.endsWith(".result")).length);
+        assertEquals(0, work.listFiles((dir, name) -> name.contains(".running-") || name.endsWith(".todo")).length);
+    }
+
+    // On its first run worker 1 claims the only unit and then dies, while worker 0 dies as soon as the unit has been
+    // claimed (so it stays dead, with nothing to restart it for, until worker 1 dies). Later runs play units as normal.
+    public static class CrashingWorker {
+        public static void main(String[] args) throws Exception {
+            File workDir = new File(args[0].substring("workDir=".length()));
+            int id = Integer.parseInt(args[1].substring("worker=".length()));
+            File started = new File(workDir, "started-" + id);
+            if (started.exists()) {
+                new TournamentWorker(workDir, id, Arrays.asList(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2))), "").run();
+                return;
+            }
+            assertTrue(started.createNewFile());
+            File unit = new File(workDir, "unit-00000" + TournamentCoordinator.TODO);
+            if (id == 1) {
+                assertTrue(unit.renameTo(new File(workDir, "unit-00000" + TournamentCoordinator.RUNNING + id)));
+                Thread.sleep(1500);
+            } else {
+                while (unit.exists())
+                    Thread.sleep(10);
+            }
+            System.exit(1);
+        }
+    }
+
+    @Test
+    public void eachWorkerExitIsCountedOnce() throws IOException {
+        File work = Files.createTempDirectory("work").toFile();
+        List<String> command = Arrays.asList(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"), CrashingWorker.class.getName());
+        TournamentCoordinator coordinator = new TournamentCoordinator(work, 2, command);
+        for (int i = 0; i < 5; i++)
+            coordinator.submit(Arrays.asList(0, 1), i);
+
+        // each worker has failed once, so is restarted to play the requeued unit
+        List<GameOutcome> outcomes = coordinator.run(GameType.TicTacToe, 2, false);
+        assertEquals(5, outcomes.size());
+        for (int i = 0; i < 5; i++)
+            assertEquals(i, outcomes.get(i).seed);
+    }
+}
@@ -1,10 +1,12 @@
 package games.dominion;
 
 
+import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.Game;
 import core.components.Deck;
 import core.components.PartialObservableDeck;
+import core.interfaces.IInformationSet;
 import games.GameType;
 import games.dominion.DominionConstants.DeckType;
 import games.dominion.actions.MoatReaction;
@@ -17,6 +19,7 @@ import org.junit.Test;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.stream.IntStream;
 
 import static games.dominion.cards.CardType.*;
@@ -245,4 +248,47 @@ public class TestPartialObservabilityCopy {
 
     }
 
+    @Test
+    public void redeterminisationPreservesCardCounts() {
+        for (int playerId = 0; playerId < 4; playerId++) {
+            DominionGameState myCopy = (DominionGameState) state.copy(playerId);
+            for (int p = 0; p < 4; p++) {
+                assertEquals(state.cardCounts(p, DeckType.ALL), myCopy.cardCounts(p, DeckType.ALL));
+                for (CardType type : CardType.values())
+                    assertEquals(state.cardsOfType(type, p, DeckType.ALL), myCopy.cardsOfType(type, p, DeckType.ALL));
+            }
+            assertEquals(state.cardCounts(playerId, DeckType.HAND), myCopy.cardCounts(playerId, DeckType.HAND));
+        }
+    }
+
+    @Test
+    public void informationSetSamplesLikeRedeterminisation() {
+        DominionGameState fullCopy = (DominionGameState) state.copy();
+        Random rnd = new Random(7);
+        for (int playerId = 0; playerId < 4; playerId++) {
+            IInformationSet informationSet = state.getInformationSet(playerId);
+            AbstractGameState previous = null;
+            for (int i = 0; i < 5; i++) {
+                // samples re-use the previous state, as they would with a GameStatePool
+                DominionGameState sample = (DominionGameState) informationSet.sample(previous, rnd);
+                DominionGameState myCopy = (DominionGameState) state.copy(playerId);
+                assertEquals(state.getDeck(DeckType.HAND, playerId), sample.getDeck(DeckType.HAND, playerId));
+                for (int p = 0; p < 4; p++) {
+                    assertEquals(myCopy.cardCounts(p, DeckType.ALL), sample.cardCounts(p, DeckType.ALL));
+                    PartialObservableDeck<DominionCard> drawPile = (PartialObservableDeck<DominionCard>) sample.getDeck(DeckType.DRAW, p);
+                    for (int j = 0; j < drawPile.getSize(); j++) {
+                        if (drawPile.getVisibilityForPlayer(j, playerId))
+                            assertEquals(state.getDeck(DeckType.DRAW, p).get(j), drawPile.get(j));
+                    }
+                }
+                previous = sample;
+            }
+        }
+        // and the state sampled from is unchanged
+        for (int p = 0; p < 4; p++) {
+            assertEquals(fullCopy.getDeck(DeckType.HAND, p), state.getDeck(DeckType.HAND, p));
+            assertEquals(fullCopy.getDeck(DeckType.DRAW, p), state.getDeck(DeckType.DRAW, p));
+        }
+    }
+
 }
@@ -0,0 +1,80 @@
+package games.terraformingmars;
+
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.terraformingmars.actions.PayForAction;
+import games.terraformingmars.actions.PlayCard;
+import games.terraformingmars.actions.TMAction;
+import games.terraformingmars.components.TMCard;
+import org.junit.Test;
+
+import java.util.*;
+
+import static games.terraformingmars.TMTypes.Resource.MegaCredit;
+import static org.junit.Assert.*;
+
+public class TestAffordableCards {
+
+    TMForwardModel fm;
+    TMGameState state;
+    Random rnd = new Random(21);
+
+    // the cards that the available actions would play
+    private Set<Integer> cardsPlayed(List<AbstractAction> actions) {
+        Set<Integer> retValue = new HashSet<>();
+        for (AbstractAction action : actions) {
+            TMAction a = action instanceof PayForAction ? ((PayForAction) action).action : (TMAction) action;
+            if (a instanceof PlayCard)
+                retValue.add(a.getPlayCardID());
+        }
+        return retValue;
+    }
+
+    // plays random actions until the current player has an action phase decision with several cards in hand
+    private void advanceToActions() {
+        do {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        } while (state.isNotTerminal() && (state.getGamePhase() != TMGameState.TMPhase.Actions || state.isActionInProgress()
+                || state.getPlayerHands()[state.getCurrentPlayer()].getSize() < 4));
+    }
+
+    @Test
+    public void onlyAffordableCardsArePlayable() {
+        Game game = GameType.TerraformingMars.createGameInstance(2, 5);
+        fm = (TMForwardModel) game.getForwardModel();
+        state = (TMGameState) game.getGameState();
+        int unaffordable = 0, affordable = 0;
+
+        for (int decision = 0; decision < 10; decision++) {
+            advanceToActions();
+            assertTrue(state.isNotTerminal());
+            int player = state.getCurrentPlayer();
+            // with the median cost of the cards in hand, we can pay for some but not all of them
+            List<TMCard> hand = state.getPlayerHands()[player].getComponents();
+            int[] costs = hand.stream().mapToInt(c -> c.cost).sorted().toArray();
+            state.getPlayerResources()[player].get(MegaCredit).setValue(costs[costs.length / 2]);
+
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            Set<Integer> played = cardsPlayed(actions);
+            for (TMCard card : hand) {
+                if (card.cost != 0 && !state.canPlayerPay(player, card, null, MegaCredit, card.cost, false)) {
+                    assertFalse(played.contains(card.getComponentID()));
+                    unaffordable++;
+                } else {
+                    // an affordable card is kept if it is otherwise playable
+                    boolean playable = new PlayCard(player, card, false).canBePlayed(state);
+                    assertEquals(playable, played.contains(card.getComponentID()));
+                    if (playable)
+                        affordable++;
+                }
+            }
+            // and this is the same as checking the requirements of every action
+            long allPlayable = fm.getAllActions(state).stream().filter(a -> a != null && ((TMAction) a).canBePlayed(state)).count();
+            assertEquals(allPlayable, actions.size());
+        }
+        assertTrue(unaffordable > 0);
+        assertTrue(affordable > 0);
+    }
+}
@@ -0,0 +1,53 @@
+package players.heuristics;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+public class FlatDecisionTreeTest {
+
+    // If (A <= 0.5) { If (C <= 2.0) 1.0 Else 2.0 } Else 3.0
+    FlatDecisionTree tree = new FlatDecisionTree(new String[]{"A", "B", "C"},
+            new int[]{0, 2, -1, -1, -1},
+            new double[]{0.5, 2.0, 0.0, 0.0, 0.0},
+            new int[]{1, 2, -1, -1, -1},
+            new int[]{4, 3, -1, -1, -1},
+            new double[]{2.0, 1.5, 1.0, 2.0, 3.0});
+
+    @Test
+    public void splitsGoLeftIfAtMostTheThreshold() {
+        assertEquals(1.0, tree.predict(new double[]{0.5, 9.0, 2.0}), 0.0);
+        assertEquals(2.0, tree.predict(new double[]{0.1, 9.0, 2.1}), 0.0);
+        assertEquals(3.0, tree.predict(new double[]{0.6, 9.0, 0.0}), 0.0);
+    }
+
+    @Test
+    public void stateAndActionFeaturesAreConcatenated() {
+        assertEquals(1.0, tree.predict(new double[]{0.5}, new double[]{9.0, 2.0}), 0.0);
+        assertEquals(2.0, tree.predict(new double[]{0.1, 9.0}, new double[]{2.1}), 0.0);
+        assertEquals(3.0, tree.predict(new double[0], new double[]{0.6, 9.0, 0.0}), 0.0);
+    }
+
+    @Test
+    public void writtenTreeIsLoaded() throws IOException {
+        File file = File.createTempFile("DecisionTree", ".txt");
+        file.deleteOnExit();
+        tree.writeToFile(file.getPath());
+        FlatDecisionTree loaded = FlatDecisionTree.loadFromFile(file.getPath());
+        assertEquals(tree.nodes(), loaded.nodes());
+        assertEquals(tree.toString(), loaded.toString());
+        assertEquals(2.0, loaded.predict(new double[]{0.1, 9.0, 2.1}), 0.0);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void childrenMustFollowTheirParent() throws IOException {
+        File file = File.createTempFile("DecisionTree", ".txt");
+        file.deleteOnExit();
+        new FlatDecisionTree(new String[]{"A"}, new int[]{0}, new double[]{0.5}, new int[]{0}, new int[]{0},
+                new double[]{1.0}).writeToFile(file.getPath());
+        FlatDecisionTree.loadFromFile(file.getPath());
+    }
+}
@@ -0,0 +1,85 @@
+package players.learners;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static players.learners.AbstractLearner.Target.WIN;
+import static players.learners.GLMLearner.Link.IDENTITY;
+import static players.learners.GLMLearner.Link.LOGIT;
+
+public class GLMLearnerTest {
+
+    // the columns written by FeatureListener, with two features
+    String[] header = {"GameID", "Player", "Round", "Turn", "CurrentScore", "A", "B",
+            "PlayerCount", "TotalRounds", "ActionScore", "Win", "Ordinal", "FinalScore"};
+    double[] trueCoefficients = {0.5, 2.0, -1.0};
+
+    private List<double[]> generate(int n, boolean logistic, long seed) {
+        Random rnd = new Random(seed);
+        List<double[]> retValue = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            double a = rnd.nextGaussian(), b = rnd.nextDouble() * 3;
+            double eta = trueCoefficients[0] + trueCoefficients[1] * a + trueCoefficients[2] * b;
+            double win = logistic ? (rnd.nextDouble() < 1.0 / (1.0 + Math.exp(-eta)) ? 1.0 : 0.0) : eta + 0.1 * rnd.nextGaussian();
+            retValue.add(new double[]{i, 0, 1, 1, 0, a, b, 2, 1, 0, win, 1, 0});
+        }
+        return retValue;
+    }
+
+    @Test
+    public void linearFitRecoversCoefficients() {
+        GLMLearner learner = new GLMLearner(1.0, WIN, IDENTITY, 0.0, 4);
+        learner.learnFrom(header, generate(5000, false, 1));
+        assertArrayEquals(trueCoefficients, learner.getCoefficients(), 0.01);
+    }
+
+    @Test
+    public void logisticFitRecoversCoefficients() {
+        GLMLearner learner = new GLMLearner(1.0, WIN, LOGIT, 0.0, 4);
+        learner.learnFrom(header, generate(50000, true, 2));
+        assertArrayEquals(trueCoefficients, learner.getCoefficients(), 0.1);
+        assertTrue(learner.iterations < GLMLearner.MAX_ITERATIONS);
+    }
+
+    @Test
+    public void threadsDoNotChangeTheFit() {
+        List<double[]> data = generate(2000, true, 3);
+        GLMLearner single = new GLMLearner(1.0, WIN, LOGIT, 0.1, 1);
+        single.learnFrom(header, data);
+        GLMLearner multi = new GLMLearner(1.0, WIN, LOGIT, 0.1, 8);
+        multi.learnFrom(header, data);
+        assertArrayEquals(single.getCoefficients(), multi.getCoefficients(), 1e-9);
+    }
+
+    @Test
+    public void regularisationShrinksCoefficients() {
+        List<double[]> data = generate(2000, false, 4);
+        GLMLearner free = new GLMLearner(1.0, WIN, IDENTITY, 0.0, 2);
+        free.learnFrom(header, data);
+        GLMLearner penalised = new GLMLearner(1.0, WIN, IDENTITY, 1.0, 2);
+        penalised.learnFrom(header, data);
+        assertTrue(Math.abs(penalised.getCoefficients()[1]) < Math.abs(free.getCoefficients()[1]));
+        assertTrue(Math.abs(penalised.getCoefficients()[2]) < Math.abs(free.getCoefficients()[2]));
+    }
+
+    @Test
+    public void coefficientsFileHasFeatureNames() throws IOException {
+        GLMLearner learner = new GLMLearner(1.0, WIN, IDENTITY, 0.0, 1);
+        learner.learnFrom(header, generate(100, false, 5));
+        File file = File.createTempFile("GLM", "");
+        file.deleteOnExit();
+        learner.writeToFile(file.getPath());
+        File written = new File(file.getPath() + ".txt");
+        written.deleteOnExit();
+        List<String> lines = Files.readAllLines(written.toPath());
+        assertEquals("BIAS\tA\tB", lines.get(0));
+        assertEquals(3, lines.get(1).split("\t").length);
+    }
+}
@@ -0,0 +1,81 @@
+package players.mcts;
+
+import core.actions.AbstractAction;
+import core.actions.DoNothing;
+import core.actions.DrawCard;
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class MASTTableTests {
+
+    MASTTable table = new MASTTable(2);
+
+    @Test
+    public void updatesAreHeldPerPlayerAndAction() {
+        long a = MASTTable.key(null, new DrawCard(0, 1, 2));
+        long b = MASTTable.key(null, new DrawCard(0, 2, 1));
+        table.update(0, a, 1.0);
+        table.update(0, a, 0.0);
+        table.update(0, b, 0.5);
+        table.update(1, a, -1.0);
+
+        assertEquals(2.0, table.getVisits(0, a), 1e-9);
+        assertEquals(0.5, table.getMeanValue(0, a, 99.0), 1e-9);
+        assertEquals(0.5, table.getMeanValue(0, b, 99.0), 1e-9);
+        assertEquals(-1.0, table.getMeanValue(1, a, 99.0), 1e-9);
+        assertEquals(99.0, table.getMeanValue(1, b, 99.0), 1e-9);
+        assertEquals(2, table.size(0));
+        assertEquals(1, table.size(1));
+    }
+
+    @Test
+    public void equalActionsShareAKey() {
+        AbstractAction a = new DrawCard(0, 1, 2);
+        assertEquals(MASTTable.key(null, a), MASTTable.key(null, a.copy()));
+        assertNotEquals(MASTTable.key(null, a), MASTTable.key(null, new DoNothing()));
+    }
+
+    @Test
+    public void decayDiscountsOldDataButNotTheMean() {
+        long a = 42L;
+        for (int i = 0; i < 4; i++)
+            table.update(0, a, 1.0);
+        table.decay(0.5);
+        assertEquals(2.0, table.getVisits(0, a), 1e-9);
+        assertEquals(2.0, table.getTotalValue(0, a), 1e-9);
+        assertEquals(1.0, table.getMeanValue(0, a, 0.0), 1e-9);
+
+        // new data now counts for twice as much as the old
+        table.update(0, a, 0.0);
+        table.update(0, a, 0.0);
+        assertEquals(4.0, table.getVisits(0, a), 1e-9);
+        assertEquals(0.5, table.getMeanValue(0, a, 0.0), 1e-9);
+
+        table.decay(0.0);
+        assertEquals(0, table.size(0));
+        assertEquals(0.0, table.getVisits(0, a), 1e-9);
+    }
+
+    @Test
+    public void repeatedDecayIsRescaled() {
+        long a = 1L, b = 2L;
+        table.update(0, a, 1.0);
+        for (int i = 0; i < 1000; i++)
+            table.decay(0.5);
+        table.update(0, b, 1.0);
+        assertEquals(1.0, table.getVisits(0, b), 1e-9);
+        assertEquals(0.0, table.getVisits(0, a), 1e-9);
+        // with less than one visit, we fall back to the default
+        assertEquals(-1.0, table.getMeanValue(0, a, -1.0), 1e-9);
+    }
+
+    @Test
+    public void tableGrowsAsNeeded() {
+        for (long k = 0; k < 1000; k++)
+            table.update(1, k * 7919, k);
+        assertEquals(1000, table.size(1));
+        for (long k = 0; k < 1000; k++)
+            assertEquals(k, table.getMeanValue(1, k * 7919, -1.0), 1e-9);
+    }
+}
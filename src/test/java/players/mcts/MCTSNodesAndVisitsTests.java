@@ -107,6 +107,16 @@ public class MCTSNodesAndVisitsTests {
         runGame(game, 4, new int[0], new int[0]);
     }
 
+    @Test
+    public void cachedInformationSet() {
+        params.maxTreeDepth = 3;
+        params.cacheInformationSet = true;
+        params.poolStates = true;
+        Game game = createGame(params);
+        runGame(game, 4, new int[0], new int[0]);
+        assertNotNull(mctsPlayer.getRoot(0).informationSet);
+    }
+
     private void runGame(Game game, int moves, int[] expectedNodes, int[] errorMargin) {
         int counter = 0;
         AbstractGameState state = game.getGameState();
@@ -0,0 +1,224 @@
+package players.mcts;
+
+import core.*;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.tictactoe.TicTacToeForwardModel;
+import games.tictactoe.TicTacToeGameParameters;
+import games.tictactoe.TicTacToeGameState;
+import org.junit.*;
+import players.IPonderingPlayer;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PonderingTests {
+
+    TestMCTSPlayer mctsPlayer;
+    MCTSParams params;
+    Game game;
+    AbstractForwardModel fm = new TicTacToeForwardModel();
+
+    @Before
+    public void setup() {
+        params = new MCTSParams(9332);
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.OneTree;
+        params.information = MCTSEnums.Information.Information_Set;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 200;
+        params.ponder = true;
+        mctsPlayer = new TestMCTSPlayer(params, null);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(3023)));
+        game = new Game(GameType.TicTacToe, players, fm, new TicTacToeGameState(new TicTacToeGameParameters(330245), players.size()));
+    }
+
+    @After
+    public void tearDown() {
+        mctsPlayer.stopPondering();
+    }
+
+    private AbstractAction takeAction() {
+        AbstractGameState state = game.getGameState();
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        AbstractAction action = actions.get(0);
+        fm.next(state, action);
+        return action;
+    }
+
+    @Test
+    public void ponderTreeIsReusedForNextDecision() throws InterruptedException {
+        AbstractGameState state = game.getGameState();
+        takeAction();  // our move
+        assertEquals(1, state.getCurrentPlayer());
+
+        mctsPlayer.registerUpdatedObservation(state.copy(0));
+        assertTrue(mctsPlayer.isPondering());
+        Thread.sleep(200);
+        mctsPlayer.stopPondering();
+        assertTrue(mctsPlayer.getPonderTime() >= 0.0);
+
+        takeAction();  // opponent's move
+        assertEquals(0, state.getCurrentPlayer());
+        AbstractGameState observation = state.copy(0);
+        mctsPlayer.getAction(observation, fm.computeAvailableActions(observation));
+
+        SingleTreeNode root = mctsPlayer.getRoot(0);
+        assertNull(root.parent);
+        assertEquals(0, root.decisionPlayer);
+        assertEquals(0, root.depth);
+        // the search from the pondered tree adds to the visits it already had
+        assertTrue(root.getVisits() > params.budget);
+        for (SingleTreeNode node : root.allNodesInTree()) {
+            assertSame(root, node.root);
+            assertTrue(node.depth >= 0);
+        }
+    }
+
+    @Test
+    public void ponderingStopsAtItsBudget() throws InterruptedException {
+        params.ponderBudget = 50;
+        AbstractGameState state = game.getGameState();
+        takeAction();
+        mctsPlayer.registerUpdatedObservation(state.copy(0));
+        Thread.sleep(200);
+        mctsPlayer.stopPondering();
+        takeAction();
+        AbstractGameState observation = state.copy(0);
+        mctsPlayer.getAction(observation, fm.computeAvailableActions(observation));
+        // the re-used part of the tree has at most the ponder budget of visits, to which the search adds its own
+        int visits = mctsPlayer.getRoot(0).getVisits();
+        assertTrue(visits > params.budget);
+        assertTrue(visits <= params.budget + params.ponderBudget + 1);
+    }
+
+    @Test
+    public void noReuseWithoutPondering() {
+        params.ponder = false;
+        AbstractGameState state = game.getGameState();
+        takeAction();
+        mctsPlayer.registerUpdatedObservation(state.copy(0));
+        assertFalse(mctsPlayer.isPondering());
+        takeAction();
+        AbstractGameState observation = state.copy(0);
+        mctsPlayer.getAction(observation, fm.computeAvailableActions(observation));
+        assertEquals(params.budget, mctsPlayer.getRoot(0).getVisits(), 2);
+    }
+
+    @Test
+    public void closedLoopDoesNotReuseTree() {
+        params.information = MCTSEnums.Information.Closed_Loop;
+        params.discardStateAfterEachIteration = false;
+        AbstractGameState state = game.getGameState();
+        takeAction();
+        mctsPlayer.registerUpdatedObservation(state.copy(0));
+        mctsPlayer.stopPondering();
+        takeAction();
+        AbstractGameState observation = state.copy(0);
+        mctsPlayer.getAction(observation, fm.computeAvailableActions(observation));
+        assertEquals(params.budget, mctsPlayer.getRoot(0).getVisits(), 2);
+    }
+
+    @Test
+    public void MASTDecaysOncePerDecision() {
+        params.information = MCTSEnums.Information.Closed_Loop;
+        params.discardStateAfterEachIteration = false;
+        params.MASTGamma = 0.5;
+        AbstractGameState state = game.getGameState();
+        AbstractGameState observation = state.copy(0);
+        mctsPlayer.getAction(observation, fm.computeAvailableActions(observation));
+        int[] decays = new int[1];
+        mctsPlayer.MASTStats = new MASTTable(2) {
+            @Override
+            public void decay(double gamma) {
+                decays[0]++;
+                super.decay(gamma);
+            }
+        };
+        takeAction();
+
+        // in closed loop each ponder starts a new tree, but the statistics are only decayed once before we decide
+        mctsPlayer.registerUpdatedObservation(state.copy(0));
+        mctsPlayer.registerUpdatedObservation(state.copy(0));
+        mctsPlayer.stopPondering();
+        takeAction();
+        observation = state.copy(0);
+        mctsPlayer.getAction(observation, fm.computeAvailableActions(observation));
+        assertEquals(1, decays[0]);
+        // and again for the next decision
+        takeAction();
+        takeAction();
+        observation = state.copy(0);
+        mctsPlayer.getAction(observation, fm.computeAvailableActions(observation));
+        assertEquals(2, decays[0]);
+    }
+
+    // plays at random, and counts the observations it is sent
+    static class PonderingRandomPlayer extends RandomPlayer implements IPonderingPlayer {
+        final boolean pondering;
+        int observations;
+
+        PonderingRandomPlayer(long seed, boolean pondering) {
+            super(new Random(seed));
+            this.pondering = pondering;
+        }
+
+        @Override
+        public void registerUpdatedObservation(AbstractGameState gameState) {
+            observations++;
+        }
+
+        @Override
+        public boolean isPondering() {
+            return pondering;
+        }
+
+        @Override
+        public void stopPondering() {
+        }
+
+        @Override
+        public double getPonderTime() {
+            return 0.0;
+        }
+
+        @Override
+        public void setBudget(int budget) {
+        }
+
+        @Override
+        public int getBudget() {
+            return 0;
+        }
+    }
+
+    private Game playDominion(boolean pondering) {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int p = 0; p < 3; p++)
+            players.add(new PonderingRandomPlayer(p, pondering));
+        Game dominion = GameType.Dominion.createGameInstance(3, 6014);
+        dominion.reset(players);
+        dominion.run();
+        return dominion;
+    }
+
+    @Test
+    public void ponderingDoesNotChangeTheGame() {
+        // Dominion redeterminises each observation of the state with the random number generator of the state
+        Game withoutPondering = playDominion(false);
+        Game withPondering = playDominion(true);
+        // (players are also sent their own observation when they have only one action)
+        assertTrue(((PonderingRandomPlayer) withPondering.getPlayers().get(0)).observations >
+                ((PonderingRandomPlayer) withoutPondering.getPlayers().get(0)).observations);
+
+        AbstractGameState expected = withoutPondering.getGameState(), actual = withPondering.getGameState();
+        assertEquals(expected.getHistoryAsText(), actual.getHistoryAsText());
+        assertArrayEquals(expected.getPlayerResults(), actual.getPlayerResults());
+        for (int p = 0; p < 3; p++)
+            assertEquals(expected.getGameScore(p), actual.getGameScore(p), 1e-9);
+    }
+}
@@ -0,0 +1,126 @@
+package players.mcts;
+
+import core.*;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.connect4.Connect4ForwardModel;
+import games.connect4.Connect4GameParameters;
+import games.connect4.Connect4GameState;
+import org.junit.*;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TranspositionTableTests {
+
+    TestMCTSPlayer mctsPlayer;
+    MCTSParams params;
+    AbstractForwardModel fm = new Connect4ForwardModel();
+
+    @Before
+    public void setup() {
+        params = new MCTSParams(9332);
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.OneTree;
+        params.information = MCTSEnums.Information.Closed_Loop;
+        params.discardStateAfterEachIteration = false;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 2000;
+        params.transpositionTableSize = 100000;
+    }
+
+    // the number of times each node has been reached from each of its parents
+    Map<SingleTreeNode, Map<SingleTreeNode, Integer>> edgeTraversals = new IdentityHashMap<>();
+
+    // records the edges along the path taken by each iteration
+    private SingleTreeNode countingNode() {
+        return new SingleTreeNode() {
+            @Override
+            protected void oneSearchIteration() {
+                super.oneSearchIteration();
+                for (int i = 1; nodesInTree != null && i < nodesInTree.size(); i++)
+                    edgeTraversals.computeIfAbsent(nodesInTree.get(i), n -> new IdentityHashMap<>())
+                            .merge(nodesInTree.get(i - 1), 1, Integer::sum);
+            }
+        };
+    }
+
+    private Game createGame() {
+        mctsPlayer = new TestMCTSPlayer(params, this::countingNode);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(3023)));
+        return new Game(GameType.Connect4, players, fm, new Connect4GameState(new Connect4GameParameters(330245), players.size()));
+    }
+
+    private SingleTreeNode search(Game game) {
+        AbstractGameState state = game.getGameState();
+        mctsPlayer.getAction(state, fm.computeAvailableActions(state));
+        return mctsPlayer.getRoot(0);
+    }
+
+    @Test
+    public void transpositionsShareNodes() {
+        SingleTreeNode root = search(createGame());
+        assertEquals(2000, root.getVisits());
+        assertTrue(root.transpositions.getHits() > 0);
+
+        // some nodes are now the child of more than one node
+        List<SingleTreeNode> nodes = root.allNodesInTree();
+        int links = nodes.stream().mapToInt(n -> (int) n.children.values().stream().filter(Objects::nonNull)
+                .flatMap(Arrays::stream).filter(Objects::nonNull).count()).sum();
+        assertTrue(links > nodes.size() - 1);
+        assertEquals(root.transpositions.size(), nodes.size());
+
+        // and each node has been visited on every iteration through it, whichever parent it was reached from
+        assertFalse(edgeTraversals.containsKey(root));
+        int sharedNodes = 0;
+        for (SingleTreeNode node : nodes) {
+            if (node == root)
+                continue;
+            Map<SingleTreeNode, Integer> incoming = edgeTraversals.get(node);
+            assertNotNull(incoming);
+            assertEquals(node.getVisits(), incoming.values().stream().mapToInt(Integer::intValue).sum());
+            if (incoming.size() > 1)
+                sharedNodes++;
+        }
+        assertTrue(sharedNodes > 0);
+    }
+
+    @Test
+    public void treeIsNotReusedWhenPondering() {
+        Game game = createGame();
+        SingleTreeNode root = search(game);
+        AbstractGameState state = game.getGameState().copy();
+        AbstractAction action = fm.computeAvailableActions(state).get(0);
+        fm.next(state, action);
+        assertNull(root.reRoot(Collections.singletonList(action), state, mctsPlayer));
+    }
+
+    @Test
+    public void nodesAreCappedAtTableSize() {
+        params.transpositionTableSize = 200;
+        SingleTreeNode root = search(createGame());
+        assertEquals(2000, root.getVisits());
+        assertEquals(200, root.transpositions.size());
+        assertEquals(200, root.allNodesInTree().size());
+        assertEquals(200, new TreeStatistics(root).totalNodes);
+    }
+
+    @Test
+    public void notUsedInOpenLoop() {
+        params.information = MCTSEnums.Information.Open_Loop;
+        SingleTreeNode root = search(createGame());
+        assertNull(root.transpositions);
+    }
+
+    @Test
+    public void playsAFullGame() {
+        params.budget = 200;
+        Game game = createGame();
+        game.run();
+        assertFalse(game.getGameState().isNotTerminal());
+    }
+}
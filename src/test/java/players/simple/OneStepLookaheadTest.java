@@ -0,0 +1,78 @@
+package players.simple;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OneStepLookaheadTest {
+
+    Random rnd = new Random(40);
+
+    /**
+     * Plays random games, checking at every decision that the values from four threads are the same as from one
+     */
+    private void checkParallelMatchesSequential(GameType gameType, int nPlayers) {
+        for (int seed = 0; seed < 3; seed++) {
+            Game game = gameType.createGameInstance(nPlayers, seed);
+            AbstractForwardModel fm = game.getForwardModel();
+            AbstractGameState state = game.getGameState();
+            OneStepLookahead sequential = new OneStepLookahead(null, 1, seed);
+            OneStepLookahead parallel = new OneStepLookahead(null, 4, seed);
+            sequential.setForwardModel(fm);
+            parallel.setForwardModel(fm);
+
+            while (state.isNotTerminal()) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                AbstractGameState before = state.copy();
+                double[] expected = sequential.evaluateAllActions(actions, state);
+                double[] actual = parallel.evaluateAllActions(actions, state);
+                assertArrayEquals(expected, actual, 0.0);
+                assertEquals(fm.computeAvailableActions(before), fm.computeAvailableActions(state));
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+        }
+    }
+
+    @Test
+    public void ticTacToe() {
+        checkParallelMatchesSequential(GameType.TicTacToe, 2);
+    }
+
+    @Test
+    public void dotsAndBoxes() {
+        checkParallelMatchesSequential(GameType.DotsAndBoxes, 3);
+    }
+
+    @Test
+    public void parallelOSLAPlaysPandemic() {
+        // the rule-based forward model keeps state, so cannot be shared between threads
+        Game game = GameType.Pandemic.createGameInstance(2, 23);
+        game.reset(Arrays.asList(new OSLAPlayer(null, new Random(1), 4), new OSLAPlayer(null, new Random(2), 4)));
+        for (int decision = 0; decision < 100 && game.getGameState().isNotTerminal(); decision++)
+            assertNotNull(game.oneAction());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void forwardModelMustBeSet() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 3);
+        AbstractGameState state = game.getGameState();
+        new OneStepLookahead(null, 2, 3).evaluateAllActions(game.getForwardModel().computeAvailableActions(state), state);
+    }
+
+    @Test
+    public void parallelOSLAPlaysAGame() {
+        Game game = GameType.Connect4.createGameInstance(2, 17);
+        game.reset(Arrays.asList(new OSLAPlayer(null, new Random(1), 4), new OSLAPlayer(null, new Random(2), 1)));
+        game.run();
+        assertFalse(game.getGameState().isNotTerminal());
+    }
+}
@@ -0,0 +1,68 @@
+package utilities;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import core.interfaces.ITreeActionSpace;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ActionTreeNodeTest {
+
+    @Test
+    public void leafMaskMatchesValidActions() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 11);
+        AbstractForwardModel fm = game.getForwardModel();
+        ITreeActionSpace treeSpace = (ITreeActionSpace) fm;
+        AbstractGameState state = game.getGameState();
+        ActionTreeNode root = treeSpace.initActionTree(state);
+        Random rnd = new Random(11);
+
+        while (state.isNotTerminal()) {
+            root = treeSpace.updateActionTree(root, state);
+            int[] mask = root.getLeafMask();
+            List<ActionTreeNode> leaves = root.getLeafNodes();
+            // the leaves are the cells, X then Y, and only the empty cells are valid
+            assertEquals(9, mask.length);
+            List<AbstractAction> available = fm.computeAvailableActions(state);
+            Set<AbstractAction> fromMask = new HashSet<>();
+            for (int i = 0; i < mask.length; i++) {
+                assertEquals(leaves.get(i).getValue(), mask[i]);
+                assertEquals("Y" + (i % 3), leaves.get(i).getName());
+                if (mask[i] == 1)
+                    fromMask.add(leaves.get(i).getAction());
+                else
+                    assertNull(leaves.get(i).getAction());
+            }
+            assertEquals(new HashSet<>(available), fromMask);
+            assertEquals(available.size(), root.getValidLeaves().size());
+
+            fm.next(state, available.get(rnd.nextInt(available.size())));
+        }
+    }
+
+    @Test
+    public void leafMaskFollowsChangesToTheTree() {
+        ActionTreeNode root = new ActionTreeNode(0, "root");
+        ActionTreeNode a = root.addChild(0, "a");
+        ActionTreeNode a1 = a.addChild(0, "a1");
+        ActionTreeNode b = root.addChild(1, "b");
+        assertArrayEquals(new int[]{1, 0}, root.getLeafMask());
+
+        a1.setValue(1);
+        assertArrayEquals(new int[]{1, 1}, root.getLeafMask());
+        root.resetTree();
+        assertArrayEquals(new int[]{0, 0}, root.getLeafMask());
+        assertEquals(0, a.getValue());
+
+        // a new leaf changes the structure, so the mask is rebuilt
+        b.addChild(1, "b1");
+        assertArrayEquals(new int[]{0, 1}, root.getLeafMask());
+        assertSame(root.findChildrenByName("b1"), root.getLeafNodes().get(1));
+    }
+}
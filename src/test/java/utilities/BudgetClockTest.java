@@ -0,0 +1,88 @@
+package utilities;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BudgetClockTest {
+
+    // a CPU timer that only moves when we say so
+    static class FakeTimer extends ElapsedCpuTimer {
+        long now;
+
+        void advanceMillis(double millis) {
+            now += (long) (millis * 1e6);
+        }
+
+        @Override
+        protected long getTime() {
+            return now;
+        }
+    }
+
+    FakeTimer timer = new FakeTimer();
+
+    // runs iterations of the given cost until the clock says stop, and returns the number run
+    private int runUntilStopped(BudgetClock clock, double iterationMillis) {
+        int iterations = 0;
+        do {
+            timer.advanceMillis(iterationMillis);
+            iterations++;
+        } while (clock.checkBudget() && iterations < 1000000);
+        return iterations;
+    }
+
+    @Test
+    public void stopsAtTheBreak() {
+        BudgetClock clock = new BudgetClock(timer, 100, 10, 2.0);
+        int iterations = runUntilStopped(clock, 1.0);
+        // we stop once no more than 10ms remain, and the clock is read often enough not to pass half of the slack
+        assertTrue(iterations >= 90);
+        assertTrue(iterations <= 95);
+        assertEquals(iterations, clock.getIterations());
+        assertTrue(clock.getChecks() < iterations / 2);
+    }
+
+    @Test
+    public void stopsWithTimeForTheSafetyIterations() {
+        BudgetClock clock = new BudgetClock(timer, 100, 0, 10.0);
+        int iterations = runUntilStopped(clock, 5.0);
+        // ten iterations of 5ms need 50ms, so we stop once we have used half of the budget
+        assertTrue(iterations >= 10);
+        assertTrue(iterations * 5.0 <= 75.0);
+    }
+
+    @Test
+    public void noBudgetStopsAtOnce() {
+        assertFalse(new BudgetClock(timer, 0, 0, 0.0).checkBudget());
+        // a break as long as the budget leaves no time either
+        assertFalse(new BudgetClock(timer, 50, 50, 0.0).checkBudget());
+    }
+
+    @Test
+    public void checkIntervalAtMostDoubles() {
+        BudgetClock clock = new BudgetClock(timer, 1000, 0, 0.0);
+        // while the clock does not move there is no end to the budget, and the interval between readings doubles
+        for (int i = 0; i < 1023; i++)
+            assertTrue(clock.checkBudget());
+        assertEquals(10, clock.getChecks());
+
+        // once the budget is used, we stop at the next reading of the clock
+        timer.advanceMillis(1000);
+        int iterations = 0;
+        while (clock.checkBudget())
+            iterations++;
+        assertEquals(1023, iterations);
+        assertEquals(11, clock.getChecks());
+    }
+
+    @Test
+    public void elapsedMillisAlwaysReadsTheClock() {
+        BudgetClock clock = new BudgetClock(timer, 100, 0, 0.0);
+        timer.advanceMillis(12.5);
+        assertEquals(12.5, clock.elapsedMillis(), 1e-9);
+        assertEquals(12.5, clock.elapsedMillis(), 1e-9);
+        assertEquals(2, clock.getChecks());
+        assertEquals(0, clock.getIterations());
+    }
+}